@@ -0,0 +1,88 @@
+package io.github.pgmarc.space;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.pgmarc.space.codec.JsonCodec;
+import io.github.pgmarc.space.features.FeatureEvaluationResult;
+import io.github.pgmarc.space.features.UsageLimitConsumption;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Client side cost of a feature evaluation through
+ * {@link FeaturesEndpoint#evaluate} compared with a prepared
+ * {@link FeatureHandle}. Requests never leave the JVM: an interceptor
+ * answers with a canned evaluation, so only request building and response
+ * decoding are measured. Lives in the client package to build the endpoint
+ * on top of that OkHttp client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeatureHandleBenchmark {
+
+    private static final String USER_ID = "e8e053c5-fd2b-4e4c-85a0-f1a52f0da72e";
+    private static final MediaType JSON = MediaType.get("application/json");
+    private static final String EVALUATION = "{\"eval\":true,\"used\":{\"petclinic-featureALimit\":100},"
+        + "\"limit\":{\"petclinic-featureALimit\":500},\"error\":null}";
+
+    private FeaturesEndpoint endpoint;
+    private FeatureHandle handle;
+    private UsageLimitConsumption consumption;
+
+    @Setup
+    public void setup() {
+        OkHttpClient client = new OkHttpClient.Builder()
+            .addInterceptor(chain -> new Response.Builder()
+                .request(chain.request())
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .body(ResponseBody.create(EVALUATION, JSON))
+                .build())
+            .build();
+        endpoint = new FeaturesEndpoint(new CallExecutor(client), HttpUrl.get("http://localhost:5403/api/v1"), "benchmark",
+            JsonCodec.defaults(), null, null);
+        handle = endpoint.prepare("Petclinic", "featureA");
+        consumption = UsageLimitConsumption.builder("Petclinic").addInt("featureALimit", 1).build();
+    }
+
+    @Benchmark
+    public FeatureEvaluationResult evaluate() throws IOException {
+        return endpoint.evaluate(USER_ID, "Petclinic", "featureA");
+    }
+
+    @Benchmark
+    public FeatureEvaluationResult evaluateWithHandle() throws IOException {
+        return handle.evaluate(USER_ID);
+    }
+
+    @Benchmark
+    public FeatureEvaluationResult evaluateOptimistically() throws IOException {
+        return endpoint.evaluateOptimistically(USER_ID, "Petclinic", "featureA", consumption);
+    }
+
+    @Benchmark
+    public FeatureEvaluationResult evaluateOptimisticallyWithHandle() throws IOException {
+        return handle.evaluateOptimistically(USER_ID, consumption);
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.pgmarc.space.benchmarks;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.pgmarc.space.CachePolicy;
+import io.github.pgmarc.space.SpaceClient;
+import io.github.pgmarc.space.contracts.Subscription;
+
+/**
+ * <code>getContractByUserId</code> against a local SPACE stub for user ids
+ * drawn from a Zipfian distribution (s = 1), without a contract cache and
+ * with caches sized for a share of the users. Entries expire after 1 s,
+ * optionally refreshed in the background from 500 ms on. The cache stats of
+ * each trial are printed when it ends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class ContractCacheBenchmark {
+
+    private static final String SUBSCRIPTION = "{\"id\":\"68050bd09890322c57842f6f\","
+        + "\"userContact\":{\"userId\":\"01c36d29-0d6a-4b41-83e9-8c6d9310c508\",\"username\":\"johndoe\"},"
+        + "\"billingPeriod\":{\"startDate\":\"2025-01-01T00:00:00Z\",\"endDate\":\"2025-12-31T00:00:00Z\","
+        + "\"autoRenew\":true,\"renewalDays\":365},"
+        + "\"usageLevels\":{\"petclinic\":{\"maxPets\":{\"consumed\":2},"
+        + "\"maxVisits\":{\"consumed\":5,\"resetTimeStamp\":\"2025-07-31T00:00:00Z\"}}},"
+        + "\"contractedServices\":{\"zoom\":\"2025\",\"petclinic\":\"2024\"},"
+        + "\"subscriptionPlans\":{\"zoom\":\"ENTERPRISE\",\"petclinic\":\"GOLD\"},"
+        + "\"subscriptionAddOns\":{\"zoom\":{\"extraSeats\":2,\"hugeMeetings\":1},"
+        + "\"petclinic\":{\"petsAdoptionCentre\":1}},"
+        + "\"history\":[]}";
+    private static final int SUBSCRIPTION_WEIGHT = 1300;
+    private static final int SAMPLES = 1 << 20;
+
+    @Param({"10000"})
+    public int users;
+
+    /**
+     * Percentage of the users whose contracts fit in the cache, 0 disables it.
+     */
+    @Param({"0", "1", "10"})
+    public int cachedShare;
+
+    /**
+     * Milliseconds after which entries are refreshed in the background, 0
+     * disables refresh-ahead.
+     */
+    @Param({"0", "500"})
+    public int refreshAfterWriteMillis;
+
+    private StubSpaceServer server;
+    private SpaceClient client;
+    private String[] userIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = StubSpaceServer.start(SUBSCRIPTION, Duration.ZERO);
+        SpaceClient.Builder builder = SpaceClient.builder("localhost", "benchmark").withPort(server.port());
+        if (cachedShare > 0) {
+            CachePolicy.Builder policy = CachePolicy.builder()
+                .maximumWeight((long) users * cachedShare / 100 * SUBSCRIPTION_WEIGHT)
+                .expireAfterWrite(Duration.ofSeconds(1));
+            if (refreshAfterWriteMillis > 0) {
+                policy.refreshAfterWrite(Duration.ofMillis(refreshAfterWriteMillis));
+            }
+            builder.withContractCache(policy.build());
+        }
+        client = builder.build();
+        userIds = zipfian(users, SAMPLES, new Random(42));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println();
+        System.out.println(client.getContractCacheStats());
+        System.out.printf("hit rate: %.3f%n", client.getContractCacheStats().getHitRate());
+        server.close();
+    }
+
+    @Benchmark
+    public Subscription getContract() throws IOException {
+        String userId = userIds[next++ & (SAMPLES - 1)];
+        return client.contracts().getContractByUserId(userId);
+    }
+
+    private static String[] zipfian(int users, int samples, Random random) {
+        double[] cumulative = new double[users];
+        double sum = 0;
+        for (int i = 0; i < users; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+        String[] res = new String[samples];
+        for (int i = 0; i < samples; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            res[i] = "user-" + (rank < 0 ? -rank - 1 : rank);
+        }
+        return res;
+    }
+}
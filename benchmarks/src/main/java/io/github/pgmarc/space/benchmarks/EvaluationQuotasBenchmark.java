@@ -0,0 +1,62 @@
+package io.github.pgmarc.space.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.pgmarc.space.deserializers.FeatureEvaluationDeserializer;
+import io.github.pgmarc.space.features.FeatureEvaluationResult;
+import io.github.pgmarc.space.json.JsonReader;
+import okio.Buffer;
+import okio.ByteString;
+
+/**
+ * Streaming decoding of evaluations carrying many usage limits, half of
+ * them integral and half decimal. Run with <code>-prof gc</code> to see the
+ * bytes allocated per usage limit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationQuotasBenchmark {
+
+    @Param({"2", "50"})
+    public int quotas;
+
+    private final FeatureEvaluationDeserializer deserializer = new FeatureEvaluationDeserializer("Petclinic");
+
+    private ByteString evaluation;
+
+    @Setup
+    public void setup() {
+        StringBuilder used = new StringBuilder();
+        StringBuilder limit = new StringBuilder();
+        for (int i = 0; i < quotas; i++) {
+            String separator = i == 0 ? "" : ",";
+            String name = "\"petclinic-limit" + i + "\":";
+            used.append(separator).append(name).append(i % 2 == 0 ? "7" : "7.5");
+            limit.append(separator).append(name).append(i % 2 == 0 ? "100" : "100.25");
+        }
+        evaluation = ByteString.encodeUtf8("{\"eval\":true,\"used\":{" + used + "},\"limit\":{" + limit
+            + "},\"error\":null}");
+    }
+
+    @Benchmark
+    public FeatureEvaluationResult evaluation() throws IOException {
+        return deserializer.readJson(JsonReader.of(new Buffer().write(evaluation)));
+    }
+}
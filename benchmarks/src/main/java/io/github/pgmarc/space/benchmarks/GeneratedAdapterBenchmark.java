@@ -0,0 +1,98 @@
+package io.github.pgmarc.space.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.pgmarc.space.adapters.FeatureEvaluationResultJsonAdapter;
+import io.github.pgmarc.space.adapters.SubscriptionJsonAdapter;
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.deserializers.FeatureEvaluationDeserializer;
+import io.github.pgmarc.space.deserializers.SubscriptionDeserializer;
+import io.github.pgmarc.space.features.FeatureEvaluationResult;
+import io.github.pgmarc.space.json.JsonReader;
+import io.github.pgmarc.space.json.JsonWriter;
+import okio.Buffer;
+import okio.ByteString;
+
+/**
+ * Adapters generated from <code>JsonMappings</code> against the hand-written
+ * streaming deserializers, on the same documents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneratedAdapterBenchmark {
+
+    private final SubscriptionDeserializer subscriptionDeserializer = new SubscriptionDeserializer();
+    private final SubscriptionJsonAdapter subscriptionAdapter = new SubscriptionJsonAdapter();
+    private final FeatureEvaluationDeserializer evaluationDeserializer = new FeatureEvaluationDeserializer("Petclinic");
+    private final FeatureEvaluationResultJsonAdapter evaluationAdapter =
+        new FeatureEvaluationResultJsonAdapter("Petclinic");
+
+    private ByteString contract;
+    private ByteString evaluation;
+    private Subscription subscription;
+
+    @Setup
+    public void setup() throws IOException {
+        contract = ByteString.encodeUtf8("{\"id\":\"68050bd09890322c57842f6f\","
+            + "\"userContact\":{\"userId\":\"01c36d29-0d6a-4b41-83e9-8c6d9310c508\",\"username\":\"johndoe\"},"
+            + "\"billingPeriod\":{\"startDate\":\"2025-01-01T00:00:00Z\",\"endDate\":\"2025-12-31T00:00:00Z\","
+            + "\"autoRenew\":true,\"renewalDays\":365},"
+            + "\"usageLevels\":{\"petclinic\":{\"maxPets\":{\"consumed\":2},"
+            + "\"maxVisits\":{\"consumed\":5,\"resetTimeStamp\":\"2025-07-31T00:00:00Z\"}}},"
+            + "\"contractedServices\":{\"zoom\":\"2025\",\"petclinic\":\"2024\"},"
+            + "\"subscriptionPlans\":{\"zoom\":\"ENTERPRISE\",\"petclinic\":\"GOLD\"},"
+            + "\"subscriptionAddOns\":{\"zoom\":{\"extraSeats\":2,\"hugeMeetings\":1},"
+            + "\"petclinic\":{\"petsAdoptionCentre\":1}},"
+            + "\"history\":[{\"startDate\":\"2024-01-01T00:00:00Z\",\"endDate\":\"2024-12-31T00:00:00Z\","
+            + "\"contractedServices\":{\"zoom\":\"2024\",\"petclinic\":\"2024\"},"
+            + "\"subscriptionPlans\":{\"zoom\":\"PRO\",\"petclinic\":\"GOLD\"},"
+            + "\"subscriptionAddOns\":{\"zoom\":{\"extraSeats\":2},\"petclinic\":{\"petsAdoptionCentre\":1}}}]}");
+        evaluation = ByteString.encodeUtf8("{\"eval\":true,\"used\":{\"petclinic-maxPets\":2,"
+            + "\"petclinic-maxVisits\":1.5},\"limit\":{\"petclinic-maxPets\":6,\"petclinic-maxVisits\":9.5},"
+            + "\"error\":null}");
+        subscription = subscriptionAdapter.readJson(JsonReader.of(new Buffer().write(contract)));
+    }
+
+    @Benchmark
+    public Subscription readSubscriptionHandWritten() throws IOException {
+        return subscriptionDeserializer.readJson(JsonReader.of(new Buffer().write(contract)));
+    }
+
+    @Benchmark
+    public Subscription readSubscriptionGenerated() throws IOException {
+        return subscriptionAdapter.readJson(JsonReader.of(new Buffer().write(contract)));
+    }
+
+    @Benchmark
+    public FeatureEvaluationResult readEvaluationHandWritten() throws IOException {
+        return evaluationDeserializer.readJson(JsonReader.of(new Buffer().write(evaluation)));
+    }
+
+    @Benchmark
+    public FeatureEvaluationResult readEvaluationGenerated() throws IOException {
+        return evaluationAdapter.readJson(JsonReader.of(new Buffer().write(evaluation)));
+    }
+
+    @Benchmark
+    public long writeSubscriptionGenerated() throws IOException {
+        Buffer buffer = new Buffer();
+        subscriptionAdapter.writeJson(JsonWriter.of(buffer), subscription);
+        return buffer.size();
+    }
+}
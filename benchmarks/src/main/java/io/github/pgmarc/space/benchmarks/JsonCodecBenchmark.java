@@ -0,0 +1,187 @@
+package io.github.pgmarc.space.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.pgmarc.space.codec.JsonCodec;
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.contracts.SubscriptionRequest;
+import io.github.pgmarc.space.contracts.SubscriptionUpdateRequest;
+import io.github.pgmarc.space.contracts.UserContact;
+import io.github.pgmarc.space.deserializers.FeatureEvaluationDeserializer;
+import io.github.pgmarc.space.deserializers.SubscriptionDeserializer;
+import io.github.pgmarc.space.features.FeatureEvaluationResult;
+import io.github.pgmarc.space.features.UsageLimitConsumption;
+import io.github.pgmarc.space.jackson.JacksonJsonCodec;
+import io.github.pgmarc.space.serializers.ConsumptionSerializer;
+import io.github.pgmarc.space.serializers.SubscriptionRequestSerializer;
+import io.github.pgmarc.space.serializers.SubscriptionUpdateRequestSerializer;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ByteString;
+
+/**
+ * Throughput of every {@link JsonCodec} on the four payloads the client
+ * exchanges on hot paths. <code>orgjson</code> is the tree based path the
+ * client used before codecs, <code>default</code> the built-in codec and
+ * <code>jackson</code> the <code>space-client-jackson</code> module. Run
+ * with <code>-prof gc</code> to compare allocated bytes per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    private static final String SNAPSHOT = "{\"startDate\":\"2024-01-01T00:00:00Z\","
+        + "\"endDate\":\"2024-12-31T00:00:00Z\","
+        + "\"contractedServices\":{\"zoom\":\"2024\",\"petclinic\":\"2024\"},"
+        + "\"subscriptionPlans\":{\"zoom\":\"PRO\",\"petclinic\":\"GOLD\"},"
+        + "\"subscriptionAddOns\":{\"zoom\":{\"extraSeats\":2},\"petclinic\":{\"petsAdoptionCentre\":1}}}";
+
+    private static final String SUBSCRIPTION = "{\"id\":\"68050bd09890322c57842f6f\","
+        + "\"userContact\":{\"userId\":\"01c36d29-0d6a-4b41-83e9-8c6d9310c508\",\"username\":\"johndoe\"},"
+        + "\"billingPeriod\":{\"startDate\":\"2025-01-01T00:00:00Z\",\"endDate\":\"2025-12-31T00:00:00Z\","
+        + "\"autoRenew\":true,\"renewalDays\":365},"
+        + "\"usageLevels\":{\"petclinic\":{\"maxPets\":{\"consumed\":2},"
+        + "\"maxVisits\":{\"consumed\":5,\"resetTimeStamp\":\"2025-07-31T00:00:00Z\"}}},"
+        + "\"contractedServices\":{\"zoom\":\"2025\",\"petclinic\":\"2024\"},"
+        + "\"subscriptionPlans\":{\"zoom\":\"ENTERPRISE\",\"petclinic\":\"GOLD\"},"
+        + "\"subscriptionAddOns\":{\"zoom\":{\"extraSeats\":2,\"hugeMeetings\":1},"
+        + "\"petclinic\":{\"petsAdoptionCentre\":1}},"
+        + "\"history\":[" + SNAPSHOT + "," + SNAPSHOT + "," + SNAPSHOT + "]}";
+
+    private static final String EVALUATION = "{\"eval\":true,"
+        + "\"used\":{\"petclinic-maxPets\":2,\"petclinic-maxVisits\":5.5},"
+        + "\"limit\":{\"petclinic-maxPets\":10,\"petclinic-maxVisits\":100},\"error\":null}";
+
+    @Param({"orgjson", "default", "jackson"})
+    public String codecName;
+
+    private JsonCodec codec;
+    private ByteString subscription;
+    private ByteString evaluation;
+    private SubscriptionRequest subscriptionRequest;
+    private UsageLimitConsumption consumption;
+
+    @Setup
+    public void setup() {
+        switch (codecName) {
+            case "orgjson":
+                codec = new OrgJsonCodec();
+                break;
+            case "default":
+                codec = JsonCodec.defaults();
+                break;
+            case "jackson":
+                codec = new JacksonJsonCodec();
+                break;
+            default:
+                throw new IllegalArgumentException("unknown codec " + codecName);
+        }
+        subscription = ByteString.encodeUtf8(SUBSCRIPTION);
+        evaluation = ByteString.encodeUtf8(EVALUATION);
+        UserContact contact = UserContact.builder("01c36d29-0d6a-4b41-83e9-8c6d9310c508", "johndoe")
+            .firstName("John").lastName("Doe").email("john.doe@my-domain.com").build();
+        subscriptionRequest = SubscriptionRequest.builder(contact)
+            .renewInDays(365)
+            .startService("zoom", "2025")
+                .plan("ENTERPRISE")
+                .addOn("extraSeats", 2)
+                .addOn("hugeMeetings", 1)
+            .endService()
+            .startService("petclinic", "2024")
+                .plan("GOLD")
+                .addOn("petsAdoptionCentre", 1)
+            .endService()
+            .build();
+        consumption = UsageLimitConsumption.builder("petclinic")
+            .addInt("maxPets", 1)
+            .addDouble("maxVisits", 0.5)
+            .build();
+    }
+
+    @Benchmark
+    public Subscription readSubscription() throws IOException {
+        return codec.readSubscription(new Buffer().write(subscription));
+    }
+
+    @Benchmark
+    public FeatureEvaluationResult readEvaluation() throws IOException {
+        return codec.readEvaluation(new Buffer().write(evaluation), "petclinic");
+    }
+
+    @Benchmark
+    public long writeSubscriptionRequest() throws IOException {
+        Buffer sink = new Buffer();
+        codec.writeSubscriptionRequest(sink, subscriptionRequest);
+        long size = sink.size();
+        sink.clear();
+        return size;
+    }
+
+    @Benchmark
+    public long writeConsumption() throws IOException {
+        Buffer sink = new Buffer();
+        codec.writeConsumption(sink, consumption);
+        long size = sink.size();
+        sink.clear();
+        return size;
+    }
+
+    /**
+     * Tree based decoding through {@link JSONObject}, as the client did
+     * before the built-in codec streamed responses.
+     */
+    private static final class OrgJsonCodec implements JsonCodec {
+
+        private final SubscriptionDeserializer subscriptionDeserializer = new SubscriptionDeserializer();
+        private final SubscriptionRequestSerializer subscriptionRequestSerializer =
+            new SubscriptionRequestSerializer();
+        private final SubscriptionUpdateRequestSerializer subscriptionUpdateRequestSerializer =
+            new SubscriptionUpdateRequestSerializer();
+        private final ConsumptionSerializer consumptionSerializer = new ConsumptionSerializer();
+
+        @Override
+        public Subscription readSubscription(BufferedSource source) throws IOException {
+            return subscriptionDeserializer.fromJson(new JSONObject(source.readUtf8()));
+        }
+
+        @Override
+        public FeatureEvaluationResult readEvaluation(BufferedSource source, String service) throws IOException {
+            return new FeatureEvaluationDeserializer(service.length()).fromJson(new JSONObject(source.readUtf8()));
+        }
+
+        @Override
+        public void writeSubscriptionRequest(BufferedSink sink, SubscriptionRequest request) throws IOException {
+            sink.writeUtf8(subscriptionRequestSerializer.toJson(request).toString());
+        }
+
+        @Override
+        public void writeSubscriptionUpdateRequest(BufferedSink sink, SubscriptionUpdateRequest request)
+                throws IOException {
+            sink.writeUtf8(subscriptionUpdateRequestSerializer.toJson(request).toString());
+        }
+
+        @Override
+        public void writeConsumption(BufferedSink sink, UsageLimitConsumption consumption) throws IOException {
+            sink.writeUtf8(consumptionSerializer.toJson(consumption).toString());
+        }
+    }
+}
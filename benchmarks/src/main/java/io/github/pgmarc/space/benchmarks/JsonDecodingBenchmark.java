@@ -0,0 +1,102 @@
+package io.github.pgmarc.space.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.deserializers.FeatureEvaluationDeserializer;
+import io.github.pgmarc.space.deserializers.SubscriptionDeserializer;
+import io.github.pgmarc.space.features.FeatureEvaluationResult;
+import io.github.pgmarc.space.json.JsonReader;
+import okio.Buffer;
+import okio.ByteString;
+
+/**
+ * Decoding of response bodies already in memory: the org.json path, which
+ * reads the body into a string and builds a {@link JSONObject} tree, against
+ * the streaming path, which pulls tokens straight from the Okio buffer.
+ * Run with <code>-prof gc</code> to compare allocated bytes per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonDecodingBenchmark {
+
+    private static final String SNAPSHOT = "{\"startDate\":\"2024-01-01T00:00:00Z\","
+        + "\"endDate\":\"2024-12-31T00:00:00Z\","
+        + "\"contractedServices\":{\"zoom\":\"2024\",\"petclinic\":\"2024\"},"
+        + "\"subscriptionPlans\":{\"zoom\":\"PRO\",\"petclinic\":\"GOLD\"},"
+        + "\"subscriptionAddOns\":{\"zoom\":{\"extraSeats\":2},\"petclinic\":{\"petsAdoptionCentre\":1}}}";
+
+    private static final String EVALUATION = "{\"eval\":true,"
+        + "\"used\":{\"petclinic-maxPets\":2,\"petclinic-maxVisits\":5.5},"
+        + "\"limit\":{\"petclinic-maxPets\":10,\"petclinic-maxVisits\":100},\"error\":null}";
+
+    @Param({"0", "100", "500"})
+    public int snapshots;
+
+    private final SubscriptionDeserializer subscriptionDeserializer = new SubscriptionDeserializer();
+    private final FeatureEvaluationDeserializer evaluationDeserializer =
+        new FeatureEvaluationDeserializer("petclinic".length());
+
+    private ByteString subscription;
+    private ByteString evaluation;
+
+    @Setup
+    public void setup() {
+        StringBuilder history = new StringBuilder();
+        for (int i = 0; i < snapshots; i++) {
+            history.append(i == 0 ? "" : ",").append(SNAPSHOT);
+        }
+        subscription = ByteString.encodeUtf8("{\"id\":\"68050bd09890322c57842f6f\","
+            + "\"userContact\":{\"userId\":\"01c36d29-0d6a-4b41-83e9-8c6d9310c508\",\"username\":\"johndoe\"},"
+            + "\"billingPeriod\":{\"startDate\":\"2025-01-01T00:00:00Z\",\"endDate\":\"2025-12-31T00:00:00Z\","
+            + "\"autoRenew\":true,\"renewalDays\":365},"
+            + "\"usageLevels\":{\"petclinic\":{\"maxPets\":{\"consumed\":2},"
+            + "\"maxVisits\":{\"consumed\":5,\"resetTimeStamp\":\"2025-07-31T00:00:00Z\"}}},"
+            + "\"contractedServices\":{\"zoom\":\"2025\",\"petclinic\":\"2024\"},"
+            + "\"subscriptionPlans\":{\"zoom\":\"ENTERPRISE\",\"petclinic\":\"GOLD\"},"
+            + "\"subscriptionAddOns\":{\"zoom\":{\"extraSeats\":2,\"hugeMeetings\":1},"
+            + "\"petclinic\":{\"petsAdoptionCentre\":1}},"
+            + "\"history\":[" + history + "]}");
+        evaluation = ByteString.encodeUtf8(EVALUATION);
+    }
+
+    @Benchmark
+    public Subscription subscriptionTree() {
+        Buffer body = new Buffer().write(subscription);
+        return subscriptionDeserializer.fromJson(new JSONObject(body.readUtf8()));
+    }
+
+    @Benchmark
+    public Subscription subscriptionStreaming() throws IOException {
+        return subscriptionDeserializer.readJson(JsonReader.of(new Buffer().write(subscription)));
+    }
+
+    @Benchmark
+    public FeatureEvaluationResult evaluationTree() {
+        Buffer body = new Buffer().write(evaluation);
+        return evaluationDeserializer.fromJson(new JSONObject(body.readUtf8()));
+    }
+
+    @Benchmark
+    public FeatureEvaluationResult evaluationStreaming() throws IOException {
+        return evaluationDeserializer.readJson(JsonReader.of(new Buffer().write(evaluation)));
+    }
+}
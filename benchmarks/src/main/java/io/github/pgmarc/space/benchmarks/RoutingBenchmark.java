@@ -0,0 +1,111 @@
+package io.github.pgmarc.space.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.pgmarc.space.Operation;
+import io.github.pgmarc.space.RequestTag;
+import io.github.pgmarc.space.routing.LoadBalancingStrategy;
+import io.github.pgmarc.space.routing.NodeState;
+import io.github.pgmarc.space.routing.RoutingInterceptor;
+import io.github.pgmarc.space.routing.RoutingPolicy;
+
+/**
+ * Cost of choosing a node per request for every load balancing strategy.
+ * The trial setup also prints the key distribution skew of each strategy,
+ * the ratio between the most loaded node and the mean after assigning
+ * 100 000 distinct users with no request in flight. Read and write node
+ * groups hand out distinct candidate lists, which
+ * {@link #selectAlternatingGroups()} passes in turn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingBenchmark {
+
+    private static final int USERS = 100_000;
+    private static final int MASK = 0xffff;
+
+    @Param({"3", "10", "50"})
+    int nodes;
+
+    @Param({"ROUND_ROBIN", "POWER_OF_TWO_CHOICES", "CONSISTENT_HASH", "BOUNDED_CONSISTENT_HASH"})
+    String strategyName;
+
+    private LoadBalancingStrategy strategy;
+    private List<NodeState> candidates;
+    private List<NodeState> otherCandidates;
+    private RequestTag[] users;
+    private int next;
+
+    @Setup
+    public void setup() {
+        RoutingPolicy.Builder policy = RoutingPolicy.builder();
+        for (int i = 0; i < nodes; i++) {
+            policy.addNode("space-" + i, 5403);
+        }
+        candidates = new RoutingInterceptor(policy.build()).getNodeStates();
+        otherCandidates = List.copyOf(new ArrayList<>(candidates));
+        strategy = strategy(strategyName);
+        users = new RequestTag[MASK + 1];
+        for (int i = 0; i < users.length; i++) {
+            users[i] = RequestTag.of(Operation.EVALUATE, UUID.randomUUID().toString());
+        }
+        System.out.printf("%n%s with %d nodes: max/mean load %.3f%n", strategyName, nodes, skew());
+    }
+
+    private static LoadBalancingStrategy strategy(String name) {
+        switch (name) {
+            case "ROUND_ROBIN":
+                return LoadBalancingStrategy.roundRobin();
+            case "POWER_OF_TWO_CHOICES":
+                return LoadBalancingStrategy.powerOfTwoChoices();
+            case "CONSISTENT_HASH":
+                return LoadBalancingStrategy.consistentHash(160);
+            case "BOUNDED_CONSISTENT_HASH":
+                return LoadBalancingStrategy.consistentHash(160, 1.25);
+            default:
+                throw new IllegalArgumentException(name);
+        }
+    }
+
+    private double skew() {
+        Map<NodeState, Integer> load = new HashMap<>();
+        for (int i = 0; i < USERS; i++) {
+            RequestTag user = RequestTag.of(Operation.EVALUATE, UUID.randomUUID().toString());
+            load.merge(strategy.select(candidates, user), 1, Integer::sum);
+        }
+        int max = load.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        return max / ((double) USERS / nodes);
+    }
+
+    @Benchmark
+    public NodeState select() {
+        return strategy.select(candidates, users[next++ & MASK]);
+    }
+
+    @Benchmark
+    public NodeState selectAlternatingGroups() {
+        int user = next++;
+        return strategy.select((user & 1) == 0 ? candidates : otherCandidates, users[user & MASK]);
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.pgmarc.space.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Minimal in-process SPACE stand-in answering every request with a fixed
+ * JSON body after a fixed latency. Requests are served on virtual threads so
+ * the server is never the bottleneck of a benchmark.
+ */
+final class StubSpaceServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final byte[] body;
+    private final Duration latency;
+
+    private StubSpaceServer(String body, Duration latency) throws IOException {
+        this.body = body.getBytes(StandardCharsets.UTF_8);
+        this.latency = latency;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 16384);
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+        this.server.start();
+    }
+
+    static StubSpaceServer start(String body, Duration latency) throws IOException {
+        return new StubSpaceServer(body, latency);
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            if (!latency.isZero()) {
+                Thread.sleep(latency.toMillis());
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.pgmarc.space.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.pgmarc.space.codec.SubscriptionBinaryCodec;
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.deserializers.SubscriptionDeserializer;
+import io.github.pgmarc.space.json.JsonReader;
+import okio.Buffer;
+import okio.ByteString;
+
+/**
+ * Decoding and encoding of cached subscriptions: the streaming JSON form
+ * against {@link SubscriptionBinaryCodec}. Setup prints the size of both
+ * forms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubscriptionBinaryBenchmark {
+
+    private static final String SNAPSHOT = "{\"startDate\":\"2024-01-01T00:00:00Z\","
+        + "\"endDate\":\"2024-12-31T00:00:00Z\","
+        + "\"contractedServices\":{\"zoom\":\"2024\",\"petclinic\":\"2024\"},"
+        + "\"subscriptionPlans\":{\"zoom\":\"PRO\",\"petclinic\":\"GOLD\"},"
+        + "\"subscriptionAddOns\":{\"zoom\":{\"extraSeats\":2},\"petclinic\":{\"petsAdoptionCentre\":1}}}";
+
+    @Param({"0", "100", "500"})
+    public int snapshots;
+
+    private final SubscriptionDeserializer deserializer = new SubscriptionDeserializer();
+
+    private ByteString json;
+    private ByteString binary;
+    private Subscription subscription;
+
+    @Setup
+    public void setup() throws IOException {
+        StringBuilder history = new StringBuilder();
+        for (int i = 0; i < snapshots; i++) {
+            history.append(i == 0 ? "" : ",").append(SNAPSHOT);
+        }
+        json = ByteString.encodeUtf8("{\"id\":\"68050bd09890322c57842f6f\","
+            + "\"userContact\":{\"userId\":\"01c36d29-0d6a-4b41-83e9-8c6d9310c508\",\"username\":\"johndoe\"},"
+            + "\"billingPeriod\":{\"startDate\":\"2025-01-01T00:00:00Z\",\"endDate\":\"2025-12-31T00:00:00Z\","
+            + "\"autoRenew\":true,\"renewalDays\":365},"
+            + "\"usageLevels\":{\"petclinic\":{\"maxPets\":{\"consumed\":2},"
+            + "\"maxVisits\":{\"consumed\":5,\"resetTimeStamp\":\"2025-07-31T00:00:00Z\"}}},"
+            + "\"contractedServices\":{\"zoom\":\"2025\",\"petclinic\":\"2024\"},"
+            + "\"subscriptionPlans\":{\"zoom\":\"ENTERPRISE\",\"petclinic\":\"GOLD\"},"
+            + "\"subscriptionAddOns\":{\"zoom\":{\"extraSeats\":2,\"hugeMeetings\":1},"
+            + "\"petclinic\":{\"petsAdoptionCentre\":1}},"
+            + "\"history\":[" + history + "]}");
+        subscription = deserializer.readJson(JsonReader.of(new Buffer().write(json)));
+        binary = SubscriptionBinaryCodec.encode(subscription);
+        System.out.println("json " + json.size() + " bytes, binary " + binary.size() + " bytes");
+    }
+
+    @Benchmark
+    public Subscription decodeJson() throws IOException {
+        return deserializer.readJson(JsonReader.of(new Buffer().write(json)));
+    }
+
+    @Benchmark
+    public Subscription decodeBinary() throws IOException {
+        return SubscriptionBinaryCodec.read(new Buffer().write(binary));
+    }
+
+    @Benchmark
+    public ByteString encodeBinary() {
+        return SubscriptionBinaryCodec.encode(subscription);
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.pgmarc.space.benchmarks;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.pgmarc.space.contracts.Service;
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.contracts.UserContact;
+import io.github.pgmarc.space.deserializers.Iso8601;
+
+/**
+ * Counts the active subscriptions among a million with each
+ * <code>isActive</code> overload, and parses the date times SPACE sends
+ * with {@link Iso8601} and with <code>ZonedDateTime</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemporalBenchmark {
+
+    private static final String DATE_TIME = "2025-07-31T12:34:56.789Z";
+
+    @Param({"1000000"})
+    public int subscriptions;
+
+    private Subscription[] all;
+    private long nowMillis;
+    private Instant now;
+    private LocalDateTime nowUtc;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        List<Service> services = List.of(Service.builder("petclinic", "2025").plan("GOLD").build());
+        long origin = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+        long year = TimeUnit.DAYS.toMillis(365);
+        all = new Subscription[subscriptions];
+        for (int i = 0; i < subscriptions; i++) {
+            long start = origin + (long) (random.nextDouble() * year);
+            long end = start + (long) (random.nextDouble() * year / 4);
+            all[i] = Subscription.builder(UserContact.builder("user-" + i, "user" + i).build(), start, end, services)
+                .build();
+        }
+        nowMillis = origin + year / 2;
+        now = Instant.ofEpochMilli(nowMillis);
+        nowUtc = LocalDateTime.ofInstant(now, ZoneOffset.UTC);
+    }
+
+    @Benchmark
+    public int countActiveLocalDateTime() {
+        int res = 0;
+        for (Subscription subscription : all) {
+            if (subscription.isActive(nowUtc)) {
+                res++;
+            }
+        }
+        return res;
+    }
+
+    @Benchmark
+    public int countActiveInstant() {
+        int res = 0;
+        for (Subscription subscription : all) {
+            if (subscription.isActive(now)) {
+                res++;
+            }
+        }
+        return res;
+    }
+
+    @Benchmark
+    public int countActiveEpochMillis() {
+        int res = 0;
+        for (Subscription subscription : all) {
+            if (subscription.isActive(nowMillis)) {
+                res++;
+            }
+        }
+        return res;
+    }
+
+    @Benchmark
+    public long parseIso8601() {
+        return Iso8601.toEpochMillis(DATE_TIME);
+    }
+
+    @Benchmark
+    public long parseZonedDateTime() {
+        return ZonedDateTime.parse(DATE_TIME).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.pgmarc.space.benchmarks;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.pgmarc.space.SpaceClient;
+import io.github.pgmarc.space.features.FeatureEvaluationResult;
+
+/**
+ * Time to serve a burst of concurrent feature evaluations against a SPACE
+ * stub answering in 10 ms, comparing platform with virtual threads.
+ * <ul>
+ * <li><code>blocking</code>: every caller is a thread doing a synchronous
+ * <code>evaluate</code></li>
+ * <li><code>async</code>: callers use <code>evaluateAsync</code> and the
+ * client dispatcher runs the calls, using the default OkHttp dispatcher or
+ * <code>withVirtualThreads(true)</code></li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xss256k")
+public class ThreadingBenchmark {
+
+    private static final String EVALUATION = "{\"eval\":true,\"used\":null,\"limit\":null,\"error\":null}";
+
+    @Param({"1000", "10000"})
+    int callers;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    String threads;
+
+    private StubSpaceServer server;
+    private SpaceClient client;
+    private ExecutorService callerExecutor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = StubSpaceServer.start(EVALUATION, Duration.ofMillis(10));
+        boolean virtual = "VIRTUAL".equals(threads);
+        client = SpaceClient.builder("localhost", "benchmark")
+            .withPort(server.port())
+            .withVirtualThreads(virtual)
+            .build();
+        callerExecutor = virtual ? Executors.newVirtualThreadPerTaskExecutor() : Executors.newCachedThreadPool();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        callerExecutor.shutdownNow();
+        server.close();
+    }
+
+    @Benchmark
+    public int blocking() throws Exception {
+        List<Future<FeatureEvaluationResult>> results = new ArrayList<>(callers);
+        for (int i = 0; i < callers; i++) {
+            String userId = "user-" + i;
+            results.add(callerExecutor.submit(() -> client.features().evaluate(userId, "Petclinic", "pets")));
+        }
+        int available = 0;
+        for (Future<FeatureEvaluationResult> result : results) {
+            available += result.get().isAvailable() ? 1 : 0;
+        }
+        return available;
+    }
+
+    @Benchmark
+    public int async() {
+        List<CompletableFuture<FeatureEvaluationResult>> results = new ArrayList<>(callers);
+        for (int i = 0; i < callers; i++) {
+            results.add(client.features().evaluateAsync("user-" + i, "Petclinic", "pets"));
+        }
+        int available = 0;
+        for (CompletableFuture<FeatureEvaluationResult> result : results) {
+            available += result.join().isAvailable() ? 1 : 0;
+        }
+        return available;
+    }
+}
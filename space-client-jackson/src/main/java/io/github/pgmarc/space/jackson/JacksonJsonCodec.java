@@ -0,0 +1,562 @@
+package io.github.pgmarc.space.jackson;
+
+import java.io.IOException;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import io.github.pgmarc.space.codec.JsonCodec;
+import io.github.pgmarc.space.contracts.AddOn;
+import io.github.pgmarc.space.contracts.Service;
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.contracts.Subscription.Snapshot;
+import io.github.pgmarc.space.contracts.SubscriptionRequest;
+import io.github.pgmarc.space.contracts.SubscriptionUpdateRequest;
+import io.github.pgmarc.space.contracts.UsageLevel;
+import io.github.pgmarc.space.contracts.UserContact;
+import io.github.pgmarc.space.deserializers.InternPool;
+import io.github.pgmarc.space.deserializers.Iso8601;
+import io.github.pgmarc.space.exceptions.FeatureEvaluationError;
+import io.github.pgmarc.space.exceptions.FeatureEvaluationException;
+import io.github.pgmarc.space.features.FeatureEvaluationResult;
+import io.github.pgmarc.space.features.UsageLimitConsumption;
+import okio.BufferedSink;
+import okio.BufferedSource;
+
+/**
+ * {@link JsonCodec} built on the Jackson streaming API. Parsers and
+ * generators never close the underlying source or sink, that is left to
+ * the HTTP client.
+ * <pre>
+ * SpaceClient client = SpaceClient.builder("example.com", apiKey)
+ *         .withJsonCodec(new JacksonJsonCodec())
+ *         .build();
+ * </pre>
+ */
+public final class JacksonJsonCodec implements JsonCodec {
+
+    private static final InternPool NAMES = InternPool.shared();
+
+    private final JsonFactory factory;
+
+    public JacksonJsonCodec() {
+        this(new JsonFactory());
+    }
+
+    public JacksonJsonCodec(JsonFactory factory) {
+        this.factory = Objects.requireNonNull(factory, "json factory must not be null");
+    }
+
+    @Override
+    public Subscription readSubscription(BufferedSource source) throws IOException {
+        try (JsonParser parser = newParser(source)) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            return subscription(parser);
+        }
+    }
+
+    @Override
+    public FeatureEvaluationResult readEvaluation(BufferedSource source, String service) throws IOException {
+        try (JsonParser parser = newParser(source)) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            return evaluation(parser, service.length());
+        }
+    }
+
+    @Override
+    public void writeSubscriptionRequest(BufferedSink sink, SubscriptionRequest request) throws IOException {
+        try (JsonGenerator generator = newGenerator(sink)) {
+            UserContact contact = request.getUserContact();
+            generator.writeStartObject();
+            generator.writeObjectFieldStart(Subscription.Keys.USER_CONTACT.toString());
+            generator.writeStringField(UserContact.Keys.USER_ID.toString(), contact.getUserId());
+            generator.writeStringField(UserContact.Keys.USERNAME.toString(), contact.getUsername());
+            writeOptional(generator, UserContact.Keys.FIRST_NAME, contact.getFirstName());
+            writeOptional(generator, UserContact.Keys.LAST_NAME, contact.getLastName());
+            writeOptional(generator, UserContact.Keys.EMAIL, contact.getEmail());
+            writeOptional(generator, UserContact.Keys.PHONE, contact.getPhone());
+            generator.writeEndObject();
+            generator.writeObjectFieldStart(Subscription.Keys.BILLING_PERIOD.toString());
+            generator.writeBooleanField("autoRenew", request.getRenewalPeriod() != null);
+            if (request.getRenewalPeriod() != null) {
+                generator.writeNumberField("renewalDays", request.getRenewalPeriod().getDays());
+            }
+            generator.writeEndObject();
+            writeServices(generator, request.getServices());
+            generator.writeEndObject();
+        }
+    }
+
+    @Override
+    public void writeSubscriptionUpdateRequest(BufferedSink sink, SubscriptionUpdateRequest request)
+            throws IOException {
+        try (JsonGenerator generator = newGenerator(sink)) {
+            generator.writeStartObject();
+            writeServices(generator, request.getServices());
+            generator.writeEndObject();
+        }
+    }
+
+    @Override
+    public void writeConsumption(BufferedSink sink, UsageLimitConsumption consumption) throws IOException {
+        String prefix = consumption.getService() + "-";
+        try (JsonGenerator generator = newGenerator(sink)) {
+            generator.writeStartObject();
+            for (UsageLimitConsumption.Item<? extends Number> item : consumption.getConsumption()) {
+                generator.writeFieldName(prefix + item.getUsageLimit());
+                writeNumber(generator, item.getQuantity());
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JacksonJsonCodec";
+    }
+
+    private JsonParser newParser(BufferedSource source) throws IOException {
+        JsonParser parser = factory.createParser(source.inputStream());
+        parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        return parser;
+    }
+
+    private JsonGenerator newGenerator(BufferedSink sink) throws IOException {
+        JsonGenerator generator = factory.createGenerator(sink.outputStream());
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    private static Subscription subscription(JsonParser parser) throws IOException {
+        UserContact userContact = null;
+        Map<String, Map<String, UsageLevel>> usageLevels = null;
+        Services services = new Services();
+        long start = 0;
+        long end = 0;
+        boolean hasStart = false;
+        boolean hasEnd = false;
+        int renewalDays = -1;
+        List<Snapshot> history = Collections.emptyList();
+
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            JsonToken token = parser.nextToken();
+            switch (name) {
+                case "userContact":
+                    userContact = userContact(parser);
+                    break;
+                case "billingPeriod":
+                    expect(parser, token, JsonToken.START_OBJECT);
+                    String member;
+                    while ((member = parser.nextFieldName()) != null) {
+                        JsonToken value = parser.nextToken();
+                        if ("startDate".equals(member)) {
+                            start = epochMillis(parser);
+                            hasStart = true;
+                        } else if ("endDate".equals(member)) {
+                            end = epochMillis(parser);
+                            hasEnd = true;
+                        } else if ("renewalDays".equals(member) && value != JsonToken.VALUE_NULL) {
+                            renewalDays = parser.getIntValue();
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    break;
+                case "contractedServices":
+                    services.versions = stringMap(parser);
+                    break;
+                case "subscriptionPlans":
+                    services.plans = stringMap(parser);
+                    break;
+                case "subscriptionAddOns":
+                    services.addOns = addOns(parser);
+                    break;
+                case "usageLevels":
+                    usageLevels = usageLevels(parser);
+                    break;
+                case "history":
+                    history = history(parser);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        if (userContact == null) {
+            throw missing(parser, Subscription.Keys.USER_CONTACT.toString());
+        }
+        if (usageLevels == null) {
+            throw missing(parser, Subscription.Keys.USAGE_LEVELS.toString());
+        }
+        if (!hasStart || !hasEnd) {
+            throw missing(parser, "billingPeriod startDate or endDate");
+        }
+        Subscription.Builder builder = Subscription.builder(userContact, start, end,
+                services.build(parser).values())
+            .addUsageLevels(usageLevels)
+            .addSnapshots(history);
+        if (renewalDays > 0) {
+            builder.renewInDays(renewalDays);
+        }
+        return builder.build();
+    }
+
+    private static UserContact userContact(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        String userId = null;
+        String username = null;
+        String firstName = null;
+        String lastName = null;
+        String email = null;
+        String phone = null;
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            String value = parser.nextTextValue();
+            switch (name) {
+                case "userId":
+                    userId = value;
+                    break;
+                case "username":
+                    username = value;
+                    break;
+                case "firstName":
+                    firstName = value;
+                    break;
+                case "lastName":
+                    lastName = value;
+                    break;
+                case "email":
+                    email = value;
+                    break;
+                case "phone":
+                    phone = value;
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        if (userId == null || username == null) {
+            throw new JsonParseException(parser, "user contact requires userId and username");
+        }
+        return UserContact.builder(userId, username)
+            .firstName(firstName)
+            .lastName(lastName)
+            .email(email)
+            .phone(phone)
+            .build();
+    }
+
+    private static Map<String, Map<String, UsageLevel>> usageLevels(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        Map<String, Map<String, UsageLevel>> res = new HashMap<>();
+        String serviceName;
+        while ((serviceName = parser.nextFieldName()) != null) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            Map<String, UsageLevel> serviceUsageLevels = new HashMap<>();
+            String usageLimit;
+            while ((usageLimit = parser.nextFieldName()) != null) {
+                String usageLimitName = NAMES.intern(usageLimit);
+                serviceUsageLevels.put(usageLimitName, usageLevel(parser, usageLimitName));
+            }
+            res.put(NAMES.intern(serviceName), Collections.unmodifiableMap(serviceUsageLevels));
+        }
+        return Collections.unmodifiableMap(res);
+    }
+
+    private static UsageLevel usageLevel(JsonParser parser, String usageLimit) throws IOException {
+        expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+        Double consumed = null;
+        long resetTimestamp = 0;
+        boolean hasResetTimestamp = false;
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            JsonToken token = parser.nextToken();
+            if ("consumed".equals(name)) {
+                consumed = parser.getDoubleValue();
+            } else if ("resetTimeStamp".equals(name) && token != JsonToken.VALUE_NULL) {
+                resetTimestamp = epochMillis(parser);
+                hasResetTimestamp = true;
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (consumed == null) {
+            throw missing(parser, UsageLevel.Keys.CONSUMED.toString());
+        }
+        if (hasResetTimestamp) {
+            return UsageLevel.of(usageLimit, consumed, resetTimestamp);
+        }
+        return UsageLevel.of(usageLimit, consumed);
+    }
+
+    private static List<Snapshot> history(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+        List<Snapshot> res = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            long start = 0;
+            long end = 0;
+            boolean hasStart = false;
+            boolean hasEnd = false;
+            Services services = new Services();
+            String name;
+            while ((name = parser.nextFieldName()) != null) {
+                parser.nextToken();
+                switch (name) {
+                    case "startDate":
+                        start = epochMillis(parser);
+                        hasStart = true;
+                        break;
+                    case "endDate":
+                        end = epochMillis(parser);
+                        hasEnd = true;
+                        break;
+                    case "contractedServices":
+                        services.versions = stringMap(parser);
+                        break;
+                    case "subscriptionPlans":
+                        services.plans = stringMap(parser);
+                        break;
+                    case "subscriptionAddOns":
+                        services.addOns = addOns(parser);
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+            if (!hasStart || !hasEnd) {
+                throw missing(parser, "startDate or endDate");
+            }
+            res.add(Snapshot.of(start, end, services.build(parser)));
+        }
+        expect(parser, parser.currentToken(), JsonToken.END_ARRAY);
+        return res;
+    }
+
+    private static FeatureEvaluationResult evaluation(JsonParser parser, int serviceLength) throws IOException {
+        FeatureEvaluationResult.Builder builder = FeatureEvaluationResult.builder();
+        boolean hasAvailable = false;
+        FeatureEvaluationError error = null;
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            JsonToken token = parser.nextToken();
+            switch (name) {
+                case "eval":
+                    builder.available(parser.getBooleanValue());
+                    hasAvailable = true;
+                    break;
+                case "used":
+                    if (token != JsonToken.VALUE_NULL) {
+                        quotas(parser, builder, serviceLength, true);
+                    }
+                    break;
+                case "limit":
+                    if (token != JsonToken.VALUE_NULL) {
+                        quotas(parser, builder, serviceLength, false);
+                    }
+                    break;
+                case "error":
+                    error = token == JsonToken.VALUE_NULL ? null : evaluationError(parser);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        if (error != null) {
+            throw new FeatureEvaluationException(error);
+        }
+        if (!hasAvailable) {
+            throw missing(parser, "eval");
+        }
+        return builder.build();
+    }
+
+    private static FeatureEvaluationError evaluationError(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        String code = null;
+        String message = null;
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            String value = parser.nextTextValue();
+            if ("code".equals(name)) {
+                code = value;
+            } else if ("message".equals(name)) {
+                message = value;
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (code == null || message == null) {
+            throw missing(parser, "error code or message");
+        }
+        return FeatureEvaluationError.of(code, message);
+    }
+
+    private static void quotas(JsonParser parser, FeatureEvaluationResult.Builder builder, int serviceLength,
+            boolean used) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            JsonToken token = parser.nextToken();
+            String usageLimit = name.substring(serviceLength + 1);
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                long value = parser.getLongValue();
+                if (used) {
+                    builder.used(usageLimit, value);
+                } else {
+                    builder.limit(usageLimit, value);
+                }
+            } else if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                double value = parser.getDoubleValue();
+                if (used) {
+                    builder.used(usageLimit, value);
+                } else {
+                    builder.limit(usageLimit, value);
+                }
+            } else if (token != JsonToken.VALUE_NULL) {
+                throw new JsonParseException(parser, "expected a number but was " + token);
+            }
+        }
+    }
+
+    private static Map<String, String> stringMap(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        Map<String, String> res = new LinkedHashMap<>();
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            res.put(name, parser.nextTextValue());
+        }
+        return res;
+    }
+
+    private static Map<String, Map<String, Long>> addOns(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        Map<String, Map<String, Long>> res = new LinkedHashMap<>();
+        String serviceName;
+        while ((serviceName = parser.nextFieldName()) != null) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            Map<String, Long> quantities = new LinkedHashMap<>();
+            String addOn;
+            while ((addOn = parser.nextFieldName()) != null) {
+                parser.nextToken();
+                quantities.put(addOn, parser.getLongValue());
+            }
+            res.put(serviceName, quantities);
+        }
+        return res;
+    }
+
+    private static long epochMillis(JsonParser parser) throws IOException {
+        String text = parser.getValueAsString();
+        if (text == null) {
+            throw new JsonParseException(parser, "expected a date time but was " + parser.currentToken());
+        }
+        try {
+            return Iso8601.toEpochMillis(text);
+        } catch (DateTimeParseException e) {
+            throw new JsonParseException(parser, "invalid date time " + text, e);
+        }
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, "expected " + expected + " but was " + actual);
+        }
+    }
+
+    private static JsonParseException missing(JsonParser parser, String member) {
+        return new JsonParseException(parser, "missing member " + member);
+    }
+
+    private static void writeOptional(JsonGenerator generator, UserContact.Keys key, Optional<String> value)
+            throws IOException {
+        if (value.isPresent()) {
+            generator.writeStringField(key.toString(), value.get());
+        }
+    }
+
+    private static void writeServices(JsonGenerator generator, Collection<Service> services) throws IOException {
+        generator.writeObjectFieldStart(Subscription.Keys.CONTRACTED_SERVICES.toString());
+        for (Service service : services) {
+            generator.writeStringField(service.getName(), service.getVersion());
+        }
+        generator.writeEndObject();
+        generator.writeObjectFieldStart(Subscription.Keys.SUBSCRIPTION_PLANS.toString());
+        for (Service service : services) {
+            Optional<String> plan = service.getPlan();
+            if (plan.isPresent()) {
+                generator.writeStringField(service.getName(), plan.get());
+            }
+        }
+        generator.writeEndObject();
+        generator.writeObjectFieldStart(Subscription.Keys.SUBSCRIPTION_ADDONS.toString());
+        for (Service service : services) {
+            generator.writeObjectFieldStart(service.getName());
+            for (AddOn addOn : service.getAddOns()) {
+                generator.writeNumberField(addOn.getName(), addOn.getQuantity());
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeNumber(JsonGenerator generator, Number number) throws IOException {
+        if (number instanceof Integer) {
+            generator.writeNumber(number.intValue());
+        } else if (number instanceof Long) {
+            generator.writeNumber(number.longValue());
+        } else if (number instanceof Float) {
+            generator.writeNumber(number.floatValue());
+        } else {
+            generator.writeNumber(number.doubleValue());
+        }
+    }
+
+    /**
+     * Same as the client built-in decoding: services are collected from
+     * <code>contractedServices</code>, <code>subscriptionPlans</code> and
+     * <code>subscriptionAddOns</code>, which can come in any order.
+     */
+    private static final class Services {
+
+        private Map<String, String> versions;
+        private Map<String, String> plans;
+        private Map<String, Map<String, Long>> addOns;
+
+        private Map<String, Service> build(JsonParser parser) throws IOException {
+            if (versions == null || plans == null || addOns == null) {
+                throw missing(parser, "contractedServices, subscriptionPlans or subscriptionAddOns");
+            }
+            Map<String, Service> services = new HashMap<>();
+            for (Map.Entry<String, String> version : versions.entrySet()) {
+                String serviceName = NAMES.intern(version.getKey());
+                String plan = plans.get(serviceName);
+                Map<String, Long> serviceAddOns = addOns.get(serviceName);
+                if (plan == null || serviceAddOns == null) {
+                    throw missing(parser, serviceName);
+                }
+                Service.Builder builder = Service.builder(serviceName, NAMES.intern(version.getValue()))
+                    .plan(NAMES.intern(plan));
+                for (Map.Entry<String, Long> addOn : serviceAddOns.entrySet()) {
+                    builder.addOn(NAMES.intern(addOn.getKey()), addOn.getValue());
+                }
+                services.put(serviceName, builder.build());
+            }
+            return services;
+        }
+    }
+}
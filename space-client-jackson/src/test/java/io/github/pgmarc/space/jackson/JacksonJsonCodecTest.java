@@ -0,0 +1,162 @@
+package io.github.pgmarc.space.jackson;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import io.github.pgmarc.space.codec.JsonCodec;
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.contracts.SubscriptionRequest;
+import io.github.pgmarc.space.contracts.SubscriptionUpdateRequest;
+import io.github.pgmarc.space.contracts.UserContact;
+import io.github.pgmarc.space.exceptions.SpaceApiException;
+import io.github.pgmarc.space.features.FeatureEvaluationResult;
+import io.github.pgmarc.space.features.UsageLimitConsumption;
+import okio.Buffer;
+
+class JacksonJsonCodecTest {
+
+    private static final String SNAPSHOT = "{\"startDate\": \"2024-01-01T00:00:00Z\","
+        + "\"endDate\": \"2024-12-31T00:00:00Z\","
+        + "\"contractedServices\": {\"zoom\": \"2024\"},"
+        + "\"subscriptionPlans\": {\"zoom\": \"PRO\"},"
+        + "\"subscriptionAddOns\": {\"zoom\": {\"extraSeats\": 1}}}";
+
+    private static final String SUBSCRIPTION = "{\"id\": \"68050bd09890322c57842f6f\","
+        + "\"userContact\": {\"userId\": \"01c36d29-0d6a-4b41-83e9-8c6d9310c508\", \"username\": \"johndoe\","
+        + "\"email\": \"john.doe@my-domain.com\", \"phone\": null},"
+        + "\"billingPeriod\": {\"startDate\": \"2025-01-01T00:00:00Z\", \"endDate\": \"2025-12-31T00:00:00Z\","
+        + "\"autoRenew\": true, \"renewalDays\": 365},"
+        + "\"usageLevels\": {\"petclinic\": {\"maxPets\": {\"consumed\": 2},"
+        + "\"maxVisits\": {\"consumed\": 5.5, \"resetTimeStamp\": \"2025-07-31T00:00:00Z\"}}},"
+        + "\"history\": [" + SNAPSHOT + ", " + SNAPSHOT + "],"
+        + "\"subscriptionAddOns\": {\"zoom\": {\"extraSeats\": 2, \"hugeMeetings\": 1},"
+        + "\"petclinic\": {\"petsAdoptionCentre\": 1}},"
+        + "\"contractedServices\": {\"zoom\": \"2025\", \"petclinic\": \"2024\"},"
+        + "\"subscriptionPlans\": {\"zoom\": \"ENTERPRISE\", \"petclinic\": \"GOLD\"},"
+        + "\"unknown\": {\"nested\": [1, {\"a\": null}]}}";
+
+    private final JsonCodec codec = new JacksonJsonCodec();
+    private final JsonCodec defaults = JsonCodec.defaults();
+
+    private static Buffer json(String json) {
+        return new Buffer().writeUtf8(json);
+    }
+
+    @Test
+    void givenSubscriptionShouldReadSameAsDefaultCodec() throws IOException {
+
+        Subscription expected = defaults.readSubscription(json(SUBSCRIPTION));
+        Subscription actual = codec.readSubscription(json(SUBSCRIPTION));
+
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+        assertThat(actual.getHistory()).hasSize(2);
+        assertThat(actual.getRenewalPeriod()).isPresent();
+    }
+
+    @Test
+    void givenEvaluationShouldReadSameAsDefaultCodec() throws IOException {
+
+        String evaluation = "{\"eval\": true, \"error\": null,"
+            + "\"used\": {\"petclinic-maxPets\": 2, \"petclinic-maxVisits\": 5.5, \"petclinic-big\": 3000000000},"
+            + "\"limit\": {\"petclinic-maxPets\": 10, \"petclinic-maxVisits\": 100, \"petclinic-big\": null}}";
+
+        FeatureEvaluationResult expected = defaults.readEvaluation(json(evaluation), "Petclinic");
+        FeatureEvaluationResult actual = codec.readEvaluation(json(evaluation), "Petclinic");
+
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+        assertThat(actual.getConsumed("maxVisits")).hasValueSatisfying(
+            used -> assertThat(used.doubleValue()).isEqualTo(5.5));
+    }
+
+    @Test
+    void givenEvaluationErrorShouldThrow() {
+
+        String evaluation = "{\"eval\": false, \"used\": null, \"limit\": null,"
+            + "\"error\": {\"code\": \"FLAG_NOT_FOUND\", \"message\": \"Feature pets not found\"}}";
+
+        assertThatExceptionOfType(SpaceApiException.class)
+            .isThrownBy(() -> codec.readEvaluation(json(evaluation), "Petclinic"))
+            .withMessage("Feature pets not found. Error code: FLAG_NOT_FOUND");
+    }
+
+    @Test
+    void givenMissingMemberShouldThrow() {
+
+        assertThatExceptionOfType(IOException.class)
+            .isThrownBy(() -> codec.readEvaluation(json("{\"used\": null}"), "Petclinic"))
+            .withMessageContaining("missing member eval");
+    }
+
+    @Test
+    void givenSubscriptionRequestShouldWriteSameAsDefaultCodec() throws IOException {
+
+        UserContact contact = UserContact.builder("3f5f934c-951b-4a2d-ad10-b1679ac9b7ba", "johndoe")
+            .firstName("John").email("john.doe@my-domain.com").build();
+        SubscriptionRequest request = SubscriptionRequest.builder(contact)
+            .renewInDays(30)
+            .startService("Petclinic", "2024")
+                .plan("GOLD")
+                .addOn("petLover", 2)
+            .endService()
+            .startService("Zoom", "2025")
+                .addOn("extraSeats", 1)
+            .endService()
+            .build();
+
+        Buffer expected = new Buffer();
+        defaults.writeSubscriptionRequest(expected, request);
+        Buffer actual = new Buffer();
+        codec.writeSubscriptionRequest(actual, request);
+
+        assertThat(new JSONObject(actual.readUtf8()).similar(new JSONObject(expected.readUtf8()))).isTrue();
+    }
+
+    @Test
+    void givenSubscriptionUpdateRequestShouldWriteSameAsDefaultCodec() throws IOException {
+
+        SubscriptionUpdateRequest request = SubscriptionUpdateRequest.builder()
+            .startService("Petclinic", "2024")
+                .plan("PLATINUM")
+                .addOn("petLover", 1)
+            .endService()
+            .build();
+
+        Buffer expected = new Buffer();
+        defaults.writeSubscriptionUpdateRequest(expected, request);
+        Buffer actual = new Buffer();
+        codec.writeSubscriptionUpdateRequest(actual, request);
+
+        assertThat(new JSONObject(actual.readUtf8()).similar(new JSONObject(expected.readUtf8()))).isTrue();
+    }
+
+    @Test
+    void givenConsumptionShouldWriteSameAsDefaultCodec() throws IOException {
+
+        UsageLimitConsumption consumption = UsageLimitConsumption.builder("Petclinic")
+            .addInt("maxPets", 1)
+            .addLong("maxVisits", 3_000_000_000L)
+            .addDouble("storage", 1.5)
+            .build();
+
+        Buffer expected = new Buffer();
+        defaults.writeConsumption(expected, consumption);
+        Buffer actual = new Buffer();
+        codec.writeConsumption(actual, consumption);
+
+        assertThat(new JSONObject(actual.readUtf8()).similar(new JSONObject(expected.readUtf8()))).isTrue();
+    }
+
+    @Test
+    void givenWriteShouldNotCloseSink() throws IOException {
+
+        Buffer sink = new Buffer();
+        codec.writeConsumption(sink, UsageLimitConsumption.builder("Petclinic").addInt("maxPets", 1).build());
+
+        sink.writeUtf8("\n");
+        assertThat(sink.readUtf8()).isEqualTo("{\"petclinic-maxPets\":1}\n");
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.pgmarc.space.processor;
+
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Method giving a property value when writing: a static method of the class
+ * declaring the creator or a getter of the value.
+ */
+final class Accessor {
+
+    private final String owner;
+    private final String method;
+    boolean optional;
+    TypeMirror returnType;
+
+    private Accessor(String owner, String method) {
+        this.owner = owner;
+        this.method = method;
+    }
+
+    static Accessor ofStatic(String owner, String method) {
+        return new Accessor(owner, method);
+    }
+
+    static Accessor ofGetter(String method) {
+        return new Accessor(null, method);
+    }
+
+    /**
+     * Call expression for <code>value</code> and the context fields of the
+     * adapter.
+     */
+    String call(String value, Iterable<String> contexts) {
+        if (owner == null) {
+            return value + "." + method + "()";
+        }
+        StringBuilder call = new StringBuilder(owner).append('.').append(method).append('(').append(value);
+        for (String context : contexts) {
+            call.append(", ").append(context);
+        }
+        return call.append(')').toString();
+    }
+}
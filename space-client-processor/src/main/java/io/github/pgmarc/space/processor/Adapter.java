@@ -0,0 +1,47 @@
+package io.github.pgmarc.space.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+
+/**
+ * Adapter generated for the type built by a {@link JsonCreator}.
+ */
+final class Adapter {
+
+    final String packageName;
+    final TypeElement owner;
+    final ExecutableElement creator;
+    final TypeElement type;
+    final List<Parameter> parameters = new ArrayList<>();
+
+    Adapter(String packageName, TypeElement owner, ExecutableElement creator, TypeElement type) {
+        this.packageName = packageName;
+        this.owner = owner;
+        this.creator = creator;
+        this.type = type;
+    }
+
+    String typeName() {
+        return type.getQualifiedName().toString();
+    }
+
+    String adapterName() {
+        return type.getSimpleName() + "JsonAdapter";
+    }
+
+    String qualifiedAdapterName() {
+        return packageName.isEmpty() ? adapterName() : packageName + "." + adapterName();
+    }
+
+    boolean hasKey() {
+        for (Parameter parameter : parameters) {
+            if (parameter.kind == Parameter.Kind.KEY) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
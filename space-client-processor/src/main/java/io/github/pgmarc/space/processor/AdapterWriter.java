@@ -0,0 +1,414 @@
+package io.github.pgmarc.space.processor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes the source of an {@link Adapter}.
+ */
+final class AdapterWriter {
+
+    private static final Set<String> RESERVED = new HashSet<>(Arrays.asList("reader", "writer", "value", "key",
+        "NAMES"));
+
+    private final Adapter adapter;
+    private final boolean isPublic;
+    private final Map<String, String> nestedAdapters = new LinkedHashMap<>();
+    private final StringBuilder helpers = new StringBuilder();
+    private int helperCount;
+    private boolean needsNumber;
+    private boolean needsDateTime;
+
+    AdapterWriter(Adapter adapter, boolean isPublic) {
+        this.adapter = adapter;
+        this.isPublic = isPublic;
+    }
+
+    String write() {
+        String read = readMethod();
+        String write = writeMethod();
+        String type = adapter.typeName();
+
+        StringBuilder source = new StringBuilder();
+        if (!adapter.packageName.isEmpty()) {
+            source.append("package ").append(adapter.packageName).append(";\n\n");
+        }
+        source.append("import java.io.IOException;\n\n")
+            .append("import io.github.pgmarc.space.json.JsonParseException;\n")
+            .append("import io.github.pgmarc.space.json.JsonReader;\n")
+            .append("import io.github.pgmarc.space.json.JsonWriter;\n\n")
+            .append("/**\n")
+            .append(" * Reads and writes {@code ").append(type).append("} as built by {@code ")
+            .append(adapter.owner.getSimpleName()).append('.').append(adapter.creator.getSimpleName())
+            .append("}.\n")
+            .append(" */\n")
+            .append("@javax.annotation.processing.Generated(\"").append(JsonAdapterProcessor.class.getName())
+            .append("\")\n")
+            .append(isPublic ? "public " : "").append("final class ").append(adapter.adapterName());
+        if (adapter.hasKey()) {
+            source.append("\n    implements ");
+        } else {
+            source.append("\n    implements io.github.pgmarc.space.deserializers.JsonStreamDeserializable<")
+                .append(type).append(">,\n    ");
+        }
+        source.append("io.github.pgmarc.space.serializers.JsonStreamSerializable<").append(type).append("> {\n\n");
+
+        source.append("    private static final JsonReader.Options NAMES = JsonReader.Options.of(");
+        List<String> names = new ArrayList<>();
+        for (Parameter parameter : properties()) {
+            names.add(literal(parameter.jsonName));
+        }
+        source.append(String.join(", ", names)).append(");\n\n");
+
+        for (Map.Entry<String, String> nested : nestedAdapters.entrySet()) {
+            source.append("    private final ").append(nested.getKey()).append(' ').append(nested.getValue())
+                .append(" = new ").append(nested.getKey()).append("();\n");
+        }
+        List<Parameter> contexts = contexts();
+        for (Parameter context : contexts) {
+            source.append("    private final ").append(context.type).append(' ').append(context.name).append(";\n");
+        }
+        if (!nestedAdapters.isEmpty() || !contexts.isEmpty()) {
+            source.append('\n');
+        }
+        if (!contexts.isEmpty()) {
+            List<String> arguments = new ArrayList<>();
+            for (Parameter context : contexts) {
+                arguments.add(context.type + " " + context.name);
+            }
+            source.append("    ").append(isPublic ? "public " : "").append(adapter.adapterName()).append('(')
+                .append(String.join(", ", arguments)).append(") {\n");
+            for (Parameter context : contexts) {
+                source.append("        this.").append(context.name).append(" = ").append(context.name)
+                    .append(";\n");
+            }
+            source.append("    }\n\n");
+        }
+
+        source.append(read).append('\n').append(write).append(helpers);
+        if (needsNumber) {
+            source.append('\n')
+                .append("    private static Number nextNumber(JsonReader reader) throws IOException {\n")
+                .append("        return reader.peekIntegral() ? (Number) reader.nextLong() : (Number) reader.nextDouble();\n")
+                .append("    }\n");
+        }
+        if (needsDateTime) {
+            source.append('\n')
+                .append("    private static java.time.ZonedDateTime nextDateTime(JsonReader reader) throws IOException {\n")
+                .append("        String text = reader.nextString();\n")
+                .append("        try {\n")
+                .append("            return java.time.ZonedDateTime.parse(text);\n")
+                .append("        } catch (java.time.format.DateTimeParseException e) {\n")
+                .append("            throw new JsonParseException(\"invalid date time \" + text, e);\n")
+                .append("        }\n")
+                .append("    }\n");
+        }
+        return source.append("}\n").toString();
+    }
+
+    private String readMethod() {
+        String type = adapter.typeName();
+        StringBuilder method = new StringBuilder();
+        if (adapter.hasKey()) {
+            method.append("    public ").append(type).append(" readJson(JsonReader reader, String key) throws IOException {\n");
+        } else {
+            method.append("    @Override\n")
+                .append("    public ").append(type).append(" readJson(JsonReader reader) throws IOException {\n");
+        }
+
+        List<Parameter> properties = properties();
+        for (Parameter parameter : properties) {
+            method.append("        ").append(parameter.valueType.mirror).append(' ').append(local(parameter))
+                .append(" = ").append(defaultValue(parameter.valueType)).append(";\n");
+            if (parameter.required && parameter.valueType.isPrimitive()) {
+                method.append("        boolean ").append(seen(parameter)).append(" = false;\n");
+            }
+        }
+
+        method.append("        reader.beginObject();\n")
+            .append("        while (reader.hasNext()) {\n")
+            .append("            switch (reader.selectName(NAMES)) {\n");
+        for (int i = 0; i < properties.size(); i++) {
+            Parameter parameter = properties.get(i);
+            method.append("                case ").append(i).append(":\n")
+                .append("                    if (!reader.skipNull()) {\n")
+                .append("                        ").append(local(parameter)).append(" = ")
+                .append(readExpression(parameter.valueType, null)).append(";\n");
+            if (parameter.required && parameter.valueType.isPrimitive()) {
+                method.append("                        ").append(seen(parameter)).append(" = true;\n");
+            }
+            method.append("                    }\n")
+                .append("                    break;\n");
+        }
+        method.append("                default:\n")
+            .append("                    reader.skipName();\n")
+            .append("                    reader.skipValue();\n")
+            .append("            }\n")
+            .append("        }\n")
+            .append("        reader.endObject();\n");
+
+        for (Parameter parameter : properties) {
+            if (!parameter.required) {
+                continue;
+            }
+            String missing = parameter.valueType.isPrimitive() ? "!" + seen(parameter) : local(parameter) + " == null";
+            method.append("        if (").append(missing).append(") {\n")
+                .append("            throw new JsonParseException(")
+                .append(literal("missing member " + parameter.jsonName)).append(");\n")
+                .append("        }\n");
+        }
+
+        List<String> arguments = new ArrayList<>();
+        for (Parameter parameter : adapter.parameters) {
+            switch (parameter.kind) {
+                case KEY:
+                    arguments.add("key");
+                    break;
+                case CONTEXT:
+                    arguments.add("this." + parameter.name);
+                    break;
+                default:
+                    arguments.add(local(parameter));
+            }
+        }
+        method.append("        return ").append(adapter.owner.getQualifiedName()).append('.')
+            .append(adapter.creator.getSimpleName()).append('(').append(String.join(", ", arguments))
+            .append(");\n")
+            .append("    }\n");
+        return method.toString();
+    }
+
+    private String writeMethod() {
+        List<String> contexts = new ArrayList<>();
+        for (Parameter context : contexts()) {
+            contexts.add("this." + context.name);
+        }
+        StringBuilder method = new StringBuilder()
+            .append("    @Override\n")
+            .append("    public void writeJson(JsonWriter writer, ").append(adapter.typeName())
+            .append(" value) throws IOException {\n")
+            .append("        writer.beginObject();\n");
+        for (Parameter parameter : properties()) {
+            Accessor accessor = parameter.accessor;
+            String call = accessor.call("value", contexts);
+            String local = local(parameter);
+            String name = "writer.name(" + literal(parameter.jsonName) + ");";
+            if (accessor.optional) {
+                method.append("        ").append(accessor.returnType).append(' ').append(local).append(" = ")
+                    .append(call).append(";\n")
+                    .append("        if (").append(local).append(".isPresent()) {\n")
+                    .append("            ").append(name).append('\n')
+                    .append("            ").append(writeStatement(parameter.valueType, local + ".get()")).append('\n')
+                    .append("        }\n");
+            } else if (parameter.valueType.isPrimitive()) {
+                method.append("        ").append(name).append('\n')
+                    .append("        ").append(writeStatement(parameter.valueType, call)).append('\n');
+            } else {
+                method.append("        ").append(parameter.valueType.mirror).append(' ').append(local)
+                    .append(" = ").append(call).append(";\n")
+                    .append("        if (").append(local).append(" != null) {\n")
+                    .append("            ").append(name).append('\n')
+                    .append("            ").append(writeStatement(parameter.valueType, local)).append('\n')
+                    .append("        }\n");
+            }
+        }
+        return method.append("        writer.endObject();\n")
+            .append("    }\n")
+            .toString();
+    }
+
+    private String readExpression(ValueType type, String key) {
+        switch (type.kind) {
+            case STRING:
+                return "reader.nextString()";
+            case BOOLEAN:
+                return "reader.nextBoolean()";
+            case INT:
+                return "reader.nextInt()";
+            case LONG:
+                return "reader.nextLong()";
+            case DOUBLE:
+                return "reader.nextDouble()";
+            case NUMBER:
+                needsNumber = true;
+                return "nextNumber(reader)";
+            case DATE_TIME:
+                needsDateTime = true;
+                return "nextDateTime(reader)";
+            case ADAPTER:
+                return nestedAdapter(type.adapter) + ".readJson(reader" + (type.adapter.hasKey() ? ", " + key : "")
+                    + ")";
+            case MAP:
+                return readMapHelper(type) + "(reader)";
+            case LIST:
+                return readListHelper(type) + "(reader)";
+            default:
+                throw new IllegalStateException("unexpected type " + type.kind);
+        }
+    }
+
+    private String writeStatement(ValueType type, String expression) {
+        switch (type.kind) {
+            case DATE_TIME:
+                return "writer.value(java.time.format.DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(" + expression
+                    + "));";
+            case ADAPTER:
+                return nestedAdapter(type.adapter) + ".writeJson(writer, " + expression + ");";
+            case MAP:
+                return writeMapHelper(type) + "(writer, " + expression + ");";
+            case LIST:
+                return writeListHelper(type) + "(writer, " + expression + ");";
+            default:
+                return "writer.value(" + expression + ");";
+        }
+    }
+
+    private String readMapHelper(ValueType type) {
+        String name = "readMap" + helperCount++;
+        String element = readExpression(type.element, "key");
+        helpers.append('\n')
+            .append("    private ").append(type.mirror).append(' ').append(name)
+            .append("(JsonReader reader) throws IOException {\n")
+            .append("        ").append(type.mirror).append(" map = new java.util.LinkedHashMap<>();\n")
+            .append("        reader.beginObject();\n")
+            .append("        while (reader.hasNext()) {\n")
+            .append("            String key = reader.nextName();\n")
+            .append("            if (!reader.skipNull()) {\n")
+            .append("                map.put(key, ").append(element).append(");\n")
+            .append("            }\n")
+            .append("        }\n")
+            .append("        reader.endObject();\n")
+            .append("        return map;\n")
+            .append("    }\n");
+        return name;
+    }
+
+    private String readListHelper(ValueType type) {
+        String name = "readList" + helperCount++;
+        String element = readExpression(type.element, null);
+        helpers.append('\n')
+            .append("    private ").append(type.mirror).append(' ').append(name)
+            .append("(JsonReader reader) throws IOException {\n")
+            .append("        ").append(type.mirror).append(" list = new java.util.ArrayList<>();\n")
+            .append("        reader.beginArray();\n")
+            .append("        while (reader.hasNext()) {\n")
+            .append("            if (!reader.skipNull()) {\n")
+            .append("                list.add(").append(element).append(");\n")
+            .append("            }\n")
+            .append("        }\n")
+            .append("        reader.endArray();\n")
+            .append("        return list;\n")
+            .append("    }\n");
+        return name;
+    }
+
+    private String writeMapHelper(ValueType type) {
+        String name = "writeMap" + helperCount++;
+        String element = writeStatement(type.element, "entry.getValue()");
+        helpers.append('\n')
+            .append("    private void ").append(name).append("(JsonWriter writer, ").append(type.mirror)
+            .append(" map) throws IOException {\n")
+            .append("        writer.beginObject();\n")
+            .append("        for (java.util.Map.Entry<String, ").append(type.element.mirror)
+            .append("> entry : map.entrySet()) {\n")
+            .append("            writer.name(entry.getKey());\n")
+            .append("            if (entry.getValue() == null) {\n")
+            .append("                writer.nullValue();\n")
+            .append("            } else {\n")
+            .append("                ").append(element).append('\n')
+            .append("            }\n")
+            .append("        }\n")
+            .append("        writer.endObject();\n")
+            .append("    }\n");
+        return name;
+    }
+
+    private String writeListHelper(ValueType type) {
+        String name = "writeList" + helperCount++;
+        String element = writeStatement(type.element, "item");
+        helpers.append('\n')
+            .append("    private void ").append(name).append("(JsonWriter writer, ").append(type.mirror)
+            .append(" list) throws IOException {\n")
+            .append("        writer.beginArray();\n")
+            .append("        for (").append(type.element.mirror).append(" item : list) {\n")
+            .append("            if (item == null) {\n")
+            .append("                writer.nullValue();\n")
+            .append("            } else {\n")
+            .append("                ").append(element).append('\n')
+            .append("            }\n")
+            .append("        }\n")
+            .append("        writer.endArray();\n")
+            .append("    }\n");
+        return name;
+    }
+
+    private String nestedAdapter(Adapter nested) {
+        if (nested == adapter) {
+            return "this";
+        }
+        String name = nested.adapterName();
+        return nestedAdapters.computeIfAbsent(nested.qualifiedAdapterName(),
+            qualifiedName -> Character.toLowerCase(name.charAt(0)) + name.substring(1));
+    }
+
+    private List<Parameter> properties() {
+        List<Parameter> properties = new ArrayList<>();
+        for (Parameter parameter : adapter.parameters) {
+            if (parameter.kind == Parameter.Kind.PROPERTY) {
+                properties.add(parameter);
+            }
+        }
+        return properties;
+    }
+
+    private List<Parameter> contexts() {
+        List<Parameter> contexts = new ArrayList<>();
+        for (Parameter parameter : adapter.parameters) {
+            if (parameter.kind == Parameter.Kind.CONTEXT) {
+                contexts.add(parameter);
+            }
+        }
+        return contexts;
+    }
+
+    private static String local(Parameter parameter) {
+        return RESERVED.contains(parameter.name) ? parameter.name + "Value" : parameter.name;
+    }
+
+    private static String seen(Parameter parameter) {
+        return "has" + Character.toUpperCase(parameter.name.charAt(0)) + parameter.name.substring(1);
+    }
+
+    private static String defaultValue(ValueType type) {
+        switch (type.mirror.getKind()) {
+            case BOOLEAN:
+                return "false";
+            case INT:
+            case LONG:
+            case DOUBLE:
+                return "0";
+            default:
+                return "null";
+        }
+    }
+
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                literal.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7e) {
+                literal.append(String.format("\\u%04x", (int) c));
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+}
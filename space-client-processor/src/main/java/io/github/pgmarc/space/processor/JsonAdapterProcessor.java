@@ -0,0 +1,355 @@
+package io.github.pgmarc.space.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates a <code>&lt;Type&gt;JsonAdapter</code> class for every
+ * {@link JsonCreator}. Adapters stream values with the client
+ * <code>JsonReader</code> and <code>JsonWriter</code>, dispatching on member
+ * names with a <code>switch</code> over <code>JsonReader.selectName</code>
+ * indices, so no reflection is involved and member names are never decoded
+ * into strings.
+ */
+public final class JsonAdapterProcessor extends AbstractProcessor {
+
+    private Elements elements;
+    private Types types;
+    private Messager messager;
+    private Filer filer;
+
+    /**
+     * Called by the compiler, which discovers the processor through
+     * <code>META-INF/services</code>.
+     */
+    public JsonAdapterProcessor() {
+    }
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.messager = processingEnv.getMessager();
+        this.filer = processingEnv.getFiler();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(JsonCreator.class.getCanonicalName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (annotations.isEmpty()) {
+            return false;
+        }
+
+        Map<String, Adapter> adapters = new LinkedHashMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(JsonCreator.class)) {
+            Adapter adapter = adapter(element);
+            if (adapter == null) {
+                continue;
+            }
+            Adapter previous = adapters.putIfAbsent(adapter.typeName(), adapter);
+            if (previous != null) {
+                error(element, "%s already has a @JsonCreator in %s", adapter.typeName(),
+                    previous.owner.getQualifiedName());
+            }
+        }
+
+        boolean valid = true;
+        for (Adapter adapter : adapters.values()) {
+            valid &= resolve(adapter, adapters);
+        }
+        if (!valid) {
+            return true;
+        }
+
+        for (Adapter adapter : adapters.values()) {
+            write(adapter);
+        }
+        return true;
+    }
+
+    private Adapter adapter(Element element) {
+        if (element.getKind() != ElementKind.METHOD) {
+            error(element, "@JsonCreator must annotate a method");
+            return null;
+        }
+        ExecutableElement creator = (ExecutableElement) element;
+        Set<Modifier> modifiers = creator.getModifiers();
+        if (!modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.PRIVATE)) {
+            error(creator, "@JsonCreator methods must be static and not private");
+            return null;
+        }
+        if (creator.getReturnType().getKind() != TypeKind.DECLARED) {
+            error(creator, "@JsonCreator methods must return a class");
+            return null;
+        }
+        TypeElement type = (TypeElement) types.asElement(creator.getReturnType());
+        if (!type.getTypeParameters().isEmpty()) {
+            error(creator, "@JsonCreator methods cannot return generic types");
+            return null;
+        }
+        TypeElement owner = (TypeElement) creator.getEnclosingElement();
+        return new Adapter(elements.getPackageOf(owner).getQualifiedName().toString(), owner, creator, type);
+    }
+
+    private boolean resolve(Adapter adapter, Map<String, Adapter> adapters) {
+        boolean valid = true;
+        for (VariableElement parameter : adapter.creator.getParameters()) {
+            JsonProperty property = parameter.getAnnotation(JsonProperty.class);
+            boolean key = parameter.getAnnotation(JsonKey.class) != null;
+            boolean context = parameter.getAnnotation(JsonContext.class) != null;
+            int annotations = (property != null ? 1 : 0) + (key ? 1 : 0) + (context ? 1 : 0);
+            if (annotations != 1) {
+                error(parameter, "parameter must be annotated with one of @JsonProperty, @JsonKey or @JsonContext");
+                valid = false;
+                continue;
+            }
+            String name = parameter.getSimpleName().toString();
+            if (key) {
+                if (!isType(parameter.asType(), "java.lang.String")) {
+                    error(parameter, "@JsonKey parameters must be strings");
+                    valid = false;
+                    continue;
+                }
+                adapter.parameters.add(Parameter.key(name));
+            } else if (context) {
+                adapter.parameters.add(Parameter.context(name, parameter.asType()));
+            } else {
+                ValueType valueType = valueType(parameter.asType(), parameter, adapters, false);
+                if (valueType == null) {
+                    valid = false;
+                    continue;
+                }
+                adapter.parameters.add(Parameter.property(name, property.value(), property.required(), valueType,
+                    property.accessor().isEmpty() ? name : property.accessor(), !property.accessor().isEmpty()));
+            }
+        }
+        if (!valid) {
+            return false;
+        }
+        for (int i = 0; i < adapter.parameters.size(); i++) {
+            Parameter parameter = adapter.parameters.get(i);
+            if (parameter.kind == Parameter.Kind.PROPERTY) {
+                parameter.accessor = accessor(adapter, parameter, adapter.creator.getParameters().get(i));
+                valid &= parameter.accessor != null;
+            }
+        }
+        return valid;
+    }
+
+    private ValueType valueType(TypeMirror type, Element where, Map<String, Adapter> adapters, boolean mapValue) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return ValueType.of(ValueType.Kind.BOOLEAN, type);
+            case INT:
+                return ValueType.of(ValueType.Kind.INT, type);
+            case LONG:
+                return ValueType.of(ValueType.Kind.LONG, type);
+            case DOUBLE:
+                return ValueType.of(ValueType.Kind.DOUBLE, type);
+            case DECLARED:
+                break;
+            default:
+                error(where, "unsupported type %s", type);
+                return null;
+        }
+        String name = ((TypeElement) types.asElement(type)).getQualifiedName().toString();
+        List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+        switch (name) {
+            case "java.lang.String":
+                return ValueType.of(ValueType.Kind.STRING, type);
+            case "java.lang.Boolean":
+                return ValueType.of(ValueType.Kind.BOOLEAN, type);
+            case "java.lang.Integer":
+                return ValueType.of(ValueType.Kind.INT, type);
+            case "java.lang.Long":
+                return ValueType.of(ValueType.Kind.LONG, type);
+            case "java.lang.Double":
+                return ValueType.of(ValueType.Kind.DOUBLE, type);
+            case "java.lang.Number":
+                return ValueType.of(ValueType.Kind.NUMBER, type);
+            case "java.time.ZonedDateTime":
+                return ValueType.of(ValueType.Kind.DATE_TIME, type);
+            case "java.util.Map": {
+                if (arguments.size() != 2 || !isType(arguments.get(0), "java.lang.String")) {
+                    error(where, "maps must have string keys: %s", type);
+                    return null;
+                }
+                ValueType element = valueType(arguments.get(1), where, adapters, true);
+                return element == null ? null : ValueType.collection(ValueType.Kind.MAP, type, element);
+            }
+            case "java.util.List": {
+                if (arguments.size() != 1) {
+                    error(where, "raw lists are not supported: %s", type);
+                    return null;
+                }
+                ValueType element = valueType(arguments.get(0), where, adapters, false);
+                return element == null ? null : ValueType.collection(ValueType.Kind.LIST, type, element);
+            }
+            default:
+                break;
+        }
+        Adapter adapter = adapters.get(name);
+        if (adapter == null) {
+            error(where, "unsupported type %s, it has no @JsonCreator", type);
+            return null;
+        }
+        for (VariableElement parameter : adapter.creator.getParameters()) {
+            if (parameter.getAnnotation(JsonContext.class) != null) {
+                error(where, "%s takes @JsonContext parameters and cannot be nested", name);
+                return null;
+            }
+            if (parameter.getAnnotation(JsonKey.class) != null && !mapValue) {
+                error(where, "%s takes a @JsonKey parameter and can only be nested as a map value", name);
+                return null;
+            }
+        }
+        return ValueType.adapter(type, adapter);
+    }
+
+    /**
+     * Finds the method giving a property value when writing, first as a
+     * static method of the class declaring the creator and then as a getter.
+     */
+    private Accessor accessor(Adapter adapter, Parameter parameter, VariableElement element) {
+        TypeMirror valueType = adapter.type.asType();
+        List<TypeMirror> contexts = new ArrayList<>();
+        for (Parameter other : adapter.parameters) {
+            if (other.kind == Parameter.Kind.CONTEXT) {
+                contexts.add(other.type);
+            }
+        }
+
+        for (ExecutableElement method : ElementFilter.methodsIn(adapter.owner.getEnclosedElements())) {
+            if (!method.getModifiers().contains(Modifier.STATIC) || method.getModifiers().contains(Modifier.PRIVATE)
+                || !method.getSimpleName().contentEquals(parameter.accessorName)
+                || method.getParameters().size() != contexts.size() + 1
+                || !types.isAssignable(valueType, method.getParameters().get(0).asType())) {
+                continue;
+            }
+            boolean matches = true;
+            for (int i = 0; i < contexts.size(); i++) {
+                matches &= types.isAssignable(contexts.get(i), method.getParameters().get(i + 1).asType());
+            }
+            if (matches) {
+                return checkReturnType(Accessor.ofStatic(adapter.owner.getQualifiedName().toString(),
+                    method.getSimpleName().toString()), method, parameter, element);
+            }
+        }
+
+        List<String> candidates = new ArrayList<>();
+        String capitalized = Character.toUpperCase(parameter.accessorName.charAt(0))
+            + parameter.accessorName.substring(1);
+        if (!parameter.explicitAccessor) {
+            candidates.add("get" + capitalized);
+            candidates.add("is" + capitalized);
+        }
+        candidates.add(parameter.accessorName);
+        for (String candidate : candidates) {
+            for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(adapter.type))) {
+                if (method.getSimpleName().contentEquals(candidate) && method.getParameters().isEmpty()
+                    && !method.getModifiers().contains(Modifier.STATIC) && isAccessible(method, adapter)) {
+                    return checkReturnType(Accessor.ofGetter(candidate), method, parameter, element);
+                }
+            }
+        }
+        error(element, "no accessor %s found in %s nor a getter in %s", parameter.accessorName,
+            adapter.owner.getQualifiedName(), adapter.typeName());
+        return null;
+    }
+
+    private Accessor checkReturnType(Accessor accessor, ExecutableElement method, Parameter parameter,
+                                     VariableElement element) {
+        TypeMirror returnType = method.getReturnType();
+        if (returnType.getKind() == TypeKind.DECLARED && isType(returnType, "java.util.Optional")) {
+            List<? extends TypeMirror> arguments = ((DeclaredType) returnType).getTypeArguments();
+            if (arguments.size() == 1) {
+                accessor.optional = true;
+                returnType = arguments.get(0);
+            }
+        }
+        if (!types.isAssignable(returnType, parameter.valueType.mirror)) {
+            error(element, "accessor %s returns %s, which is not assignable to %s", method.getSimpleName(),
+                method.getReturnType(), parameter.valueType.mirror);
+            return null;
+        }
+        accessor.returnType = accessor.optional ? method.getReturnType() : parameter.valueType.mirror;
+        return accessor;
+    }
+
+    private boolean isAccessible(ExecutableElement method, Adapter adapter) {
+        Set<Modifier> modifiers = method.getModifiers();
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        return !modifiers.contains(Modifier.PRIVATE)
+            && elements.getPackageOf(method).getQualifiedName().contentEquals(adapter.packageName);
+    }
+
+    private boolean isType(TypeMirror type, String qualifiedName) {
+        Element element = types.asElement(type);
+        return element instanceof TypeElement
+            && ((TypeElement) element).getQualifiedName().contentEquals(qualifiedName);
+    }
+
+    private void write(Adapter adapter) {
+        String source = new AdapterWriter(adapter, isPublic(adapter.type)).write();
+        try {
+            JavaFileObject file = filer.createSourceFile(adapter.qualifiedAdapterName(), adapter.creator);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source);
+            }
+        } catch (IOException e) {
+            error(adapter.creator, "could not write %s: %s", adapter.qualifiedAdapterName(), e.getMessage());
+        }
+    }
+
+    private static boolean isPublic(TypeElement type) {
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if (!element.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void error(Element element, String format, Object... args) {
+        messager.printMessage(Diagnostic.Kind.ERROR, String.format(format, args), element);
+    }
+}
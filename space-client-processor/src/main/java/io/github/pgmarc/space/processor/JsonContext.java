@@ -0,0 +1,16 @@
+package io.github.pgmarc.space.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a {@link JsonCreator} parameter to a value given to the constructor
+ * of the generated adapter instead of read from JSON. Adapters with context
+ * parameters cannot be nested in other adapters.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.PARAMETER)
+public @interface JsonContext {
+}
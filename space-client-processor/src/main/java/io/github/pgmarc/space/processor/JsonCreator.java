@@ -0,0 +1,19 @@
+package io.github.pgmarc.space.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a static factory method building a value from the members of a JSON
+ * object. A <code>&lt;Type&gt;JsonAdapter</code> class reading and writing
+ * that object is generated next to the class declaring the method.
+ * <p>
+ * Every parameter must be annotated with {@link JsonProperty},
+ * {@link JsonKey} or {@link JsonContext}.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.METHOD)
+public @interface JsonCreator {
+}
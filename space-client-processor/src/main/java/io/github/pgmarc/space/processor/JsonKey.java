@@ -0,0 +1,16 @@
+package io.github.pgmarc.space.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a <code>String</code> {@link JsonCreator} parameter to the name of
+ * the member holding the object, for values read from a
+ * <code>Map&lt;String, T&gt;</code>. It is not written back.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.PARAMETER)
+public @interface JsonKey {
+}
@@ -0,0 +1,49 @@
+package io.github.pgmarc.space.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a {@link JsonCreator} parameter to a member of the JSON object.
+ * <p>
+ * Supported types are <code>String</code>, <code>boolean</code>,
+ * <code>int</code>, <code>long</code>, <code>double</code> and their boxed
+ * types, <code>Number</code>, <code>ZonedDateTime</code>, types with their
+ * own {@link JsonCreator}, and <code>Map&lt;String, T&gt;</code> and
+ * <code>List&lt;T&gt;</code> of supported types.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.PARAMETER)
+public @interface JsonProperty {
+
+    /**
+     * Member name.
+     *
+     * @return the name of the member in the JSON object
+     */
+    String value();
+
+    /**
+     * Whether reading fails when the member is missing or
+     * <code>null</code>. Optional members are passed as <code>null</code>,
+     * or as zero or <code>false</code> for primitives.
+     *
+     * @return whether the member is required
+     */
+    boolean required() default false;
+
+    /**
+     * Method giving the member value when writing. Defaults to the parameter
+     * name. It is looked up first as a static method of the class declaring
+     * the creator, taking the value and then every {@link JsonContext}
+     * parameter, and then as a getter of the value: <code>getName()</code>,
+     * <code>isName()</code> or <code>name()</code>. Getters may return an
+     * <code>Optional</code>; empty and <code>null</code> values are not
+     * written.
+     *
+     * @return the accessor name, or an empty string for the parameter name
+     */
+    String accessor() default "";
+}
@@ -0,0 +1,51 @@
+package io.github.pgmarc.space.processor;
+
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Parameter of a {@link JsonCreator}.
+ */
+final class Parameter {
+
+    enum Kind {
+        PROPERTY,
+        KEY,
+        CONTEXT
+    }
+
+    final Kind kind;
+    final String name;
+    final String jsonName;
+    final boolean required;
+    final ValueType valueType;
+    final TypeMirror type;
+    final String accessorName;
+    final boolean explicitAccessor;
+    Accessor accessor;
+
+    private Parameter(Kind kind, String name, String jsonName, boolean required, ValueType valueType,
+                      TypeMirror type, String accessorName, boolean explicitAccessor) {
+        this.kind = kind;
+        this.name = name;
+        this.jsonName = jsonName;
+        this.required = required;
+        this.valueType = valueType;
+        this.type = type;
+        this.accessorName = accessorName;
+        this.explicitAccessor = explicitAccessor;
+    }
+
+    static Parameter property(String name, String jsonName, boolean required, ValueType valueType,
+                              String accessorName, boolean explicitAccessor) {
+        return new Parameter(Kind.PROPERTY, name, jsonName, required, valueType, valueType.mirror, accessorName,
+            explicitAccessor);
+    }
+
+    static Parameter key(String name) {
+        return new Parameter(Kind.KEY, name, null, false, null, null, null, false);
+    }
+
+    static Parameter context(String name, TypeMirror type) {
+        return new Parameter(Kind.CONTEXT, name, null, false, null, type, null, false);
+    }
+}
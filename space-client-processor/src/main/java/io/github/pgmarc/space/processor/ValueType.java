@@ -0,0 +1,50 @@
+package io.github.pgmarc.space.processor;
+
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * JSON shape of a property type.
+ */
+final class ValueType {
+
+    enum Kind {
+        STRING,
+        BOOLEAN,
+        INT,
+        LONG,
+        DOUBLE,
+        NUMBER,
+        DATE_TIME,
+        ADAPTER,
+        MAP,
+        LIST
+    }
+
+    final Kind kind;
+    final TypeMirror mirror;
+    final ValueType element;
+    final Adapter adapter;
+
+    private ValueType(Kind kind, TypeMirror mirror, ValueType element, Adapter adapter) {
+        this.kind = kind;
+        this.mirror = mirror;
+        this.element = element;
+        this.adapter = adapter;
+    }
+
+    static ValueType of(Kind kind, TypeMirror mirror) {
+        return new ValueType(kind, mirror, null, null);
+    }
+
+    static ValueType collection(Kind kind, TypeMirror mirror, ValueType element) {
+        return new ValueType(kind, mirror, element, null);
+    }
+
+    static ValueType adapter(TypeMirror mirror, Adapter adapter) {
+        return new ValueType(Kind.ADAPTER, mirror, null, adapter);
+    }
+
+    boolean isPrimitive() {
+        return mirror.getKind().isPrimitive();
+    }
+}
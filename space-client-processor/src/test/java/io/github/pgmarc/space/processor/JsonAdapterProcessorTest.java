@@ -0,0 +1,156 @@
+package io.github.pgmarc.space.processor;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+
+class JsonAdapterProcessorTest {
+
+    private static List<String> compile(String source) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///test/Mappings.java"),
+            JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        try (StandardJavaFileManager standard = compiler.getStandardFileManager(diagnostics, null, null);
+             JavaFileManager inMemory = new InMemoryFileManager(standard)) {
+            List<String> options = new ArrayList<>();
+            options.add("-classpath");
+            options.add(System.getProperty("java.class.path"));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, inMemory, diagnostics, options, null,
+                Collections.singletonList(file));
+            task.setProcessors(Collections.singletonList(new JsonAdapterProcessor()));
+            task.call();
+        }
+        return diagnostics.getDiagnostics().stream()
+            .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+            .map(diagnostic -> diagnostic.getMessage(Locale.ROOT))
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    void givenInstanceCreatorShouldReportError() throws IOException {
+
+        String source = "package test;\n"
+            + "import io.github.pgmarc.space.processor.*;\n"
+            + "class Mappings {\n"
+            + "    @JsonCreator Mappings create(@JsonProperty(\"name\") String name) { return this; }\n"
+            + "}\n";
+
+        assertThat(compile(source)).contains("@JsonCreator methods must be static and not private");
+    }
+
+    @Test
+    void givenUnannotatedParameterShouldReportError() throws IOException {
+
+        String source = "package test;\n"
+            + "import io.github.pgmarc.space.processor.*;\n"
+            + "class Mappings {\n"
+            + "    @JsonCreator static Mappings create(String name) { return null; }\n"
+            + "}\n";
+
+        assertThat(compile(source))
+            .contains("parameter must be annotated with one of @JsonProperty, @JsonKey or @JsonContext");
+    }
+
+    @Test
+    void givenUnsupportedTypeShouldReportError() throws IOException {
+
+        String source = "package test;\n"
+            + "import io.github.pgmarc.space.processor.*;\n"
+            + "class Mappings {\n"
+            + "    @JsonCreator static Mappings create(@JsonProperty(\"thread\") Thread thread) { return null; }\n"
+            + "}\n";
+
+        assertThat(compile(source)).contains("unsupported type java.lang.Thread, it has no @JsonCreator");
+    }
+
+    @Test
+    void givenMissingAccessorShouldReportError() throws IOException {
+
+        String source = "package test;\n"
+            + "import io.github.pgmarc.space.processor.*;\n"
+            + "class Mappings {\n"
+            + "    @JsonCreator static Mappings create(@JsonProperty(\"name\") String name) { return null; }\n"
+            + "}\n";
+
+        assertThat(compile(source)).anyMatch(message -> message.startsWith("no accessor name found"));
+    }
+
+    @Test
+    void givenDuplicateCreatorShouldReportError() throws IOException {
+
+        String source = "package test;\n"
+            + "import io.github.pgmarc.space.processor.*;\n"
+            + "class Mappings {\n"
+            + "    @JsonCreator static Mappings a(@JsonProperty(\"name\") String name) { return null; }\n"
+            + "    @JsonCreator static Mappings b(@JsonProperty(\"name\") String name) { return null; }\n"
+            + "    String getName() { return null; }\n"
+            + "}\n";
+
+        assertThat(compile(source)).anyMatch(message -> message.contains("already has a @JsonCreator"));
+    }
+
+    /**
+     * Keeps generated sources and classes in memory, out of the build
+     * directories.
+     */
+    private static final class InMemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+        InMemoryFileManager(StandardJavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                                                   FileObject sibling) {
+            return new SimpleJavaFileObject(URI.create("mem:///" + className.replace('.', '/') + kind.extension),
+                kind) {
+                private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+                @Override
+                public OutputStream openOutputStream() {
+                    return content;
+                }
+
+                @Override
+                public Writer openWriter() {
+                    return new OutputStreamWriter(content, StandardCharsets.UTF_8);
+                }
+
+                @Override
+                public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                    return new String(content.toByteArray(), StandardCharsets.UTF_8);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package io.github.pgmarc.space;
+
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.contracts.UsageLevel;
+import io.github.pgmarc.space.features.FeatureEvaluationResult;
+
+/**
+ * Time to live of a cached evaluation derived from its usage limits. The
+ * further a user is from a limit the longer the evaluation is cached:
+ * <ul>
+ * <li>the positive TTL is scaled by the share of the limit still left, and
+ * evaluations with less than 1% left are not cached at all</li>
+ * <li>when the user was seen consuming, the TTL is at most half the time
+ * the headroom lasts at the observed rate</li>
+ * <li>no evaluation outlives the next reset of one of its limits, when the
+ * reset is known from the cached contract of the user</li>
+ * </ul>
+ */
+final class AdaptiveTtl {
+
+    static final long UNKNOWN = Long.MIN_VALUE;
+
+    private static final double MINIMUM_HEADROOM = 0.01;
+    private static final double SAFETY_FACTOR = 0.5;
+
+    @FunctionalInterface
+    interface UsageResets {
+
+        /**
+         * Epoch millis of the next reset of <code>usageLimit</code>, or
+         * {@link #UNKNOWN}.
+         */
+        long nextReset(String userId, String service, String usageLimit);
+    }
+
+    private final long positiveTtlNanos;
+    private final long negativeTtlNanos;
+    private final UsageResets resets;
+    private final LongSupplier epochMillis;
+
+    AdaptiveTtl(EvaluationCachePolicy policy, UsageResets resets, LongSupplier epochMillis) {
+        this.positiveTtlNanos = policy.getPositiveTtl().toNanos();
+        this.negativeTtlNanos = policy.getNegativeTtl().toNanos();
+        this.resets = resets;
+        this.epochMillis = epochMillis;
+    }
+
+    long timeToLive(String userId, String service, FeatureEvaluationResult result, Observation observation) {
+        boolean available = result.isAvailable();
+        long res = available ? positiveTtlNanos : negativeTtlNanos;
+        long now = epochMillis.getAsLong();
+        for (int i = 0; i < observation.limits.length; i++) {
+            if (available) {
+                double limit = observation.limits[i];
+                double headroom = limit - observation.used[i];
+                if (headroom <= limit * MINIMUM_HEADROOM) {
+                    return 0;
+                }
+                res = Math.min(res, (long) (positiveTtlNanos * (headroom / limit)));
+                if (observation.rates[i] > 0) {
+                    res = Math.min(res, (long) (headroom / observation.rates[i] * SAFETY_FACTOR));
+                }
+            }
+            long reset = resets.nextReset(userId, service, observation.names[i]);
+            if (reset != UNKNOWN && reset > now) {
+                res = Math.min(res, (reset - now) * 1_000_000L);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Next reset of <code>usageLimit</code> according to
+     * <code>subscription</code>, which may be <code>null</code>.
+     */
+    static long nextReset(Subscription subscription, String service, String usageLimit) {
+        if (subscription == null) {
+            return UNKNOWN;
+        }
+        Map<String, Map<String, UsageLevel>> usageLevels = subscription.getUsageLevels();
+        Map<String, UsageLevel> serviceLevels = usageLevels.get(service);
+        if (serviceLevels == null) {
+            serviceLevels = usageLevels.get(service.toLowerCase());
+        }
+        UsageLevel level = serviceLevels != null ? serviceLevels.get(usageLimit) : null;
+        return level != null && level.isRenewableUsageLimit() ? level.getResetEpochMillis() : UNKNOWN;
+    }
+
+    /**
+     * Used values of the limited quotas of an evaluation, with the rate
+     * they grew at since the previous observation of the same feature.
+     * A rate that was not seen growing again halves.
+     */
+    static final class Observation {
+
+        private static final Observation EMPTY = new Observation(null, 0, new String[0], new double[0],
+                new double[0], new double[0]);
+
+        private final Object key;
+        private final long nanos;
+        private final String[] names;
+        private final double[] used;
+        private final double[] limits;
+        private final double[] rates;
+
+        private Observation(Object key, long nanos, String[] names, double[] used, double[] limits,
+                double[] rates) {
+            this.key = key;
+            this.nanos = nanos;
+            this.names = names;
+            this.used = used;
+            this.limits = limits;
+            this.rates = rates;
+        }
+
+        static Observation of(Object key, long nanos, FeatureEvaluationResult result, Observation previous) {
+            Map<String, FeatureEvaluationResult.Usage> quotas = result.getQuotas();
+            int count = 0;
+            for (FeatureEvaluationResult.Usage usage : quotas.values()) {
+                count += usage.hasLimit() ? 1 : 0;
+            }
+            if (count == 0) {
+                return EMPTY;
+            }
+            String[] names = new String[count];
+            double[] used = new double[count];
+            double[] limits = new double[count];
+            double[] rates = new double[count];
+            int i = 0;
+            for (Map.Entry<String, FeatureEvaluationResult.Usage> quota : quotas.entrySet()) {
+                FeatureEvaluationResult.Usage usage = quota.getValue();
+                if (!usage.hasLimit()) {
+                    continue;
+                }
+                names[i] = quota.getKey();
+                used[i] = usage.getUsedAsDouble();
+                limits[i] = usage.getLimitAsDouble();
+                if (previous != null && key.equals(previous.key)) {
+                    rates[i] = previous.rate(names[i], used[i], nanos);
+                }
+                i++;
+            }
+            return new Observation(key, nanos, names, used, limits, rates);
+        }
+
+        boolean isOf(Object key) {
+            return key.equals(this.key);
+        }
+
+        private double rate(String name, double usedNow, long nanosNow) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    double consumed = usedNow - used[i];
+                    long elapsed = nanosNow - nanos;
+                    if (consumed > 0 && elapsed > 0) {
+                        return consumed / elapsed;
+                    }
+                    return consumed < 0 ? 0 : rates[i] / 2;
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.pgmarc.space;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Settings of a client side cache. By default it holds up to 64 MiB of
+ * entries, weighed by their estimated size in memory, for 1 minute after
+ * they were written. Entries can also be refreshed in the background
+ * before they expire, see {@link Builder#refreshAfterWrite(Duration)}.
+ */
+public final class CachePolicy {
+
+    private final long maximumWeight;
+    private final Duration expireAfterWrite;
+    private final Duration refreshAfterWrite;
+    private final int maximumConcurrentRefreshes;
+
+    private CachePolicy(Builder builder) {
+        this.maximumWeight = builder.maximumWeight;
+        this.expireAfterWrite = builder.expireAfterWrite;
+        this.refreshAfterWrite = builder.refreshAfterWrite;
+        this.maximumConcurrentRefreshes = builder.maximumConcurrentRefreshes;
+    }
+
+    public static CachePolicy defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public Duration getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    public Optional<Duration> getRefreshAfterWrite() {
+        return Optional.ofNullable(refreshAfterWrite);
+    }
+
+    public int getMaximumConcurrentRefreshes() {
+        return maximumConcurrentRefreshes;
+    }
+
+    @Override
+    public String toString() {
+        return "CachePolicy{" +
+            "maximumWeight=" + maximumWeight +
+            ", expireAfterWrite=" + expireAfterWrite +
+            ", refreshAfterWrite=" + refreshAfterWrite +
+            ", maximumConcurrentRefreshes=" + maximumConcurrentRefreshes +
+            '}';
+    }
+
+    public static final class Builder {
+
+        private long maximumWeight = 64L << 20;
+        private Duration expireAfterWrite = Duration.ofMinutes(1);
+        private Duration refreshAfterWrite;
+        private int maximumConcurrentRefreshes = 16;
+
+        private Builder() {
+        }
+
+        /**
+         * Maximum estimated size of the cached entries in bytes. Entries
+         * that are rarely used are evicted first.
+         */
+        public Builder maximumWeight(long bytes) {
+            if (bytes < 1) {
+                throw new IllegalArgumentException("maximum weight must be greater than 0");
+            }
+            this.maximumWeight = bytes;
+            return this;
+        }
+
+        public Builder expireAfterWrite(Duration expireAfterWrite) {
+            Objects.requireNonNull(expireAfterWrite, "expire after write must not be null");
+            if (expireAfterWrite.isNegative() || expireAfterWrite.isZero()) {
+                throw new IllegalArgumentException("expire after write must be positive");
+            }
+            this.expireAfterWrite = expireAfterWrite;
+            return this;
+        }
+
+        /**
+         * Entries read after this time are reloaded in the background, and
+         * possibly a bit earlier so that entries written together are not
+         * all reloaded at once. Until the reload completes readers keep
+         * getting the cached value, as long as it has not expired.
+         */
+        public Builder refreshAfterWrite(Duration refreshAfterWrite) {
+            Objects.requireNonNull(refreshAfterWrite, "refresh after write must not be null");
+            if (refreshAfterWrite.isNegative() || refreshAfterWrite.isZero()) {
+                throw new IllegalArgumentException("refresh after write must be positive");
+            }
+            this.refreshAfterWrite = refreshAfterWrite;
+            return this;
+        }
+
+        /**
+         * Maximum number of background reloads in flight. Entries due for a
+         * refresh while the limit is reached are refreshed by a later read.
+         */
+        public Builder maximumConcurrentRefreshes(int maximumConcurrentRefreshes) {
+            if (maximumConcurrentRefreshes < 1) {
+                throw new IllegalArgumentException("maximum concurrent refreshes must be greater than 0");
+            }
+            this.maximumConcurrentRefreshes = maximumConcurrentRefreshes;
+            return this;
+        }
+
+        public CachePolicy build() {
+            if (refreshAfterWrite != null && refreshAfterWrite.compareTo(expireAfterWrite) >= 0) {
+                throw new IllegalStateException("refresh after write must be shorter than expire after write");
+            }
+            return new CachePolicy(this);
+        }
+    }
+}
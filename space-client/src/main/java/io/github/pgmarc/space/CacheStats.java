@@ -0,0 +1,104 @@
+package io.github.pgmarc.space;
+
+/**
+ * Counters of a client side cache since it was created. A miss that is
+ * loaded from SPACE counts as a load, its duration is added to the total
+ * load time whether it succeeded or not. Background refreshes count as
+ * loads too.
+ */
+public final class CacheStats {
+
+    private static final CacheStats EMPTY = new CacheStats(0, 0, 0, 0, 0, 0, 0, 0);
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long loadSuccessCount;
+    private final long loadFailureCount;
+    private final long totalLoadTimeNanos;
+    private final long staleHitCount;
+    private final long refreshCount;
+
+    CacheStats(long hitCount, long missCount, long evictionCount, long loadSuccessCount, long loadFailureCount,
+            long totalLoadTimeNanos, long staleHitCount, long refreshCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.totalLoadTimeNanos = totalLoadTimeNanos;
+        this.staleHitCount = staleHitCount;
+        this.refreshCount = refreshCount;
+    }
+
+    static CacheStats empty() {
+        return EMPTY;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Ratio of lookups that were hits, 1 if there were none.
+     */
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1 : (double) hitCount / requests;
+    }
+
+    /**
+     * Entries removed to keep the cache under its maximum weight. Expired
+     * and invalidated entries are not evictions.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getLoadSuccessCount() {
+        return loadSuccessCount;
+    }
+
+    public long getLoadFailureCount() {
+        return loadFailureCount;
+    }
+
+    public long getTotalLoadTimeNanos() {
+        return totalLoadTimeNanos;
+    }
+
+    public double getAverageLoadPenaltyNanos() {
+        long loads = loadSuccessCount + loadFailureCount;
+        return loads == 0 ? 0 : (double) totalLoadTimeNanos / loads;
+    }
+
+    /**
+     * Hits that returned an entry past its refresh time, while it was
+     * being reloaded or waiting for a reload slot.
+     */
+    public long getStaleHitCount() {
+        return staleHitCount;
+    }
+
+    public long getRefreshCount() {
+        return refreshCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+            "hitCount=" + hitCount +
+            ", missCount=" + missCount +
+            ", evictionCount=" + evictionCount +
+            ", loadSuccessCount=" + loadSuccessCount +
+            ", loadFailureCount=" + loadFailureCount +
+            ", totalLoadTimeNanos=" + totalLoadTimeNanos +
+            ", staleHitCount=" + staleHitCount +
+            ", refreshCount=" + refreshCount +
+            '}';
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.pgmarc.space;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import io.github.pgmarc.space.exceptions.SpaceApiException;
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+final class CallExecutor {
+
+    static final Executor DIRECT = Runnable::run;
+
+    private final OkHttpClient client;
+    private final SingleFlight singleFlight;
+    private final Hedging hedging;
+
+    CallExecutor(OkHttpClient client) {
+        this(client, null, null);
+    }
+
+    CallExecutor(OkHttpClient client, SingleFlight singleFlight, Hedging hedging) {
+        this.client = client;
+        this.singleFlight = singleFlight;
+        this.hedging = hedging;
+    }
+
+    <T> T execute(Request request, ResponseHandler<T> handler) throws IOException {
+        String key = coalescingKey(request);
+        if (key == null) {
+            return doExecute(request, handler);
+        }
+        return singleFlight.execute(key, () -> doExecute(request, handler));
+    }
+
+    <T> CompletableFuture<T> enqueue(Request request, ResponseHandler<T> handler, Executor callbackExecutor) {
+        Objects.requireNonNull(callbackExecutor, "callback executor must not be null");
+        String key = coalescingKey(request);
+        if (key == null) {
+            return doEnqueue(request, handler, callbackExecutor);
+        }
+        return singleFlight.enqueue(key, () -> doEnqueue(request, handler, callbackExecutor), callbackExecutor);
+    }
+
+    long getDeduplicatedCalls() {
+        return singleFlight == null ? 0 : singleFlight.getDeduplicatedCalls();
+    }
+
+    long getHedgedCalls() {
+        return hedging == null ? 0 : hedging.getHedgedCalls();
+    }
+
+    private <T> T doExecute(Request request, ResponseHandler<T> handler) throws IOException {
+        if (hedging != null && hedging.appliesTo(request)) {
+            return hedging.execute(client, request, handler);
+        }
+        Response response;
+        try {
+            response = client.newCall(request).execute();
+        } catch (IOException e) {
+            SpaceApiException rejection = rejectionOf(e);
+            if (rejection != null) {
+                throw rejection;
+            }
+            throw e;
+        }
+        try (response) {
+            return handler.handle(response);
+        }
+    }
+
+    /**
+     * Interceptors can only fail with an {@link IOException}, client side
+     * rejections like an open circuit breaker travel as its cause.
+     */
+    static SpaceApiException rejectionOf(IOException e) {
+        return e.getCause() instanceof SpaceApiException ? (SpaceApiException) e.getCause() : null;
+    }
+
+    private <T> CompletableFuture<T> doEnqueue(Request request, ResponseHandler<T> handler,
+            Executor callbackExecutor) {
+        if (hedging != null && hedging.appliesTo(request)) {
+            return hedging.enqueue(client, request, handler, callbackExecutor);
+        }
+        Call call = client.newCall(request);
+        CallFuture<T> future = new CallFuture<>(call, handler, callbackExecutor);
+        call.enqueue(future);
+        return future;
+    }
+
+    /**
+     * Only read operations are coalesced, identified by method and URL.
+     */
+    private String coalescingKey(Request request) {
+        if (singleFlight == null) {
+            return null;
+        }
+        RequestTag tag = RequestTag.of(request);
+        if (tag == null || !tag.getOperation().isRead()) {
+            return null;
+        }
+        return request.method() + " " + request.url();
+    }
+}
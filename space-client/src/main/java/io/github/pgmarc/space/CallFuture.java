@@ -0,0 +1,63 @@
+package io.github.pgmarc.space;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import io.github.pgmarc.space.exceptions.SpaceApiException;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Response;
+
+/**
+ * A {@link CompletableFuture} bound to an enqueued OkHttp {@link Call}.
+ * Cancelling the future cancels the underlying call, and the response is
+ * handled on the given callback executor instead of the dispatcher thread.
+ */
+final class CallFuture<T> extends CompletableFuture<T> implements Callback {
+
+    private final Call call;
+    private final ResponseHandler<T> handler;
+    private final Executor callbackExecutor;
+
+    CallFuture(Call call, ResponseHandler<T> handler, Executor callbackExecutor) {
+        this.call = call;
+        this.handler = handler;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        call.cancel();
+        return super.cancel(mayInterruptIfRunning);
+    }
+
+    @Override
+    public void onFailure(Call call, IOException e) {
+        SpaceApiException rejection = CallExecutor.rejectionOf(e);
+        completeExceptionally(rejection != null ? rejection : e);
+    }
+
+    @Override
+    public void onResponse(Call call, Response response) {
+        if (isDone()) {
+            response.close();
+            return;
+        }
+        try {
+            callbackExecutor.execute(() -> handle(response));
+        } catch (RejectedExecutionException e) {
+            response.close();
+            completeExceptionally(e);
+        }
+    }
+
+    private void handle(Response response) {
+        try (response) {
+            complete(handler.handle(response));
+        } catch (IOException | RuntimeException e) {
+            completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package io.github.pgmarc.space;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Connection management settings of the underlying OkHttp client. Every
+ * setting is optional, unset values keep OkHttp defaults: 5 idle connections
+ * kept alive for 5 minutes, 64 concurrent requests with at most 5 per host,
+ * 10 seconds connect timeout and no call timeout.
+ */
+public final class ConnectionProfile {
+
+    static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+    static final Duration DEFAULT_KEEP_ALIVE = Duration.ofMinutes(5);
+
+    private final Integer maxIdleConnections;
+    private final Duration keepAlive;
+    private final Integer maxRequests;
+    private final Integer maxRequestsPerHost;
+    private final Duration connectTimeout;
+    private final Duration callTimeout;
+    private final int preWarmedConnections;
+
+    private ConnectionProfile(Builder builder) {
+        this.maxIdleConnections = builder.maxIdleConnections;
+        this.keepAlive = builder.keepAlive;
+        this.maxRequests = builder.maxRequests;
+        this.maxRequestsPerHost = builder.maxRequestsPerHost;
+        this.connectTimeout = builder.connectTimeout;
+        this.callTimeout = builder.callTimeout;
+        this.preWarmedConnections = builder.preWarmedConnections;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Optional<Integer> getMaxIdleConnections() {
+        return Optional.ofNullable(maxIdleConnections);
+    }
+
+    public Optional<Duration> getKeepAlive() {
+        return Optional.ofNullable(keepAlive);
+    }
+
+    public Optional<Integer> getMaxRequests() {
+        return Optional.ofNullable(maxRequests);
+    }
+
+    public Optional<Integer> getMaxRequestsPerHost() {
+        return Optional.ofNullable(maxRequestsPerHost);
+    }
+
+    public Optional<Duration> getConnectTimeout() {
+        return Optional.ofNullable(connectTimeout);
+    }
+
+    public Optional<Duration> getCallTimeout() {
+        return Optional.ofNullable(callTimeout);
+    }
+
+    public int getPreWarmedConnections() {
+        return preWarmedConnections;
+    }
+
+    boolean hasConnectionPoolSettings() {
+        return maxIdleConnections != null || keepAlive != null;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionProfile{" +
+            "maxIdleConnections=" + maxIdleConnections +
+            ", keepAlive=" + keepAlive +
+            ", maxRequests=" + maxRequests +
+            ", maxRequestsPerHost=" + maxRequestsPerHost +
+            ", connectTimeout=" + connectTimeout +
+            ", callTimeout=" + callTimeout +
+            ", preWarmedConnections=" + preWarmedConnections +
+            '}';
+    }
+
+    public static final class Builder {
+
+        private Integer maxIdleConnections;
+        private Duration keepAlive;
+        private Integer maxRequests;
+        private Integer maxRequestsPerHost;
+        private Duration connectTimeout;
+        private Duration callTimeout;
+        private int preWarmedConnections;
+
+        private Builder() {
+        }
+
+        private static void validatePositive(int value, String name) {
+            if (value < 1) {
+                throw new IllegalArgumentException(name + " must be greater than 0");
+            }
+        }
+
+        private static void validateDuration(Duration duration, String name) {
+            Objects.requireNonNull(duration, name + " must not be null");
+            if (duration.isNegative()) {
+                throw new IllegalArgumentException(name + " must not be negative");
+            }
+        }
+
+        public Builder maxIdleConnections(int maxIdleConnections) {
+            validatePositive(maxIdleConnections, "max idle connections");
+            this.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        public Builder keepAlive(Duration keepAlive) {
+            validateDuration(keepAlive, "keep alive");
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        public Builder maxRequests(int maxRequests) {
+            validatePositive(maxRequests, "max requests");
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+            validatePositive(maxRequestsPerHost, "max requests per host");
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        public Builder connectTimeout(Duration connectTimeout) {
+            validateDuration(connectTimeout, "connect timeout");
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        public Builder callTimeout(Duration callTimeout) {
+            validateDuration(callTimeout, "call timeout");
+            this.callTimeout = callTimeout;
+            return this;
+        }
+
+        /**
+         * Number of connections opened to SPACE when the client is built, so
+         * that the first calls do not pay the TCP handshake. With routing,
+         * as many are opened to each node.
+         */
+        public Builder preWarmConnections(int connections) {
+            if (connections < 0) {
+                throw new IllegalArgumentException("pre-warmed connections must not be negative");
+            }
+            this.preWarmedConnections = connections;
+            return this;
+        }
+
+        public ConnectionProfile build() {
+            int idleConnections = maxIdleConnections != null ? maxIdleConnections : DEFAULT_MAX_IDLE_CONNECTIONS;
+            if (preWarmedConnections > idleConnections) {
+                throw new IllegalStateException("pre-warmed connections (" + preWarmedConnections
+                    + ") must not exceed max idle connections (" + idleConnections + ")");
+            }
+            if (maxRequestsPerHost != null && maxRequests != null && maxRequestsPerHost > maxRequests) {
+                throw new IllegalStateException("max requests per host must not exceed max requests");
+            }
+            return new ConnectionProfile(this);
+        }
+    }
+}
@@ -2,105 +2,176 @@ package io.github.pgmarc.space;
 
 import java.io.IOException;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
-import org.json.JSONObject;
-
+import io.github.pgmarc.space.codec.JsonCodec;
 import io.github.pgmarc.space.contracts.Subscription;
 import io.github.pgmarc.space.contracts.SubscriptionRequest;
 import io.github.pgmarc.space.contracts.SubscriptionUpdateRequest;
 import io.github.pgmarc.space.deserializers.ErrorDeserializer;
-import io.github.pgmarc.space.deserializers.SubscriptionDeserializer;
 import io.github.pgmarc.space.exceptions.SpaceApiException;
-import io.github.pgmarc.space.serializers.SubscriptionRequestSerializer;
-import io.github.pgmarc.space.serializers.SubscriptionUpdateRequestSerializer;
+import io.github.pgmarc.space.json.JsonReader;
 import okhttp3.Headers;
 import okhttp3.HttpUrl;
 import okhttp3.MediaType;
-import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.RequestBody;
 import okhttp3.Response;
-import okhttp3.ResponseBody;
 
 public final class ContractsEndpoint {
 
     private static final MediaType JSON = MediaType.get("application/json");
     private static final String ENDPOINT = "contracts";
-    private static final String STATUS_CODE = "statusCode";
 
-    private final OkHttpClient client;
+    private final CallExecutor calls;
     private final HttpUrl baseUrl;
-    private final SubscriptionDeserializer subscriptionDeserializer = new SubscriptionDeserializer();
-    private final SubscriptionRequestSerializer subscriptionRequestSerializer = new SubscriptionRequestSerializer();
-    private final SubscriptionUpdateRequestSerializer subscriptionUpdateRequestSerializer = new SubscriptionUpdateRequestSerializer();
+    private final JsonCodec codec;
     private final ErrorDeserializer errorDeserializer = new ErrorDeserializer();
     private final Headers requiredHeaders;
-
-    ContractsEndpoint(OkHttpClient client, HttpUrl baseUrl, String apiKey) {
-        this.client = client;
+    private final TinyLfuCache<String, Subscription> cache;
+    private final EvaluationCache evaluations;
+    private final PricingTokenCache pricingTokens;
+
+    /**
+     * @param cache contract cache, or <code>null</code> for none
+     * @param evaluations evaluation cache invalidated on writes, or <code>null</code>
+     * @param pricingTokens pricing token cache invalidated on writes, or <code>null</code>
+     */
+    ContractsEndpoint(CallExecutor calls, HttpUrl baseUrl, String apiKey, JsonCodec codec,
+            TinyLfuCache<String, Subscription> cache, EvaluationCache evaluations, PricingTokenCache pricingTokens) {
+        this.calls = calls;
+        this.codec = codec;
+        this.cache = cache;
+        this.evaluations = evaluations;
+        this.pricingTokens = pricingTokens;
         this.baseUrl = baseUrl;
         this.requiredHeaders = new Headers.Builder().add("Accept", JSON.toString())
                 .add("x-api-key", apiKey).build();
     }
 
     public Subscription addContract(SubscriptionRequest subscriptionReq) throws IOException {
-        Objects.requireNonNull(subscriptionReq, "subscription request must not be null");
+        return calls.execute(addContractRequest(subscriptionReq), mutationHandler(subscriptionReq));
+    }
 
-        HttpUrl url = this.baseUrl.newBuilder().addPathSegment(ENDPOINT).build();
-        Subscription res = null;
-        Request request = new Request.Builder().url(url)
-                .post(RequestBody.create(subscriptionRequestSerializer.toJson(subscriptionReq).toString(), JSON))
-                .headers(requiredHeaders).build();
-        try (Response response = client.newCall(request).execute()) {
-            ResponseBody responseBody = response.body();
-            JSONObject jsonResponse = new JSONObject(responseBody.string());
-            if (!response.isSuccessful()) {
-                jsonResponse.put(STATUS_CODE, response.code());
-                throw new SpaceApiException(errorDeserializer.fromJson(jsonResponse));
-            }
-
-            res = subscriptionDeserializer.fromJson(jsonResponse);
-        }
+    public CompletableFuture<Subscription> addContractAsync(SubscriptionRequest subscriptionReq) {
+        return addContractAsync(subscriptionReq, CallExecutor.DIRECT);
+    }
 
-        return res;
+    public CompletableFuture<Subscription> addContractAsync(SubscriptionRequest subscriptionReq,
+            Executor callbackExecutor) {
+        return calls.enqueue(addContractRequest(subscriptionReq), mutationHandler(subscriptionReq), callbackExecutor);
     }
 
+    /**
+     * Served from the contract cache when the client has one, see
+     * {@link SpaceClient.Builder#withContractCache(CachePolicy)}.
+     */
     public Subscription getContractByUserId(String userId) throws IOException {
-
-        HttpUrl url = this.baseUrl.newBuilder().addPathSegment(ENDPOINT).addEncodedPathSegment(userId).build();
-        Subscription res = null;
-        Request request = new Request.Builder().url(url).headers(requiredHeaders).build();
-        try (Response response = client.newCall(request).execute()) {
-            JSONObject jsonResponse = new JSONObject(response.body().string());
-            if (!response.isSuccessful()) {
-                jsonResponse.put(STATUS_CODE, response.code());
-                throw new SpaceApiException(errorDeserializer.fromJson(jsonResponse));
-            }
-            res = subscriptionDeserializer.fromJson(jsonResponse);
+        if (cache != null) {
+            return cache.get(userId, () -> calls.execute(getContractRequest(userId), this::handleSubscription),
+                    () -> calls.enqueue(getContractRequest(userId), this::handleSubscription, CallExecutor.DIRECT));
         }
+        return calls.execute(getContractRequest(userId), this::handleSubscription);
+    }
 
-        return res;
+    public CompletableFuture<Subscription> getContractByUserIdAsync(String userId) {
+        return getContractByUserIdAsync(userId, CallExecutor.DIRECT);
+    }
+
+    public CompletableFuture<Subscription> getContractByUserIdAsync(String userId, Executor callbackExecutor) {
+        if (cache != null) {
+            Objects.requireNonNull(callbackExecutor, "callback executor must not be null");
+            return cache.getAsync(userId,
+                    () -> calls.enqueue(getContractRequest(userId), this::handleSubscription, callbackExecutor),
+                    callbackExecutor);
+        }
+        return calls.enqueue(getContractRequest(userId), this::handleSubscription, callbackExecutor);
     }
 
     public Subscription updateContractByUserId(String userId, SubscriptionUpdateRequest subscription)
             throws IOException {
+        return calls.execute(updateContractRequest(userId, subscription), mutationHandler(userId));
+    }
+
+    public CompletableFuture<Subscription> updateContractByUserIdAsync(String userId,
+            SubscriptionUpdateRequest subscription) {
+        return updateContractByUserIdAsync(userId, subscription, CallExecutor.DIRECT);
+    }
+
+    public CompletableFuture<Subscription> updateContractByUserIdAsync(String userId,
+            SubscriptionUpdateRequest subscription, Executor callbackExecutor) {
+        return calls.enqueue(updateContractRequest(userId, subscription), mutationHandler(userId),
+                callbackExecutor);
+    }
+
+    /**
+     * Drops the cached contract of <code>userId</code>, if any, so the next
+     * read goes to SPACE. Contracts this client adds or updates are cached
+     * as SPACE returns them, this is only needed for changes made elsewhere.
+     */
+    public void invalidateCachedContract(String userId) {
+        Objects.requireNonNull(userId, "user id must not be null");
+        if (cache != null) {
+            cache.invalidate(userId);
+        }
+    }
+
+    private Request addContractRequest(SubscriptionRequest subscriptionReq) {
+        Objects.requireNonNull(subscriptionReq, "subscription request must not be null");
+
+        HttpUrl url = this.baseUrl.newBuilder().addPathSegment(ENDPOINT).build();
+        return new Request.Builder().url(url)
+                .post(JsonBody.of(sink -> codec.writeSubscriptionRequest(sink, subscriptionReq)))
+                .headers(requiredHeaders)
+                .tag(RequestTag.class, RequestTag.of(Operation.ADD_CONTRACT, subscriptionReq.getUserContact().getUserId()))
+                .build();
+    }
+
+    private Request getContractRequest(String userId) {
+        HttpUrl url = this.baseUrl.newBuilder().addPathSegment(ENDPOINT).addEncodedPathSegment(userId).build();
+        return new Request.Builder().url(url).headers(requiredHeaders)
+                .tag(RequestTag.class, RequestTag.of(Operation.GET_CONTRACT, userId)).build();
+    }
+
+    private Request updateContractRequest(String userId, SubscriptionUpdateRequest subscription) {
         HttpUrl url = this.baseUrl.newBuilder().addPathSegment(ENDPOINT).addEncodedPathSegment(userId).build();
-        Subscription res = null;
-        Request request = new Request.Builder().url(url)
-                .put(RequestBody.create(subscriptionUpdateRequestSerializer.toJson(subscription).toString(), JSON))
+        return new Request.Builder().url(url)
+                .put(JsonBody.of(sink -> codec.writeSubscriptionUpdateRequest(sink, subscription)))
                 .headers(requiredHeaders)
+                .tag(RequestTag.class, RequestTag.of(Operation.UPDATE_CONTRACT, userId))
                 .build();
-        try (Response response = client.newCall(request).execute()) {
-            ResponseBody responseBody = response.body();
-            JSONObject jsonResponse = new JSONObject(responseBody.string());
-            if (!response.isSuccessful()) {
-                jsonResponse.put(STATUS_CODE, response.code());
-                throw new SpaceApiException(errorDeserializer.fromJson(jsonResponse));
-            }
-            res = subscriptionDeserializer.fromJson(jsonResponse);
+    }
+
+    private Subscription handleSubscription(Response response) throws IOException {
+        if (!response.isSuccessful()) {
+            JsonReader reader = JsonReader.of(response.body().source());
+            throw new SpaceApiException(errorDeserializer.readJson(reader, response.code()));
         }
+        return codec.readSubscription(response.body().source());
+    }
+
+    private ResponseHandler<Subscription> mutationHandler(SubscriptionRequest subscriptionReq) {
+        Objects.requireNonNull(subscriptionReq, "subscription request must not be null");
+        return mutationHandler(subscriptionReq.getUserContact().getUserId());
+    }
 
-        return res;
+    /**
+     * Caches the contract SPACE returns and invalidates the cached
+     * evaluations and pricing token of <code>userId</code>, which may depend
+     * on the old one.
+     */
+    private ResponseHandler<Subscription> mutationHandler(String userId) {
+        ResponseHandler<Subscription> handler = PricingTokenCache.invalidating(pricingTokens, userId,
+                this::handleCachedSubscription);
+        return EvaluationCache.invalidating(evaluations, userId, handler);
+    }
+
+    private Subscription handleCachedSubscription(Response response) throws IOException {
+        Subscription subscription = handleSubscription(response);
+        if (cache != null) {
+            cache.put(subscription.getUserId(), subscription);
+        }
+        return subscription;
     }
 
 }
@@ -0,0 +1,224 @@
+package io.github.pgmarc.space;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import io.github.pgmarc.space.exceptions.FeatureEvaluationError;
+import io.github.pgmarc.space.exceptions.FeatureEvaluationException;
+import io.github.pgmarc.space.features.FeatureEvaluationResult;
+
+/**
+ * Near cache of non-consuming evaluations keyed by user and feature id.
+ * Available results live for the positive TTL, unavailable results and
+ * <code>FLAG_NOT_FOUND</code> errors for the negative one.
+ * <p>
+ * Users are invalidated in O(1) with generations: each user hashes to one
+ * of a fixed number of counters, entries remember the counter value read
+ * before they were loaded and are not served once it has moved on. Users
+ * sharing a counter are invalidated together, which only costs a reload.
+ * <p>
+ * With an adaptive TTL, results are cached for as long as {@link AdaptiveTtl}
+ * finds safe. The last observation of each feature, used to estimate how
+ * fast the user consumes, is kept in a table of the same size.
+ */
+final class EvaluationCache {
+
+    private static final int GENERATIONS = 4096;
+    private static final int AVERAGE_WEIGHT = 256;
+
+    private static final int ENTRY = 160;
+    private static final int STRING = 40;
+    private static final int QUOTA = 96;
+
+    private final TinyLfuCache<Key, Entry> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATIONS);
+    private final AtomicReferenceArray<AdaptiveTtl.Observation> observations;
+    private final AdaptiveTtl adaptiveTtl;
+    private final LongSupplier nanoClock;
+    private final long positiveTtl;
+    private final long negativeTtl;
+
+    EvaluationCache(EvaluationCachePolicy policy) {
+        this(policy, (userId, service, usageLimit) -> AdaptiveTtl.UNKNOWN);
+    }
+
+    EvaluationCache(EvaluationCachePolicy policy, AdaptiveTtl.UsageResets resets) {
+        this(policy, resets, System::nanoTime, System::currentTimeMillis);
+    }
+
+    EvaluationCache(EvaluationCachePolicy policy, AdaptiveTtl.UsageResets resets, LongSupplier nanoClock,
+            LongSupplier epochMillis) {
+        this.nanoClock = nanoClock;
+        this.positiveTtl = policy.getPositiveTtl().toNanos();
+        this.negativeTtl = policy.getNegativeTtl().toNanos();
+        this.adaptiveTtl = policy.isAdaptiveTtl() ? new AdaptiveTtl(policy, resets, epochMillis) : null;
+        this.observations = policy.isAdaptiveTtl() ? new AtomicReferenceArray<>(GENERATIONS) : null;
+        CachePolicy cachePolicy = CachePolicy.builder()
+                .maximumWeight(policy.getMaximumWeight())
+                .expireAfterWrite(policy.getPositiveTtl())
+                .build();
+        this.cache = new TinyLfuCache<>(cachePolicy, EvaluationCache::weigh, AVERAGE_WEIGHT,
+                entry -> entry.ttlNanos,
+                entry -> entry.generation == generations.get(entry.slot), nanoClock);
+    }
+
+    FeatureEvaluationResult get(String userId, String service, String featureId,
+            SingleFlight.IoCall<FeatureEvaluationResult> loader) throws IOException {
+        int slot = slot(userId);
+        Key key = new Key(userId, featureId);
+        return cache.get(key, () -> {
+            long generation = generations.get(slot);
+            try {
+                return entry(slot, generation, key, service, loader.call());
+            } catch (FeatureEvaluationException e) {
+                return negative(slot, generation, e);
+            }
+        }).result();
+    }
+
+    CompletableFuture<FeatureEvaluationResult> getAsync(String userId, String service, String featureId,
+            Supplier<CompletableFuture<FeatureEvaluationResult>> loader, Executor executor) {
+        int slot = slot(userId);
+        Key key = new Key(userId, featureId);
+        return cache.getAsync(key, () -> {
+            long generation = generations.get(slot);
+            return loader.get().handle((result, e) -> {
+                if (e == null) {
+                    return entry(slot, generation, key, service, result);
+                }
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof FeatureEvaluationException) {
+                    return negative(slot, generation, (FeatureEvaluationException) cause);
+                }
+                throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+            });
+        }, executor).thenApply(Entry::result);
+    }
+
+    /**
+     * Stops serving every cached evaluation of <code>userId</code>.
+     */
+    void invalidate(String userId) {
+        generations.incrementAndGet(slot(userId));
+    }
+
+    /**
+     * Wraps <code>handler</code> so that the evaluations of
+     * <code>userId</code> are invalidated once SPACE answered, before the
+     * caller gets the result. Returns <code>handler</code> itself when
+     * there is no cache.
+     */
+    static <T> ResponseHandler<T> invalidating(EvaluationCache cache, String userId, ResponseHandler<T> handler) {
+        if (cache == null) {
+            return handler;
+        }
+        return response -> {
+            try {
+                return handler.handle(response);
+            } finally {
+                cache.invalidate(userId);
+            }
+        };
+    }
+
+    CacheStats stats() {
+        return cache.stats();
+    }
+
+    private Entry entry(int slot, long generation, Key key, String service, FeatureEvaluationResult result) {
+        if (adaptiveTtl == null) {
+            return new Entry(slot, generation, result, null, result.isAvailable() ? positiveTtl : negativeTtl);
+        }
+        int index = key.hash & (GENERATIONS - 1);
+        AdaptiveTtl.Observation previous = observations.get(index);
+        AdaptiveTtl.Observation observation = AdaptiveTtl.Observation.of(key, nanoClock.getAsLong(), result,
+                previous);
+        if (observation.isOf(key)) {
+            observations.set(index, observation);
+        }
+        long ttl = adaptiveTtl.timeToLive(key.userId, service, result, observation);
+        return new Entry(slot, generation, result, null, ttl);
+    }
+
+    private Entry negative(int slot, long generation, FeatureEvaluationException e) {
+        if (e.getError().getCode() != FeatureEvaluationError.Code.FLAG_NOT_FOUND) {
+            throw e;
+        }
+        return new Entry(slot, generation, null, e.getError(), negativeTtl);
+    }
+
+    private static int slot(String userId) {
+        int hash = userId.hashCode();
+        return (hash ^ (hash >>> 16)) & (GENERATIONS - 1);
+    }
+
+    private static int weigh(Entry entry) {
+        int quotas = entry.result != null ? entry.result.getQuotas().size() : 0;
+        return ENTRY + STRING + QUOTA * quotas;
+    }
+
+    private static final class Key {
+
+        private final String userId;
+        private final String featureId;
+        private final int hash;
+
+        private Key(String userId, String featureId) {
+            this.userId = userId;
+            this.featureId = featureId;
+            this.hash = 31 * userId.hashCode() + featureId.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && userId.equals(other.userId) && featureId.equals(other.featureId);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A cached evaluation: either a result or a <code>FLAG_NOT_FOUND</code>
+     * error, thrown anew on every hit.
+     */
+    private static final class Entry {
+
+        private final int slot;
+        private final long generation;
+        private final FeatureEvaluationResult result;
+        private final FeatureEvaluationError error;
+        private final long ttlNanos;
+
+        private Entry(int slot, long generation, FeatureEvaluationResult result, FeatureEvaluationError error,
+                long ttlNanos) {
+            this.slot = slot;
+            this.generation = generation;
+            this.result = result;
+            this.error = error;
+            this.ttlNanos = ttlNanos;
+        }
+
+        private FeatureEvaluationResult result() {
+            if (error != null) {
+                throw new FeatureEvaluationException(error);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.pgmarc.space;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Settings of the evaluation near cache. By default it holds up to 16 MiB
+ * of evaluations, available ones for 30 seconds and unavailable ones, or
+ * evaluations of features that do not exist, for 5 seconds. The TTLs can
+ * be adapted to how close users are to their usage limits, see
+ * {@link Builder#adaptiveTtl(boolean)}.
+ */
+public final class EvaluationCachePolicy {
+
+    private final long maximumWeight;
+    private final Duration positiveTtl;
+    private final Duration negativeTtl;
+    private final boolean adaptiveTtl;
+
+    private EvaluationCachePolicy(Builder builder) {
+        this.adaptiveTtl = builder.adaptiveTtl;
+        this.maximumWeight = builder.maximumWeight;
+        this.positiveTtl = builder.positiveTtl;
+        this.negativeTtl = builder.negativeTtl;
+    }
+
+    public static EvaluationCachePolicy defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public Duration getPositiveTtl() {
+        return positiveTtl;
+    }
+
+    public Duration getNegativeTtl() {
+        return negativeTtl;
+    }
+
+    public boolean isAdaptiveTtl() {
+        return adaptiveTtl;
+    }
+
+    @Override
+    public String toString() {
+        return "EvaluationCachePolicy{" +
+            "maximumWeight=" + maximumWeight +
+            ", positiveTtl=" + positiveTtl +
+            ", negativeTtl=" + negativeTtl +
+            ", adaptiveTtl=" + adaptiveTtl +
+            '}';
+    }
+
+    public static final class Builder {
+
+        private long maximumWeight = 16L << 20;
+        private Duration positiveTtl = Duration.ofSeconds(30);
+        private Duration negativeTtl = Duration.ofSeconds(5);
+        private boolean adaptiveTtl;
+
+        private Builder() {
+        }
+
+        /**
+         * Maximum estimated size of the cached evaluations in bytes.
+         */
+        public Builder maximumWeight(long bytes) {
+            if (bytes < 1) {
+                throw new IllegalArgumentException("maximum weight must be greater than 0");
+            }
+            this.maximumWeight = bytes;
+            return this;
+        }
+
+        /**
+         * How long evaluations where the feature is available are cached.
+         */
+        public Builder positiveTtl(Duration positiveTtl) {
+            this.positiveTtl = requirePositive(positiveTtl, "positive ttl");
+            return this;
+        }
+
+        /**
+         * How long evaluations where the feature is not available, and
+         * <code>FLAG_NOT_FOUND</code> errors, are cached.
+         */
+        public Builder negativeTtl(Duration negativeTtl) {
+            this.negativeTtl = requirePositive(negativeTtl, "negative ttl");
+            return this;
+        }
+
+        /**
+         * Shortens the TTLs of evaluations with usage limits. The positive
+         * TTL is scaled by the share of the limit the user has left, and
+         * evaluations with less than 1% left are not cached. It is also
+         * capped by half the time the user would take to exhaust the limit
+         * at the rate they were seen consuming, and by the next reset of
+         * the limit when the contract of the user is in the contract cache.
+         */
+        public Builder adaptiveTtl(boolean enabled) {
+            this.adaptiveTtl = enabled;
+            return this;
+        }
+
+        private static Duration requirePositive(Duration duration, String name) {
+            Objects.requireNonNull(duration, name + " must not be null");
+            if (duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException(name + " must be positive");
+            }
+            return duration;
+        }
+
+        public EvaluationCachePolicy build() {
+            return new EvaluationCachePolicy(this);
+        }
+    }
+}
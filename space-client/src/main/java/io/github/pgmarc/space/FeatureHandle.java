@@ -0,0 +1,97 @@
+package io.github.pgmarc.space;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import io.github.pgmarc.space.features.FeatureEvaluationResult;
+import io.github.pgmarc.space.features.Revert;
+import io.github.pgmarc.space.features.UsageLimitConsumption;
+
+/**
+ * A feature of a service prepared with {@link FeaturesEndpoint#prepare}.
+ * The feature id and the response handler are computed once, so each
+ * call only builds the request URL of the user.
+ * <p>
+ * Handles are immutable and thread safe.
+ */
+public final class FeatureHandle {
+
+    private final FeaturesEndpoint endpoint;
+    private final String service;
+    private final String feature;
+    private final String featureId;
+    private final ResponseHandler<FeatureEvaluationResult> evaluationHandler;
+
+    FeatureHandle(FeaturesEndpoint endpoint, String service, String feature, String featureId) {
+        this.endpoint = endpoint;
+        this.service = service;
+        this.feature = feature;
+        this.featureId = featureId;
+        this.evaluationHandler = endpoint.evaluationHandler(service);
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public String getFeature() {
+        return feature;
+    }
+
+    public String getFeatureId() {
+        return featureId;
+    }
+
+    public FeatureEvaluationResult evaluate(String userId) throws IOException {
+        return endpoint.evaluate(userId, service, featureId, evaluationHandler);
+    }
+
+    public CompletableFuture<FeatureEvaluationResult> evaluateAsync(String userId) {
+        return evaluateAsync(userId, CallExecutor.DIRECT);
+    }
+
+    public CompletableFuture<FeatureEvaluationResult> evaluateAsync(String userId, Executor callbackExecutor) {
+        return endpoint.evaluateAsync(userId, service, featureId, evaluationHandler, callbackExecutor);
+    }
+
+    public FeatureEvaluationResult evaluateOptimistically(String userId, UsageLimitConsumption usageLimitConsumption)
+        throws IOException {
+        return endpoint.calls().execute(
+            endpoint.optimisticEvaluationRequest(userId, featureId, endpoint.consumptionBody(usageLimitConsumption)),
+            endpoint.invalidating(userId, evaluationHandler));
+    }
+
+    public CompletableFuture<FeatureEvaluationResult> evaluateOptimisticallyAsync(String userId,
+        UsageLimitConsumption usageLimitConsumption) {
+        return evaluateOptimisticallyAsync(userId, usageLimitConsumption, CallExecutor.DIRECT);
+    }
+
+    public CompletableFuture<FeatureEvaluationResult> evaluateOptimisticallyAsync(String userId,
+        UsageLimitConsumption usageLimitConsumption, Executor callbackExecutor) {
+        return endpoint.calls().enqueue(
+            endpoint.optimisticEvaluationRequest(userId, featureId, endpoint.consumptionBody(usageLimitConsumption)),
+            endpoint.invalidating(userId, evaluationHandler), callbackExecutor);
+    }
+
+    public boolean revert(String userId, Revert revert) throws IOException {
+        return endpoint.calls().execute(endpoint.revertRequest(userId, featureId, revert),
+            endpoint.invalidating(userId, endpoint::handleRevert));
+    }
+
+    public CompletableFuture<Boolean> revertAsync(String userId, Revert revert) {
+        return revertAsync(userId, revert, CallExecutor.DIRECT);
+    }
+
+    public CompletableFuture<Boolean> revertAsync(String userId, Revert revert, Executor callbackExecutor) {
+        return endpoint.calls().enqueue(endpoint.revertRequest(userId, featureId, revert),
+            endpoint.invalidating(userId, endpoint::handleRevert), callbackExecutor);
+    }
+
+    @Override
+    public String toString() {
+        return "FeatureHandle{" +
+            "featureId='" + featureId + '\'' +
+            '}';
+    }
+}
@@ -1,36 +1,48 @@
 package io.github.pgmarc.space;
 
+import io.github.pgmarc.space.codec.JsonCodec;
 import io.github.pgmarc.space.deserializers.ErrorDeserializer;
-import io.github.pgmarc.space.deserializers.FeatureEvaluationDeserializer;
 import io.github.pgmarc.space.exceptions.SpaceApiException;
 import io.github.pgmarc.space.features.Revert;
 import io.github.pgmarc.space.features.UsageLimitConsumption;
 import io.github.pgmarc.space.features.FeatureEvaluationResult;
-import io.github.pgmarc.space.serializers.ConsumptionSerializer;
+import io.github.pgmarc.space.json.JsonParseException;
+import io.github.pgmarc.space.json.JsonReader;
 import okhttp3.*;
-import org.json.JSONObject;
 
 import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public final class FeaturesEndpoint {
 
     private static final String ENDPOINT = "features";
     private static final MediaType JSON = MediaType.get("application/json");
-    private static final String STATUS_CODE = "statusCode";
+    private static final JsonReader.Options PRICING_TOKEN = JsonReader.Options.of("pricingToken");
 
 
-    private final OkHttpClient client;
+    private final CallExecutor calls;
     private final HttpUrl baseUrl;
     private final Headers requiredHeaders;
-    private final ConsumptionSerializer consumptionSerializer;
+    private final JsonCodec codec;
     private final ErrorDeserializer errorDeserializer;
+    private final EvaluationCache evaluations;
+    private final PricingTokenCache pricingTokens;
 
-    FeaturesEndpoint(OkHttpClient client, HttpUrl baseUrl, String apiKey) {
-        this.client = client;
+    /**
+     * @param evaluations evaluation cache, or <code>null</code> for none
+     * @param pricingTokens pricing token cache, or <code>null</code> for none
+     */
+    FeaturesEndpoint(CallExecutor calls, HttpUrl baseUrl, String apiKey, JsonCodec codec,
+        EvaluationCache evaluations, PricingTokenCache pricingTokens) {
+        this.calls = calls;
+        this.evaluations = evaluations;
+        this.pricingTokens = pricingTokens;
+        this.codec = codec;
         this.baseUrl = baseUrl.newBuilder().addPathSegment(ENDPOINT).build();
         this.requiredHeaders = new Headers.Builder().add("Accept", JSON.toString())
             .add("x-api-key", apiKey).build();
-        this.consumptionSerializer = new ConsumptionSerializer();
         this.errorDeserializer = new ErrorDeserializer();
     }
 
@@ -38,80 +50,226 @@ public final class FeaturesEndpoint {
         return service.toLowerCase() + "-" + feature;
     }
 
+    /**
+     * Served from the evaluation cache when the client has one, see
+     * {@link SpaceClient.Builder#withEvaluationCache(EvaluationCachePolicy)}.
+     */
     public FeatureEvaluationResult evaluate(String userId, String service, String feature) throws IOException {
-        HttpUrl url = this.baseUrl.newBuilder().addEncodedPathSegment(userId)
-            .addEncodedPathSegment(formatFeatureId(service, feature)).build();
-        Request request = new Request(url, requiredHeaders ,"POST" , RequestBody.EMPTY);
+        return evaluate(userId, service, formatFeatureId(service, feature), evaluationHandler(service));
+    }
 
-        FeatureEvaluationResult res = null;
-        try (Response response = client.newCall(request).execute()) {
-            JSONObject jsonResponse = new JSONObject(response.body().string());
-            if (!response.isSuccessful()) {
-                jsonResponse.put(STATUS_CODE, response.code());
-                throw new SpaceApiException(errorDeserializer.fromJson(jsonResponse));
-            }
-            FeatureEvaluationDeserializer deserializer = new FeatureEvaluationDeserializer(service.length());
-            res = deserializer.fromJson(jsonResponse);
-        }
+    public CompletableFuture<FeatureEvaluationResult> evaluateAsync(String userId, String service, String feature) {
+        return evaluateAsync(userId, service, feature, CallExecutor.DIRECT);
+    }
 
-        return res;
+    public CompletableFuture<FeatureEvaluationResult> evaluateAsync(String userId, String service, String feature,
+        Executor callbackExecutor) {
+        return evaluateAsync(userId, service, formatFeatureId(service, feature), evaluationHandler(service),
+            callbackExecutor);
     }
 
     public FeatureEvaluationResult evaluateOptimistically(String userId, String service, String featureId, UsageLimitConsumption usageLimitConsumption)
         throws IOException {
-        HttpUrl url = this.baseUrl.newBuilder().addEncodedPathSegment(userId)
-            .addEncodedPathSegment(formatFeatureId(service, featureId)).build();
-        RequestBody body = RequestBody.create(consumptionSerializer.toJson(usageLimitConsumption).toString(), JSON);
-        Request request = new Request(url, requiredHeaders ,"POST" , body);
+        return calls.execute(optimisticEvaluationRequest(userId, service, featureId, usageLimitConsumption),
+            invalidating(userId, evaluationHandler(service)));
+    }
 
-        FeatureEvaluationResult res = null;
-        try (Response response = client.newCall(request).execute()) {
-            JSONObject jsonResponse = new JSONObject(response.body().string());
-            if (!response.isSuccessful()) {
-                jsonResponse.put(STATUS_CODE, response.code());
-                throw new SpaceApiException(errorDeserializer.fromJson(jsonResponse));
-            }
-            FeatureEvaluationDeserializer deserializer = new FeatureEvaluationDeserializer(service.length());
-            res = deserializer.fromJson(jsonResponse);
+    public CompletableFuture<FeatureEvaluationResult> evaluateOptimisticallyAsync(String userId, String service,
+        String featureId, UsageLimitConsumption usageLimitConsumption) {
+        return evaluateOptimisticallyAsync(userId, service, featureId, usageLimitConsumption, CallExecutor.DIRECT);
+    }
+
+    public CompletableFuture<FeatureEvaluationResult> evaluateOptimisticallyAsync(String userId, String service,
+        String featureId, UsageLimitConsumption usageLimitConsumption, Executor callbackExecutor) {
+        return calls.enqueue(optimisticEvaluationRequest(userId, service, featureId, usageLimitConsumption),
+            invalidating(userId, evaluationHandler(service)), callbackExecutor);
+    }
+
+    public boolean revert(String userId, String service, String feature, Revert revert) throws IOException {
+        return calls.execute(revertRequest(userId, service, feature, revert), invalidating(userId, this::handleRevert));
+    }
+
+    public CompletableFuture<Boolean> revertAsync(String userId, String service, String feature, Revert revert) {
+        return revertAsync(userId, service, feature, revert, CallExecutor.DIRECT);
+    }
+
+    public CompletableFuture<Boolean> revertAsync(String userId, String service, String feature, Revert revert,
+        Executor callbackExecutor) {
+        return calls.enqueue(revertRequest(userId, service, feature, revert), invalidating(userId, this::handleRevert),
+            callbackExecutor);
+    }
+
+    /**
+     * Served from the pricing token cache when the client has one, see
+     * {@link SpaceClient.Builder#withPricingTokenCache(PricingTokenPolicy)}.
+     */
+    public String generatePricingTokenForUser(String userId) throws IOException {
+        if (pricingTokens == null) {
+            return calls.execute(pricingTokenRequest(userId), this::handlePricingToken);
         }
+        return pricingTokens.get(userId, () -> calls.execute(pricingTokenRequest(userId), this::handlePricingToken),
+            () -> calls.enqueue(pricingTokenRequest(userId), this::handlePricingToken, CallExecutor.DIRECT));
+    }
 
-        return res;
+    public CompletableFuture<String> generatePricingTokenForUserAsync(String userId) {
+        return generatePricingTokenForUserAsync(userId, CallExecutor.DIRECT);
     }
 
+    public CompletableFuture<String> generatePricingTokenForUserAsync(String userId, Executor callbackExecutor) {
+        if (pricingTokens == null) {
+            return calls.enqueue(pricingTokenRequest(userId), this::handlePricingToken, callbackExecutor);
+        }
+        Objects.requireNonNull(callbackExecutor, "callback executor must not be null");
+        return pricingTokens.getAsync(userId,
+            () -> calls.enqueue(pricingTokenRequest(userId), this::handlePricingToken, callbackExecutor),
+            callbackExecutor);
+    }
 
-    public boolean revert(String userId, String service, String feature, Revert revert) throws IOException {
-        HttpUrl url = this.baseUrl.newBuilder().addEncodedPathSegment(userId)
-            .addEncodedPathSegment(formatFeatureId(service, feature))
-            .addQueryParameter("revert", String.valueOf(true))
-            .addQueryParameter("latest", String.valueOf(revert.isLatest())).build();
+    /**
+     * Returns a handle to evaluate <code>feature</code> of <code>service</code>
+     * repeatedly without recomputing its feature id nor its response handler on
+     * every call.
+     */
+    public FeatureHandle prepare(String service, String feature) {
+        Objects.requireNonNull(service, "service must not be null");
+        Objects.requireNonNull(feature, "feature must not be null");
+        return new FeatureHandle(this, service, feature, formatFeatureId(service, feature));
+    }
 
-        Request request = new Request(url, requiredHeaders ,"POST" , RequestBody.EMPTY);
+    /**
+     * Drops the cached evaluations of <code>userId</code>, if any. Optimistic
+     * evaluations, reverts and contract changes made through this client do
+     * it already, this is only needed for changes made elsewhere.
+     */
+    public void invalidateCachedEvaluations(String userId) {
+        Objects.requireNonNull(userId, "user id must not be null");
+        if (evaluations != null) {
+            evaluations.invalidate(userId);
+        }
+    }
 
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                JSONObject jsonResponse = new JSONObject(response.body().string());
-                jsonResponse.put(STATUS_CODE, response.code());
-                throw new SpaceApiException(errorDeserializer.fromJson(jsonResponse));
-            }
+    /**
+     * Drops the cached pricing token of <code>userId</code>, if any.
+     * Contract changes made through this client do it already, this is only
+     * needed for changes made elsewhere.
+     */
+    public void invalidateCachedPricingToken(String userId) {
+        Objects.requireNonNull(userId, "user id must not be null");
+        if (pricingTokens != null) {
+            pricingTokens.invalidate(userId);
+        }
+    }
 
-            return response.code() == 204;
+    CallExecutor calls() {
+        return calls;
+    }
+
+    FeatureEvaluationResult evaluate(String userId, String service, String featureId,
+        ResponseHandler<FeatureEvaluationResult> handler) throws IOException {
+        if (evaluations == null) {
+            return calls.execute(evaluationRequest(userId, featureId), handler);
         }
+        return evaluations.get(userId, service, featureId, () -> calls.execute(evaluationRequest(userId, featureId), handler));
+    }
 
+    CompletableFuture<FeatureEvaluationResult> evaluateAsync(String userId, String service, String featureId,
+        ResponseHandler<FeatureEvaluationResult> handler, Executor callbackExecutor) {
+        if (evaluations == null) {
+            return calls.enqueue(evaluationRequest(userId, featureId), handler, callbackExecutor);
+        }
+        Objects.requireNonNull(callbackExecutor, "callback executor must not be null");
+        return evaluations.getAsync(userId, service, featureId,
+            () -> calls.enqueue(evaluationRequest(userId, featureId), handler, callbackExecutor), callbackExecutor);
     }
 
-    public String generatePricingTokenForUser(String userId) throws IOException {
+    <T> ResponseHandler<T> invalidating(String userId, ResponseHandler<T> handler) {
+        return EvaluationCache.invalidating(evaluations, userId, handler);
+    }
+
+    Request evaluationRequest(String userId, String featureId) {
+        HttpUrl url = this.baseUrl.newBuilder().addEncodedPathSegment(userId)
+            .addEncodedPathSegment(featureId).build();
+        return newRequest(url, RequestBody.EMPTY, RequestTag.of(Operation.EVALUATE, userId));
+    }
+
+    private Request optimisticEvaluationRequest(String userId, String service, String featureId,
+        UsageLimitConsumption usageLimitConsumption) {
+        return optimisticEvaluationRequest(userId, formatFeatureId(service, featureId),
+            consumptionBody(usageLimitConsumption));
+    }
+
+    Request optimisticEvaluationRequest(String userId, String featureId, RequestBody consumption) {
+        HttpUrl url = this.baseUrl.newBuilder().addEncodedPathSegment(userId)
+            .addEncodedPathSegment(featureId).build();
+        return newRequest(url, consumption, RequestTag.of(Operation.EVALUATE_OPTIMISTICALLY, userId));
+    }
+
+    RequestBody consumptionBody(UsageLimitConsumption usageLimitConsumption) {
+        return JsonBody.of(sink -> codec.writeConsumption(sink, usageLimitConsumption));
+    }
+
+    private Request revertRequest(String userId, String service, String feature, Revert revert) {
+        return revertRequest(userId, formatFeatureId(service, feature), revert);
+    }
 
+    Request revertRequest(String userId, String featureId, Revert revert) {
+        HttpUrl url = this.baseUrl.newBuilder().addEncodedPathSegment(userId)
+            .addEncodedPathSegment(featureId)
+            .addQueryParameter("revert", String.valueOf(true))
+            .addQueryParameter("latest", String.valueOf(revert.isLatest())).build();
+
+        return newRequest(url, RequestBody.EMPTY, RequestTag.of(Operation.REVERT, userId));
+    }
+
+    private Request pricingTokenRequest(String userId) {
         HttpUrl url = this.baseUrl.newBuilder().addEncodedPathSegment(userId)
             .addPathSegment("pricing-token").build();
-        Request request = new Request(url, requiredHeaders ,"POST" , RequestBody.EMPTY);
+        return newRequest(url, RequestBody.EMPTY, RequestTag.of(Operation.GENERATE_PRICING_TOKEN, userId));
+    }
+
+    private Request newRequest(HttpUrl url, RequestBody body, RequestTag tag) {
+        return new Request.Builder().url(url).headers(requiredHeaders).post(body)
+            .tag(RequestTag.class, tag).build();
+    }
 
-        try (Response response = client.newCall(request).execute()) {
-            JSONObject jsonResponse = new JSONObject(response.body().string());
+    ResponseHandler<FeatureEvaluationResult> evaluationHandler(String service) {
+        return response -> {
             if (!response.isSuccessful()) {
-                jsonResponse.put(STATUS_CODE, response.code());
-                throw new SpaceApiException(errorDeserializer.fromJson(jsonResponse));
+                JsonReader reader = JsonReader.of(response.body().source());
+                throw new SpaceApiException(errorDeserializer.readJson(reader, response.code()));
             }
-            return jsonResponse.getString("pricingToken");
+            return codec.readEvaluation(response.body().source(), service);
+        };
+    }
+
+    boolean handleRevert(Response response) throws IOException {
+        if (!response.isSuccessful()) {
+            JsonReader reader = JsonReader.of(response.body().source());
+            throw new SpaceApiException(errorDeserializer.readJson(reader, response.code()));
+        }
+
+        return response.code() == 204;
+    }
+
+    private String handlePricingToken(Response response) throws IOException {
+        JsonReader reader = JsonReader.of(response.body().source());
+        if (!response.isSuccessful()) {
+            throw new SpaceApiException(errorDeserializer.readJson(reader, response.code()));
+        }
+        String pricingToken = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.selectName(PRICING_TOKEN) == 0) {
+                pricingToken = reader.nextString();
+            } else {
+                reader.skipName();
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (pricingToken == null) {
+            throw new JsonParseException("missing member pricingToken");
         }
+        return pricingToken;
     }
 }
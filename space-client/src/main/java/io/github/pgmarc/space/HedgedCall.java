@@ -0,0 +1,202 @@
+package io.github.pgmarc.space;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+
+import io.github.pgmarc.space.exceptions.SpaceApiException;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * A call sent once and, if it has not answered after the hedge delay, sent
+ * a second time. The first attempt that gets a response from SPACE wins and
+ * the other attempt's {@link Call} is cancelled. A connection failure only
+ * fails the hedged call once no other attempt is outstanding.
+ * <p>
+ * Started with {@link #execute()}, the first attempt runs on the caller
+ * thread and only the hedge goes through the dispatcher. Started with
+ * {@link #start()}, both are enqueued and the winning response is handled
+ * on the callback executor before completing this future.
+ */
+final class HedgedCall<T> extends CompletableFuture<T> {
+
+    private final Hedging hedging;
+    private final OkHttpClient client;
+    private final Request request;
+    private final ResponseHandler<T> handler;
+    private final Executor callbackExecutor;
+
+    private final CompletableFuture<Response> winner = new CompletableFuture<>();
+    private final List<Call> attempts = new ArrayList<>(2);
+    private ScheduledFuture<?> hedgeTask;
+    private int outstanding;
+    private boolean settled;
+
+    HedgedCall(Hedging hedging, OkHttpClient client, Request request, ResponseHandler<T> handler,
+            Executor callbackExecutor) {
+        this.hedging = hedging;
+        this.client = client;
+        this.request = request;
+        this.handler = handler;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    T execute() throws IOException {
+        Call primary;
+        synchronized (this) {
+            primary = newAttempt();
+            hedgeTask = hedging.scheduleHedge(this::hedge);
+        }
+        long start = System.nanoTime();
+        try {
+            onResponse(primary, start, primary.execute());
+        } catch (IOException e) {
+            onFailure(e);
+        }
+        try (Response response = await()) {
+            return handler.handle(response);
+        }
+    }
+
+    synchronized void start() {
+        winner.whenComplete((response, error) -> {
+            if (error != null) {
+                completeExceptionally(error);
+                return;
+            }
+            try {
+                callbackExecutor.execute(() -> handle(response));
+            } catch (RejectedExecutionException e) {
+                response.close();
+                completeExceptionally(e);
+            }
+        });
+        send();
+        if (!settled) {
+            hedgeTask = hedging.scheduleHedge(this::hedge);
+        }
+    }
+
+    private synchronized void hedge() {
+        if (settled || !hedging.tryAcquireHedge()) {
+            return;
+        }
+        send();
+    }
+
+    private void send() {
+        Call call = newAttempt();
+        call.enqueue(new Attempt());
+    }
+
+    private Call newAttempt() {
+        Call call = client.newCall(request);
+        attempts.add(call);
+        outstanding++;
+        return call;
+    }
+
+    private void onResponse(Call call, long start, Response response) {
+        synchronized (this) {
+            outstanding--;
+            if (settled) {
+                response.close();
+                return;
+            }
+            settled = true;
+        }
+        hedging.recordLatency(System.nanoTime() - start);
+        cancelAttempts(call);
+        winner.complete(response);
+    }
+
+    private void onFailure(IOException e) {
+        synchronized (this) {
+            outstanding--;
+            if (settled || outstanding > 0) {
+                return;
+            }
+            settled = true;
+        }
+        cancelAttempts(null);
+        SpaceApiException rejection = CallExecutor.rejectionOf(e);
+        winner.completeExceptionally(rejection != null ? rejection : e);
+    }
+
+    private void handle(Response response) {
+        try (response) {
+            complete(handler.handle(response));
+        } catch (IOException | RuntimeException e) {
+            completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        synchronized (this) {
+            settled = true;
+        }
+        cancelAttempts(null);
+        winner.cancel(false);
+        return super.cancel(mayInterruptIfRunning);
+    }
+
+    private void cancelAttempts(Call keep) {
+        List<Call> pending;
+        synchronized (this) {
+            if (hedgeTask != null) {
+                hedgeTask.cancel(false);
+            }
+            pending = new ArrayList<>(attempts);
+        }
+        for (Call attempt : pending) {
+            if (attempt != keep) {
+                attempt.cancel();
+            }
+        }
+    }
+
+    private Response await() throws IOException {
+        try {
+            return winner.get();
+        } catch (InterruptedException e) {
+            cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for a hedged call");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private final class Attempt implements Callback {
+
+        private final long start = System.nanoTime();
+
+        @Override
+        public void onResponse(Call call, Response response) {
+            HedgedCall.this.onResponse(call, start, response);
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            HedgedCall.this.onFailure(e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.pgmarc.space;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.github.pgmarc.space.resilience.HedgingPolicy;
+import io.github.pgmarc.space.resilience.TokenBudget;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+
+/**
+ * Sends feature evaluations as {@link HedgedCall}s. Only
+ * {@link Operation#EVALUATE} is hedged: optimistic evaluations and reverts
+ * modify usage levels and must be sent exactly once.
+ */
+final class Hedging {
+
+    private static final int LATENCY_WINDOW_SIZE = 1024;
+
+    private final long delayNanos;
+    private final int minSamples;
+    private final TokenBudget budget;
+    private final LatencyWindow latencies;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final LongAdder hedgedCalls = new LongAdder();
+
+    Hedging(HedgingPolicy policy) {
+        this.delayNanos = policy.getDelay().toNanos();
+        this.minSamples = policy.getMinSamples();
+        this.budget = new TokenBudget(policy.getBudgetRatio(), policy.getBudgetMaxTokens());
+        this.latencies = policy.isAdaptive() ? new LatencyWindow(LATENCY_WINDOW_SIZE, policy.getPercentile()) : null;
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "space-client-hedging");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    boolean appliesTo(Request request) {
+        RequestTag tag = RequestTag.of(request);
+        return tag != null && tag.getOperation() == Operation.EVALUATE;
+    }
+
+    <T> T execute(OkHttpClient client, Request request, ResponseHandler<T> handler) throws IOException {
+        budget.onRequest();
+        return new HedgedCall<>(this, client, request, handler, CallExecutor.DIRECT).execute();
+    }
+
+    <T> CompletableFuture<T> enqueue(OkHttpClient client, Request request, ResponseHandler<T> handler,
+            Executor callbackExecutor) {
+        budget.onRequest();
+        HedgedCall<T> call = new HedgedCall<>(this, client, request, handler, callbackExecutor);
+        call.start();
+        return call;
+    }
+
+    long getHedgedCalls() {
+        return hedgedCalls.sum();
+    }
+
+    ScheduledFuture<?> scheduleHedge(Runnable hedge) {
+        return scheduler.schedule(hedge, hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    boolean tryAcquireHedge() {
+        if (!budget.tryAcquire()) {
+            return false;
+        }
+        hedgedCalls.increment();
+        return true;
+    }
+
+    void recordLatency(long nanos) {
+        if (latencies != null) {
+            latencies.record(nanos);
+        }
+    }
+
+    long hedgeDelayNanos() {
+        if (latencies == null || latencies.size() < minSamples) {
+            return delayNanos;
+        }
+        return latencies.percentile();
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.pgmarc.space;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * Request bodies written by a {@link io.github.pgmarc.space.codec.JsonCodec}
+ * straight into the connection sink when the call sends them. Nothing is
+ * buffered beforehand, so the length is unknown and bodies go out chunked.
+ * Codecs write UTF-8, so bodies keep the content type they had when they
+ * were created from strings.
+ */
+final class JsonBody extends RequestBody {
+
+    static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    @FunctionalInterface
+    interface Writer {
+        void writeTo(BufferedSink sink) throws IOException;
+    }
+
+    private final Writer writer;
+
+    private JsonBody(Writer writer) {
+        this.writer = writer;
+    }
+
+    static RequestBody of(Writer writer) {
+        return new JsonBody(writer);
+    }
+
+    @Override
+    public MediaType contentType() {
+        return JSON;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        writer.writeTo(sink);
+    }
+}
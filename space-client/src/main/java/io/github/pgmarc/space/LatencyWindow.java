@@ -0,0 +1,56 @@
+package io.github.pgmarc.space;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of the most recent calls, used to derive a percentile. The
+ * percentile is recomputed every <code>size / 16</code> samples rather than
+ * on every read, so reading it is cheap.
+ */
+final class LatencyWindow {
+
+    private final long[] samples;
+    private final double percentile;
+    private final int recomputeEvery;
+    private int next;
+    private int recorded;
+    private int sinceComputed;
+    private long cachedPercentile = -1;
+
+    LatencyWindow(int size, double percentile) {
+        this.samples = new long[size];
+        this.percentile = percentile;
+        this.recomputeEvery = Math.max(1, size / 16);
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (recorded < samples.length) {
+            recorded++;
+        }
+        sinceComputed++;
+    }
+
+    synchronized int size() {
+        return recorded;
+    }
+
+    /**
+     * Returns the percentile of the recorded latencies in nanoseconds, or
+     * <code>-1</code> if nothing has been recorded yet.
+     */
+    synchronized long percentile() {
+        if (recorded == 0) {
+            return -1;
+        }
+        if (cachedPercentile < 0 || sinceComputed >= recomputeEvery) {
+            long[] sorted = Arrays.copyOf(samples, recorded);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * recorded) - 1;
+            cachedPercentile = sorted[Math.max(0, Math.min(index, recorded - 1))];
+            sinceComputed = 0;
+        }
+        return cachedPercentile;
+    }
+}
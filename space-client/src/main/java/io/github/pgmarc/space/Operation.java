@@ -0,0 +1,40 @@
+package io.github.pgmarc.space;
+
+/**
+ * SPACE operations performed by the client. Every request sent by an
+ * endpoint is tagged with its operation, see {@link RequestTag}.
+ */
+public enum Operation {
+    ADD_CONTRACT(Endpoint.CONTRACTS, false),
+    GET_CONTRACT(Endpoint.CONTRACTS, true),
+    UPDATE_CONTRACT(Endpoint.CONTRACTS, false),
+    EVALUATE(Endpoint.FEATURES, true),
+    EVALUATE_OPTIMISTICALLY(Endpoint.FEATURES, false),
+    REVERT(Endpoint.FEATURES, false),
+    GENERATE_PRICING_TOKEN(Endpoint.FEATURES, true);
+
+    public enum Endpoint {
+        CONTRACTS,
+        FEATURES
+    }
+
+    private final Endpoint endpoint;
+    private final boolean read;
+
+    Operation(Endpoint endpoint, boolean read) {
+        this.endpoint = endpoint;
+        this.read = read;
+    }
+
+    public Endpoint getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Read operations do not modify contracts nor usage levels in SPACE,
+     * so they can be safely repeated.
+     */
+    public boolean isRead() {
+        return read;
+    }
+}
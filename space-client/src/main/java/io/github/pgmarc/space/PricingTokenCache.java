@@ -0,0 +1,192 @@
+package io.github.pgmarc.space;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import io.github.pgmarc.space.json.JsonReader;
+import okio.Buffer;
+
+/**
+ * Cache of pricing tokens keyed by user id. A token is served until the
+ * expiry margin before its <code>exp</code> claim, read from the payload
+ * without verifying the signature, and tokens without one are not cached.
+ * <p>
+ * Once a token is within the refresh ahead window, or past half of its
+ * cached life for short-lived tokens, hits start a background refresh.
+ * Misses and refreshes of the same user share one call to SPACE. Users are
+ * invalidated with the same striped generations as {@link EvaluationCache},
+ * calls started before an invalidation are not shared with later ones.
+ */
+final class PricingTokenCache {
+
+    static final long UNKNOWN = Long.MIN_VALUE;
+
+    private static final int GENERATIONS = 4096;
+    private static final int AVERAGE_WEIGHT = 1024;
+    private static final int TOKEN = 72;
+    private static final JsonReader.Options EXP = JsonReader.Options.of("exp");
+
+    private final TinyLfuCache<String, Token> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATIONS);
+    private final SingleFlight flights = new SingleFlight();
+    private final LongSupplier nanoClock;
+    private final LongSupplier epochMillis;
+    private final long expiryMarginMillis;
+    private final long refreshAheadNanos;
+
+    PricingTokenCache(PricingTokenPolicy policy) {
+        this(policy, System::nanoTime, System::currentTimeMillis);
+    }
+
+    PricingTokenCache(PricingTokenPolicy policy, LongSupplier nanoClock, LongSupplier epochMillis) {
+        this.nanoClock = nanoClock;
+        this.epochMillis = epochMillis;
+        this.expiryMarginMillis = policy.getExpiryMargin().toMillis();
+        this.refreshAheadNanos = policy.getRefreshAhead().toNanos();
+        CachePolicy cachePolicy = CachePolicy.builder()
+                .maximumWeight(policy.getMaximumWeight())
+                .build();
+        this.cache = new TinyLfuCache<>(cachePolicy, PricingTokenCache::weigh, AVERAGE_WEIGHT,
+                token -> token.ttlNanos,
+                token -> token.generation == generations.get(token.slot), nanoClock);
+    }
+
+    String get(String userId, SingleFlight.IoCall<String> loader, Supplier<CompletableFuture<String>> refresher)
+            throws IOException {
+        int slot = slot(userId);
+        Token token = cache.get(userId, () -> {
+            long generation = generations.get(slot);
+            return flights.execute(flightKey(userId, generation), () -> token(slot, generation, loader.call()));
+        });
+        refreshIfDue(userId, token, refresher);
+        return token.value;
+    }
+
+    CompletableFuture<String> getAsync(String userId, Supplier<CompletableFuture<String>> loader,
+            Executor executor) {
+        int slot = slot(userId);
+        return cache.getAsync(userId, () -> {
+            long generation = generations.get(slot);
+            return flights.enqueue(flightKey(userId, generation),
+                    () -> loader.get().thenApply(value -> token(slot, generation, value)), executor);
+        }, executor).thenApply(token -> {
+            refreshIfDue(userId, token, loader);
+            return token.value;
+        });
+    }
+
+    /**
+     * Stops serving the cached token of <code>userId</code>.
+     */
+    void invalidate(String userId) {
+        generations.incrementAndGet(slot(userId));
+        cache.invalidate(userId);
+    }
+
+    /**
+     * Wraps <code>handler</code> so that the token of <code>userId</code>
+     * is invalidated once SPACE answered. Returns <code>handler</code>
+     * itself when there is no cache.
+     */
+    static <T> ResponseHandler<T> invalidating(PricingTokenCache cache, String userId,
+            ResponseHandler<T> handler) {
+        if (cache == null) {
+            return handler;
+        }
+        return response -> {
+            try {
+                return handler.handle(response);
+            } finally {
+                cache.invalidate(userId);
+            }
+        };
+    }
+
+    CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Epoch millis of the <code>exp</code> claim of the JWT
+     * <code>token</code>, or {@link #UNKNOWN} when it has none or is not a
+     * JWT.
+     */
+    static long expiresAtMillis(String token) {
+        int payloadStart = token.indexOf('.') + 1;
+        int payloadEnd = token.indexOf('.', payloadStart);
+        if (payloadStart == 0 || payloadEnd < 0) {
+            return UNKNOWN;
+        }
+        try {
+            byte[] payload = Base64.getUrlDecoder().decode(token.substring(payloadStart, payloadEnd));
+            JsonReader reader = JsonReader.of(new Buffer().write(payload));
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.selectName(EXP) == 0) {
+                    return (long) (reader.nextDouble() * 1000);
+                }
+                reader.skipName();
+                reader.skipValue();
+            }
+            return UNKNOWN;
+        } catch (IllegalArgumentException | IOException e) {
+            return UNKNOWN;
+        }
+    }
+
+    private void refreshIfDue(String userId, Token token, Supplier<CompletableFuture<String>> refresher) {
+        if (token.ttlNanos <= 0 || nanoClock.getAsLong() - token.refreshAt < 0) {
+            return;
+        }
+        long generation = token.generation;
+        flights.enqueue(flightKey(userId, generation), refresher, CallExecutor.DIRECT).thenAccept(value -> {
+            Token refreshed = token(token.slot, generation, value);
+            if (generations.get(token.slot) == generation) {
+                cache.put(userId, refreshed);
+            }
+        });
+    }
+
+    private Token token(int slot, long generation, String value) {
+        long expiresAt = expiresAtMillis(value);
+        long ttlNanos = expiresAt == UNKNOWN ? 0
+                : (expiresAt - expiryMarginMillis - epochMillis.getAsLong()) * 1_000_000L;
+        long refreshIn = Math.max(ttlNanos - refreshAheadNanos, ttlNanos / 2);
+        return new Token(slot, generation, value, ttlNanos, nanoClock.getAsLong() + refreshIn);
+    }
+
+    private static String flightKey(String userId, long generation) {
+        return userId + '#' + generation;
+    }
+
+    private static int slot(String userId) {
+        int hash = userId.hashCode();
+        return (hash ^ (hash >>> 16)) & (GENERATIONS - 1);
+    }
+
+    private static int weigh(Token token) {
+        return TOKEN + token.value.length();
+    }
+
+    private static final class Token {
+
+        private final int slot;
+        private final long generation;
+        private final String value;
+        private final long ttlNanos;
+        private final long refreshAt;
+
+        private Token(int slot, long generation, String value, long ttlNanos, long refreshAt) {
+            this.slot = slot;
+            this.generation = generation;
+            this.value = value;
+            this.ttlNanos = ttlNanos;
+            this.refreshAt = refreshAt;
+        }
+    }
+}
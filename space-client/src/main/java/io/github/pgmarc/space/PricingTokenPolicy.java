@@ -0,0 +1,103 @@
+package io.github.pgmarc.space;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Settings of the pricing token cache. By default it holds up to 4 MiB of
+ * tokens, serves each one until 30 seconds before the <code>exp</code>
+ * claim of the token and refreshes it in the background during the last
+ * 5 minutes it is served.
+ */
+public final class PricingTokenPolicy {
+
+    private final long maximumWeight;
+    private final Duration expiryMargin;
+    private final Duration refreshAhead;
+
+    private PricingTokenPolicy(Builder builder) {
+        this.maximumWeight = builder.maximumWeight;
+        this.expiryMargin = builder.expiryMargin;
+        this.refreshAhead = builder.refreshAhead;
+    }
+
+    public static PricingTokenPolicy defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public Duration getExpiryMargin() {
+        return expiryMargin;
+    }
+
+    public Duration getRefreshAhead() {
+        return refreshAhead;
+    }
+
+    @Override
+    public String toString() {
+        return "PricingTokenPolicy{" +
+            "maximumWeight=" + maximumWeight +
+            ", expiryMargin=" + expiryMargin +
+            ", refreshAhead=" + refreshAhead +
+            '}';
+    }
+
+    public static final class Builder {
+
+        private long maximumWeight = 4L << 20;
+        private Duration expiryMargin = Duration.ofSeconds(30);
+        private Duration refreshAhead = Duration.ofMinutes(5);
+
+        private Builder() {
+        }
+
+        /**
+         * Maximum estimated size of the cached tokens in bytes.
+         */
+        public Builder maximumWeight(long bytes) {
+            if (bytes < 1) {
+                throw new IllegalArgumentException("maximum weight must be greater than 0");
+            }
+            this.maximumWeight = bytes;
+            return this;
+        }
+
+        /**
+         * How long before its expiration a token stops being served, so the
+         * frontend still has time to use it.
+         */
+        public Builder expiryMargin(Duration expiryMargin) {
+            Objects.requireNonNull(expiryMargin, "expiry margin must not be null");
+            if (expiryMargin.isNegative()) {
+                throw new IllegalArgumentException("expiry margin must not be negative");
+            }
+            this.expiryMargin = expiryMargin;
+            return this;
+        }
+
+        /**
+         * How long before it stops being served a token is refreshed in the
+         * background, while callers keep getting the current one.
+         */
+        public Builder refreshAhead(Duration refreshAhead) {
+            Objects.requireNonNull(refreshAhead, "refresh ahead must not be null");
+            if (refreshAhead.isNegative() || refreshAhead.isZero()) {
+                throw new IllegalArgumentException("refresh ahead must be positive");
+            }
+            this.refreshAhead = refreshAhead;
+            return this;
+        }
+
+        public PricingTokenPolicy build() {
+            return new PricingTokenPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.pgmarc.space;
+
+import java.util.Objects;
+
+import okhttp3.Request;
+
+/**
+ * OkHttp request tag identifying which SPACE operation a request performs
+ * and on behalf of which user. Interceptors can read it with
+ * <code>request.tag(RequestTag.class)</code>.
+ */
+public final class RequestTag {
+
+    private final Operation operation;
+    private final String userId;
+
+    private RequestTag(Operation operation, String userId) {
+        this.operation = operation;
+        this.userId = userId;
+    }
+
+    public static RequestTag of(Operation operation, String userId) {
+        Objects.requireNonNull(operation, "operation must not be null");
+        Objects.requireNonNull(userId, "userId must not be null");
+        return new RequestTag(operation, userId);
+    }
+
+    public static RequestTag of(Request request) {
+        return request.tag(RequestTag.class);
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestTag{" +
+            "operation=" + operation +
+            ", userId='" + userId + '\'' +
+            '}';
+    }
+}
@@ -0,0 +1,11 @@
+package io.github.pgmarc.space;
+
+import java.io.IOException;
+
+import okhttp3.Response;
+
+@FunctionalInterface
+interface ResponseHandler<T> {
+
+    T handle(Response response) throws IOException;
+}
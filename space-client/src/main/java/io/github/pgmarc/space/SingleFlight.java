@@ -0,0 +1,198 @@
+package io.github.pgmarc.space;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical calls: the first caller of a key performs
+ * the call and every caller arriving while it is in flight shares its result
+ * or its failure.
+ */
+final class SingleFlight {
+
+    @FunctionalInterface
+    interface IoCall<T> {
+        T call() throws IOException;
+    }
+
+    private final ConcurrentMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder deduplicated = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    <T> T execute(String key, IoCall<T> call) throws IOException {
+        Flight flight = new Flight();
+        Flight leader;
+        while ((leader = inFlight.putIfAbsent(key, flight)) != null) {
+            if (leader.join()) {
+                deduplicated.increment();
+                return (T) await(leader.promise);
+            }
+            inFlight.remove(key, leader);
+        }
+        try {
+            T res = call.call();
+            inFlight.remove(key, flight);
+            flight.promise.complete(res);
+            return res;
+        } catch (IOException | RuntimeException e) {
+            inFlight.remove(key, flight);
+            flight.promise.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Every caller gets its own future, completed on its
+     * <code>executor</code>. Cancelling it only detaches that caller, the
+     * shared call is cancelled once every caller waiting on it cancelled.
+     */
+    <T> CompletableFuture<T> enqueue(String key, Supplier<CompletableFuture<T>> call, Executor executor) {
+        Flight flight = new Flight();
+        Flight leader;
+        while ((leader = inFlight.putIfAbsent(key, flight)) != null) {
+            if (leader.join()) {
+                deduplicated.increment();
+                return new Waiter<>(key, leader, executor);
+            }
+            inFlight.remove(key, leader);
+        }
+        try {
+            CompletableFuture<T> source = call.get();
+            flight.attach(source);
+            source.whenComplete((res, e) -> {
+                inFlight.remove(key, flight);
+                if (e != null) {
+                    flight.promise.completeExceptionally(e);
+                } else {
+                    flight.promise.complete(res);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, flight);
+            flight.promise.completeExceptionally(e);
+        }
+        return new Waiter<>(key, flight, CallExecutor.DIRECT);
+    }
+
+    long getDeduplicatedCalls() {
+        return deduplicated.sum();
+    }
+
+    private void leave(String key, Flight flight) {
+        if (flight.leave()) {
+            inFlight.remove(key, flight);
+            flight.promise.cancel(false);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> leader) throws IOException {
+        try {
+            return leader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for an in-flight call");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * A call in flight and the number of callers still waiting on it.
+     * Synchronous callers never leave.
+     */
+    private static final class Flight {
+
+        private final CompletableFuture<Object> promise = new CompletableFuture<>();
+        private CompletableFuture<?> source;
+        private int waiters = 1;
+        private boolean abandoned;
+
+        synchronized boolean join() {
+            if (abandoned) {
+                return false;
+            }
+            waiters++;
+            return true;
+        }
+
+        void attach(CompletableFuture<?> source) {
+            synchronized (this) {
+                if (!abandoned) {
+                    this.source = source;
+                    return;
+                }
+            }
+            source.cancel(true);
+        }
+
+        /**
+         * Returns whether the leaving caller was the last one, in which case
+         * the source call has been cancelled.
+         */
+        boolean leave() {
+            CompletableFuture<?> cancelled;
+            synchronized (this) {
+                if (--waiters > 0 || promise.isDone()) {
+                    return false;
+                }
+                abandoned = true;
+                cancelled = source;
+            }
+            if (cancelled != null) {
+                cancelled.cancel(true);
+            }
+            return true;
+        }
+    }
+
+    private final class Waiter<T> extends CompletableFuture<T> {
+
+        private final String key;
+        private final Flight flight;
+
+        @SuppressWarnings("unchecked")
+        private Waiter(String key, Flight flight, Executor executor) {
+            this.key = key;
+            this.flight = flight;
+            flight.promise.whenComplete((res, e) -> {
+                try {
+                    executor.execute(() -> settle((T) res, e));
+                } catch (RejectedExecutionException rejected) {
+                    completeExceptionally(rejected);
+                }
+            });
+        }
+
+        private void settle(T res, Throwable e) {
+            if (e != null) {
+                completeExceptionally(e);
+            } else {
+                complete(res);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                leave(key, flight);
+            }
+            return cancelled;
+        }
+    }
+}
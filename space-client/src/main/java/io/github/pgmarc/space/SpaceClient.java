@@ -1,40 +1,128 @@
 package io.github.pgmarc.space;
 
+import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import io.github.pgmarc.space.codec.JsonCodec;
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.resilience.CircuitBreaker;
+import io.github.pgmarc.space.resilience.CircuitBreakerConfig;
+import io.github.pgmarc.space.resilience.CircuitBreakerInterceptor;
+import io.github.pgmarc.space.resilience.CircuitBreakerListener;
+import io.github.pgmarc.space.resilience.HedgingPolicy;
+import io.github.pgmarc.space.resilience.RetryInterceptor;
+import io.github.pgmarc.space.resilience.RetryPolicy;
+import io.github.pgmarc.space.routing.Node;
+import io.github.pgmarc.space.routing.RoutingInterceptor;
+import io.github.pgmarc.space.routing.RoutingPolicy;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
 
 public final class SpaceClient {
 
-    private final OkHttpClient httpClient;
+    private final CallExecutor calls;
     private final HttpUrl baseUrl;
     private final String apiKey;
+    private final JsonCodec codec;
+    private final TinyLfuCache<String, Subscription> contractCache;
+    private final EvaluationCache evaluationCache;
+    private final PricingTokenCache pricingTokenCache;
 
     private ContractsEndpoint contracts;
     private FeaturesEndpoint features;
 
-    private SpaceClient(OkHttpClient httpClient, HttpUrl baseUrl, String apiKey) {
-        this.httpClient = httpClient;
+    private SpaceClient(OkHttpClient httpClient, HttpUrl baseUrl, String apiKey, boolean requestCoalescing,
+            HedgingPolicy hedgingPolicy, JsonCodec codec, CachePolicy contractCachePolicy,
+            EvaluationCachePolicy evaluationCachePolicy, PricingTokenPolicy pricingTokenPolicy) {
+        this.calls = new CallExecutor(httpClient, requestCoalescing ? new SingleFlight() : null,
+                hedgingPolicy != null ? new Hedging(hedgingPolicy) : null);
         this.baseUrl = baseUrl;
         this.apiKey = apiKey;
+        this.codec = codec;
+        this.contractCache = contractCachePolicy != null
+                ? new TinyLfuCache<>(contractCachePolicy, SubscriptionWeigher::weigh, SubscriptionWeigher.AVERAGE_WEIGHT)
+                : null;
+        this.evaluationCache = evaluationCachePolicy != null
+                ? new EvaluationCache(evaluationCachePolicy, this::nextReset)
+                : null;
+        this.pricingTokenCache = pricingTokenPolicy != null ? new PricingTokenCache(pricingTokenPolicy) : null;
+    }
+
+    private long nextReset(String userId, String service, String usageLimit) {
+        return contractCache == null ? AdaptiveTtl.UNKNOWN
+                : AdaptiveTtl.nextReset(contractCache.peek(userId), service, usageLimit);
     }
 
     public ContractsEndpoint contracts() {
         if (contracts == null) {
-            contracts = new ContractsEndpoint(httpClient, baseUrl, apiKey);
+            contracts = new ContractsEndpoint(calls, baseUrl, apiKey, codec, contractCache, evaluationCache,
+                    pricingTokenCache);
         }
         return contracts;
     }
 
     public FeaturesEndpoint features() {
         if (features == null) {
-            features = new FeaturesEndpoint(httpClient, baseUrl, apiKey);
+            features = new FeaturesEndpoint(calls, baseUrl, apiKey, codec, evaluationCache, pricingTokenCache);
         }
         return features;
     }
 
+    /**
+     * Number of calls that were served by sharing the result of an identical
+     * in-flight call instead of sending their own request. Always zero unless
+     * request coalescing is enabled.
+     */
+    public long getDeduplicatedCalls() {
+        return calls.getDeduplicatedCalls();
+    }
+
+    /**
+     * Number of second requests sent for evaluations that had not answered
+     * after the hedge delay. Always zero unless hedging is enabled.
+     */
+    public long getHedgedCalls() {
+        return calls.getHedgedCalls();
+    }
+
+    /**
+     * Counters of the contract cache. Always empty unless the contract
+     * cache is enabled.
+     */
+    public CacheStats getContractCacheStats() {
+        return contractCache == null ? CacheStats.empty() : contractCache.stats();
+    }
+
+    /**
+     * Counters of the evaluation cache. Always empty unless the evaluation
+     * cache is enabled.
+     */
+    public CacheStats getEvaluationCacheStats() {
+        return evaluationCache == null ? CacheStats.empty() : evaluationCache.stats();
+    }
+
+    /**
+     * Counters of the pricing token cache. Always empty unless the pricing
+     * token cache is enabled.
+     */
+    public CacheStats getPricingTokenCacheStats() {
+        return pricingTokenCache == null ? CacheStats.empty() : pricingTokenCache.stats();
+    }
+
     public static Builder builder(String host, String apiKey) {
         return new Builder(host, apiKey);
     }
@@ -51,6 +139,19 @@ public final class SpaceClient {
         private String prefixPath = DEFAULT_API_VERSION;
         private Duration readTimeout;
         private Duration writeTimeout;
+        private boolean virtualThreads;
+        private ConnectionProfile connectionProfile;
+        private boolean requestCoalescing;
+        private RetryPolicy retryPolicy;
+        private HedgingPolicy hedgingPolicy;
+        private RoutingPolicy routingPolicy;
+        private JsonCodec codec = JsonCodec.defaults();
+        private CachePolicy contractCachePolicy;
+        private EvaluationCachePolicy evaluationCachePolicy;
+        private PricingTokenPolicy pricingTokenPolicy;
+        private final Map<Operation.Endpoint, CircuitBreakerConfig> circuitBreakerConfigs =
+                new EnumMap<>(Operation.Endpoint.class);
+        private final List<CircuitBreakerListener> circuitBreakerListeners = new ArrayList<>();
 
         private Builder(String host, String apiKey) {
             this.apiKey = apiKey;
@@ -83,6 +184,137 @@ public final class SpaceClient {
             return this;
         }
 
+        /**
+         * Runs enqueued SPACE calls on virtual threads and lifts OkHttp
+         * dispatcher limits, so that a high number of concurrent calls park
+         * cheaply instead of queueing. Only takes effect on Java 21 or later,
+         * older runtimes keep using the default dispatcher.
+         */
+        public Builder withVirtualThreads(boolean enabled) {
+            this.virtualThreads = enabled;
+            return this;
+        }
+
+        public Builder withConnectionProfile(ConnectionProfile connectionProfile) {
+            if (connectionProfile != null) {
+                this.connectionProfile = connectionProfile;
+            }
+            return this;
+        }
+
+        /**
+         * Concurrent identical read calls (<code>getContractByUserId</code>,
+         * <code>evaluate</code> and <code>generatePricingTokenForUser</code>)
+         * share a single in-flight request and its parsed result.
+         */
+        public Builder withRequestCoalescing(boolean enabled) {
+            this.requestCoalescing = enabled;
+            return this;
+        }
+
+        /**
+         * Retries read operations on connection failures, <code>429</code> and
+         * <code>5xx</code> responses. Writes and optimistic evaluations are
+         * never retried.
+         */
+        public Builder withRetryPolicy(RetryPolicy retryPolicy) {
+            if (retryPolicy != null) {
+                this.retryPolicy = retryPolicy;
+            }
+            return this;
+        }
+
+        /**
+         * Guards the calls to <code>endpoint</code> with a circuit breaker.
+         * While open, calls fail fast with
+         * {@link io.github.pgmarc.space.exceptions.CallNotPermittedException}.
+         */
+        public Builder withCircuitBreaker(Operation.Endpoint endpoint, CircuitBreakerConfig config) {
+            Objects.requireNonNull(endpoint, "endpoint must not be null");
+            Objects.requireNonNull(config, "circuit breaker config must not be null");
+            this.circuitBreakerConfigs.put(endpoint, config);
+            return this;
+        }
+
+        public Builder withCircuitBreakerListener(CircuitBreakerListener listener) {
+            Objects.requireNonNull(listener, "circuit breaker listener must not be null");
+            this.circuitBreakerListeners.add(listener);
+            return this;
+        }
+
+        /**
+         * Hedges <code>evaluate</code> calls: if SPACE has not answered after
+         * the hedge delay a second identical request is sent and the slower
+         * one is cancelled. Optimistic evaluations and reverts are never
+         * hedged.
+         */
+        public Builder withHedgingPolicy(HedgingPolicy hedgingPolicy) {
+            if (hedgingPolicy != null) {
+                this.hedgingPolicy = hedgingPolicy;
+            }
+            return this;
+        }
+
+        /**
+         * Balances calls across the nodes of <code>routingPolicy</code>.
+         * The builder host and port are then only used by requests that do
+         * not perform a SPACE operation, like connection pre-warming.
+         */
+        public Builder withRouting(RoutingPolicy routingPolicy) {
+            if (routingPolicy != null) {
+                this.routingPolicy = routingPolicy;
+            }
+            return this;
+        }
+
+        /**
+         * Reads responses and writes requests with <code>codec</code> instead
+         * of the built-in {@link JsonCodec#defaults()} one.
+         */
+        public Builder withJsonCodec(JsonCodec codec) {
+            this.codec = Objects.requireNonNull(codec, "json codec must not be null");
+            return this;
+        }
+
+        /**
+         * Keeps the contracts read, added or updated through this client in
+         * memory, so <code>getContractByUserId</code> only calls SPACE on a
+         * miss. Contracts changed by other clients are seen once their entry
+         * is refreshed, expires or is invalidated with
+         * {@link ContractsEndpoint#invalidateCachedContract(String)}.
+         */
+        public Builder withContractCache(CachePolicy cachePolicy) {
+            this.contractCachePolicy = Objects.requireNonNull(cachePolicy, "cache policy must not be null");
+            return this;
+        }
+
+        /**
+         * Keeps the results of <code>evaluate</code> in memory, so repeated
+         * non-consuming checks of the same user and feature only call SPACE
+         * on a miss. Optimistic evaluations, reverts and contract changes
+         * made through this client invalidate the evaluations of their user
+         * once SPACE answered; changes made elsewhere are seen once the
+         * entries expire or after
+         * {@link FeaturesEndpoint#invalidateCachedEvaluations(String)}.
+         */
+        public Builder withEvaluationCache(EvaluationCachePolicy cachePolicy) {
+            this.evaluationCachePolicy = Objects.requireNonNull(cachePolicy, "evaluation cache policy must not be null");
+            return this;
+        }
+
+        /**
+         * Keeps the pricing tokens generated through this client in memory
+         * until shortly before they expire, refreshing them in the
+         * background ahead of time. Contract changes made through this
+         * client invalidate the token of their user once SPACE answered;
+         * changes made elsewhere are seen once the token is refreshed or
+         * after {@link FeaturesEndpoint#invalidateCachedPricingToken(String)}.
+         */
+        public Builder withPricingTokenCache(PricingTokenPolicy tokenPolicy) {
+            this.pricingTokenPolicy = Objects.requireNonNull(tokenPolicy, "pricing token policy must not be null");
+            return this;
+        }
+
         public SpaceClient build() {
             Objects.requireNonNull(this.host, "host must not be null");
             Objects.requireNonNull(this.apiKey, "api key must not be null");
@@ -92,8 +324,11 @@ public final class SpaceClient {
             if (host.isBlank()) {
                 throw new IllegalArgumentException("host must not be blank");
             }
+            if (routingPolicy != null && connectionProfile != null) {
+                validatePreWarmedConnections(connectionProfile, routingPolicy.getNodes().size());
+            }
             OkHttpClient.Builder httpClientBuilder = new OkHttpClient().newBuilder();
-            
+
             if (readTimeout != null) {
                 httpClientBuilder.readTimeout(readTimeout);
             }
@@ -101,13 +336,164 @@ public final class SpaceClient {
             if (writeTimeout != null) {
                 httpClientBuilder.writeTimeout(writeTimeout);
             }
-            
+
+            if (retryPolicy != null) {
+                httpClientBuilder.addInterceptor(new RetryInterceptor(retryPolicy));
+            }
+
+            if (!circuitBreakerConfigs.isEmpty()) {
+                httpClientBuilder.addInterceptor(new CircuitBreakerInterceptor(newCircuitBreakers()));
+            }
+
+            RoutingInterceptor routing = null;
+            if (routingPolicy != null) {
+                routing = new RoutingInterceptor(routingPolicy);
+                httpClientBuilder.addInterceptor(routing);
+            }
+
+            Dispatcher dispatcher = newDispatcher();
+            if (connectionProfile != null) {
+                applyConnectionProfile(httpClientBuilder, dispatcher, connectionProfile);
+            }
+            httpClientBuilder.dispatcher(dispatcher);
+
             HttpUrl baseUrl = new HttpUrl.Builder()
                     .scheme(DEFAULT_SCHEME)
                     .host(host)
                     .port(port)
                     .addPathSegments(prefixPath).build();
-            return new SpaceClient(httpClientBuilder.build(), baseUrl, this.apiKey);
+            OkHttpClient httpClient = httpClientBuilder.build();
+            if (routing != null) {
+                routing.startHealthChecks(httpClient, baseUrl);
+            }
+            if (connectionProfile != null && connectionProfile.getPreWarmedConnections() > 0) {
+                preWarmConnections(httpClient, preWarmTargets(baseUrl), connectionProfile.getPreWarmedConnections());
+            }
+            return new SpaceClient(httpClient, baseUrl, this.apiKey, requestCoalescing, hedgingPolicy, codec,
+                    contractCachePolicy, evaluationCachePolicy, pricingTokenPolicy);
+        }
+
+        private Map<Operation.Endpoint, CircuitBreaker> newCircuitBreakers() {
+            Map<Operation.Endpoint, CircuitBreaker> circuitBreakers = new EnumMap<>(Operation.Endpoint.class);
+            for (Map.Entry<Operation.Endpoint, CircuitBreakerConfig> entry : circuitBreakerConfigs.entrySet()) {
+                String name = entry.getKey().name().toLowerCase();
+                circuitBreakers.put(entry.getKey(),
+                        new CircuitBreaker(name, entry.getValue(), circuitBreakerListeners));
+            }
+            return circuitBreakers;
+        }
+
+        private Dispatcher newDispatcher() {
+            if (!virtualThreads || !VirtualThreads.isSupported()) {
+                return new Dispatcher();
+            }
+            Dispatcher dispatcher = new Dispatcher(VirtualThreads.newExecutor("space-client-"));
+            dispatcher.setMaxRequests(Integer.MAX_VALUE);
+            dispatcher.setMaxRequestsPerHost(Integer.MAX_VALUE);
+            return dispatcher;
+        }
+
+        private static void applyConnectionProfile(OkHttpClient.Builder httpClientBuilder, Dispatcher dispatcher,
+                ConnectionProfile profile) {
+            if (profile.hasConnectionPoolSettings()) {
+                int maxIdleConnections = profile.getMaxIdleConnections()
+                        .orElse(ConnectionProfile.DEFAULT_MAX_IDLE_CONNECTIONS);
+                Duration keepAlive = profile.getKeepAlive().orElse(ConnectionProfile.DEFAULT_KEEP_ALIVE);
+                httpClientBuilder.connectionPool(
+                        new ConnectionPool(maxIdleConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS));
+            }
+            profile.getMaxRequests().ifPresent(dispatcher::setMaxRequests);
+            profile.getMaxRequestsPerHost().ifPresent(dispatcher::setMaxRequestsPerHost);
+            profile.getConnectTimeout().ifPresent(httpClientBuilder::connectTimeout);
+            profile.getCallTimeout().ifPresent(httpClientBuilder::callTimeout);
+        }
+
+        private static void validatePreWarmedConnections(ConnectionProfile profile, int nodes) {
+            int connections = profile.getPreWarmedConnections() * nodes;
+            int idleConnections = profile.getMaxIdleConnections()
+                    .orElse(ConnectionProfile.DEFAULT_MAX_IDLE_CONNECTIONS);
+            if (connections > idleConnections) {
+                throw new IllegalStateException("pre-warmed connections to " + nodes + " nodes (" + connections
+                        + ") must not exceed max idle connections (" + idleConnections + ")");
+            }
+        }
+
+        /**
+         * SPACE itself, or every node calls are routed to.
+         */
+        private List<HttpUrl> preWarmTargets(HttpUrl baseUrl) {
+            if (routingPolicy == null) {
+                return List.of(baseUrl);
+            }
+            List<HttpUrl> targets = new ArrayList<>();
+            for (Node node : routingPolicy.getNodes()) {
+                targets.add(baseUrl.newBuilder().host(node.getHost()).port(node.getPort()).build());
+            }
+            return targets;
+        }
+
+        /**
+         * Opens <code>connections</code> connections to each target in
+         * parallel by sending HEAD requests. The connections are left idle in
+         * the pool. Failures are ignored: an unreachable SPACE must not
+         * prevent the client from being built.
+         * <p>
+         * A HEAD response has no body, so its connection goes back to the
+         * pool as soon as the headers are read and a request still waiting
+         * for one would reuse it. Each request therefore holds its connection
+         * until every request to the same target has one.
+         */
+        private static void preWarmConnections(OkHttpClient httpClient, List<HttpUrl> targets, int connections) {
+            Dispatcher warmUpDispatcher = new Dispatcher();
+            warmUpDispatcher.setMaxRequests(connections * targets.size());
+            warmUpDispatcher.setMaxRequestsPerHost(connections);
+            Map<HttpUrl, CountDownLatch> connected = new HashMap<>();
+            for (HttpUrl target : targets) {
+                connected.put(target, new CountDownLatch(connections));
+            }
+            long connectTimeout = httpClient.connectTimeoutMillis();
+            OkHttpClient warmUpClient = httpClient.newBuilder()
+                    .dispatcher(warmUpDispatcher)
+                    .addNetworkInterceptor(chain -> {
+                        CountDownLatch others = connected.get(chain.request().url());
+                        if (others != null) {
+                            others.countDown();
+                            try {
+                                others.await(connectTimeout, TimeUnit.MILLISECONDS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                        return chain.proceed(chain.request());
+                    })
+                    .build();
+            CountDownLatch pending = new CountDownLatch(connections * targets.size());
+            Callback callback = new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    pending.countDown();
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) {
+                    response.close();
+                    pending.countDown();
+                }
+            };
+            for (HttpUrl target : targets) {
+                Request request = new Request.Builder().url(target).head().build();
+                for (int i = 0; i < connections; i++) {
+                    warmUpClient.newCall(request).enqueue(callback);
+                }
+            }
+            try {
+                pending.await(httpClient.connectTimeoutMillis() + httpClient.readTimeoutMillis(),
+                        TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                warmUpDispatcher.executorService().shutdown();
+            }
         }
 
     }
@@ -0,0 +1,42 @@
+package io.github.pgmarc.space;
+
+import java.util.Map;
+
+import io.github.pgmarc.space.contracts.Service;
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.contracts.UsageLevel;
+
+/**
+ * Estimates the bytes a cached subscription retains on a 64-bit JVM with
+ * compressed oops. Service, plan, add-on and usage limit names are shared
+ * between subscriptions, so only the user contact strings are counted.
+ * The history is left out: the client decodes it lazily and most cached
+ * subscriptions never do.
+ */
+final class SubscriptionWeigher {
+
+    static final int AVERAGE_WEIGHT = 1536;
+
+    private static final int SUBSCRIPTION = 400;
+    private static final int STRING = 40;
+    private static final int SERVICE = 120;
+    private static final int ADD_ON = 56;
+    private static final int USAGE_LEVEL_MAP = 64;
+    private static final int USAGE_LEVEL = 64;
+
+    private SubscriptionWeigher() {
+    }
+
+    static int weigh(Subscription subscription) {
+        long bytes = SUBSCRIPTION + 2 * STRING + subscription.getUserId().length()
+                + subscription.getUsername().length();
+        for (int i = 0; i < subscription.getServiceCount(); i++) {
+            Service service = subscription.getServiceAt(i);
+            bytes += SERVICE + (long) ADD_ON * service.getAddOnCount();
+        }
+        for (Map<String, UsageLevel> usageLevels : subscription.getUsageLevels().values()) {
+            bytes += USAGE_LEVEL_MAP + (long) USAGE_LEVEL * usageLevels.size();
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,606 @@
+package io.github.pgmarc.space;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Concurrent cache bounded by the total weight of its entries, with a
+ * W-TinyLFU policy. New entries land in an LRU window of 1% of the weight.
+ * An entry pushed out of the window only enters the main space if a
+ * {@link FrequencySketch} says it is used more often than the entry it
+ * would evict, so one-off lookups cannot flush popular entries. The main
+ * space is a segmented LRU: entries hit while on probation move to a
+ * protected segment holding up to 80% of it.
+ * <p>
+ * Lookups are lock free. They record the access only when the policy lock
+ * is free, so under contention a hot entry may miss a promotion. Writes
+ * and evictions hold the lock. Every entry expires a fixed time after it
+ * was written, expired entries are dropped when looked up or evicted.
+ * <p>
+ * With a refresh time, lookups that are given a refresher reload an entry
+ * in the background while still returning the cached value until it
+ * expires. To spread the reloads of entries written together, a lookup may
+ * start the refresh early with XFetch: it refreshes once
+ * <code>now - loadTime * ln(random)</code> passes the refresh time, so the
+ * slower an entry was to load the earlier it tends to be refreshed.
+ * <p>
+ * An expiry function can give each value its own time to live, and a
+ * validity predicate can reject values that are not expired yet but must
+ * no longer be served. Both are checked on lookups.
+ * <p>
+ * Loads never overwrite writes: every {@link #put} and invalidation bumps
+ * the generation of the stripe its key hashes to, and a miss load is only
+ * cached if the generation of its key did not change while it ran.
+ */
+final class TinyLfuCache<K, V> {
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    private static final int REMOVED = -1;
+    private static final int GENERATIONS = 1024;
+
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+    private final ReentrantLock policyLock = new ReentrantLock();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATIONS);
+    private final ToIntFunction<? super V> weigher;
+    private final LongSupplier nanoClock;
+    private final ToLongFunction<? super V> expiry;
+    private final Predicate<? super V> validity;
+    private final long expireAfterWriteNanos;
+    private final long refreshAfterWriteNanos;
+    private final int maximumConcurrentRefreshes;
+    private final long maximumWeight;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+
+    private final FrequencySketch sketch;
+    private final AccessOrder<K, V> window = new AccessOrder<>();
+    private final AccessOrder<K, V> probation = new AccessOrder<>();
+    private final AccessOrder<K, V> protectedSegment = new AccessOrder<>();
+    private long windowWeight;
+    private long protectedWeight;
+    private long weightedSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+
+    private final ConcurrentHashMap<K, Node<K, V>> refreshing = new ConcurrentHashMap<>();
+    private final AtomicInteger refreshingCount = new AtomicInteger();
+
+    TinyLfuCache(CachePolicy policy, ToIntFunction<? super V> weigher, int averageWeight) {
+        this(policy, weigher, averageWeight, System::nanoTime);
+    }
+
+    TinyLfuCache(CachePolicy policy, ToIntFunction<? super V> weigher, int averageWeight, LongSupplier nanoClock) {
+        this(policy, weigher, averageWeight, null, null, nanoClock);
+    }
+
+    /**
+     * @param expiry nanoseconds each value lives for, or <code>null</code>
+     *               to use the policy expiration
+     * @param validity whether a cached value may still be served, or
+     *                 <code>null</code> if every value may
+     */
+    TinyLfuCache(CachePolicy policy, ToIntFunction<? super V> weigher, int averageWeight,
+            ToLongFunction<? super V> expiry, Predicate<? super V> validity, LongSupplier nanoClock) {
+        this.weigher = weigher;
+        this.nanoClock = nanoClock;
+        this.expiry = expiry;
+        this.validity = validity;
+        this.expireAfterWriteNanos = policy.getExpireAfterWrite().toNanos();
+        this.refreshAfterWriteNanos = policy.getRefreshAfterWrite().map(Duration::toNanos).orElse(Long.MAX_VALUE);
+        this.maximumConcurrentRefreshes = policy.getMaximumConcurrentRefreshes();
+        this.maximumWeight = policy.getMaximumWeight();
+        this.windowMaximum = Math.max(1, maximumWeight / 100);
+        this.protectedMaximum = (maximumWeight - windowMaximum) * 4 / 5;
+        this.sketch = new FrequencySketch((int) Math.min(maximumWeight / averageWeight, 1 << 26));
+    }
+
+    /**
+     * Returns the value of <code>key</code> if it is cached and has not
+     * expired, <code>null</code> otherwise.
+     */
+    V getIfPresent(K key) {
+        return getIfPresent(key, null);
+    }
+
+    /**
+     * Same as {@link #getIfPresent(Object)}, also starting a background
+     * refresh with <code>refresher</code> when the entry is due for one.
+     */
+    V getIfPresent(K key, Supplier<CompletableFuture<V>> refresher) {
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        V value = node.value;
+        long now = nanoClock.getAsLong();
+        if (node.expiresAt - now <= 0 || validity != null && !validity.test(value)) {
+            misses.increment();
+            removeExpired(node);
+            return null;
+        }
+        hits.increment();
+        if (node.refreshAt - now <= 0) {
+            staleHits.increment();
+        }
+        if (refresher != null && shouldRefresh(node, now)) {
+            refresh(node, refresher);
+        }
+        if (policyLock.tryLock()) {
+            try {
+                onAccess(node);
+            } finally {
+                policyLock.unlock();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value of <code>key</code> if it is cached and has not
+     * expired, without recording the lookup nor the access.
+     */
+    V peek(K key) {
+        Node<K, V> node = data.get(key);
+        return node != null && node.expiresAt - nanoClock.getAsLong() > 0 ? node.value : null;
+    }
+
+    /**
+     * Returns the cached value of <code>key</code> or loads and caches it.
+     * Concurrent misses of the same key each load it. The loaded value is
+     * returned but not cached if <code>key</code> was written meanwhile.
+     */
+    V get(K key, SingleFlight.IoCall<V> loader) throws IOException {
+        return get(key, loader, null);
+    }
+
+    /**
+     * Same as {@link #get(Object, SingleFlight.IoCall)}, refreshing entries
+     * in the background with <code>refresher</code> once they are due.
+     */
+    V get(K key, SingleFlight.IoCall<V> loader, Supplier<CompletableFuture<V>> refresher) throws IOException {
+        V res = getIfPresent(key, refresher);
+        if (res != null) {
+            return res;
+        }
+        int slot = slot(key);
+        long generation = generations.get(slot);
+        long start = nanoClock.getAsLong();
+        try {
+            res = loader.call();
+        } catch (IOException | RuntimeException e) {
+            recordLoad(start, false);
+            throw e;
+        }
+        putLoaded(key, res, slot, generation, recordLoad(start, true));
+        return res;
+    }
+
+    /**
+     * Same as {@link #get(Object, SingleFlight.IoCall)} for loaders that
+     * complete asynchronously. Hits complete on <code>executor</code>,
+     * misses return the loader's future. The loader also refreshes entries.
+     */
+    CompletableFuture<V> getAsync(K key, Supplier<CompletableFuture<V>> loader, Executor executor) {
+        V res = getIfPresent(key, loader);
+        if (res != null) {
+            return CompletableFuture.supplyAsync(() -> res, executor);
+        }
+        int slot = slot(key);
+        long generation = generations.get(slot);
+        long start = nanoClock.getAsLong();
+        CompletableFuture<V> future = loader.get();
+        future.whenComplete((value, e) -> {
+            long loadNanos = recordLoad(start, e == null);
+            if (e == null) {
+                putLoaded(key, value, slot, generation, loadNanos);
+            }
+        });
+        return future;
+    }
+
+    void put(K key, V value) {
+        put(key, value, timeToLive(value));
+    }
+
+    /**
+     * Caches <code>value</code> for <code>ttlNanos</code> instead of its
+     * usual expiration. Values heavier than the whole cache or that would
+     * expire right away are not kept.
+     */
+    void put(K key, V value, long ttlNanos) {
+        generations.incrementAndGet(slot(key));
+        put(key, value, ttlNanos, averageLoadNanos());
+    }
+
+    private void putLoaded(K key, V value, int slot, long generation, long loadNanos) {
+        policyLock.lock();
+        try {
+            if (generations.get(slot) == generation) {
+                put(key, value, timeToLive(value), loadNanos);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    private void put(K key, V value, long ttlNanos, long loadNanos) {
+        int weight = Math.max(1, weigher.applyAsInt(value));
+        long now = nanoClock.getAsLong();
+        long expiresAt = deadline(now, ttlNanos);
+        long refreshAt = deadline(now, refreshAfterWriteNanos);
+        policyLock.lock();
+        try {
+            Node<K, V> node = data.get(key);
+            if (weight > maximumWeight || ttlNanos <= 0) {
+                if (node != null) {
+                    data.remove(key, node);
+                    unlink(node);
+                }
+                return;
+            }
+            if (node == null) {
+                node = new Node<>(key, value, weight, expiresAt, refreshAt, loadNanos);
+                data.put(key, node);
+                sketch.increment(key);
+                window.addLast(node);
+                windowWeight += weight;
+                weightedSize += weight;
+            } else {
+                node.value = value;
+                node.expiresAt = expiresAt;
+                node.refreshAt = refreshAt;
+                node.loadNanos = loadNanos;
+                reweigh(node, weight);
+                onAccess(node);
+            }
+            evict();
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    void invalidate(K key) {
+        generations.incrementAndGet(slot(key));
+        policyLock.lock();
+        try {
+            Node<K, V> node = data.remove(key);
+            if (node != null) {
+                unlink(node);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    void invalidateAll() {
+        policyLock.lock();
+        try {
+            for (int i = 0; i < GENERATIONS; i++) {
+                generations.incrementAndGet(i);
+            }
+            for (Node<K, V> node : data.values()) {
+                unlink(node);
+            }
+            data.clear();
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    int size() {
+        return data.size();
+    }
+
+    long weightedSize() {
+        policyLock.lock();
+        try {
+            return weightedSize;
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), loadSuccesses.sum(), loadFailures.sum(),
+                totalLoadTime.sum(), staleHits.sum(), refreshes.sum());
+    }
+
+    private long recordLoad(long start, boolean success) {
+        long loadNanos = nanoClock.getAsLong() - start;
+        totalLoadTime.add(loadNanos);
+        if (success) {
+            loadSuccesses.increment();
+        } else {
+            loadFailures.increment();
+        }
+        return loadNanos;
+    }
+
+    private long averageLoadNanos() {
+        long loads = loadSuccesses.sum() + loadFailures.sum();
+        return loads == 0 ? 0 : totalLoadTime.sum() / loads;
+    }
+
+    private long timeToLive(V value) {
+        return expiry != null ? expiry.applyAsLong(value) : expireAfterWriteNanos;
+    }
+
+    private static int slot(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (GENERATIONS - 1);
+    }
+
+    private static long deadline(long now, long nanos) {
+        return nanos > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + nanos;
+    }
+
+    private boolean shouldRefresh(Node<K, V> node, long now) {
+        if (node.refreshAt == Long.MAX_VALUE) {
+            return false;
+        }
+        long untilRefresh = node.refreshAt - now;
+        return untilRefresh <= 0
+                || node.loadNanos * -Math.log(ThreadLocalRandom.current().nextDouble()) >= untilRefresh;
+    }
+
+    /**
+     * Reloads <code>node</code> unless it is already being refreshed or too
+     * many refreshes are in flight. The reloaded value replaces the cached
+     * one only if no write happened meanwhile.
+     */
+    private void refresh(Node<K, V> node, Supplier<CompletableFuture<V>> refresher) {
+        if (refreshingCount.incrementAndGet() > maximumConcurrentRefreshes) {
+            refreshingCount.decrementAndGet();
+            return;
+        }
+        if (refreshing.putIfAbsent(node.key, node) != null) {
+            refreshingCount.decrementAndGet();
+            return;
+        }
+        refreshes.increment();
+        V stale = node.value;
+        long start = nanoClock.getAsLong();
+        CompletableFuture<V> future;
+        try {
+            future = refresher.get();
+        } catch (RuntimeException e) {
+            endRefresh(node);
+            recordLoad(start, false);
+            return;
+        }
+        future.whenComplete((value, e) -> {
+            endRefresh(node);
+            long loadNanos = recordLoad(start, e == null);
+            if (e == null) {
+                replace(node, stale, value, loadNanos);
+            }
+        });
+    }
+
+    private void endRefresh(Node<K, V> node) {
+        refreshing.remove(node.key, node);
+        refreshingCount.decrementAndGet();
+    }
+
+    private void replace(Node<K, V> node, V expected, V value, long loadNanos) {
+        policyLock.lock();
+        try {
+            if (data.get(node.key) == node && node.value == expected) {
+                put(node.key, value, timeToLive(value), loadNanos);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    private void removeExpired(Node<K, V> node) {
+        policyLock.lock();
+        try {
+            if (data.remove(node.key, node)) {
+                unlink(node);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    private void onAccess(Node<K, V> node) {
+        sketch.increment(node.key);
+        switch (node.segment) {
+            case WINDOW:
+                window.moveToLast(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                node.segment = PROTECTED;
+                protectedSegment.addLast(node);
+                protectedWeight += node.weight;
+                demoteFromProtected();
+                break;
+            case PROTECTED:
+                protectedSegment.moveToLast(node);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void reweigh(Node<K, V> node, int weight) {
+        int delta = weight - node.weight;
+        node.weight = weight;
+        weightedSize += delta;
+        if (node.segment == WINDOW) {
+            windowWeight += delta;
+        } else if (node.segment == PROTECTED) {
+            protectedWeight += delta;
+        }
+    }
+
+    private void demoteFromProtected() {
+        while (protectedWeight > protectedMaximum) {
+            Node<K, V> node = protectedSegment.pollFirst();
+            protectedWeight -= node.weight;
+            node.segment = PROBATION;
+            probation.addLast(node);
+        }
+    }
+
+    /**
+     * Moves the oldest window entries to probation, then evicts until the
+     * cache fits its maximum weight. Each entry that left the window is a
+     * candidate that competes with the oldest probation entry: the one the
+     * sketch has seen less often is evicted.
+     */
+    private void evict() {
+        int candidates = 0;
+        while (windowWeight > windowMaximum) {
+            Node<K, V> node = window.pollFirst();
+            windowWeight -= node.weight;
+            node.segment = PROBATION;
+            probation.addLast(node);
+            candidates++;
+        }
+
+        Node<K, V> candidate = candidates > 0 ? probation.last : null;
+        while (weightedSize > maximumWeight) {
+            Node<K, V> victim = probation.first;
+            if (victim == null) {
+                victim = protectedSegment.first != null ? protectedSegment.first : window.first;
+            }
+            if (candidate == null || victim == candidate) {
+                evictEntry(victim);
+                candidate = null;
+                continue;
+            }
+            Node<K, V> previous = --candidates > 0 ? candidate.previous : null;
+            if (candidate.expiresAt - nanoClock.getAsLong() > 0
+                    && sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                evictEntry(victim);
+            } else {
+                evictEntry(candidate);
+            }
+            candidate = previous != null && previous.segment == PROBATION ? previous : null;
+        }
+    }
+
+    private void evictEntry(Node<K, V> node) {
+        data.remove(node.key, node);
+        unlink(node);
+        evictions.increment();
+    }
+
+    private void unlink(Node<K, V> node) {
+        switch (node.segment) {
+            case WINDOW:
+                window.remove(node);
+                windowWeight -= node.weight;
+                break;
+            case PROBATION:
+                probation.remove(node);
+                break;
+            case PROTECTED:
+                protectedSegment.remove(node);
+                protectedWeight -= node.weight;
+                break;
+            default:
+                return;
+        }
+        weightedSize -= node.weight;
+        node.segment = REMOVED;
+    }
+
+    private static final class Node<K, V> {
+
+        private final K key;
+        private volatile V value;
+        private volatile long expiresAt;
+        private volatile long refreshAt;
+        private volatile long loadNanos;
+        private int weight;
+        private int segment = WINDOW;
+        private Node<K, V> previous;
+        private Node<K, V> next;
+
+        Node(K key, V value, int weight, long expiresAt, long refreshAt, long loadNanos) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+            this.refreshAt = refreshAt;
+            this.loadNanos = loadNanos;
+        }
+    }
+
+    /**
+     * Doubly linked list of nodes from least to most recently used.
+     */
+    private static final class AccessOrder<K, V> {
+
+        private Node<K, V> first;
+        private Node<K, V> last;
+
+        void addLast(Node<K, V> node) {
+            node.previous = last;
+            node.next = null;
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.previous == null) {
+                first = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+            if (node.next == null) {
+                last = node.previous;
+            } else {
+                node.next.previous = node.previous;
+            }
+            node.previous = null;
+            node.next = null;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        Node<K, V> pollFirst() {
+            Node<K, V> node = first;
+            if (node != null) {
+                remove(node);
+            }
+            return node;
+        }
+    }
+}
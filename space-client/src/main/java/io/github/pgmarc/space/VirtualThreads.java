@@ -0,0 +1,22 @@
+package io.github.pgmarc.space;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Virtual threads are only available from Java 21 onwards. This is the
+ * baseline implementation used by Java 11 to 20 runtimes, the multi-release
+ * jar ships an alternative under <code>META-INF/versions/21</code>.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return false;
+    }
+
+    static ExecutorService newExecutor(String namePrefix) {
+        throw new UnsupportedOperationException("virtual threads require Java 21 or later");
+    }
+}
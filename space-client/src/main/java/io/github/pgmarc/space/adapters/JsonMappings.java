@@ -0,0 +1,308 @@
+package io.github.pgmarc.space.adapters;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.pgmarc.space.contracts.AddOn;
+import io.github.pgmarc.space.contracts.Service;
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.contracts.Subscription.Snapshot;
+import io.github.pgmarc.space.contracts.UsageLevel;
+import io.github.pgmarc.space.contracts.UserContact;
+import io.github.pgmarc.space.deserializers.InternPool;
+import io.github.pgmarc.space.exceptions.FeatureEvaluationError;
+import io.github.pgmarc.space.exceptions.FeatureEvaluationException;
+import io.github.pgmarc.space.features.FeatureEvaluationResult;
+import io.github.pgmarc.space.json.JsonParseException;
+import io.github.pgmarc.space.processor.JsonContext;
+import io.github.pgmarc.space.processor.JsonCreator;
+import io.github.pgmarc.space.processor.JsonKey;
+import io.github.pgmarc.space.processor.JsonProperty;
+
+/**
+ * JSON shapes of the SPACE model. A <code>&lt;Type&gt;JsonAdapter</code> is
+ * generated in this package for every {@link JsonCreator} below. Static
+ * methods named after a property give its value back when writing, for
+ * properties without a matching getter.
+ * <p>
+ * Services have no JSON object of their own: SPACE spreads them over the
+ * <code>contractedServices</code>, <code>subscriptionPlans</code> and
+ * <code>subscriptionAddOns</code> members of subscriptions and snapshots.
+ */
+final class JsonMappings {
+
+    private static final InternPool NAMES = InternPool.shared();
+
+    private JsonMappings() {
+    }
+
+    @JsonCreator
+    static UserContact userContact(@JsonProperty(value = "userId", required = true) String userId,
+                                   @JsonProperty(value = "username", required = true) String username,
+                                   @JsonProperty("firstName") String firstName,
+                                   @JsonProperty("lastName") String lastName,
+                                   @JsonProperty("email") String email,
+                                   @JsonProperty("phone") String phone) {
+        return UserContact.builder(userId, username)
+            .firstName(firstName)
+            .lastName(lastName)
+            .email(email)
+            .phone(phone)
+            .build();
+    }
+
+    @JsonCreator
+    static UsageLevel usageLevel(@JsonKey String name,
+                                 @JsonProperty(value = "consumed", required = true, accessor = "getConsumption")
+                                 double consumed,
+                                 @JsonProperty("resetTimeStamp") ZonedDateTime resetTimestamp) {
+        return UsageLevel.of(NAMES.intern(name), consumed, resetTimestamp);
+    }
+
+    static ZonedDateTime resetTimestamp(UsageLevel usageLevel) {
+        return usageLevel.getResetTimestamp().map(timestamp -> timestamp.atZone(ZoneOffset.UTC)).orElse(null);
+    }
+
+    @JsonCreator
+    static BillingPeriod billingPeriod(@JsonProperty(value = "startDate", required = true) ZonedDateTime startDate,
+                                       @JsonProperty(value = "endDate", required = true) ZonedDateTime endDate,
+                                       @JsonProperty("autoRenew") boolean autoRenew,
+                                       @JsonProperty("renewalDays") Integer renewalDays) {
+        return new BillingPeriod(startDate, endDate, autoRenew, renewalDays);
+    }
+
+    @JsonCreator
+    static Subscription subscription(
+        @JsonProperty(value = "userContact", required = true) UserContact userContact,
+        @JsonProperty(value = "billingPeriod", required = true) BillingPeriod billingPeriod,
+        @JsonProperty(value = "contractedServices", required = true) Map<String, String> contractedServices,
+        @JsonProperty(value = "subscriptionPlans", required = true) Map<String, String> subscriptionPlans,
+        @JsonProperty(value = "subscriptionAddOns", required = true) Map<String, Map<String, Long>> subscriptionAddOns,
+        @JsonProperty(value = "usageLevels", required = true) Map<String, Map<String, UsageLevel>> usageLevels,
+        @JsonProperty("history") List<Snapshot> history) throws JsonParseException {
+
+        Map<String, Service> services = services(contractedServices, subscriptionPlans, subscriptionAddOns);
+        Subscription.Builder builder = Subscription.builder(userContact, billingPeriod.getStartDate(),
+                billingPeriod.getEndDate(), services.values())
+            .addUsageLevels(usageLevels)
+            .addSnapshots(history != null ? history : Collections.emptyList());
+        Integer renewalDays = billingPeriod.getRenewalDays();
+        if (renewalDays != null && renewalDays > 0) {
+            builder.renewInDays(renewalDays);
+        }
+        return builder.build();
+    }
+
+    static BillingPeriod billingPeriod(Subscription subscription) {
+        return new BillingPeriod(subscription.getStartDate().atZone(ZoneOffset.UTC),
+            subscription.getEndDate().atZone(ZoneOffset.UTC), subscription.isAutoRenewable(),
+            subscription.isAutoRenewable() ? subscription.getRenewalPeriod().get().getDays() : null);
+    }
+
+    static Map<String, String> contractedServices(Subscription subscription) {
+        return contractedServices(subscription.getServices());
+    }
+
+    static Map<String, String> subscriptionPlans(Subscription subscription) {
+        return subscriptionPlans(subscription.getServices());
+    }
+
+    static Map<String, Map<String, Long>> subscriptionAddOns(Subscription subscription) {
+        return subscriptionAddOns(subscription.getServices());
+    }
+
+    @JsonCreator
+    static Snapshot snapshot(
+        @JsonProperty(value = "startDate", required = true) ZonedDateTime startDate,
+        @JsonProperty(value = "endDate", required = true) ZonedDateTime endDate,
+        @JsonProperty(value = "contractedServices", required = true) Map<String, String> contractedServices,
+        @JsonProperty(value = "subscriptionPlans", required = true) Map<String, String> subscriptionPlans,
+        @JsonProperty(value = "subscriptionAddOns", required = true) Map<String, Map<String, Long>> subscriptionAddOns)
+        throws JsonParseException {
+        return Snapshot.of(startDate, endDate, services(contractedServices, subscriptionPlans, subscriptionAddOns));
+    }
+
+    static ZonedDateTime startDate(Snapshot snapshot) {
+        return snapshot.getStartDate().atZone(ZoneOffset.UTC);
+    }
+
+    static ZonedDateTime endDate(Snapshot snapshot) {
+        return snapshot.getEndDate().atZone(ZoneOffset.UTC);
+    }
+
+    static Map<String, String> contractedServices(Snapshot snapshot) {
+        return contractedServices(snapshot.getServices().values());
+    }
+
+    static Map<String, String> subscriptionPlans(Snapshot snapshot) {
+        return subscriptionPlans(snapshot.getServices().values());
+    }
+
+    static Map<String, Map<String, Long>> subscriptionAddOns(Snapshot snapshot) {
+        return subscriptionAddOns(snapshot.getServices().values());
+    }
+
+    @JsonCreator
+    static FeatureEvaluationError featureEvaluationError(
+        @JsonProperty(value = "code", required = true) String code,
+        @JsonProperty(value = "message", required = true) String message) {
+        return FeatureEvaluationError.of(code, message);
+    }
+
+    static String code(FeatureEvaluationError error) {
+        return error.getCode().name();
+    }
+
+    /**
+     * Usage limits of <code>service</code> are keyed in SPACE with the
+     * lower-cased service name and a dash in front of them.
+     */
+    @JsonCreator
+    static FeatureEvaluationResult featureEvaluationResult(
+        @JsonContext String service,
+        @JsonProperty(value = "eval", required = true) boolean available,
+        @JsonProperty("used") Map<String, Number> used,
+        @JsonProperty("limit") Map<String, Number> limit,
+        @JsonProperty("error") FeatureEvaluationError error) {
+
+        if (error != null) {
+            throw new FeatureEvaluationException(error);
+        }
+        FeatureEvaluationResult.Builder builder = FeatureEvaluationResult.builder().available(available);
+        int prefixLength = service.length() + 1;
+        if (used != null) {
+            for (Map.Entry<String, Number> entry : used.entrySet()) {
+                String usageLimit = entry.getKey().substring(prefixLength);
+                Number value = entry.getValue();
+                if (value instanceof Long) {
+                    builder.used(usageLimit, value.longValue());
+                } else {
+                    builder.used(usageLimit, value.doubleValue());
+                }
+            }
+        }
+        if (limit != null) {
+            for (Map.Entry<String, Number> entry : limit.entrySet()) {
+                String usageLimit = entry.getKey().substring(prefixLength);
+                Number value = entry.getValue();
+                if (value instanceof Long) {
+                    builder.limit(usageLimit, value.longValue());
+                } else {
+                    builder.limit(usageLimit, value.doubleValue());
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    static Map<String, Number> used(FeatureEvaluationResult result, String service) {
+        String prefix = service.toLowerCase() + "-";
+        Map<String, Number> res = new LinkedHashMap<>();
+        for (Map.Entry<String, FeatureEvaluationResult.Usage> quota : result.getQuotas().entrySet()) {
+            res.put(prefix + quota.getKey(), quota.getValue().getUsed());
+        }
+        return res;
+    }
+
+    static Map<String, Number> limit(FeatureEvaluationResult result, String service) {
+        String prefix = service.toLowerCase() + "-";
+        Map<String, Number> res = new LinkedHashMap<>();
+        for (Map.Entry<String, FeatureEvaluationResult.Usage> quota : result.getQuotas().entrySet()) {
+            res.put(prefix + quota.getKey(), quota.getValue().getLimit());
+        }
+        return res;
+    }
+
+    static FeatureEvaluationError error(FeatureEvaluationResult result, String service) {
+        return null;
+    }
+
+    private static Map<String, Service> services(Map<String, String> versions, Map<String, String> plans,
+                                                 Map<String, Map<String, Long>> addOns) throws JsonParseException {
+        Map<String, Service> services = new HashMap<>();
+        for (Map.Entry<String, String> version : versions.entrySet()) {
+            String serviceName = NAMES.intern(version.getKey());
+            String plan = plans.get(serviceName);
+            Map<String, Long> serviceAddOns = addOns.get(serviceName);
+            if (plan == null || serviceAddOns == null) {
+                throw new JsonParseException("missing member " + serviceName);
+            }
+            Service.Builder serviceBuilder = Service.builder(serviceName, NAMES.intern(version.getValue()))
+                .plan(NAMES.intern(plan));
+            for (Map.Entry<String, Long> addOn : serviceAddOns.entrySet()) {
+                serviceBuilder.addOn(NAMES.intern(addOn.getKey()), addOn.getValue());
+            }
+            services.put(serviceName, serviceBuilder.build());
+        }
+        return services;
+    }
+
+    private static Map<String, String> contractedServices(Collection<Service> services) {
+        Map<String, String> res = new LinkedHashMap<>();
+        for (Service service : services) {
+            res.put(service.getName(), service.getVersion());
+        }
+        return res;
+    }
+
+    private static Map<String, String> subscriptionPlans(Collection<Service> services) {
+        Map<String, String> res = new LinkedHashMap<>();
+        for (Service service : services) {
+            service.getPlan().ifPresent(plan -> res.put(service.getName(), plan));
+        }
+        return res;
+    }
+
+    private static Map<String, Map<String, Long>> subscriptionAddOns(Collection<Service> services) {
+        Map<String, Map<String, Long>> res = new LinkedHashMap<>();
+        for (Service service : services) {
+            Map<String, Long> quantities = new LinkedHashMap<>();
+            for (AddOn addOn : service.getAddOns()) {
+                quantities.put(addOn.getName(), addOn.getQuantity());
+            }
+            res.put(service.getName(), quantities);
+        }
+        return res;
+    }
+
+    /**
+     * <code>billingPeriod</code> member of a subscription.
+     */
+    static final class BillingPeriod {
+
+        private final ZonedDateTime startDate;
+        private final ZonedDateTime endDate;
+        private final boolean autoRenew;
+        private final Integer renewalDays;
+
+        private BillingPeriod(ZonedDateTime startDate, ZonedDateTime endDate, boolean autoRenew,
+                              Integer renewalDays) {
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.autoRenew = autoRenew;
+            this.renewalDays = renewalDays;
+        }
+
+        ZonedDateTime getStartDate() {
+            return startDate;
+        }
+
+        ZonedDateTime getEndDate() {
+            return endDate;
+        }
+
+        boolean isAutoRenew() {
+            return autoRenew;
+        }
+
+        Integer getRenewalDays() {
+            return renewalDays;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.pgmarc.space.codec;
+
+import java.io.IOException;
+
+/**
+ * Thrown when bytes read by {@link SubscriptionBinaryCodec} are not a
+ * subscription in a supported version of its format.
+ */
+public final class BinaryFormatException extends IOException {
+
+    public BinaryFormatException(String message) {
+        super(message);
+    }
+}
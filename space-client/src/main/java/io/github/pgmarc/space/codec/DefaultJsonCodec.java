@@ -0,0 +1,83 @@
+package io.github.pgmarc.space.codec;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.contracts.SubscriptionRequest;
+import io.github.pgmarc.space.contracts.SubscriptionUpdateRequest;
+import io.github.pgmarc.space.deserializers.FeatureEvaluationDeserializer;
+import io.github.pgmarc.space.deserializers.HistoryMode;
+import io.github.pgmarc.space.deserializers.SubscriptionDeserializer;
+import io.github.pgmarc.space.features.FeatureEvaluationResult;
+import io.github.pgmarc.space.features.UsageLimitConsumption;
+import io.github.pgmarc.space.json.JsonReader;
+import io.github.pgmarc.space.json.JsonWriter;
+import io.github.pgmarc.space.serializers.ConsumptionSerializer;
+import io.github.pgmarc.space.serializers.SubscriptionRequestSerializer;
+import io.github.pgmarc.space.serializers.SubscriptionUpdateRequestSerializer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+
+final class DefaultJsonCodec implements JsonCodec {
+
+    private static final DefaultJsonCodec[] INSTANCES = new DefaultJsonCodec[HistoryMode.values().length];
+
+    static {
+        for (HistoryMode historyMode : HistoryMode.values()) {
+            INSTANCES[historyMode.ordinal()] = new DefaultJsonCodec(historyMode);
+        }
+    }
+
+    static final DefaultJsonCodec INSTANCE = of(HistoryMode.LAZY);
+
+    private final HistoryMode historyMode;
+    private final SubscriptionDeserializer subscriptionDeserializer;
+    private final SubscriptionRequestSerializer subscriptionRequestSerializer = new SubscriptionRequestSerializer();
+    private final SubscriptionUpdateRequestSerializer subscriptionUpdateRequestSerializer =
+            new SubscriptionUpdateRequestSerializer();
+    private final ConsumptionSerializer consumptionSerializer = new ConsumptionSerializer();
+    private final Map<String, FeatureEvaluationDeserializer> evaluationDeserializers = new ConcurrentHashMap<>();
+
+    private DefaultJsonCodec(HistoryMode historyMode) {
+        this.historyMode = historyMode;
+        this.subscriptionDeserializer = new SubscriptionDeserializer(historyMode);
+    }
+
+    static DefaultJsonCodec of(HistoryMode historyMode) {
+        return INSTANCES[historyMode.ordinal()];
+    }
+
+    @Override
+    public Subscription readSubscription(BufferedSource source) throws IOException {
+        return subscriptionDeserializer.readJson(JsonReader.of(source));
+    }
+
+    @Override
+    public FeatureEvaluationResult readEvaluation(BufferedSource source, String service) throws IOException {
+        return evaluationDeserializers.computeIfAbsent(service, FeatureEvaluationDeserializer::new)
+                .readJson(JsonReader.of(source));
+    }
+
+    @Override
+    public void writeSubscriptionRequest(BufferedSink sink, SubscriptionRequest request) throws IOException {
+        subscriptionRequestSerializer.writeJson(JsonWriter.of(sink), request);
+    }
+
+    @Override
+    public void writeSubscriptionUpdateRequest(BufferedSink sink, SubscriptionUpdateRequest request)
+            throws IOException {
+        subscriptionUpdateRequestSerializer.writeJson(JsonWriter.of(sink), request);
+    }
+
+    @Override
+    public void writeConsumption(BufferedSink sink, UsageLimitConsumption consumption) throws IOException {
+        consumptionSerializer.writeJson(JsonWriter.of(sink), consumption);
+    }
+
+    @Override
+    public String toString() {
+        return "DefaultJsonCodec{historyMode=" + historyMode + '}';
+    }
+}
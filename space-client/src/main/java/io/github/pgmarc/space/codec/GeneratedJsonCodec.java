@@ -0,0 +1,65 @@
+package io.github.pgmarc.space.codec;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.pgmarc.space.adapters.FeatureEvaluationResultJsonAdapter;
+import io.github.pgmarc.space.adapters.SubscriptionJsonAdapter;
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.contracts.SubscriptionRequest;
+import io.github.pgmarc.space.contracts.SubscriptionUpdateRequest;
+import io.github.pgmarc.space.features.FeatureEvaluationResult;
+import io.github.pgmarc.space.features.UsageLimitConsumption;
+import io.github.pgmarc.space.json.JsonReader;
+import okio.BufferedSink;
+import okio.BufferedSource;
+
+/**
+ * Reads responses with the adapters generated by
+ * <code>space-client-processor</code>. Request bodies have no generated
+ * adapter and are written as the built-in codec writes them.
+ */
+final class GeneratedJsonCodec implements JsonCodec {
+
+    static final GeneratedJsonCodec INSTANCE = new GeneratedJsonCodec();
+
+    private final SubscriptionJsonAdapter subscriptionAdapter = new SubscriptionJsonAdapter();
+    private final Map<String, FeatureEvaluationResultJsonAdapter> evaluationAdapters = new ConcurrentHashMap<>();
+    private final JsonCodec writer = DefaultJsonCodec.INSTANCE;
+
+    private GeneratedJsonCodec() {
+    }
+
+    @Override
+    public Subscription readSubscription(BufferedSource source) throws IOException {
+        return subscriptionAdapter.readJson(JsonReader.of(source));
+    }
+
+    @Override
+    public FeatureEvaluationResult readEvaluation(BufferedSource source, String service) throws IOException {
+        return evaluationAdapters.computeIfAbsent(service, FeatureEvaluationResultJsonAdapter::new)
+                .readJson(JsonReader.of(source));
+    }
+
+    @Override
+    public void writeSubscriptionRequest(BufferedSink sink, SubscriptionRequest request) throws IOException {
+        writer.writeSubscriptionRequest(sink, request);
+    }
+
+    @Override
+    public void writeSubscriptionUpdateRequest(BufferedSink sink, SubscriptionUpdateRequest request)
+            throws IOException {
+        writer.writeSubscriptionUpdateRequest(sink, request);
+    }
+
+    @Override
+    public void writeConsumption(BufferedSink sink, UsageLimitConsumption consumption) throws IOException {
+        writer.writeConsumption(sink, consumption);
+    }
+
+    @Override
+    public String toString() {
+        return "GeneratedJsonCodec{}";
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.pgmarc.space.codec;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.contracts.SubscriptionRequest;
+import io.github.pgmarc.space.contracts.SubscriptionUpdateRequest;
+import io.github.pgmarc.space.deserializers.HistoryMode;
+import io.github.pgmarc.space.features.FeatureEvaluationResult;
+import io.github.pgmarc.space.features.UsageLimitConsumption;
+import okio.BufferedSink;
+import okio.BufferedSource;
+
+/**
+ * Reads SPACE responses from and writes SPACE requests to byte streams.
+ * Implementations must be thread safe, a single instance is shared by every
+ * call of a {@link io.github.pgmarc.space.SpaceClient}. Error responses are
+ * always decoded by the client itself.
+ * <p>
+ * Request bodies are written when the HTTP call sends them, so a write may
+ * happen on an OkHttp thread and more than once for calls that are retried
+ * or hedged.
+ *
+ * @see io.github.pgmarc.space.SpaceClient.Builder#withJsonCodec(JsonCodec)
+ */
+public interface JsonCodec {
+
+    /**
+     * Codec built into the client: responses are streamed with
+     * {@link io.github.pgmarc.space.json.JsonReader} and requests are
+     * written with {@link io.github.pgmarc.space.json.JsonWriter}. The
+     * history of subscriptions is decoded lazily.
+     */
+    static JsonCodec defaults() {
+        return DefaultJsonCodec.INSTANCE;
+    }
+
+    /**
+     * Built-in codec decoding the history of subscriptions as
+     * <code>historyMode</code> says, for instance
+     * {@link HistoryMode#SKIP} when only evaluations and usage levels
+     * matter.
+     */
+    static JsonCodec defaults(HistoryMode historyMode) {
+        return DefaultJsonCodec.of(Objects.requireNonNull(historyMode, "history mode must not be null"));
+    }
+
+    /**
+     * Codec reading responses with the adapters generated at build time in
+     * {@link io.github.pgmarc.space.adapters}. The history of subscriptions
+     * is decoded eagerly.
+     */
+    static JsonCodec generated() {
+        return GeneratedJsonCodec.INSTANCE;
+    }
+
+    Subscription readSubscription(BufferedSource source) throws IOException;
+
+    /**
+     * Reads the evaluation of a feature of <code>service</code>. Usage limits
+     * are keyed without the service prefix SPACE adds to them. Evaluations
+     * carrying an <code>error</code> are thrown as
+     * {@link io.github.pgmarc.space.exceptions.SpaceApiException}.
+     */
+    FeatureEvaluationResult readEvaluation(BufferedSource source, String service) throws IOException;
+
+    void writeSubscriptionRequest(BufferedSink sink, SubscriptionRequest request) throws IOException;
+
+    void writeSubscriptionUpdateRequest(BufferedSink sink, SubscriptionUpdateRequest request) throws IOException;
+
+    void writeConsumption(BufferedSink sink, UsageLimitConsumption consumption) throws IOException;
+}
@@ -0,0 +1,456 @@
+package io.github.pgmarc.space.codec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import io.github.pgmarc.space.contracts.AddOn;
+import io.github.pgmarc.space.contracts.Service;
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.contracts.Subscription.Snapshot;
+import io.github.pgmarc.space.contracts.UsageLevel;
+import io.github.pgmarc.space.contracts.UserContact;
+import io.github.pgmarc.space.deserializers.HistoryMode;
+import io.github.pgmarc.space.deserializers.InternPool;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ByteString;
+import okio.Utf8;
+
+/**
+ * Compact binary form of a {@link Subscription}, meant for caches kept off
+ * the heap or on disk. A record starts with the magic bytes <code>SB</code>
+ * and a version byte, followed by a dictionary holding every service,
+ * version, plan, add-on and usage limit name once. The rest of the record
+ * refers to those names by their index in the dictionary.
+ * <p>
+ * Integers are unsigned LEB128 varints, zig-zag encoded when they may be
+ * negative. Timestamps are epoch seconds followed, when they are not
+ * whole, by nanoseconds; contracts keep milliseconds, so that is all
+ * version 1 ever writes. The history goes last, prefixed by its length in
+ * bytes, so readers may skip it without decoding it.
+ * <p>
+ * Version 1 layout:
+ * <pre>
+ * record     = 'S' 'B' version dictionary contact start end renewal services usageLevels history
+ * dictionary = count string*
+ * contact    = flags userId username firstName? lastName? email? phone?
+ * renewal    = 0 | 1 zigzag(years) zigzag(months) zigzag(days)
+ * services   = count (name version plan+1|0 count (addOn quantity)*)*
+ * usageLevels= count (service count (name flags consumed reset?)*)*
+ * history    = byteLength count (start end services)*
+ * timestamp  = zigzag(epochSecond) &lt;&lt; 1 | hasNanos, nanos?
+ * </pre>
+ */
+public final class SubscriptionBinaryCodec {
+
+    public static final int VERSION = 1;
+
+    private static final int MAGIC_S = 'S';
+    private static final int MAGIC_B = 'B';
+
+    private static final int FIRST_NAME = 1;
+    private static final int LAST_NAME = 1 << 1;
+    private static final int EMAIL = 1 << 2;
+    private static final int PHONE = 1 << 3;
+
+    private static final int RESET_TIMESTAMP = 1;
+    private static final int DECIMAL_CONSUMPTION = 1 << 1;
+
+    private SubscriptionBinaryCodec() {
+    }
+
+    public static ByteString encode(Subscription subscription) {
+        Buffer buffer = new Buffer();
+        try {
+            write(buffer, subscription);
+        } catch (IOException e) {
+            throw new IllegalStateException("in-memory buffers do not fail", e);
+        }
+        return buffer.readByteString();
+    }
+
+    public static Subscription decode(ByteString bytes) throws IOException {
+        return decode(bytes, HistoryMode.EAGER);
+    }
+
+    public static Subscription decode(ByteString bytes, HistoryMode historyMode) throws IOException {
+        Objects.requireNonNull(bytes, "bytes must not be null");
+        return read(new Buffer().write(bytes), historyMode);
+    }
+
+    public static void write(BufferedSink sink, Subscription subscription) throws IOException {
+        Objects.requireNonNull(sink, "sink must not be null");
+        Objects.requireNonNull(subscription, "subscription must not be null");
+        new Encoder().write(sink, subscription);
+    }
+
+    /**
+     * Reads one subscription from <code>source</code>, leaving any bytes
+     * after it unread.
+     *
+     * @throws BinaryFormatException if the bytes are not a subscription or
+     *                               were written by an unknown version
+     * @throws java.io.EOFException  if the record is truncated
+     */
+    public static Subscription read(BufferedSource source) throws IOException {
+        return read(source, HistoryMode.EAGER);
+    }
+
+    /**
+     * Reads one subscription from <code>source</code>, decoding its history
+     * as <code>historyMode</code> says. A lazy history is kept as the raw
+     * bytes of its segment, and errors in it are thrown by
+     * <code>getHistory()</code> wrapped in an {@link UncheckedIOException}.
+     */
+    public static Subscription read(BufferedSource source, HistoryMode historyMode) throws IOException {
+        Objects.requireNonNull(source, "source must not be null");
+        Objects.requireNonNull(historyMode, "history mode must not be null");
+        if (source.readByte() != MAGIC_S || source.readByte() != MAGIC_B) {
+            throw new BinaryFormatException("not a binary subscription");
+        }
+        int version = source.readByte() & 0xff;
+        if (version != VERSION) {
+            throw new BinaryFormatException("unsupported binary subscription version " + version);
+        }
+        return new Decoder(source).readSubscription(historyMode);
+    }
+
+    private static final class Encoder {
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private final Buffer body = new Buffer();
+
+        void write(BufferedSink sink, Subscription subscription) throws IOException {
+            writeContact(subscription.getUserContact());
+            writeTimestamp(body, subscription.getStartEpochMillis());
+            writeTimestamp(body, subscription.getEndEpochMillis());
+            if (subscription.isAutoRenewable()) {
+                Period renewal = subscription.getRenewalPeriod().get();
+                body.writeByte(1);
+                writeVarint(body, zigzag(renewal.getYears()));
+                writeVarint(body, zigzag(renewal.getMonths()));
+                writeVarint(body, zigzag(renewal.getDays()));
+            } else {
+                body.writeByte(0);
+            }
+            writeServices(body, subscription.getServices());
+            writeUsageLevels(subscription.getUsageLevels());
+
+            Buffer history = new Buffer();
+            writeVarint(history, subscription.getHistory().size());
+            for (Snapshot snapshot : subscription.getHistory()) {
+                writeTimestamp(history, snapshot.getStartEpochMillis());
+                writeTimestamp(history, snapshot.getEndEpochMillis());
+                writeServices(history, snapshot.getServices().values());
+            }
+            writeVarint(body, history.size());
+            body.writeAll(history);
+
+            Buffer header = new Buffer().writeByte(MAGIC_S).writeByte(MAGIC_B).writeByte(VERSION);
+            writeVarint(header, dictionary.size());
+            for (String string : dictionary) {
+                writeString(header, string);
+            }
+            sink.writeAll(header);
+            sink.writeAll(body);
+        }
+
+        private void writeContact(UserContact contact) {
+            Optional<String> firstName = contact.getFirstName();
+            Optional<String> lastName = contact.getLastName();
+            Optional<String> email = contact.getEmail();
+            Optional<String> phone = contact.getPhone();
+            int flags = (firstName.isPresent() ? FIRST_NAME : 0) | (lastName.isPresent() ? LAST_NAME : 0)
+                | (email.isPresent() ? EMAIL : 0) | (phone.isPresent() ? PHONE : 0);
+            body.writeByte(flags);
+            writeString(body, contact.getUserId());
+            writeString(body, contact.getUsername());
+            if (firstName.isPresent()) {
+                writeString(body, firstName.get());
+            }
+            if (lastName.isPresent()) {
+                writeString(body, lastName.get());
+            }
+            if (email.isPresent()) {
+                writeString(body, email.get());
+            }
+            if (phone.isPresent()) {
+                writeString(body, phone.get());
+            }
+        }
+
+        private void writeServices(Buffer buffer, Collection<Service> services) {
+            writeVarint(buffer, services.size());
+            for (Service service : services) {
+                writeVarint(buffer, index(service.getName()));
+                writeVarint(buffer, index(service.getVersion()));
+                Optional<String> plan = service.getPlan();
+                writeVarint(buffer, plan.isPresent() ? index(plan.get()) + 1L : 0L);
+                Collection<AddOn> addOns = service.getAddOns();
+                writeVarint(buffer, addOns.size());
+                for (AddOn addOn : addOns) {
+                    writeVarint(buffer, index(addOn.getName()));
+                    writeVarint(buffer, addOn.getQuantity());
+                }
+            }
+        }
+
+        private void writeUsageLevels(Map<String, Map<String, UsageLevel>> usageLevels) {
+            writeVarint(body, usageLevels.size());
+            for (Map.Entry<String, Map<String, UsageLevel>> service : usageLevels.entrySet()) {
+                writeVarint(body, index(service.getKey()));
+                writeVarint(body, service.getValue().size());
+                for (UsageLevel level : service.getValue().values()) {
+                    writeVarint(body, index(level.getName()));
+                    double consumed = level.getConsumption();
+                    boolean integral = consumed == Math.rint(consumed) && consumed < 0x1p63
+                        && Double.doubleToRawLongBits(consumed) >= 0;
+                    boolean reset = level.isRenewableUsageLimit();
+                    body.writeByte((reset ? RESET_TIMESTAMP : 0) | (integral ? 0 : DECIMAL_CONSUMPTION));
+                    if (integral) {
+                        writeVarint(body, (long) consumed);
+                    } else {
+                        body.writeLong(Double.doubleToRawLongBits(consumed));
+                    }
+                    if (reset) {
+                        writeTimestamp(body, level.getResetEpochMillis());
+                    }
+                }
+            }
+        }
+
+        private int index(String string) {
+            Integer index = indexes.get(string);
+            if (index == null) {
+                index = dictionary.size();
+                indexes.put(string, index);
+                dictionary.add(string);
+            }
+            return index;
+        }
+
+        private static void writeTimestamp(Buffer buffer, long epochMillis) {
+            long seconds = zigzag(Math.floorDiv(epochMillis, 1000)) << 1;
+            int nanos = (int) Math.floorMod(epochMillis, 1000) * 1_000_000;
+            if (nanos == 0) {
+                writeVarint(buffer, seconds);
+            } else {
+                writeVarint(buffer, seconds | 1);
+                writeVarint(buffer, nanos);
+            }
+        }
+
+        private static void writeString(Buffer buffer, String string) {
+            writeVarint(buffer, Utf8.size(string));
+            buffer.writeUtf8(string);
+        }
+
+        private static long zigzag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+
+        private static void writeVarint(Buffer buffer, long value) {
+            while ((value & ~0x7fL) != 0) {
+                buffer.writeByte((int) (value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            buffer.writeByte((int) value);
+        }
+    }
+
+    private static final class Decoder {
+
+        private final BufferedSource source;
+        private String[] dictionary;
+
+        Decoder(BufferedSource source) {
+            this.source = source;
+        }
+
+        private Decoder(BufferedSource source, String[] dictionary) {
+            this.source = source;
+            this.dictionary = dictionary;
+        }
+
+        Subscription readSubscription(HistoryMode historyMode) throws IOException {
+            int size = readCount();
+            dictionary = new String[size];
+            for (int i = 0; i < size; i++) {
+                dictionary[i] = InternPool.shared().intern(readString());
+            }
+
+            UserContact contact = readContact();
+            long start = readTimestamp();
+            long end = readTimestamp();
+            Period renewal = null;
+            if (source.readByte() != 0) {
+                renewal = Period.of(unzigzagInt(), unzigzagInt(), unzigzagInt());
+            }
+            Map<String, Service> services = readServices();
+            Map<String, Map<String, UsageLevel>> usageLevels = readUsageLevels();
+
+            long historyLength = readVarint();
+            if (historyLength < 0) {
+                throw new BinaryFormatException("history of " + historyLength + " bytes");
+            }
+            Subscription.Builder builder = Subscription.builder(contact, start, end, services.values())
+                .addUsageLevels(usageLevels);
+            if (historyMode == HistoryMode.EAGER) {
+                builder.addSnapshots(readHistory());
+            } else if (historyMode == HistoryMode.LAZY) {
+                ByteString history = source.readByteString(historyLength);
+                String[] names = dictionary;
+                builder.lazySnapshots(() -> {
+                    try {
+                        return new Decoder(new Buffer().write(history), names).readHistory();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } else {
+                source.skip(historyLength);
+            }
+            if (renewal != null) {
+                builder.renewIn(renewal);
+            }
+            return builder.build();
+        }
+
+        private List<Snapshot> readHistory() throws IOException {
+            int snapshots = readCount();
+            List<Snapshot> history = new ArrayList<>(Math.min(snapshots, 1024));
+            for (int i = 0; i < snapshots; i++) {
+                history.add(Snapshot.of(readTimestamp(), readTimestamp(), readServices()));
+            }
+            return history;
+        }
+
+        private UserContact readContact() throws IOException {
+            int flags = source.readByte();
+            UserContact.Builder builder = UserContact.builder(readString(), readString());
+            if ((flags & FIRST_NAME) != 0) {
+                builder.firstName(readString());
+            }
+            if ((flags & LAST_NAME) != 0) {
+                builder.lastName(readString());
+            }
+            if ((flags & EMAIL) != 0) {
+                builder.email(readString());
+            }
+            if ((flags & PHONE) != 0) {
+                builder.phone(readString());
+            }
+            return builder.build();
+        }
+
+        private Map<String, Service> readServices() throws IOException {
+            int count = readCount();
+            Map<String, Service> services = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                String name = readName();
+                Service.Builder builder = Service.builder(name, readName());
+                long plan = readVarint();
+                if (plan != 0) {
+                    builder.plan(name(plan - 1));
+                }
+                int addOns = readCount();
+                for (int j = 0; j < addOns; j++) {
+                    builder.addOn(readName(), readVarint());
+                }
+                services.put(name, builder.build());
+            }
+            return services;
+        }
+
+        private Map<String, Map<String, UsageLevel>> readUsageLevels() throws IOException {
+            int count = readCount();
+            Map<String, Map<String, UsageLevel>> usageLevels = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                String service = readName();
+                int levels = readCount();
+                Map<String, UsageLevel> serviceLevels = new HashMap<>();
+                for (int j = 0; j < levels; j++) {
+                    String name = readName();
+                    int flags = source.readByte();
+                    double consumed = (flags & DECIMAL_CONSUMPTION) != 0
+                        ? Double.longBitsToDouble(source.readLong())
+                        : readVarint();
+                    UsageLevel level = (flags & RESET_TIMESTAMP) != 0
+                        ? UsageLevel.of(name, consumed, readTimestamp())
+                        : UsageLevel.of(name, consumed);
+                    serviceLevels.put(name, level);
+                }
+                usageLevels.put(service, serviceLevels);
+            }
+            return usageLevels;
+        }
+
+        private long readTimestamp() throws IOException {
+            long value = readVarint();
+            long seconds = unzigzag(value >>> 1);
+            long nanos = (value & 1) != 0 ? readVarint() : 0;
+            if (nanos < 0 || nanos > 999_999_999 || seconds > Long.MAX_VALUE / 1000 - 1
+                    || seconds < Long.MIN_VALUE / 1000 + 1) {
+                throw new BinaryFormatException("invalid timestamp " + seconds + "." + nanos);
+            }
+            return seconds * 1000 + nanos / 1_000_000;
+        }
+
+        private String readName() throws IOException {
+            return name(readVarint());
+        }
+
+        private String name(long index) throws BinaryFormatException {
+            if (index < 0 || index >= dictionary.length) {
+                throw new BinaryFormatException("name " + index + " is not in the dictionary");
+            }
+            return dictionary[(int) index];
+        }
+
+        private String readString() throws IOException {
+            long length = readVarint();
+            if (length < 0 || length > Integer.MAX_VALUE) {
+                throw new BinaryFormatException("string of " + length + " bytes");
+            }
+            return source.readUtf8(length);
+        }
+
+        private int readCount() throws IOException {
+            long count = readVarint();
+            if (count < 0 || count > Integer.MAX_VALUE) {
+                throw new BinaryFormatException("count " + count + " is out of range");
+            }
+            return (int) count;
+        }
+
+        private int unzigzagInt() throws IOException {
+            return (int) unzigzag(readVarint());
+        }
+
+        private static long unzigzag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private long readVarint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = source.readByte();
+                value |= (long) (b & 0x7f) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new BinaryFormatException("varint longer than 10 bytes");
+        }
+    }
+}
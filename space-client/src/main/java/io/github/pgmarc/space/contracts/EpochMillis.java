@@ -0,0 +1,50 @@
+package io.github.pgmarc.space.contracts;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * Conversions between the epoch milliseconds contracts are stored in and
+ * the <code>java.time</code> types of their API. Local date times are
+ * always read as UTC.
+ */
+final class EpochMillis {
+
+    private EpochMillis() {
+    }
+
+    static long of(ZonedDateTime dateTime) {
+        return dateTime.toInstant().toEpochMilli();
+    }
+
+    static LocalDateTime toUtc(long epochMillis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000),
+            (int) Math.floorMod(epochMillis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    static String toString(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).toString();
+    }
+
+    /**
+     * Compares <code>epochMillis</code> with <code>date</code> at UTC, down
+     * to the nanosecond, without allocating.
+     */
+    static int compare(long epochMillis, LocalDateTime date) {
+        return compare(epochMillis, date.toEpochSecond(ZoneOffset.UTC), date.getNano());
+    }
+
+    static int compare(long epochMillis, Instant instant) {
+        return compare(epochMillis, instant.getEpochSecond(), instant.getNano());
+    }
+
+    private static int compare(long epochMillis, long epochSecond, int nanos) {
+        int res = Long.compare(Math.floorDiv(epochMillis, 1000), epochSecond);
+        if (res != 0) {
+            return res;
+        }
+        return Integer.compare((int) Math.floorMod(epochMillis, 1000) * 1_000_000, nanos);
+    }
+}
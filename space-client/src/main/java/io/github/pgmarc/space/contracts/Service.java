@@ -1,6 +1,5 @@
 package io.github.pgmarc.space.contracts;
 
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -12,12 +11,16 @@ public final class Service {
     private final String name;
     private final String version;
     private final Map<String, AddOn> addOns;
+    private final AddOn[] addOnArray;
+    private final Set<AddOn> addOnSet;
     private final String plan;
 
     private Service(Builder builder) {
         this.name = builder.name;
         this.version = builder.version;
-        this.addOns = Collections.unmodifiableMap(builder.addOns);
+        this.addOns = Map.copyOf(builder.addOns);
+        this.addOnArray = this.addOns.values().toArray(new AddOn[0]);
+        this.addOnSet = Set.of(addOnArray);
         this.plan = builder.plan;
     }
 
@@ -38,8 +41,40 @@ public final class Service {
         return Optional.ofNullable(this.addOns.get(addOn));
     }
 
+    /**
+     * Quantity of <code>addOn</code>, or <code>defaultValue</code> if the
+     * service does not have it. Unlike {@link #getAddOn(String)} it does not
+     * allocate.
+     */
+    public long getAddOnQuantity(String addOn, long defaultValue) {
+        Objects.requireNonNull(addOn, "key must not be null");
+        AddOn res = this.addOns.get(addOn);
+        return res == null ? defaultValue : res.getQuantity();
+    }
+
+    public boolean hasAddOn(String addOn) {
+        Objects.requireNonNull(addOn, "key must not be null");
+        return this.addOns.containsKey(addOn);
+    }
+
+    /**
+     * Returns the same immutable set on every call.
+     */
     public Set<AddOn> getAddOns() {
-        return Set.copyOf(this.addOns.values());
+        return addOnSet;
+    }
+
+    public int getAddOnCount() {
+        return addOnArray.length;
+    }
+
+    /**
+     * Add-on at <code>index</code>, from 0 to {@link #getAddOnCount()}
+     * exclusive, to iterate the add-ons without an iterator. The order is
+     * unspecified but the same for the lifetime of the service.
+     */
+    public AddOn getAddOnAt(int index) {
+        return addOnArray[index];
     }
 
     public static Builder builder(String name, String version) {
@@ -1,30 +1,51 @@
 package io.github.pgmarc.space.contracts;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.Period;
-import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public final class Subscription {
 
     private final UserContact userContact;
     private final Map<String, Service> services;
-    private final ZonedDateTime startDate;
-    private final ZonedDateTime endDate;
+    private final Service[] serviceArray;
+    private final Collection<Service> serviceList;
+    private final long startDate;
+    private final long endDate;
     private final Period renewalPeriod;
-    private final List<Snapshot> history;
     private final Map<String, Map<String, UsageLevel>> usageLevels;
+    private final History lazyHistory;
+    private volatile List<Snapshot> history;
 
     private Subscription(Builder builder) {
         this.userContact = builder.userContact;
-        this.services = builder.services;
+        this.services = Map.copyOf(builder.services);
+        this.serviceArray = this.services.values().toArray(new Service[0]);
+        this.serviceList = List.of(serviceArray);
         this.startDate = builder.startDate;
         this.endDate = builder.endDate;
         this.renewalPeriod = builder.renewalPeriod;
-        this.history = builder.history;
-        this.usageLevels = builder.usageLevels;
+        this.usageLevels = compact(builder.usageLevels);
+        this.lazyHistory = new History(builder.history, builder.lazySnapshots);
+        if (builder.lazySnapshots == null) {
+            this.history = lazyHistory.get();
+        }
+    }
+
+    /**
+     * Copies usage levels into immutable maps, which for the handful of
+     * entries a subscription has take far less memory than hash maps.
+     */
+    private static Map<String, Map<String, UsageLevel>> compact(Map<String, Map<String, UsageLevel>> usageLevels) {
+        Map<String, Map<String, UsageLevel>> res = new HashMap<>();
+        for (Map.Entry<String, Map<String, UsageLevel>> service : usageLevels.entrySet()) {
+            res.put(service.getKey(), Map.copyOf(service.getValue()));
+        }
+        return Map.copyOf(res);
     }
 
     public static Builder builder(UserContact userContact, ZonedDateTime startDate, ZonedDateTime endDate,
@@ -36,6 +57,15 @@ public final class Subscription {
         return new Builder(userContact, startDate, endDate).subscribeAll(services);
     }
 
+    /**
+     * Same as {@link #builder(UserContact, ZonedDateTime, ZonedDateTime, Collection)}
+     * with the billing period in milliseconds since the epoch.
+     */
+    public static Builder builder(UserContact userContact, long startEpochMillis, long endEpochMillis,
+            Collection<Service> services) {
+        return new Builder(userContact, startEpochMillis, endEpochMillis).subscribeAll(services);
+    }
+
     public String getUserId() {
         return userContact.getUserId();
     }
@@ -44,12 +74,24 @@ public final class Subscription {
         return userContact.getUsername();
     }
 
+    public UserContact getUserContact() {
+        return userContact;
+    }
+
     public LocalDateTime getStartDate() {
-        return startDate.toLocalDateTime();
+        return EpochMillis.toUtc(startDate);
     }
 
     public LocalDateTime getEndDate() {
-        return endDate.toLocalDateTime();
+        return EpochMillis.toUtc(endDate);
+    }
+
+    public long getStartEpochMillis() {
+        return startDate;
+    }
+
+    public long getEndEpochMillis() {
+        return endDate;
     }
 
     public Optional<Period> getRenewalPeriod() {
@@ -62,7 +104,7 @@ public final class Subscription {
 
     public Optional<LocalDateTime> getRenewalDate() {
         return Optional.ofNullable(renewalPeriod)
-            .map( renewalPeriod -> endDate.plus(renewalPeriod).toLocalDateTime());
+            .map(renewalPeriod -> getEndDate().plus(renewalPeriod));
     }
 
     /**
@@ -72,10 +114,21 @@ public final class Subscription {
      */
     public boolean isActive(LocalDateTime date) {
         Objects.requireNonNull(date, "date must not be null");
-        ZonedDateTime utcDate = ZonedDateTime.of(date, ZoneId.of("UTC"));
+        return EpochMillis.compare(startDate, date) <= 0 && EpochMillis.compare(endDate, date) >= 0;
+    }
 
-        return  (startDate.isEqual(utcDate) || startDate.isBefore(utcDate)) &&
-            (endDate.isAfter(utcDate) || endDate.isEqual(utcDate));
+    public boolean isActive(Instant instant) {
+        Objects.requireNonNull(instant, "instant must not be null");
+        return EpochMillis.compare(startDate, instant) <= 0 && EpochMillis.compare(endDate, instant) >= 0;
+    }
+
+    /**
+     * Same as {@link #isActive(LocalDateTime)} with <code>epochMillis</code>
+     * milliseconds since the epoch, for instance
+     * <code>System.currentTimeMillis()</code>.
+     */
+    public boolean isActive(long epochMillis) {
+        return startDate <= epochMillis && epochMillis <= endDate;
     }
 
     /**
@@ -84,28 +137,65 @@ public final class Subscription {
      */
     public boolean isExpired(LocalDateTime date) {
         Objects.requireNonNull(date, "date must not be null");
-        ZonedDateTime utcDate = ZonedDateTime.of(date, ZoneId.of("UTC"));
-        return startDate.isBefore(utcDate) && endDate.isBefore(utcDate);
+        return EpochMillis.compare(startDate, date) < 0 && EpochMillis.compare(endDate, date) < 0;
+    }
+
+    public boolean isExpired(Instant instant) {
+        Objects.requireNonNull(instant, "instant must not be null");
+        return EpochMillis.compare(startDate, instant) < 0 && EpochMillis.compare(endDate, instant) < 0;
+    }
+
+    public boolean isExpired(long epochMillis) {
+        return startDate < epochMillis && endDate < epochMillis;
     }
 
     public Map<String, Service> getServicesMap() {
-        return Collections.unmodifiableMap(services);
+        return services;
     }
 
+    /**
+     * Returns the same immutable collection on every call.
+     */
     public Collection<Service> getServices() {
-        return Collections.unmodifiableCollection(services.values());
+        return serviceList;
+    }
+
+    public int getServiceCount() {
+        return serviceArray.length;
+    }
+
+    /**
+     * Service at <code>index</code>, from 0 to {@link #getServiceCount()}
+     * exclusive, in the order of {@link #getServices()}.
+     */
+    public Service getServiceAt(int index) {
+        return serviceArray[index];
     }
 
     public Optional<Service> getService(String serviceName) {
+        if (serviceName == null) {
+            return Optional.empty();
+        }
         return Optional.ofNullable(this.services.get(serviceName));
     }
 
+    /**
+     * Snapshots added with {@link Builder#lazySnapshots(Supplier)} are
+     * decoded on the first call, once, even when several threads ask for the
+     * history at the same time. If decoding fails its exception is thrown and
+     * the next call tries again.
+     */
     public List<Snapshot> getHistory() {
-        return Collections.unmodifiableList(history);
+        List<Snapshot> res = history;
+        if (res == null) {
+            res = lazyHistory.get();
+            history = res;
+        }
+        return res;
     }
 
     public Map<String, Map<String, UsageLevel>> getUsageLevels() {
-        return Collections.unmodifiableMap(usageLevels);
+        return usageLevels;
     }
 
     public Optional<Map<String, UsageLevel>> getServiceUsageLevels(String service) {
@@ -116,11 +206,24 @@ public final class Subscription {
     public Optional<UsageLevel> getUsageLevel(String service, String usageLimit) {
         Objects.requireNonNull(service, "service name must not be null");
         Objects.requireNonNull(usageLimit, "usage limit name must not be null");
-        if (!usageLevels.containsKey(service)) {
+        Map<String, UsageLevel> serviceUsageLevels = usageLevels.get(service);
+        if (serviceUsageLevels == null) {
             return Optional.empty();
         }
-        return Optional.ofNullable(usageLevels.get(service).get(usageLimit));
+        return Optional.ofNullable(serviceUsageLevels.get(usageLimit));
+    }
 
+    /**
+     * Consumption of <code>usageLimit</code>, or <code>defaultValue</code>
+     * if there is no such usage level. Unlike
+     * {@link #getUsageLevel(String, String)} it does not allocate.
+     */
+    public double getConsumption(String service, String usageLimit, double defaultValue) {
+        Objects.requireNonNull(service, "service name must not be null");
+        Objects.requireNonNull(usageLimit, "usage limit name must not be null");
+        Map<String, UsageLevel> serviceUsageLevels = usageLevels.get(service);
+        UsageLevel res = serviceUsageLevels == null ? null : serviceUsageLevels.get(usageLimit);
+        return res == null ? defaultValue : res.getConsumption();
     }
 
     @Override
@@ -128,14 +231,39 @@ public final class Subscription {
         return "Subscription{" +
             "userContact=" + userContact +
             ", services=" + services +
-            ", startDate=" + startDate +
-            ", endDate=" + endDate +
+            ", startDate=" + EpochMillis.toString(startDate) +
+            ", endDate=" + EpochMillis.toString(endDate) +
             ", renewalPeriod=" + renewalPeriod +
-            ", history=" + history +
+            ", history=" + getHistory() +
             ", usageLevels=" + usageLevels +
             '}';
     }
 
+    /**
+     * Snapshots of a subscription, decoded at most once. It is reached
+     * through a final field so its state is visible to every thread.
+     */
+    private static final class History {
+
+        private List<Snapshot> snapshots;
+        private Supplier<? extends Collection<Snapshot>> lazySnapshots;
+
+        History(List<Snapshot> snapshots, Supplier<? extends Collection<Snapshot>> lazySnapshots) {
+            this.snapshots = lazySnapshots == null ? Collections.unmodifiableList(snapshots) : snapshots;
+            this.lazySnapshots = lazySnapshots;
+        }
+
+        synchronized List<Snapshot> get() {
+            if (lazySnapshots != null) {
+                List<Snapshot> res = new ArrayList<>(snapshots);
+                res.addAll(lazySnapshots.get());
+                snapshots = Collections.unmodifiableList(res);
+                lazySnapshots = null;
+            }
+            return snapshots;
+        }
+    }
+
     public enum Keys {
         USER_CONTACT("userContact"),
         BILLING_PERIOD("billingPeriod"),
@@ -159,17 +287,30 @@ public final class Subscription {
 
     public static final class Builder {
 
-        private final ZonedDateTime startDate;
-        private final ZonedDateTime endDate;
+        private final long startDate;
+        private final long endDate;
+        private final boolean hasStartDate;
+        private final boolean hasEndDate;
         private final UserContact userContact;
         private final Map<String, Service> services = new HashMap<>();
         private final List<Snapshot> history = new ArrayList<>();
         private final Map<String, Map<String, UsageLevel>> usageLevels = new HashMap<>();
         private Period renewalPeriod;
+        private Supplier<? extends Collection<Snapshot>> lazySnapshots;
 
         private Builder(UserContact userContact, ZonedDateTime startDate, ZonedDateTime endDate) {
+            this.startDate = startDate == null ? 0 : EpochMillis.of(startDate);
+            this.endDate = endDate == null ? 0 : EpochMillis.of(endDate);
+            this.hasStartDate = startDate != null;
+            this.hasEndDate = endDate != null;
+            this.userContact = userContact;
+        }
+
+        private Builder(UserContact userContact, long startDate, long endDate) {
             this.startDate = startDate;
             this.endDate = endDate;
+            this.hasStartDate = true;
+            this.hasEndDate = true;
             this.userContact = userContact;
         }
 
@@ -215,15 +356,33 @@ public final class Subscription {
             return this;
         }
 
+        /**
+         * Adds snapshots that are only decoded when
+         * {@link Subscription#getHistory()} is first called, after those
+         * added with {@link #addSnapshots(Collection)}.
+         */
+        public Builder lazySnapshots(Supplier<? extends Collection<Snapshot>> snapshots) {
+            Objects.requireNonNull(snapshots, "snapshots must not be null");
+            if (this.lazySnapshots != null) {
+                throw new IllegalStateException("lazy snapshots are already set");
+            }
+            this.lazySnapshots = snapshots;
+            return this;
+        }
+
         public Builder addUsageLevels(Map<String, Map<String, UsageLevel>> usageLevels) {
             this.usageLevels.putAll(usageLevels);
             return this;
         }
 
         private void validateSubscriptionInterval() {
-            Objects.requireNonNull(startDate, "start date must not be null");
-            Objects.requireNonNull(endDate, "end date must not be null");
-            if (startDate.isAfter(endDate)) {
+            if (!hasStartDate) {
+                throw new NullPointerException("start date must not be null");
+            }
+            if (!hasEndDate) {
+                throw new NullPointerException("end date must not be null");
+            }
+            if (startDate > endDate) {
                 throw new IllegalStateException("startDate is after endDate");
             }
         }
@@ -248,43 +407,59 @@ public final class Subscription {
 
     public static final class Snapshot {
 
-        private final ZonedDateTime starDateTime;
-        private final ZonedDateTime endDateTime;
+        private final long starDateTime;
+        private final long endDateTime;
         private final Map<String, Service> services;
 
-        private Snapshot(ZonedDateTime startDateTime, ZonedDateTime endDateTime,
-                Map<String, Service> services) {
+        private Snapshot(long startDateTime, long endDateTime, Map<String, Service> services) {
             this.starDateTime = startDateTime;
             this.endDateTime = endDateTime;
-            this.services = new HashMap<>(services);
+            this.services = Map.copyOf(services);
         }
 
         public LocalDateTime getStartDate() {
-            return starDateTime.toLocalDateTime();
+            return EpochMillis.toUtc(starDateTime);
         }
 
         public LocalDateTime getEndDate() {
-            return endDateTime.toLocalDateTime();
+            return EpochMillis.toUtc(endDateTime);
+        }
+
+        public long getStartEpochMillis() {
+            return starDateTime;
+        }
+
+        public long getEndEpochMillis() {
+            return endDateTime;
         }
 
         public Map<String, Service> getServices() {
-            return Collections.unmodifiableMap(services);
+            return services;
         }
 
         public Optional<Service> getService(String name) {
+            if (name == null) {
+                return Optional.empty();
+            }
             return Optional.ofNullable(services.get(name));
         }
 
         public static Snapshot of(ZonedDateTime startDateTime, ZonedDateTime endDateTime,
                                   Map<String, Service> services) {
-            return new Snapshot(startDateTime, endDateTime, services);
+            Objects.requireNonNull(startDateTime, "start date must not be null");
+            Objects.requireNonNull(endDateTime, "end date must not be null");
+            return new Snapshot(EpochMillis.of(startDateTime), EpochMillis.of(endDateTime), services);
+        }
+
+        public static Snapshot of(long startEpochMillis, long endEpochMillis, Map<String, Service> services) {
+            return new Snapshot(startEpochMillis, endEpochMillis, services);
         }
 
         @Override
         public boolean equals(Object o) {
             if (o == null || getClass() != o.getClass()) return false;
             Snapshot snapshot = (Snapshot) o;
-            return Objects.equals(starDateTime, snapshot.starDateTime) && Objects.equals(endDateTime, snapshot.endDateTime) && Objects.equals(services, snapshot.services);
+            return starDateTime == snapshot.starDateTime && endDateTime == snapshot.endDateTime && Objects.equals(services, snapshot.services);
         }
 
         @Override
@@ -295,8 +470,8 @@ public final class Subscription {
         @Override
         public String toString() {
             return "Snapshot{" +
-                "starDateTime=" + starDateTime +
-                ", endDateTime=" + endDateTime +
+                "starDateTime=" + EpochMillis.toString(starDateTime) +
+                ", endDateTime=" + EpochMillis.toString(endDateTime) +
                 ", services=" + services +
                 '}';
         }
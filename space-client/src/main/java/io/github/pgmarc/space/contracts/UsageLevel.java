@@ -9,7 +9,9 @@ public final class UsageLevel {
 
     private final String name;
     private final double consumed;
-    private final ZonedDateTime resetTimestamp;
+    private static final long NO_RESET = Long.MIN_VALUE;
+
+    private final long resetTimestamp;
 
     public enum Keys {
         CONSUMED("consumed"),
@@ -27,7 +29,7 @@ public final class UsageLevel {
         }
     }
 
-    private UsageLevel(String name, double consumed, ZonedDateTime resetTimestamp) {
+    private UsageLevel(String name, double consumed, long resetTimestamp) {
         this.name = name;
         this.consumed = consumed;
         this.resetTimestamp = resetTimestamp;
@@ -38,11 +40,23 @@ public final class UsageLevel {
     }
 
     public Optional<LocalDateTime> getResetTimestamp() {
-        return Optional.ofNullable(resetTimestamp).map(ZonedDateTime::toLocalDateTime);
+        return resetTimestamp == NO_RESET ? Optional.empty() : Optional.of(EpochMillis.toUtc(resetTimestamp));
+    }
+
+    /**
+     * Milliseconds since the epoch at which the usage limit resets.
+     *
+     * @throws IllegalStateException if the usage limit is not renewable
+     */
+    public long getResetEpochMillis() {
+        if (resetTimestamp == NO_RESET) {
+            throw new IllegalStateException(name + " is not a renewable usage limit");
+        }
+        return resetTimestamp;
     }
 
     public boolean isRenewableUsageLimit() {
-        return resetTimestamp != null;
+        return resetTimestamp != NO_RESET;
     }
 
     public double getConsumption() {
@@ -57,19 +71,28 @@ public final class UsageLevel {
     }
 
     public static UsageLevel of(String name, double consumed) {
-        return of(name, consumed, null);
+        validateUsageLevel(name, consumed);
+        return new UsageLevel(name, consumed, NO_RESET);
     }
 
     public static UsageLevel of(String name, double consumed, ZonedDateTime resetTimestamp) {
         validateUsageLevel(name, consumed);
-        return new UsageLevel(name, consumed, resetTimestamp);
+        return new UsageLevel(name, consumed, resetTimestamp == null ? NO_RESET : EpochMillis.of(resetTimestamp));
+    }
+
+    public static UsageLevel of(String name, double consumed, long resetEpochMillis) {
+        validateUsageLevel(name, consumed);
+        if (resetEpochMillis == NO_RESET) {
+            throw new IllegalArgumentException("reset timestamp is out of range");
+        }
+        return new UsageLevel(name, consumed, resetEpochMillis);
     }
 
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
         UsageLevel that = (UsageLevel) o;
-        return Double.compare(consumed, that.consumed) == 0 && Objects.equals(name, that.name) && Objects.equals(resetTimestamp, that.resetTimestamp);
+        return Double.compare(consumed, that.consumed) == 0 && Objects.equals(name, that.name) && resetTimestamp == that.resetTimestamp;
     }
 
     @Override
@@ -82,7 +105,7 @@ public final class UsageLevel {
         return "UsageLevel{" +
             "name='" + name + '\'' +
             ", consumed=" + consumed +
-            ", resetTimestamp=" + resetTimestamp +
+            ", resetTimestamp=" + (resetTimestamp == NO_RESET ? null : EpochMillis.toString(resetTimestamp)) +
             '}';
     }
 }
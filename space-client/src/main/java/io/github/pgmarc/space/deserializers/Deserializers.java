@@ -0,0 +1,59 @@
+package io.github.pgmarc.space.deserializers;
+
+import java.io.IOException;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.github.pgmarc.space.json.JsonParseException;
+import io.github.pgmarc.space.json.JsonReader;
+
+/**
+ * Helpers shared by the streaming deserializers.
+ */
+final class Deserializers {
+
+    private Deserializers() {
+    }
+
+    /**
+     * Member names of a <code>Keys</code> enum, indexed by ordinal.
+     */
+    static JsonReader.Options options(Enum<?>[] keys) {
+        String[] names = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            names[i] = keys[i].toString();
+        }
+        return JsonReader.Options.of(names);
+    }
+
+    static long nextEpochMillis(JsonReader reader) throws IOException {
+        String text = reader.nextString();
+        try {
+            return Iso8601.toEpochMillis(text);
+        } catch (DateTimeParseException e) {
+            throw new JsonParseException("invalid date time " + text, e);
+        }
+    }
+
+    static Map<String, String> nextStringMap(JsonReader reader) throws IOException {
+        Map<String, String> res = new LinkedHashMap<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            res.put(reader.nextName(), reader.nextString());
+        }
+        reader.endObject();
+        return res;
+    }
+
+    /**
+     * Same as <code>InternPool.shared().intern(name)</code>.
+     */
+    static String intern(String name) {
+        return InternPool.shared().intern(name);
+    }
+
+    static JsonParseException missing(String member) {
+        return new JsonParseException("missing member " + member);
+    }
+}
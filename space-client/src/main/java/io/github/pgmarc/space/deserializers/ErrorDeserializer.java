@@ -1,5 +1,6 @@
 package io.github.pgmarc.space.deserializers;
 
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -7,6 +8,7 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 
 import io.github.pgmarc.space.exceptions.SpaceApiError;
+import io.github.pgmarc.space.json.JsonReader;
 
 public final class ErrorDeserializer implements JsonDeserializable<SpaceApiError> {
 
@@ -28,6 +30,8 @@ public final class ErrorDeserializer implements JsonDeserializable<SpaceApiError
         }
     }
 
+    private static final JsonReader.Options NAMES = Deserializers.options(Keys.values());
+
     @Override
     public SpaceApiError fromJson(JSONObject json) {
 
@@ -48,4 +52,52 @@ public final class ErrorDeserializer implements JsonDeserializable<SpaceApiError
         return new SpaceApiError(statusCode, messages);
     }
 
+    /**
+     * Streams an error response. Unlike {@link #fromJson(JSONObject)}, the
+     * status code is taken from the HTTP response rather than from the body.
+     */
+    public SpaceApiError readJson(JsonReader reader, int statusCode) throws IOException {
+        Set<String> messages = new HashSet<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            int index = reader.selectName(NAMES);
+            if (index == Keys.ERROR.ordinal()) {
+                messages.add(reader.nextString());
+            } else if (index == Keys.ERRORS.ordinal()) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    messages.add(nextMessage(reader));
+                }
+                reader.endArray();
+            } else {
+                if (index == -1) {
+                    reader.skipName();
+                }
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new SpaceApiError(statusCode, messages);
+    }
+
+    private static String nextMessage(JsonReader reader) throws IOException {
+        String message = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            int index = reader.selectName(NAMES);
+            if (index == Keys.MSG.ordinal()) {
+                message = reader.nextString();
+            } else {
+                if (index == -1) {
+                    reader.skipName();
+                }
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (message == null) {
+            throw Deserializers.missing(Keys.MSG.toString());
+        }
+        return message;
+    }
 }
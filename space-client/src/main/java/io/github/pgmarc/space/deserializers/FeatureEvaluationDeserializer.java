@@ -1,18 +1,37 @@
 package io.github.pgmarc.space.deserializers;
 
 import io.github.pgmarc.space.exceptions.FeatureEvaluationError;
-import io.github.pgmarc.space.exceptions.SpaceApiException;
+import io.github.pgmarc.space.exceptions.FeatureEvaluationException;
 import io.github.pgmarc.space.features.FeatureEvaluationResult;
+import io.github.pgmarc.space.json.JsonReader;
+import okio.ByteString;
+import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.util.*;
+import java.io.IOException;
+import java.math.BigInteger;
 
-public class FeatureEvaluationDeserializer implements JsonDeserializable<FeatureEvaluationResult> {
+public class FeatureEvaluationDeserializer implements JsonDeserializable<FeatureEvaluationResult>,
+    JsonStreamDeserializable<FeatureEvaluationResult> {
+
+    private static final JsonReader.Options NAMES = Deserializers.options(Keys.values());
 
     private final int serviceLength;
+    private final ByteString prefix;
 
     public FeatureEvaluationDeserializer(int serviceLength) {
         this.serviceLength = serviceLength;
+        this.prefix = null;
+    }
+
+    /**
+     * Deserializer for evaluations of features of <code>service</code>.
+     * Usage limit names are streamed without their service prefix instead
+     * of being cut afterwards.
+     */
+    public FeatureEvaluationDeserializer(String service) {
+        this.serviceLength = service.length();
+        this.prefix = ByteString.encodeUtf8(service.toLowerCase() + "-");
     }
 
     private enum Keys {
@@ -42,31 +61,148 @@ public class FeatureEvaluationDeserializer implements JsonDeserializable<Feature
         if (error != null) {
             FeatureEvaluationError evalError = FeatureEvaluationError.of(error.getString(Keys.CODE.toString()),
                     error.getString(Keys.MESSAGE.toString()));
-            throw new SpaceApiException(evalError.toString());
+            throw new FeatureEvaluationException(evalError);
+        }
+
+        FeatureEvaluationResult.Builder builder = FeatureEvaluationResult.builder()
+            .available(json.getBoolean(Keys.EVAL.toString()));
+        JSONObject used = json.optJSONObject(Keys.USED.toString());
+        JSONObject limits = json.optJSONObject(Keys.LIMIT.toString());
+        if (used == null) {
+            return builder.build();
+        }
+        for (String usageLimitId : used.keySet()) {
+            String usageLimit = usageLimitId.substring(serviceLength + 1);
+            putUsed(builder, usageLimit, used.get(usageLimitId));
+            Object limit = limits != null ? limits.opt(usageLimitId) : null;
+            if (limit instanceof Number) {
+                putLimit(builder, usageLimit, (Number) limit);
+            }
         }
+        return builder.build();
+    }
+
+    private static void putUsed(FeatureEvaluationResult.Builder builder, String usageLimit, Object used) {
+        if (!(used instanceof Number)) {
+            throw new JSONException("used of " + usageLimit + " is not a number");
+        }
+        Number number = (Number) used;
+        if (isIntegral(number)) {
+            builder.used(usageLimit, number.longValue());
+        } else {
+            builder.used(usageLimit, number.doubleValue());
+        }
+    }
 
-        boolean available = json.getBoolean(Keys.EVAL.toString());
-        Map<String, FeatureEvaluationResult.Usage> quotas = featureQuotasFromJson(json, serviceLength);
+    private static void putLimit(FeatureEvaluationResult.Builder builder, String usageLimit, Number limit) {
+        if (isIntegral(limit)) {
+            builder.limit(usageLimit, limit.longValue());
+        } else {
+            builder.limit(usageLimit, limit.doubleValue());
+        }
+    }
 
-        return FeatureEvaluationResult.of(available, quotas);
+    private static boolean isIntegral(Number number) {
+        return number instanceof Integer || number instanceof Long || number instanceof BigInteger;
     }
 
-    private static  Map<String, FeatureEvaluationResult.Usage> featureQuotasFromJson(JSONObject json, int serviceNameLength) {
-        Map<String, FeatureEvaluationResult.Usage> res = new HashMap<>();
+    /**
+     * Streams an evaluation. <code>used</code> and <code>limit</code> values
+     * go straight into primitive slots of a
+     * {@link FeatureEvaluationResult.Builder}, which matches them by usage
+     * limit whatever their order.
+     */
+    @Override
+    public FeatureEvaluationResult readJson(JsonReader reader) throws IOException {
+        FeatureEvaluationResult.Builder builder = FeatureEvaluationResult.builder();
+        boolean hasAvailable = false;
+        FeatureEvaluationError evalError = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            int index = reader.selectName(NAMES);
+            if (index == Keys.EVAL.ordinal()) {
+                builder.available(reader.nextBoolean());
+                hasAvailable = true;
+            } else if (index == Keys.USED.ordinal()) {
+                readQuotas(reader, builder, true);
+            } else if (index == Keys.LIMIT.ordinal()) {
+                readQuotas(reader, builder, false);
+            } else if (index == Keys.ERROR.ordinal()) {
+                evalError = nextError(reader);
+            } else {
+                if (index == -1) {
+                    reader.skipName();
+                }
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
 
-        if (json.isNull(Keys.USED.toString())) {
-            return res;
+        if (evalError != null) {
+            throw new FeatureEvaluationException(evalError);
+        }
+        if (!hasAvailable) {
+            throw Deserializers.missing(Keys.EVAL.toString());
         }
+        return builder.build();
+    }
 
-        for (String usageLimitId : json.getJSONObject(Keys.USED.toString()).keySet()) {
-            String usedJsonPointer = "/" + Keys.USED + "/" + usageLimitId;
-            String limitJsonPointer = "/" + Keys.LIMIT + "/" + usageLimitId;
-            String usageLimit = usageLimitId.substring(serviceNameLength + 1);
-            Number used = (Number) json.query(usedJsonPointer);
-            Number limit = (Number) json.query(limitJsonPointer);
-            res.put(usageLimit, FeatureEvaluationResult.Usage.of(used, limit));
+    private void readQuotas(JsonReader reader, FeatureEvaluationResult.Builder builder, boolean used)
+        throws IOException {
+        if (reader.skipNull()) {
+            return;
         }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String usageLimit = prefix != null ? reader.nextName(prefix)
+                : reader.nextName().substring(serviceLength + 1);
+            if (reader.skipNull()) {
+                continue;
+            }
+            if (reader.peekIntegral()) {
+                long value = reader.nextLong();
+                if (used) {
+                    builder.used(usageLimit, value);
+                } else {
+                    builder.limit(usageLimit, value);
+                }
+            } else {
+                double value = reader.nextDouble();
+                if (used) {
+                    builder.used(usageLimit, value);
+                } else {
+                    builder.limit(usageLimit, value);
+                }
+            }
+        }
+        reader.endObject();
+    }
 
-        return res;
+    private static FeatureEvaluationError nextError(JsonReader reader) throws IOException {
+        if (reader.skipNull()) {
+            return null;
+        }
+        String code = null;
+        String message = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            int index = reader.selectName(NAMES);
+            if (index == Keys.CODE.ordinal()) {
+                code = reader.nextString();
+            } else if (index == Keys.MESSAGE.ordinal()) {
+                message = reader.nextString();
+            } else {
+                if (index == -1) {
+                    reader.skipName();
+                }
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (code == null || message == null) {
+            throw Deserializers.missing("error code or message");
+        }
+        return FeatureEvaluationError.of(code, message);
     }
 }
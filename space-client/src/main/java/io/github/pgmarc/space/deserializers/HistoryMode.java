@@ -0,0 +1,26 @@
+package io.github.pgmarc.space.deserializers;
+
+/**
+ * How the <code>history</code> of a subscription is decoded.
+ *
+ * @see io.github.pgmarc.space.contracts.Subscription#getHistory()
+ */
+public enum HistoryMode {
+
+    /**
+     * Snapshots are decoded along with the rest of the subscription.
+     */
+    EAGER,
+
+    /**
+     * The history is kept undecoded and its snapshots are decoded on the first
+     * call to <code>getHistory()</code>.
+     */
+    LAZY,
+
+    /**
+     * The history is skipped and <code>getHistory()</code> returns an empty
+     * list. Meant for callers that only check subscriptions and usage levels.
+     */
+    SKIP
+}
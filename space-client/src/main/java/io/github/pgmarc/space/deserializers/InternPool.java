@@ -0,0 +1,61 @@
+package io.github.pgmarc.space.deserializers;
+
+/**
+ * Bounded pool of the names SPACE repeats in every subscription: services,
+ * versions, plans, add-ons and usage limits. Deserializers hand their names
+ * to {@link #shared()} so that cached subscriptions hold one copy of each.
+ * <p>
+ * The pool is a direct-mapped table: a name replaces whatever other name
+ * sits in its slot, so it never grows past its capacity and never blocks.
+ * Slots are read and written without synchronization, which is safe because
+ * strings are immutable; a race only costs a missed deduplication.
+ */
+public final class InternPool {
+
+    private static final int SHARED_CAPACITY = 4096;
+    private static final int MAX_LENGTH = 64;
+
+    private static final InternPool SHARED = new InternPool(SHARED_CAPACITY);
+
+    private final String[] table;
+    private final int mask;
+
+    /**
+     * Creates a pool of <code>capacity</code> slots, rounded up to a power
+     * of two.
+     */
+    public InternPool(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.table = new String[size];
+        this.mask = size - 1;
+    }
+
+    public static InternPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the pooled string equal to <code>value</code>, pooling
+     * <code>value</code> itself if there is none. Strings longer than 64
+     * characters are returned as they are, identifiers are shorter.
+     */
+    public String intern(String value) {
+        if (value == null || value.length() > MAX_LENGTH) {
+            return value;
+        }
+        int hash = value.hashCode();
+        int index = (hash ^ (hash >>> 16)) & mask;
+        String pooled = table[index];
+        if (value.equals(pooled)) {
+            return pooled;
+        }
+        table[index] = value;
+        return value;
+    }
+}
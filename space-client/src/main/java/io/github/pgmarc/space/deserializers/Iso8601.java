@@ -0,0 +1,143 @@
+package io.github.pgmarc.space.deserializers;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parses the ISO-8601 date times SPACE sends, such as
+ * <code>2025-07-31T00:00:00Z</code> or
+ * <code>2025-07-31T00:00:00.250+02:00</code>, straight into epoch
+ * milliseconds without allocating. Anything else is handed to
+ * {@link ZonedDateTime#parse(CharSequence)}, so every format it accepts
+ * still works.
+ */
+public final class Iso8601 {
+
+    private static final long INVALID = Long.MIN_VALUE;
+    private static final long DAYS_0000_TO_1970 = 719_528;
+
+    private Iso8601() {
+    }
+
+    /**
+     * Returns the milliseconds since the epoch of <code>text</code>. Digits
+     * past the millisecond are truncated.
+     *
+     * @throws DateTimeParseException if <code>text</code> is not a date time
+     */
+    public static long toEpochMillis(String text) {
+        long res = parse(text);
+        if (res != INVALID) {
+            return res;
+        }
+        return ZonedDateTime.parse(text).toInstant().toEpochMilli();
+    }
+
+    private static long parse(String text) {
+        int length = text.length();
+        if (length < 20 || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != 'T'
+                || text.charAt(13) != ':' || text.charAt(16) != ':') {
+            return INVALID;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        int second = digits(text, 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return INVALID;
+        }
+
+        int pos = 19;
+        int millis = 0;
+        if (text.charAt(pos) == '.') {
+            int start = ++pos;
+            while (pos < length && pos - start < 9 && isDigit(text.charAt(pos))) {
+                if (pos - start < 3) {
+                    millis = millis * 10 + text.charAt(pos) - '0';
+                }
+                pos++;
+            }
+            if (pos == start) {
+                return INVALID;
+            }
+            for (int i = pos - start; i < 3; i++) {
+                millis *= 10;
+            }
+        }
+
+        int offsetSeconds;
+        if (pos == length - 1 && text.charAt(pos) == 'Z') {
+            offsetSeconds = 0;
+        } else if (pos == length - 6 && (text.charAt(pos) == '+' || text.charAt(pos) == '-')
+                && text.charAt(pos + 3) == ':') {
+            int offsetHours = digits(text, pos + 1, 2);
+            int offsetMinutes = digits(text, pos + 4, 2);
+            if (offsetHours < 0 || offsetHours > 18 || offsetMinutes < 0 || offsetMinutes > 59) {
+                return INVALID;
+            }
+            offsetSeconds = offsetHours * 3600 + offsetMinutes * 60;
+            if (text.charAt(pos) == '-') {
+                offsetSeconds = -offsetSeconds;
+            }
+        } else {
+            return INVALID;
+        }
+
+        long seconds = epochDay(year, month, day) * 86_400 + hour * 3600 + minute * 60 + second - offsetSeconds;
+        return seconds * 1000 + millis;
+    }
+
+    private static int digits(String text, int from, int count) {
+        int res = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            res = res * 10 + c - '0';
+        }
+        return res;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Same as <code>LocalDate.of(year, month, day).toEpochDay()</code> for
+     * years from 0 to 9999.
+     */
+    private static long epochDay(int year, int month, int day) {
+        long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.pgmarc.space.deserializers;
+
+import java.io.IOException;
+
+import io.github.pgmarc.space.json.JsonReader;
+
+/**
+ * Deserializer reading its value from a {@link JsonReader} positioned at
+ * the start of that value.
+ */
+public interface JsonStreamDeserializable<U> {
+
+    U readJson(JsonReader reader) throws IOException;
+}
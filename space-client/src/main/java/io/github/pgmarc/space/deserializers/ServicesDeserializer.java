@@ -1,12 +1,15 @@
 package io.github.pgmarc.space.deserializers;
 
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.json.JSONObject;
 
 import io.github.pgmarc.space.contracts.Service;
 import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.json.JsonReader;
 
 final class ServicesDeserializer implements JsonDeserializable<Map<String, Service>> {
 
@@ -19,14 +22,81 @@ final class ServicesDeserializer implements JsonDeserializable<Map<String, Servi
         Map<String, Service> services = new HashMap<>();
 
         for (String serviceName : contractedServices.keySet()) {
-            Service.Builder serviceBuilder = Service.builder(serviceName, contractedServices.getString(serviceName))
-                    .plan(subscriptionPlans.getString(serviceName));
+            String name = Deserializers.intern(serviceName);
+            Service.Builder serviceBuilder = Service.builder(name,
+                    Deserializers.intern(contractedServices.getString(serviceName)))
+                    .plan(Deserializers.intern(subscriptionPlans.getString(serviceName)));
 
             for (String addOnName : subscriptionAddOns.getJSONObject(serviceName).keySet()) {
-                serviceBuilder.addOn(addOnName, subscriptionAddOns.getJSONObject(serviceName).getLong(addOnName));
+                serviceBuilder.addOn(Deserializers.intern(addOnName),
+                        subscriptionAddOns.getJSONObject(serviceName).getLong(addOnName));
             }
-            services.put(serviceName, serviceBuilder.build());
+            services.put(name, serviceBuilder.build());
         }
         return services;
     }
+
+    /**
+     * Collects <code>contractedServices</code>, <code>subscriptionPlans</code>
+     * and <code>subscriptionAddOns</code> while the enclosing subscription or
+     * snapshot is streamed, since they can appear in any order.
+     */
+    static final class Accumulator {
+
+        private Map<String, String> versions;
+        private Map<String, String> plans;
+        private Map<String, Map<String, Long>> addOns;
+
+        void readVersions(JsonReader reader) throws IOException {
+            versions = Deserializers.nextStringMap(reader);
+        }
+
+        void readPlans(JsonReader reader) throws IOException {
+            plans = Deserializers.nextStringMap(reader);
+        }
+
+        void readAddOns(JsonReader reader) throws IOException {
+            addOns = new LinkedHashMap<>();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String serviceName = reader.nextName();
+                Map<String, Long> quantities = new LinkedHashMap<>();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    quantities.put(reader.nextName(), reader.nextLong());
+                }
+                reader.endObject();
+                addOns.put(serviceName, quantities);
+            }
+            reader.endObject();
+        }
+
+        Map<String, Service> build() throws IOException {
+            if (versions == null) {
+                throw Deserializers.missing(Subscription.Keys.CONTRACTED_SERVICES.toString());
+            }
+            if (plans == null) {
+                throw Deserializers.missing(Subscription.Keys.SUBSCRIPTION_PLANS.toString());
+            }
+            if (addOns == null) {
+                throw Deserializers.missing(Subscription.Keys.SUBSCRIPTION_ADDONS.toString());
+            }
+            Map<String, Service> services = new HashMap<>();
+            for (Map.Entry<String, String> version : versions.entrySet()) {
+                String serviceName = Deserializers.intern(version.getKey());
+                String plan = plans.get(serviceName);
+                Map<String, Long> serviceAddOns = addOns.get(serviceName);
+                if (plan == null || serviceAddOns == null) {
+                    throw Deserializers.missing(serviceName);
+                }
+                Service.Builder serviceBuilder = Service.builder(serviceName,
+                        Deserializers.intern(version.getValue())).plan(Deserializers.intern(plan));
+                for (Map.Entry<String, Long> addOn : serviceAddOns.entrySet()) {
+                    serviceBuilder.addOn(Deserializers.intern(addOn.getKey()), addOn.getValue());
+                }
+                services.put(serviceName, serviceBuilder.build());
+            }
+            return services;
+        }
+    }
 }
@@ -1,6 +1,6 @@
 package io.github.pgmarc.space.deserializers;
 
-import java.time.ZonedDateTime;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -9,8 +9,18 @@ import org.json.JSONObject;
 
 import io.github.pgmarc.space.contracts.Subscription;
 import io.github.pgmarc.space.contracts.Subscription.Snapshot;
+import io.github.pgmarc.space.json.JsonReader;
 
-class SnapshotsDeserializer implements JsonDeserializable<List<Snapshot>> {
+class SnapshotsDeserializer implements JsonDeserializable<List<Snapshot>>, JsonStreamDeserializable<List<Snapshot>> {
+
+    private static final int START_DATE = 0;
+    private static final int END_DATE = 1;
+    private static final int CONTRACTED_SERVICES = 2;
+    private static final int SUBSCRIPTION_PLANS = 3;
+    private static final int SUBSCRIPTION_ADDONS = 4;
+    private static final JsonReader.Options NAMES = JsonReader.Options.of("startDate", "endDate",
+            Subscription.Keys.CONTRACTED_SERVICES.toString(), Subscription.Keys.SUBSCRIPTION_PLANS.toString(),
+            Subscription.Keys.SUBSCRIPTION_ADDONS.toString());
 
     private final ServicesDeserializer servicesDeserializer;
 
@@ -20,16 +30,69 @@ class SnapshotsDeserializer implements JsonDeserializable<List<Snapshot>> {
 
     @Override
     public List<Snapshot> fromJson(JSONObject json) {
-        JSONArray history = json.getJSONArray(Subscription.Keys.HISTORY.toString());
+        return fromJson(json.getJSONArray(Subscription.Keys.HISTORY.toString()));
+    }
+
+    List<Snapshot> fromJson(JSONArray history) {
         List<Snapshot> res = new ArrayList<>();
         for (int i = 0; i < history.length(); i++) {
             JSONObject snapshot = history.getJSONObject(i);
-            ZonedDateTime startUtc = ZonedDateTime
-                    .parse(snapshot.getString("startDate"));
-            ZonedDateTime endUtc = ZonedDateTime
-                    .parse(snapshot.getString("endDate"));
+            long startUtc = Iso8601.toEpochMillis(snapshot.getString("startDate"));
+            long endUtc = Iso8601.toEpochMillis(snapshot.getString("endDate"));
             res.add(Snapshot.of(startUtc, endUtc, servicesDeserializer.fromJson(snapshot)));
         }
         return res;
     }
+
+    /**
+     * Reads the <code>history</code> array.
+     */
+    @Override
+    public List<Snapshot> readJson(JsonReader reader) throws IOException {
+        List<Snapshot> res = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            res.add(nextSnapshot(reader));
+        }
+        reader.endArray();
+        return res;
+    }
+
+    private static Snapshot nextSnapshot(JsonReader reader) throws IOException {
+        long startUtc = 0;
+        long endUtc = 0;
+        boolean hasStart = false;
+        boolean hasEnd = false;
+        ServicesDeserializer.Accumulator services = new ServicesDeserializer.Accumulator();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.selectName(NAMES)) {
+                case START_DATE:
+                    startUtc = Deserializers.nextEpochMillis(reader);
+                    hasStart = true;
+                    break;
+                case END_DATE:
+                    endUtc = Deserializers.nextEpochMillis(reader);
+                    hasEnd = true;
+                    break;
+                case CONTRACTED_SERVICES:
+                    services.readVersions(reader);
+                    break;
+                case SUBSCRIPTION_PLANS:
+                    services.readPlans(reader);
+                    break;
+                case SUBSCRIPTION_ADDONS:
+                    services.readAddOns(reader);
+                    break;
+                default:
+                    reader.skipName();
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (!hasStart || !hasEnd) {
+            throw Deserializers.missing("startDate or endDate");
+        }
+        return Snapshot.of(startUtc, endUtc, services.build());
+    }
 }
@@ -1,9 +1,14 @@
 package io.github.pgmarc.space.deserializers;
 
-import java.time.ZonedDateTime;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
 
+import org.json.JSONArray;
 import org.json.JSONObject;
 
 import io.github.pgmarc.space.contracts.UsageLevel;
@@ -11,13 +16,31 @@ import io.github.pgmarc.space.contracts.UserContact;
 import io.github.pgmarc.space.contracts.Service;
 import io.github.pgmarc.space.contracts.Subscription;
 import io.github.pgmarc.space.contracts.Subscription.Snapshot;
+import io.github.pgmarc.space.json.JsonReader;
+import okio.Buffer;
+import okio.ByteString;
 
-public final class SubscriptionDeserializer implements JsonDeserializable<Subscription> {
+public final class SubscriptionDeserializer implements JsonDeserializable<Subscription>,
+        JsonStreamDeserializable<Subscription> {
+
+    private static final Subscription.Keys[] KEYS = Subscription.Keys.values();
+    private static final JsonReader.Options NAMES = Deserializers.options(KEYS);
+    private static final JsonReader.Options BILLING_PERIOD_NAMES = JsonReader.Options.of("startDate", "endDate",
+            "renewalDays");
 
     private final UserContactDeserializer userContactDeserializer = new UserContactDeserializer();
     private final UsageLevelDeserializer usageLevelDeserializer = new UsageLevelDeserializer();
     private final ServicesDeserializer servicesDeserializer = new ServicesDeserializer();
     private final SnapshotsDeserializer historyDeserializer = new SnapshotsDeserializer(servicesDeserializer);
+    private final HistoryMode historyMode;
+
+    public SubscriptionDeserializer() {
+        this(HistoryMode.EAGER);
+    }
+
+    public SubscriptionDeserializer(HistoryMode historyMode) {
+        this.historyMode = Objects.requireNonNull(historyMode, "history mode must not be null");
+    }
 
     @Override
     public Subscription fromJson(JSONObject json) {
@@ -27,13 +50,17 @@ public final class SubscriptionDeserializer implements JsonDeserializable<Subscr
         Map<String, Service> services = servicesDeserializer.fromJson(json);
 
         JSONObject billingPeriod = json.getJSONObject(Subscription.Keys.BILLING_PERIOD.toString());
-        ZonedDateTime start = ZonedDateTime.parse(billingPeriod.getString("startDate"));
-        ZonedDateTime end = ZonedDateTime.parse(billingPeriod.getString("endDate"));
+        long start = Iso8601.toEpochMillis(billingPeriod.getString("startDate"));
+        long end = Iso8601.toEpochMillis(billingPeriod.getString("endDate"));
 
-        List<Snapshot> history = historyDeserializer.fromJson(json);
         Subscription.Builder builder =  Subscription.builder(userContact, start, end, services.values())
-            .addUsageLevels(usageLevels)
-            .addSnapshots(history);
+            .addUsageLevels(usageLevels);
+        if (historyMode == HistoryMode.EAGER) {
+            builder.addSnapshots(historyDeserializer.fromJson(json));
+        } else if (historyMode == HistoryMode.LAZY) {
+            JSONArray history = json.getJSONArray(Subscription.Keys.HISTORY.toString());
+            builder.lazySnapshots(() -> historyDeserializer.fromJson(history));
+        }
 
         int renewalDays = billingPeriod.optInt("renewalDays", -1);
         if (renewalDays > 0) {
@@ -43,4 +70,126 @@ public final class SubscriptionDeserializer implements JsonDeserializable<Subscr
         return builder.build();
     }
 
+    /**
+     * Streams a subscription without building an intermediate tree. Members
+     * can come in any order and unknown members are skipped. A lazy
+     * <code>history</code> is kept as raw bytes, and errors in it are thrown
+     * by <code>getHistory()</code> wrapped in an
+     * {@link UncheckedIOException}.
+     */
+    @Override
+    public Subscription readJson(JsonReader reader) throws IOException {
+        UserContact userContact = null;
+        Map<String, Map<String, UsageLevel>> usageLevels = null;
+        ServicesDeserializer.Accumulator services = new ServicesDeserializer.Accumulator();
+        BillingPeriod billingPeriod = null;
+        List<Snapshot> history = Collections.emptyList();
+        ByteString rawHistory = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            int index = reader.selectName(NAMES);
+            if (index == -1) {
+                reader.skipName();
+                reader.skipValue();
+                continue;
+            }
+            switch (KEYS[index]) {
+                case USER_CONTACT:
+                    userContact = userContactDeserializer.readJson(reader);
+                    break;
+                case BILLING_PERIOD:
+                    billingPeriod = nextBillingPeriod(reader);
+                    break;
+                case CONTRACTED_SERVICES:
+                    services.readVersions(reader);
+                    break;
+                case SUBSCRIPTION_PLANS:
+                    services.readPlans(reader);
+                    break;
+                case SUBSCRIPTION_ADDONS:
+                    services.readAddOns(reader);
+                    break;
+                case USAGE_LEVELS:
+                    usageLevels = usageLevelDeserializer.readJson(reader);
+                    break;
+                case HISTORY:
+                    if (historyMode == HistoryMode.EAGER) {
+                        history = historyDeserializer.readJson(reader);
+                    } else if (historyMode == HistoryMode.LAZY) {
+                        rawHistory = reader.nextValue();
+                    } else {
+                        reader.skipValue();
+                    }
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (userContact == null) {
+            throw Deserializers.missing(Subscription.Keys.USER_CONTACT.toString());
+        }
+        if (usageLevels == null) {
+            throw Deserializers.missing(Subscription.Keys.USAGE_LEVELS.toString());
+        }
+        if (billingPeriod == null) {
+            throw Deserializers.missing(Subscription.Keys.BILLING_PERIOD.toString());
+        }
+        Subscription.Builder builder = Subscription.builder(userContact, billingPeriod.start, billingPeriod.end,
+                services.build().values())
+            .addUsageLevels(usageLevels)
+            .addSnapshots(history);
+        if (rawHistory != null) {
+            builder.lazySnapshots(lazyHistory(rawHistory));
+        }
+        if (billingPeriod.renewalDays > 0) {
+            builder.renewInDays(billingPeriod.renewalDays);
+        }
+        return builder.build();
+    }
+
+    private Supplier<List<Snapshot>> lazyHistory(ByteString rawHistory) {
+        return () -> {
+            try {
+                return historyDeserializer.readJson(JsonReader.of(new Buffer().write(rawHistory)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private static BillingPeriod nextBillingPeriod(JsonReader reader) throws IOException {
+        BillingPeriod period = new BillingPeriod();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            int index = reader.selectName(BILLING_PERIOD_NAMES);
+            if (index == 0) {
+                period.start = Deserializers.nextEpochMillis(reader);
+                period.hasStart = true;
+            } else if (index == 1) {
+                period.end = Deserializers.nextEpochMillis(reader);
+                period.hasEnd = true;
+            } else if (index == 2 && !reader.skipNull()) {
+                period.renewalDays = reader.nextInt();
+            } else if (index == -1) {
+                reader.skipName();
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (!period.hasStart || !period.hasEnd) {
+            throw Deserializers.missing("billingPeriod startDate or endDate");
+        }
+        return period;
+    }
+
+    private static final class BillingPeriod {
+        private long start;
+        private long end;
+        private boolean hasStart;
+        private boolean hasEnd;
+        private int renewalDays = -1;
+    }
 }
@@ -1,6 +1,6 @@
 package io.github.pgmarc.space.deserializers;
 
-import java.time.ZonedDateTime;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -9,20 +9,26 @@ import java.util.Objects;
 import org.json.JSONObject;
 
 import io.github.pgmarc.space.contracts.UsageLevel;
+import io.github.pgmarc.space.json.JsonReader;
 
-final class UsageLevelDeserializer implements JsonDeserializable<Map<String, Map<String, UsageLevel>>> {
+final class UsageLevelDeserializer implements JsonDeserializable<Map<String, Map<String, UsageLevel>>>,
+        JsonStreamDeserializable<Map<String, Map<String, UsageLevel>>> {
+
+    private static final JsonReader.Options NAMES = Deserializers.options(UsageLevel.Keys.values());
 
     private Map<String, UsageLevel> getServiceUsageLevels(JSONObject usageLevels) {
         Map<String, UsageLevel> res = new HashMap<>();
-        for (String usageLimitName : usageLevels.keySet()) {
+        for (String key : usageLevels.keySet()) {
+            String usageLimitName = Deserializers.intern(key);
             JSONObject rawUsageLevel = usageLevels.getJSONObject(usageLimitName);
-            ZonedDateTime resetTimestamp = null;
+            double consumed = rawUsageLevel.getDouble(UsageLevel.Keys.CONSUMED.toString());
+            UsageLevel ul;
             if (rawUsageLevel.has(UsageLevel.Keys.RESET_TIMESTAMP.toString())) {
-                resetTimestamp = ZonedDateTime
-                        .parse(rawUsageLevel.getString(UsageLevel.Keys.RESET_TIMESTAMP.toString()));
+                ul = UsageLevel.of(usageLimitName, consumed,
+                        Iso8601.toEpochMillis(rawUsageLevel.getString(UsageLevel.Keys.RESET_TIMESTAMP.toString())));
+            } else {
+                ul = UsageLevel.of(usageLimitName, consumed);
             }
-            UsageLevel ul = UsageLevel.of(usageLimitName, rawUsageLevel.getDouble(UsageLevel.Keys.CONSUMED.toString()),
-                    resetTimestamp);
             res.put(usageLimitName, ul);
         }
         return Collections.unmodifiableMap(res);
@@ -34,8 +40,56 @@ final class UsageLevelDeserializer implements JsonDeserializable<Map<String, Map
         Objects.requireNonNull(usageLevel, "usage level must not be null");
         Map<String, Map<String, UsageLevel>> res = new HashMap<>();
         for (String serviceName : usageLevel.keySet()) {
-            res.put(serviceName, getServiceUsageLevels(usageLevel.getJSONObject(serviceName)));
+            res.put(Deserializers.intern(serviceName), getServiceUsageLevels(usageLevel.getJSONObject(serviceName)));
+        }
+        return Collections.unmodifiableMap(res);
+    }
+
+    @Override
+    public Map<String, Map<String, UsageLevel>> readJson(JsonReader reader) throws IOException {
+        Map<String, Map<String, UsageLevel>> res = new HashMap<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String serviceName = Deserializers.intern(reader.nextName());
+            Map<String, UsageLevel> serviceUsageLevels = new HashMap<>();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String usageLimitName = Deserializers.intern(reader.nextName());
+                serviceUsageLevels.put(usageLimitName, nextUsageLevel(usageLimitName, reader));
+            }
+            reader.endObject();
+            res.put(serviceName, Collections.unmodifiableMap(serviceUsageLevels));
         }
+        reader.endObject();
         return Collections.unmodifiableMap(res);
     }
+
+    private static UsageLevel nextUsageLevel(String usageLimitName, JsonReader reader) throws IOException {
+        double consumed = 0;
+        boolean hasConsumed = false;
+        long resetTimestamp = 0;
+        boolean hasResetTimestamp = false;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            int index = reader.selectName(NAMES);
+            if (index == UsageLevel.Keys.CONSUMED.ordinal()) {
+                consumed = reader.nextDouble();
+                hasConsumed = true;
+            } else if (index == UsageLevel.Keys.RESET_TIMESTAMP.ordinal() && !reader.skipNull()) {
+                resetTimestamp = Deserializers.nextEpochMillis(reader);
+                hasResetTimestamp = true;
+            } else if (index == -1) {
+                reader.skipName();
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (!hasConsumed) {
+            throw Deserializers.missing(UsageLevel.Keys.CONSUMED.toString());
+        }
+        if (hasResetTimestamp) {
+            return UsageLevel.of(usageLimitName, consumed, resetTimestamp);
+        }
+        return UsageLevel.of(usageLimitName, consumed);
+    }
 }
@@ -1,12 +1,19 @@
 package io.github.pgmarc.space.deserializers;
 
+import java.io.IOException;
 import java.util.Objects;
 
 import org.json.JSONObject;
 
 import io.github.pgmarc.space.contracts.UserContact;
+import io.github.pgmarc.space.json.JsonParseException;
+import io.github.pgmarc.space.json.JsonReader;
 
-final class UserContactDeserializer implements JsonDeserializable<UserContact> {
+final class UserContactDeserializer implements JsonDeserializable<UserContact>,
+        JsonStreamDeserializable<UserContact> {
+
+    private static final UserContact.Keys[] KEYS = UserContact.Keys.values();
+    private static final JsonReader.Options NAMES = Deserializers.options(KEYS);
 
     @Override
     public UserContact fromJson(JSONObject json) {
@@ -21,4 +28,32 @@ final class UserContactDeserializer implements JsonDeserializable<UserContact> {
                 .build();
     }
 
+    @Override
+    public UserContact readJson(JsonReader reader) throws IOException {
+        String[] values = new String[KEYS.length];
+        reader.beginObject();
+        while (reader.hasNext()) {
+            int index = reader.selectName(NAMES);
+            if (index == -1) {
+                reader.skipName();
+                reader.skipValue();
+            } else {
+                values[index] = reader.nextStringOrNull();
+            }
+        }
+        reader.endObject();
+
+        String userId = values[UserContact.Keys.USER_ID.ordinal()];
+        String username = values[UserContact.Keys.USERNAME.ordinal()];
+        if (userId == null || username == null) {
+            throw new JsonParseException("user contact requires userId and username");
+        }
+        return UserContact.builder(userId, username)
+                .firstName(values[UserContact.Keys.FIRST_NAME.ordinal()])
+                .lastName(values[UserContact.Keys.LAST_NAME.ordinal()])
+                .email(values[UserContact.Keys.EMAIL.ordinal()])
+                .phone(values[UserContact.Keys.PHONE.ordinal()])
+                .build();
+    }
+
 }
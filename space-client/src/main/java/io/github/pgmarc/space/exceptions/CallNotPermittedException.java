@@ -0,0 +1,19 @@
+package io.github.pgmarc.space.exceptions;
+
+/**
+ * Thrown without contacting SPACE when the circuit breaker guarding the
+ * endpoint is open.
+ */
+public final class CallNotPermittedException extends SpaceApiException {
+
+    private final String circuitBreaker;
+
+    public CallNotPermittedException(String circuitBreaker) {
+        super("Circuit breaker '" + circuitBreaker + "' is open and does not permit further calls");
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public String getCircuitBreaker() {
+        return circuitBreaker;
+    }
+}
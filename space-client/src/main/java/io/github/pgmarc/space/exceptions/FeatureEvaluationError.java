@@ -23,6 +23,14 @@ public final class FeatureEvaluationError {
         return new FeatureEvaluationError(Code.valueOf(code), reason);
     }
 
+    public Code getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
     private String formatMessage() {
         return message.endsWith(".") ? message : message + ".";
     }
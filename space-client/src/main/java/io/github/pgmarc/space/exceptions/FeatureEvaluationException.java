@@ -0,0 +1,19 @@
+package io.github.pgmarc.space.exceptions;
+
+/**
+ * Thrown when SPACE answers an evaluation with an error instead of a
+ * result, for instance when the feature does not exist.
+ */
+public final class FeatureEvaluationException extends SpaceApiException {
+
+    private final transient FeatureEvaluationError error;
+
+    public FeatureEvaluationException(FeatureEvaluationError error) {
+        super(error.toString());
+        this.error = error;
+    }
+
+    public FeatureEvaluationError getError() {
+        return error;
+    }
+}
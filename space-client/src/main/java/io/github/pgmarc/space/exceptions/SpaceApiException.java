@@ -14,7 +14,11 @@ public class SpaceApiException extends RuntimeException {
         super(message);
     }
 
+    /**
+     * HTTP status code returned by SPACE or <code>-1</code> if the exception
+     * was raised by the client without a SPACE response.
+     */
     public int getCode() {
-        return error.getStatusCode();
+        return error != null ? error.getStatusCode() : -1;
     }
 }
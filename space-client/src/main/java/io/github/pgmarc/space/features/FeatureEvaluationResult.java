@@ -1,6 +1,9 @@
 package io.github.pgmarc.space.features;
 
+import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -25,20 +28,31 @@ public final class FeatureEvaluationResult {
 
     public Optional<Number> getConsumed(String usageLimit) {
         Objects.requireNonNull(usageLimit, "usage limit must not be null");
-        return quotas.containsKey(usageLimit) ?
-            Optional.of(quotas.get(usageLimit).getUsed()) : Optional.empty();
+        Usage usage = quotas.get(usageLimit);
+        return usage != null ? Optional.of(usage.getUsed()) : Optional.empty();
     }
 
     public Optional<Number> getLimit(String usageLimit) {
-        return quotas.containsKey(usageLimit) ?
-            Optional.of(quotas.get(usageLimit).getLimit()) : Optional.empty();
+        Usage usage = quotas.get(usageLimit);
+        return usage != null ? Optional.ofNullable(usage.getLimit()) : Optional.empty();
     }
 
+    /**
+     * Usage of <code>usageLimit</code>, or <code>null</code> if the
+     * evaluation does not track it.
+     */
+    public Usage getUsage(String usageLimit) {
+        return quotas.get(usageLimit);
+    }
 
     public static FeatureEvaluationResult of(boolean available, Map<String,Usage> quotas) {
         return new FeatureEvaluationResult(available, quotas);
     }
 
+    public static Builder builder() {
+        return new Builder();
+    }
+
     @Override
     public String toString() {
         return "FeatureEvaluationResult{" +
@@ -47,35 +61,221 @@ public final class FeatureEvaluationResult {
             '}';
     }
 
+    /**
+     * Used and limit values of a usage limit, kept as primitives. Values are
+     * integral when SPACE sent both of them without a fraction, in which case
+     * {@link #getUsed()} and {@link #getLimit()} box them as an
+     * {@link Integer} or a {@link Long}, otherwise as a {@link Double}.
+     * Integers beyond 2<sup>53</sup> lose precision.
+     */
     public static final class Usage {
 
-        private final Number used;
-        private final Number limit;
+        private final double used;
+        private final double limit;
+        private final boolean integral;
 
-        private Usage(Number used, Number limit) {
+        private Usage(double used, double limit, boolean integral) {
             this.used = used;
             this.limit = limit;
+            this.integral = integral;
         }
 
         public Number getUsed() {
-            return used;
+            return box(used);
         }
 
+        /**
+         * Returns <code>null</code> if the usage limit has no limit.
+         */
         public Number getLimit() {
+            return hasLimit() ? box(limit) : null;
+        }
+
+        public double getUsedAsDouble() {
+            return used;
+        }
+
+        public long getUsedAsLong() {
+            return (long) used;
+        }
+
+        /**
+         * Returns {@link Double#POSITIVE_INFINITY} if the usage limit has no
+         * limit.
+         */
+        public double getLimitAsDouble() {
             return limit;
         }
 
+        /**
+         * Returns {@link Long#MAX_VALUE} if the usage limit has no limit.
+         */
+        public long getLimitAsLong() {
+            return (long) limit;
+        }
+
+        public boolean hasLimit() {
+            return limit != Double.POSITIVE_INFINITY;
+        }
+
+        public boolean isIntegral() {
+            return integral;
+        }
+
+        private Number box(double value) {
+            if (!integral) {
+                return value;
+            }
+            long integer = (long) value;
+            return integer == (int) integer ? (Number) (int) integer : (Number) integer;
+        }
+
         public static Usage of(Number used, Number limit) {
-            return new Usage(used, limit);
+            Objects.requireNonNull(used, "used must not be null");
+            return new Usage(used.doubleValue(), limit != null ? limit.doubleValue() : Double.POSITIVE_INFINITY,
+                isIntegral(used) && (limit == null || isIntegral(limit)));
+        }
+
+        /**
+         * A <code>limit</code> of {@link Long#MAX_VALUE} means no limit.
+         */
+        public static Usage of(long used, long limit) {
+            return new Usage(used, limit == Long.MAX_VALUE ? Double.POSITIVE_INFINITY : limit, true);
+        }
+
+        /**
+         * A <code>limit</code> of {@link Double#POSITIVE_INFINITY} means no
+         * limit.
+         */
+        public static Usage of(double used, double limit) {
+            return new Usage(used, limit, false);
+        }
+
+        private static boolean isIntegral(Number number) {
+            return number instanceof Integer || number instanceof Long || number instanceof Short
+                || number instanceof Byte || number instanceof BigInteger;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == null || getClass() != o.getClass()) return false;
+            Usage usage = (Usage) o;
+            return Double.compare(used, usage.used) == 0 && Double.compare(limit, usage.limit) == 0
+                && integral == usage.integral;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(used, limit, integral);
         }
 
         @Override
         public String toString() {
             return "Usage{" +
-                "used=" + used +
-                ", limit=" + limit +
+                "used=" + getUsed() +
+                ", limit=" + getLimit() +
                 '}';
         }
     }
 
+    /**
+     * Collects <code>used</code> and <code>limit</code> values as they are
+     * decoded, in whatever order they come, and matches them by usage limit
+     * when the result is built. Only usage limits with a used value make it
+     * into the result.
+     */
+    public static final class Builder {
+
+        private static final int USED = 1;
+        private static final int LIMIT = 2;
+        private static final int DECIMAL = 4;
+
+        private boolean available;
+        private String[] names = new String[4];
+        private double[] used = new double[4];
+        private double[] limits = new double[4];
+        private int[] flags = new int[4];
+        private int size;
+        private int hint;
+
+        private Builder() {
+        }
+
+        public Builder available(boolean available) {
+            this.available = available;
+            return this;
+        }
+
+        public Builder used(String usageLimit, long value) {
+            return put(usageLimit, value, USED);
+        }
+
+        public Builder used(String usageLimit, double value) {
+            return put(usageLimit, value, USED | DECIMAL);
+        }
+
+        public Builder limit(String usageLimit, long value) {
+            return put(usageLimit, value, LIMIT);
+        }
+
+        public Builder limit(String usageLimit, double value) {
+            return put(usageLimit, value, LIMIT | DECIMAL);
+        }
+
+        private Builder put(String usageLimit, double value, int flag) {
+            Objects.requireNonNull(usageLimit, "usage limit must not be null");
+            int index = indexOf(usageLimit);
+            if (index == -1) {
+                index = add(usageLimit);
+            }
+            if ((flag & USED) != 0) {
+                used[index] = value;
+            } else {
+                limits[index] = value;
+            }
+            flags[index] |= flag;
+            return this;
+        }
+
+        /**
+         * SPACE sends <code>used</code> and <code>limit</code> members in the
+         * same order, so the lookup starts right after the last match.
+         */
+        private int indexOf(String usageLimit) {
+            for (int i = 0; i < size; i++) {
+                int index = (hint + i) % size;
+                if (names[index].equals(usageLimit)) {
+                    hint = index + 1;
+                    return index;
+                }
+            }
+            return -1;
+        }
+
+        private int add(String usageLimit) {
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+                used = Arrays.copyOf(used, size * 2);
+                limits = Arrays.copyOf(limits, size * 2);
+                flags = Arrays.copyOf(flags, size * 2);
+            }
+            names[size] = usageLimit;
+            hint = 0;
+            return size++;
+        }
+
+        public FeatureEvaluationResult build() {
+            Map<String, Usage> quotas = new HashMap<>(size * 4 / 3 + 1);
+            for (int i = 0; i < size; i++) {
+                int flag = flags[i];
+                if ((flag & USED) == 0) {
+                    continue;
+                }
+                double limit = (flag & LIMIT) != 0 ? limits[i] : Double.POSITIVE_INFINITY;
+                quotas.put(names[i], new Usage(used[i], limit, (flag & DECIMAL) == 0));
+            }
+            return new FeatureEvaluationResult(available, quotas);
+        }
+    }
+
 }
@@ -0,0 +1,18 @@
+package io.github.pgmarc.space.json;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a JSON document is malformed or does not have the shape a
+ * deserializer expects.
+ */
+public final class JsonParseException extends IOException {
+
+    public JsonParseException(String message) {
+        super(message);
+    }
+
+    public JsonParseException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
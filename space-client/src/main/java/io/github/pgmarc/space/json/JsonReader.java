@@ -0,0 +1,780 @@
+package io.github.pgmarc.space.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ByteString;
+
+/**
+ * Pull parser reading a UTF-8 JSON document straight from an Okio
+ * {@link BufferedSource}, such as an OkHttp response body, without
+ * materializing it as a <code>String</code> nor as a tree.
+ * <p>
+ * Object member names can be matched against precomputed {@link Options}
+ * with {@link #selectName(Options)}, which consumes known names without
+ * allocating them.
+ * <p>
+ * Instances are not thread safe.
+ */
+public final class JsonReader implements Closeable {
+
+    private static final ByteString QUOTE_OR_BACKSLASH = ByteString.encodeUtf8("\"\\");
+    private static final ByteString NESTING = ByteString.encodeUtf8("\"{}[]");
+
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int DANGLING_NAME = 3;
+    private static final int NONEMPTY_OBJECT = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private static final int PEEKED_NONE = 0;
+    private static final int PEEKED_BEGIN_OBJECT = 1;
+    private static final int PEEKED_END_OBJECT = 2;
+    private static final int PEEKED_BEGIN_ARRAY = 3;
+    private static final int PEEKED_END_ARRAY = 4;
+    private static final int PEEKED_TRUE = 5;
+    private static final int PEEKED_FALSE = 6;
+    private static final int PEEKED_NULL = 7;
+    private static final int PEEKED_STRING = 8;
+    private static final int PEEKED_NAME = 9;
+    private static final int PEEKED_LONG = 10;
+    private static final int PEEKED_NUMBER = 11;
+    private static final int PEEKED_EOF = 12;
+
+    /**
+     * Integers with up to 18 digits always fit in a long.
+     */
+    private static final int MAX_FAST_DIGITS = 18;
+
+    private final BufferedSource source;
+    private final Buffer buffer;
+
+    private int[] stack = new int[32];
+    private int stackSize;
+    private int peeked = PEEKED_NONE;
+    private long peekedLong;
+    private int peekedNumberLength;
+
+    private JsonReader(BufferedSource source) {
+        this.source = source;
+        this.buffer = source.getBuffer();
+        stack[stackSize++] = EMPTY_DOCUMENT;
+    }
+
+    public static JsonReader of(BufferedSource source) {
+        return new JsonReader(source);
+    }
+
+    /**
+     * Member names to match with {@link JsonReader#selectName(Options)}.
+     * Names must not need escaping. Build them once and reuse them.
+     */
+    public static final class Options {
+
+        private final String[] names;
+        private final okio.Options suffixes;
+
+        private Options(String[] names, okio.Options suffixes) {
+            this.names = names;
+            this.suffixes = suffixes;
+        }
+
+        public static Options of(String... names) {
+            ByteString[] suffixes = new ByteString[names.length];
+            for (int i = 0; i < names.length; i++) {
+                suffixes[i] = ByteString.encodeUtf8(names[i] + '"');
+            }
+            return new Options(names.clone(), okio.Options.of(suffixes));
+        }
+
+        public String name(int index) {
+            return names[index];
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(names);
+        }
+    }
+
+    public JsonToken peek() throws IOException {
+        int p = peeked == PEEKED_NONE ? doPeek() : peeked;
+        switch (p) {
+            case PEEKED_BEGIN_OBJECT:
+                return JsonToken.BEGIN_OBJECT;
+            case PEEKED_END_OBJECT:
+                return JsonToken.END_OBJECT;
+            case PEEKED_BEGIN_ARRAY:
+                return JsonToken.BEGIN_ARRAY;
+            case PEEKED_END_ARRAY:
+                return JsonToken.END_ARRAY;
+            case PEEKED_TRUE:
+            case PEEKED_FALSE:
+                return JsonToken.BOOLEAN;
+            case PEEKED_NULL:
+                return JsonToken.NULL;
+            case PEEKED_STRING:
+                return JsonToken.STRING;
+            case PEEKED_NAME:
+                return JsonToken.NAME;
+            case PEEKED_LONG:
+            case PEEKED_NUMBER:
+                return JsonToken.NUMBER;
+            default:
+                return JsonToken.END_DOCUMENT;
+        }
+    }
+
+    public void beginObject() throws IOException {
+        expect(PEEKED_BEGIN_OBJECT, JsonToken.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+    }
+
+    public void endObject() throws IOException {
+        expect(PEEKED_END_OBJECT, JsonToken.END_OBJECT);
+        stackSize--;
+    }
+
+    public void beginArray() throws IOException {
+        expect(PEEKED_BEGIN_ARRAY, JsonToken.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+    }
+
+    public void endArray() throws IOException {
+        expect(PEEKED_END_ARRAY, JsonToken.END_ARRAY);
+        stackSize--;
+    }
+
+    /**
+     * Whether the current object or array has more elements.
+     */
+    public boolean hasNext() throws IOException {
+        int p = peeked == PEEKED_NONE ? doPeek() : peeked;
+        return p != PEEKED_END_OBJECT && p != PEEKED_END_ARRAY && p != PEEKED_EOF;
+    }
+
+    public String nextName() throws IOException {
+        expect(PEEKED_NAME, JsonToken.NAME);
+        return readQuoted();
+    }
+
+    /**
+     * Consumes the next member name if it is one of <code>options</code> and
+     * returns its index. Returns <code>-1</code> without consuming anything
+     * otherwise, the name must then be read with {@link #nextName()} or
+     * skipped with {@link #skipName()}.
+     */
+    public int selectName(Options options) throws IOException {
+        int p = peeked == PEEKED_NONE ? doPeek() : peeked;
+        if (p != PEEKED_NAME) {
+            throw unexpected(JsonToken.NAME);
+        }
+        int index = source.select(options.suffixes);
+        if (index != -1) {
+            peeked = PEEKED_NONE;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the next member name without its leading <code>prefix</code>,
+     * which is skipped without being decoded. Names that do not start with
+     * <code>prefix</code> are returned whole.
+     */
+    public String nextName(ByteString prefix) throws IOException {
+        expect(PEEKED_NAME, JsonToken.NAME);
+        if (source.rangeEquals(0, prefix)) {
+            buffer.skip(prefix.size());
+        }
+        return readQuoted();
+    }
+
+    public void skipName() throws IOException {
+        expect(PEEKED_NAME, JsonToken.NAME);
+        skipQuoted();
+    }
+
+    /**
+     * Returns the next string. Numbers are returned as written in the
+     * document.
+     */
+    public String nextString() throws IOException {
+        int p = peeked == PEEKED_NONE ? doPeek() : peeked;
+        if (p == PEEKED_STRING) {
+            peeked = PEEKED_NONE;
+            return readQuoted();
+        }
+        if (p == PEEKED_LONG) {
+            peeked = PEEKED_NONE;
+            return Long.toString(peekedLong);
+        }
+        if (p == PEEKED_NUMBER) {
+            peeked = PEEKED_NONE;
+            return buffer.readUtf8(peekedNumberLength);
+        }
+        throw unexpected(JsonToken.STRING);
+    }
+
+    /**
+     * Returns the next string, or <code>null</code> if the next value is
+     * <code>null</code>.
+     */
+    public String nextStringOrNull() throws IOException {
+        if (peek() == JsonToken.NULL) {
+            peeked = PEEKED_NONE;
+            return null;
+        }
+        return nextString();
+    }
+
+    public boolean nextBoolean() throws IOException {
+        int p = peeked == PEEKED_NONE ? doPeek() : peeked;
+        if (p == PEEKED_TRUE || p == PEEKED_FALSE) {
+            peeked = PEEKED_NONE;
+            return p == PEEKED_TRUE;
+        }
+        throw unexpected(JsonToken.BOOLEAN);
+    }
+
+    public void nextNull() throws IOException {
+        expect(PEEKED_NULL, JsonToken.NULL);
+    }
+
+    /**
+     * Consumes the next value if it is <code>null</code> and returns whether
+     * it was.
+     */
+    public boolean skipNull() throws IOException {
+        if (peek() == JsonToken.NULL) {
+            peeked = PEEKED_NONE;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whether the next value is a number written without a fraction nor an
+     * exponent.
+     */
+    public boolean peekIntegral() throws IOException {
+        int p = peeked == PEEKED_NONE ? doPeek() : peeked;
+        if (p == PEEKED_LONG) {
+            return true;
+        }
+        if (p != PEEKED_NUMBER) {
+            return false;
+        }
+        for (long i = 0; i < peekedNumberLength; i++) {
+            byte c = buffer.getByte(i);
+            if (c == '.' || c == 'e' || c == 'E') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public double nextDouble() throws IOException {
+        int p = peeked == PEEKED_NONE ? doPeek() : peeked;
+        if (p == PEEKED_LONG) {
+            peeked = PEEKED_NONE;
+            return peekedLong;
+        }
+        if (p == PEEKED_NUMBER) {
+            peeked = PEEKED_NONE;
+            String number = buffer.readUtf8(peekedNumberLength);
+            try {
+                return Double.parseDouble(number);
+            } catch (NumberFormatException e) {
+                throw new JsonParseException("invalid number " + number, e);
+            }
+        }
+        throw unexpected(JsonToken.NUMBER);
+    }
+
+    public long nextLong() throws IOException {
+        int p = peeked == PEEKED_NONE ? doPeek() : peeked;
+        if (p == PEEKED_LONG) {
+            peeked = PEEKED_NONE;
+            return peekedLong;
+        }
+        if (p == PEEKED_NUMBER) {
+            peeked = PEEKED_NONE;
+            String number = buffer.readUtf8(peekedNumberLength);
+            try {
+                return new BigDecimal(number).longValueExact();
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw new JsonParseException("expected a long but was " + number, e);
+            }
+        }
+        throw unexpected(JsonToken.NUMBER);
+    }
+
+    public int nextInt() throws IOException {
+        long value = nextLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new JsonParseException("expected an int but was " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Returns the next number with the same representation org.json uses:
+     * an {@link Integer} or a {@link Long} for integers that fit, otherwise
+     * a {@link BigInteger}, and a {@link BigDecimal} for decimals.
+     */
+    public Number nextNumber() throws IOException {
+        int p = peeked == PEEKED_NONE ? doPeek() : peeked;
+        if (p == PEEKED_LONG) {
+            peeked = PEEKED_NONE;
+            long value = peekedLong;
+            return value == (int) value ? (Number) (int) value : (Number) value;
+        }
+        if (p != PEEKED_NUMBER) {
+            throw unexpected(JsonToken.NUMBER);
+        }
+        peeked = PEEKED_NONE;
+        String number = buffer.readUtf8(peekedNumberLength);
+        try {
+            if (number.indexOf('.') >= 0 || number.indexOf('e') >= 0 || number.indexOf('E') >= 0
+                || "-0".equals(number)) {
+                BigDecimal decimal = new BigDecimal(number);
+                return number.charAt(0) == '-' && decimal.signum() == 0 ? (Number) (-0.0) : decimal;
+            }
+            BigInteger integer = new BigInteger(number);
+            return integer.bitLength() < 64 ? (Number) integer.longValue() : integer;
+        } catch (NumberFormatException e) {
+            throw new JsonParseException("invalid number " + number, e);
+        }
+    }
+
+    /**
+     * Skips the next value, including nested objects and arrays.
+     */
+    public void skipValue() throws IOException {
+        int depth = 0;
+        do {
+            int p = peeked == PEEKED_NONE ? doPeek() : peeked;
+            switch (p) {
+                case PEEKED_BEGIN_OBJECT:
+                    push(EMPTY_OBJECT);
+                    depth++;
+                    break;
+                case PEEKED_BEGIN_ARRAY:
+                    push(EMPTY_ARRAY);
+                    depth++;
+                    break;
+                case PEEKED_END_OBJECT:
+                case PEEKED_END_ARRAY:
+                    stackSize--;
+                    depth--;
+                    break;
+                case PEEKED_STRING:
+                case PEEKED_NAME:
+                    skipQuoted();
+                    break;
+                case PEEKED_NUMBER:
+                    buffer.skip(peekedNumberLength);
+                    break;
+                case PEEKED_EOF:
+                    throw new JsonParseException("expected a value but was end of document");
+                default:
+                    break;
+            }
+            peeked = PEEKED_NONE;
+        } while (depth > 0);
+    }
+
+    /**
+     * Consumes the next value and returns it as written in the document, so
+     * it can be parsed later with a reader of its own. Objects and arrays are
+     * copied by scanning for brackets and strings only, their contents are
+     * not validated until they are parsed.
+     */
+    public ByteString nextValue() throws IOException {
+        int p = peeked == PEEKED_NONE ? doPeek() : peeked;
+        peeked = PEEKED_NONE;
+        Buffer value = new Buffer();
+        switch (p) {
+            case PEEKED_BEGIN_OBJECT:
+            case PEEKED_BEGIN_ARRAY:
+                value.writeByte(p == PEEKED_BEGIN_OBJECT ? '{' : '[');
+                copyNested(value);
+                break;
+            case PEEKED_STRING:
+                value.writeByte('"');
+                copyQuoted(value);
+                break;
+            case PEEKED_TRUE:
+                value.writeUtf8("true");
+                break;
+            case PEEKED_FALSE:
+                value.writeUtf8("false");
+                break;
+            case PEEKED_NULL:
+                value.writeUtf8("null");
+                break;
+            case PEEKED_LONG:
+                value.writeDecimalLong(peekedLong);
+                break;
+            case PEEKED_NUMBER:
+                buffer.read(value, peekedNumberLength);
+                break;
+            default:
+                peeked = p;
+                throw new JsonParseException("expected a value but was " + peek());
+        }
+        return value.readByteString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        peeked = PEEKED_NONE;
+        stackSize = 0;
+        source.close();
+    }
+
+    private void expect(int expected, JsonToken token) throws IOException {
+        int p = peeked == PEEKED_NONE ? doPeek() : peeked;
+        if (p != expected) {
+            throw unexpected(token);
+        }
+        peeked = PEEKED_NONE;
+    }
+
+    private JsonParseException unexpected(JsonToken expected) throws IOException {
+        return new JsonParseException("expected " + expected + " but was " + peek());
+    }
+
+    private void push(int scope) {
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = scope;
+    }
+
+    private int doPeek() throws IOException {
+        int scope = stack[stackSize - 1];
+        switch (scope) {
+            case EMPTY_ARRAY:
+                stack[stackSize - 1] = NONEMPTY_ARRAY;
+                if (nextNonWhitespace() == ']') {
+                    buffer.skip(1);
+                    return peeked = PEEKED_END_ARRAY;
+                }
+                break;
+            case NONEMPTY_ARRAY: {
+                int c = nextNonWhitespace();
+                buffer.skip(1);
+                if (c == ']') {
+                    return peeked = PEEKED_END_ARRAY;
+                }
+                if (c != ',') {
+                    throw syntaxError("expected ',' or ']' in array");
+                }
+                break;
+            }
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT: {
+                stack[stackSize - 1] = DANGLING_NAME;
+                if (scope == NONEMPTY_OBJECT) {
+                    int c = nextNonWhitespace();
+                    buffer.skip(1);
+                    if (c == '}') {
+                        return peeked = PEEKED_END_OBJECT;
+                    }
+                    if (c != ',') {
+                        throw syntaxError("expected ',' or '}' in object");
+                    }
+                }
+                int c = nextNonWhitespace();
+                buffer.skip(1);
+                if (c == '"') {
+                    return peeked = PEEKED_NAME;
+                }
+                if (c == '}' && scope == EMPTY_OBJECT) {
+                    return peeked = PEEKED_END_OBJECT;
+                }
+                throw syntaxError("expected a member name");
+            }
+            case DANGLING_NAME:
+                stack[stackSize - 1] = NONEMPTY_OBJECT;
+                if (nextNonWhitespace() != ':') {
+                    throw syntaxError("expected ':' after member name");
+                }
+                buffer.skip(1);
+                break;
+            case EMPTY_DOCUMENT:
+                stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+                break;
+            case NONEMPTY_DOCUMENT:
+                if (skipWhitespace()) {
+                    throw syntaxError("unexpected content after the document");
+                }
+                return peeked = PEEKED_EOF;
+            default:
+                throw new IllegalStateException("reader is closed");
+        }
+        return peekValue();
+    }
+
+    private int peekValue() throws IOException {
+        int c = nextNonWhitespace();
+        switch (c) {
+            case '{':
+                buffer.skip(1);
+                return peeked = PEEKED_BEGIN_OBJECT;
+            case '[':
+                buffer.skip(1);
+                return peeked = PEEKED_BEGIN_ARRAY;
+            case '"':
+                buffer.skip(1);
+                return peeked = PEEKED_STRING;
+            case 't':
+                return peekLiteral("true", PEEKED_TRUE);
+            case 'f':
+                return peekLiteral("false", PEEKED_FALSE);
+            case 'n':
+                return peekLiteral("null", PEEKED_NULL);
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return peekNumber();
+                }
+                throw syntaxError("unexpected character '" + (char) c + "'");
+        }
+    }
+
+    private int peekLiteral(String literal, int token) throws IOException {
+        int length = literal.length();
+        if (!source.request(length)) {
+            throw syntaxError("unexpected end of document");
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.getByte(i) != literal.charAt(i)) {
+                throw syntaxError("unexpected literal, expected " + literal);
+            }
+        }
+        if (source.request(length + 1L) && isLiteralChar(buffer.getByte(length))) {
+            throw syntaxError("unexpected literal, expected " + literal);
+        }
+        buffer.skip(length);
+        return peeked = token;
+    }
+
+    /**
+     * Scans the number at the head of the buffer. Integers short enough to
+     * fit in a long are decoded on the fly, anything else is left in the
+     * buffer to be parsed from its text.
+     */
+    private int peekNumber() throws IOException {
+        long value = 0;
+        boolean negative = false;
+        boolean integral = true;
+        int length = 0;
+        int digits = 0;
+        while (source.request(length + 1L)) {
+            byte c = buffer.getByte(length);
+            if (c >= '0' && c <= '9') {
+                if (digits == 1 && value == 0 && integral) {
+                    throw syntaxError("leading zeros are not allowed");
+                }
+                value = value * 10 + (c - '0');
+                digits++;
+            } else if (c == '-' && length == 0) {
+                negative = true;
+            } else if (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                integral = false;
+            } else if (isLiteralChar(c)) {
+                throw syntaxError("invalid number");
+            } else {
+                break;
+            }
+            length++;
+        }
+        if (digits == 0) {
+            throw syntaxError("invalid number");
+        }
+        if (integral && digits <= MAX_FAST_DIGITS && !(negative && value == 0)) {
+            peekedLong = negative ? -value : value;
+            buffer.skip(length);
+            return peeked = PEEKED_LONG;
+        }
+        peekedNumberLength = length;
+        return peeked = PEEKED_NUMBER;
+    }
+
+    private static boolean isLiteralChar(byte c) {
+        switch (c) {
+            case ' ':
+            case '\t':
+            case '\n':
+            case '\r':
+            case ',':
+            case ':':
+            case '{':
+            case '}':
+            case '[':
+            case ']':
+            case '"':
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Returns the next non whitespace byte without consuming it.
+     */
+    private int nextNonWhitespace() throws IOException {
+        if (!skipWhitespace()) {
+            throw syntaxError("unexpected end of document");
+        }
+        return buffer.getByte(0);
+    }
+
+    /**
+     * Returns whether there is a non whitespace byte left.
+     */
+    private boolean skipWhitespace() throws IOException {
+        while (source.request(1)) {
+            byte c = buffer.getByte(0);
+            if (c != ' ' && c != '\n' && c != '\t' && c != '\r') {
+                return true;
+            }
+            buffer.skip(1);
+        }
+        return false;
+    }
+
+    /**
+     * Reads a string whose opening quote has been consumed, up to and
+     * including its closing quote.
+     */
+    private String readQuoted() throws IOException {
+        StringBuilder builder = null;
+        while (true) {
+            long index = source.indexOfElement(QUOTE_OR_BACKSLASH);
+            if (index == -1) {
+                throw syntaxError("unterminated string");
+            }
+            if (buffer.getByte(index) == '"') {
+                String tail = buffer.readUtf8(index);
+                buffer.skip(1);
+                return builder == null ? tail : builder.append(tail).toString();
+            }
+            if (builder == null) {
+                builder = new StringBuilder();
+            }
+            builder.append(buffer.readUtf8(index));
+            buffer.skip(1);
+            builder.append(readEscape());
+        }
+    }
+
+    private void skipQuoted() throws IOException {
+        while (true) {
+            long index = source.indexOfElement(QUOTE_OR_BACKSLASH);
+            if (index == -1) {
+                throw syntaxError("unterminated string");
+            }
+            byte c = buffer.getByte(index);
+            buffer.skip(index + 1);
+            if (c == '"') {
+                return;
+            }
+            readEscape();
+        }
+    }
+
+    /**
+     * Copies an object or array whose opening bracket has been consumed, up
+     * to and including its closing bracket.
+     */
+    private void copyNested(Buffer sink) throws IOException {
+        int depth = 1;
+        while (depth > 0) {
+            long index = source.indexOfElement(NESTING);
+            if (index == -1) {
+                throw syntaxError("unterminated object or array");
+            }
+            byte c = buffer.getByte(index);
+            buffer.read(sink, index + 1);
+            if (c == '"') {
+                copyQuoted(sink);
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Copies a string whose opening quote has been consumed, up to and
+     * including its closing quote.
+     */
+    private void copyQuoted(Buffer sink) throws IOException {
+        while (true) {
+            long index = source.indexOfElement(QUOTE_OR_BACKSLASH);
+            if (index == -1 || (buffer.getByte(index) == '\\' && !source.request(index + 2))) {
+                throw syntaxError("unterminated string");
+            }
+            byte c = buffer.getByte(index);
+            if (c == '"') {
+                buffer.read(sink, index + 1);
+                return;
+            }
+            buffer.read(sink, index + 2);
+        }
+    }
+
+    private char readEscape() throws IOException {
+        if (!source.request(1)) {
+            throw syntaxError("unterminated escape sequence");
+        }
+        byte escaped = buffer.readByte();
+        switch (escaped) {
+            case 'u':
+                if (!source.request(4)) {
+                    throw syntaxError("unterminated escape sequence");
+                }
+                String hex = buffer.readUtf8(4);
+                try {
+                    return (char) Integer.parseInt(hex, 16);
+                } catch (NumberFormatException e) {
+                    throw syntaxError("invalid escape sequence \\u" + hex);
+                }
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case '"':
+            case '\\':
+            case '/':
+                return (char) escaped;
+            default:
+                throw syntaxError("invalid escape sequence \\" + (char) escaped);
+        }
+    }
+
+    private JsonParseException syntaxError(String message) {
+        return new JsonParseException(message);
+    }
+
+    @Override
+    public String toString() {
+        return "JsonReader(" + source + ")";
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.pgmarc.space.json;
+
+/**
+ * Kind of the next element of a {@link JsonReader}.
+ */
+public enum JsonToken {
+    BEGIN_OBJECT,
+    END_OBJECT,
+    BEGIN_ARRAY,
+    END_ARRAY,
+    NAME,
+    STRING,
+    NUMBER,
+    BOOLEAN,
+    NULL,
+    END_DOCUMENT
+}
@@ -0,0 +1,287 @@
+package io.github.pgmarc.space.json;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+
+import okio.BufferedSink;
+
+/**
+ * Push writer emitting compact JSON straight into an Okio
+ * {@link BufferedSink}. Strings are escaped and numbers are formatted the
+ * way org.json does it, so documents read the same as those produced by
+ * {@link org.json.JSONObject#toString()}.
+ * <p>
+ * Instances are not thread safe and do not close nor flush their sink.
+ */
+public final class JsonWriter {
+
+    private static final int EMPTY_OBJECT = 1;
+    private static final int NONEMPTY_OBJECT = 2;
+    private static final int DANGLING_NAME = 3;
+    private static final int EMPTY_ARRAY = 4;
+    private static final int NONEMPTY_ARRAY = 5;
+    private static final int EMPTY_DOCUMENT = 6;
+    private static final int NONEMPTY_DOCUMENT = 7;
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    private final BufferedSink sink;
+    private int[] stack = new int[8];
+    private int stackSize;
+
+    private JsonWriter(BufferedSink sink) {
+        this.sink = sink;
+        stack[stackSize++] = EMPTY_DOCUMENT;
+    }
+
+    public static JsonWriter of(BufferedSink sink) {
+        return new JsonWriter(Objects.requireNonNull(sink, "sink must not be null"));
+    }
+
+    public JsonWriter beginObject() throws IOException {
+        beforeValue();
+        push(EMPTY_OBJECT);
+        sink.writeByte('{');
+        return this;
+    }
+
+    public JsonWriter endObject() throws IOException {
+        int context = stack[stackSize - 1];
+        if (context != EMPTY_OBJECT && context != NONEMPTY_OBJECT) {
+            throw new IllegalStateException("not inside an object or a value is missing");
+        }
+        stackSize--;
+        sink.writeByte('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        beforeValue();
+        push(EMPTY_ARRAY);
+        sink.writeByte('[');
+        return this;
+    }
+
+    public JsonWriter endArray() throws IOException {
+        int context = stack[stackSize - 1];
+        if (context != EMPTY_ARRAY && context != NONEMPTY_ARRAY) {
+            throw new IllegalStateException("not inside an array");
+        }
+        stackSize--;
+        sink.writeByte(']');
+        return this;
+    }
+
+    public JsonWriter name(String name) throws IOException {
+        Objects.requireNonNull(name, "name must not be null");
+        beforeName();
+        sink.writeByte('"');
+        escape(name, '\0');
+        sink.writeByte('"');
+        return this;
+    }
+
+    /**
+     * Writes the member name <code>prefix + name</code> without
+     * concatenating both strings first.
+     */
+    public JsonWriter name(String prefix, String name) throws IOException {
+        Objects.requireNonNull(prefix, "prefix must not be null");
+        Objects.requireNonNull(name, "name must not be null");
+        beforeName();
+        sink.writeByte('"');
+        escape(name, escape(prefix, '\0'));
+        sink.writeByte('"');
+        return this;
+    }
+
+    /**
+     * Writes <code>value</code>, or <code>null</code> if it is
+     * <code>null</code>.
+     */
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        sink.writeByte('"');
+        escape(value, '\0');
+        sink.writeByte('"');
+        return this;
+    }
+
+    public JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        sink.writeUtf8(value ? "true" : "false");
+        return this;
+    }
+
+    public JsonWriter value(long value) throws IOException {
+        beforeValue();
+        sink.writeDecimalLong(value);
+        return this;
+    }
+
+    /**
+     * Writes <code>value</code> like {@link #value(Number)}.
+     *
+     * @throws IllegalArgumentException if <code>value</code> is not finite
+     */
+    public JsonWriter value(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("JSON does not allow non-finite numbers");
+        }
+        beforeValue();
+        sink.writeUtf8(stripTrailingZeros(Double.toString(value)));
+        return this;
+    }
+
+    /**
+     * Writes <code>value</code> like org.json does: integers as they are and
+     * decimals without trailing zeros, so <code>2.0</code> is written as
+     * <code>2</code>.
+     *
+     * @throws IllegalArgumentException if <code>value</code> is not finite
+     */
+    public JsonWriter value(Number value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short
+            || value instanceof Byte) {
+            return value(value.longValue());
+        }
+        if ((value instanceof Double || value instanceof Float)
+            && (Double.isNaN(value.doubleValue()) || Double.isInfinite(value.doubleValue()))) {
+            throw new IllegalArgumentException("JSON does not allow non-finite numbers");
+        }
+        String string = stripTrailingZeros(value.toString());
+        beforeValue();
+        sink.writeUtf8(string);
+        return this;
+    }
+
+    public JsonWriter nullValue() throws IOException {
+        beforeValue();
+        sink.writeUtf8("null");
+        return this;
+    }
+
+    private static String stripTrailingZeros(String string) {
+        if (string.indexOf('.') <= 0 || string.indexOf('e') >= 0 || string.indexOf('E') >= 0) {
+            return string;
+        }
+        int end = string.length();
+        while (string.charAt(end - 1) == '0') {
+            end--;
+        }
+        if (string.charAt(end - 1) == '.') {
+            end--;
+        }
+        return string.substring(0, end);
+    }
+
+    private void push(int context) {
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = context;
+    }
+
+    private void beforeName() throws IOException {
+        int context = stack[stackSize - 1];
+        if (context == NONEMPTY_OBJECT) {
+            sink.writeByte(',');
+        } else if (context != EMPTY_OBJECT) {
+            throw new IllegalStateException("names are only allowed inside objects");
+        }
+        stack[stackSize - 1] = DANGLING_NAME;
+    }
+
+    private void beforeValue() throws IOException {
+        int context = stack[stackSize - 1];
+        switch (context) {
+            case DANGLING_NAME:
+                sink.writeByte(':');
+                stack[stackSize - 1] = NONEMPTY_OBJECT;
+                break;
+            case EMPTY_ARRAY:
+                stack[stackSize - 1] = NONEMPTY_ARRAY;
+                break;
+            case NONEMPTY_ARRAY:
+                sink.writeByte(',');
+                break;
+            case EMPTY_DOCUMENT:
+                stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+                break;
+            default:
+                throw new IllegalStateException("a name is expected before a value inside objects");
+        }
+    }
+
+    /**
+     * Escapes <code>value</code> following <code>JSONObject.quote</code>,
+     * writing runs of plain characters at once. Returns the last character,
+     * which decides whether a leading <code>/</code> of the next part is
+     * escaped.
+     */
+    private char escape(String value, char previous) throws IOException {
+        int length = value.length();
+        int start = 0;
+        char last = previous;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            String replacement;
+            switch (c) {
+                case '"':
+                    replacement = "\\\"";
+                    break;
+                case '\\':
+                    replacement = "\\\\";
+                    break;
+                case '/':
+                    replacement = last == '<' ? "\\/" : null;
+                    break;
+                case '\b':
+                    replacement = "\\b";
+                    break;
+                case '\t':
+                    replacement = "\\t";
+                    break;
+                case '\n':
+                    replacement = "\\n";
+                    break;
+                case '\f':
+                    replacement = "\\f";
+                    break;
+                case '\r':
+                    replacement = "\\r";
+                    break;
+                default:
+                    replacement = null;
+                    if (c < 0x20 || (c >= 0x80 && c < 0xa0) || (c >= 0x2000 && c < 0x2100)) {
+                        flush(value, start, i);
+                        sink.writeByte('\\').writeByte('u')
+                            .writeByte(HEX[c >> 12 & 0xf]).writeByte(HEX[c >> 8 & 0xf])
+                            .writeByte(HEX[c >> 4 & 0xf]).writeByte(HEX[c & 0xf]);
+                        start = i + 1;
+                    }
+            }
+            if (replacement != null) {
+                flush(value, start, i);
+                sink.writeUtf8(replacement);
+                start = i + 1;
+            }
+            last = c;
+        }
+        flush(value, start, length);
+        return last;
+    }
+
+    private void flush(String value, int start, int end) throws IOException {
+        if (start < end) {
+            sink.writeUtf8(value, start, end);
+        }
+    }
+}
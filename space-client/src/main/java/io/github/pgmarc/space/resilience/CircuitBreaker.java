@@ -0,0 +1,181 @@
+package io.github.pgmarc.space.resilience;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Count based circuit breaker. While <code>CLOSED</code> the outcome of the
+ * last calls is kept in a sliding window, when the failure rate or the slow
+ * call rate reaches its threshold the breaker becomes <code>OPEN</code> and
+ * rejects every call. Once the wait duration elapses it becomes
+ * <code>HALF_OPEN</code>: a limited number of probe calls decide whether it
+ * closes again or goes back to open.
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final String name;
+    private final CircuitBreakerConfig config;
+    private final List<CircuitBreakerListener> listeners;
+    private final LongSupplier nanoClock;
+    private final long slowCallNanos;
+    private final long waitInOpenNanos;
+
+    private State state = State.CLOSED;
+    private final byte[] window;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+    private long openedAt;
+    private int probesPermitted;
+
+    public CircuitBreaker(String name, CircuitBreakerConfig config, List<CircuitBreakerListener> listeners) {
+        this(name, config, listeners, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, CircuitBreakerConfig config, List<CircuitBreakerListener> listeners,
+        LongSupplier nanoClock) {
+        this.name = name;
+        this.config = config;
+        this.listeners = List.copyOf(listeners);
+        this.nanoClock = nanoClock;
+        this.slowCallNanos = config.getSlowCallDuration().toNanos();
+        this.waitInOpenNanos = config.getWaitDurationInOpenState().toNanos();
+        this.window = new byte[config.getSlidingWindowSize()];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Must be called before every call. If permission is granted, the
+     * outcome of the call must be reported with {@link #onSuccess(long)} or
+     * {@link #onError(long)}.
+     */
+    public boolean tryAcquirePermission() {
+        State from;
+        synchronized (this) {
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.OPEN) {
+                if (nanoClock.getAsLong() - openedAt < waitInOpenNanos) {
+                    return false;
+                }
+                from = transitionTo(State.HALF_OPEN);
+            } else {
+                from = null;
+            }
+            if (probesPermitted >= config.getPermittedCallsInHalfOpenState()) {
+                return false;
+            }
+            probesPermitted++;
+        }
+        notifyTransition(from, State.HALF_OPEN);
+        return true;
+    }
+
+    /**
+     * Gives back a permission whose call was cancelled without outcome.
+     */
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && probesPermitted > 0) {
+            probesPermitted--;
+        }
+    }
+
+    public void onSuccess(long durationNanos) {
+        record(durationNanos >= slowCallNanos ? SLOW : 0);
+    }
+
+    public void onError(long durationNanos) {
+        record((byte) (FAILED | (durationNanos >= slowCallNanos ? SLOW : 0)));
+    }
+
+    private void record(byte outcome) {
+        State from;
+        State to;
+        synchronized (this) {
+            if (state == State.OPEN) {
+                return;
+            }
+            add(outcome);
+            to = evaluate();
+            from = to != state ? transitionTo(to) : null;
+        }
+        notifyTransition(from, to);
+    }
+
+    private void add(byte outcome) {
+        if (recorded == window.length) {
+            byte evicted = window[next];
+            failures -= evicted & FAILED;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            recorded++;
+        }
+        window[next] = outcome;
+        next = (next + 1) % window.length;
+        failures += outcome & FAILED;
+        slowCalls += (outcome & SLOW) >> 1;
+    }
+
+    private State evaluate() {
+        int minimumCalls = state == State.HALF_OPEN ? config.getPermittedCallsInHalfOpenState()
+            : config.getMinimumNumberOfCalls();
+        if (recorded < minimumCalls) {
+            return state;
+        }
+        float failureRate = failures * 100f / recorded;
+        float slowCallRate = slowCalls * 100f / recorded;
+        if (failureRate >= config.getFailureRateThreshold() || slowCallRate >= config.getSlowCallRateThreshold()) {
+            return State.OPEN;
+        }
+        return State.CLOSED;
+    }
+
+    private State transitionTo(State to) {
+        State from = state;
+        state = to;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+        probesPermitted = 0;
+        if (to == State.OPEN) {
+            openedAt = nanoClock.getAsLong();
+        }
+        return from;
+    }
+
+    private void notifyTransition(State from, State to) {
+        if (from == null) {
+            return;
+        }
+        for (CircuitBreakerListener listener : listeners) {
+            listener.onStateTransition(name, from, to);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker{" +
+            "name='" + name + '\'' +
+            ", state=" + getState() +
+            '}';
+    }
+}
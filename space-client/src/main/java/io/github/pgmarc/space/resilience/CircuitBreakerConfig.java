@@ -0,0 +1,173 @@
+package io.github.pgmarc.space.resilience;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Settings of a {@link CircuitBreaker}. By default the breaker opens when at
+ * least half of the last 100 calls failed (with at least 20 recorded calls),
+ * stays open for 30 seconds and then lets 5 probe calls through. Slow calls
+ * are not taken into account unless a slow call rate threshold is set.
+ */
+public final class CircuitBreakerConfig {
+
+    private final float failureRateThreshold;
+    private final float slowCallRateThreshold;
+    private final Duration slowCallDuration;
+    private final int slidingWindowSize;
+    private final int minimumNumberOfCalls;
+    private final Duration waitDurationInOpenState;
+    private final int permittedCallsInHalfOpenState;
+
+    private CircuitBreakerConfig(Builder builder) {
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.slowCallRateThreshold = builder.slowCallRateThreshold;
+        this.slowCallDuration = builder.slowCallDuration;
+        this.slidingWindowSize = builder.slidingWindowSize;
+        this.minimumNumberOfCalls = builder.minimumNumberOfCalls;
+        this.waitDurationInOpenState = builder.waitDurationInOpenState;
+        this.permittedCallsInHalfOpenState = builder.permittedCallsInHalfOpenState;
+    }
+
+    public static CircuitBreakerConfig defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public float getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public float getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public Duration getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    public int getSlidingWindowSize() {
+        return slidingWindowSize;
+    }
+
+    public int getMinimumNumberOfCalls() {
+        return minimumNumberOfCalls;
+    }
+
+    public Duration getWaitDurationInOpenState() {
+        return waitDurationInOpenState;
+    }
+
+    public int getPermittedCallsInHalfOpenState() {
+        return permittedCallsInHalfOpenState;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreakerConfig{" +
+            "failureRateThreshold=" + failureRateThreshold +
+            ", slowCallRateThreshold=" + slowCallRateThreshold +
+            ", slowCallDuration=" + slowCallDuration +
+            ", slidingWindowSize=" + slidingWindowSize +
+            ", minimumNumberOfCalls=" + minimumNumberOfCalls +
+            ", waitDurationInOpenState=" + waitDurationInOpenState +
+            ", permittedCallsInHalfOpenState=" + permittedCallsInHalfOpenState +
+            '}';
+    }
+
+    public static final class Builder {
+
+        private float failureRateThreshold = 50;
+        private float slowCallRateThreshold = 100;
+        private Duration slowCallDuration = Duration.ofSeconds(5);
+        private int slidingWindowSize = 100;
+        private int minimumNumberOfCalls = 20;
+        private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+        private int permittedCallsInHalfOpenState = 5;
+
+        private Builder() {
+        }
+
+        private static void validatePercentage(float percentage, String name) {
+            if (percentage <= 0 || percentage > 100) {
+                throw new IllegalArgumentException(name + " must be greater than 0 and at most 100");
+            }
+        }
+
+        private static void validatePositive(int value, String name) {
+            if (value < 1) {
+                throw new IllegalArgumentException(name + " must be greater than 0");
+            }
+        }
+
+        /**
+         * Percentage of failed calls, connection errors or <code>5xx</code>
+         * responses, above which the breaker opens.
+         */
+        public Builder failureRateThreshold(float percentage) {
+            validatePercentage(percentage, "failure rate threshold");
+            this.failureRateThreshold = percentage;
+            return this;
+        }
+
+        /**
+         * Percentage of calls slower than <code>slowCallDuration</code>
+         * above which the breaker opens.
+         */
+        public Builder slowCallRateThreshold(float percentage, Duration slowCallDuration) {
+            validatePercentage(percentage, "slow call rate threshold");
+            Objects.requireNonNull(slowCallDuration, "slow call duration must not be null");
+            if (slowCallDuration.isNegative() || slowCallDuration.isZero()) {
+                throw new IllegalArgumentException("slow call duration must be positive");
+            }
+            this.slowCallRateThreshold = percentage;
+            this.slowCallDuration = slowCallDuration;
+            return this;
+        }
+
+        /**
+         * Number of most recent calls used to compute failure and slow call
+         * rates.
+         */
+        public Builder slidingWindowSize(int size) {
+            validatePositive(size, "sliding window size");
+            this.slidingWindowSize = size;
+            return this;
+        }
+
+        public Builder minimumNumberOfCalls(int calls) {
+            validatePositive(calls, "minimum number of calls");
+            this.minimumNumberOfCalls = calls;
+            return this;
+        }
+
+        public Builder waitDurationInOpenState(Duration duration) {
+            Objects.requireNonNull(duration, "wait duration in open state must not be null");
+            if (duration.isNegative()) {
+                throw new IllegalArgumentException("wait duration in open state must not be negative");
+            }
+            this.waitDurationInOpenState = duration;
+            return this;
+        }
+
+        public Builder permittedCallsInHalfOpenState(int calls) {
+            validatePositive(calls, "permitted calls in half open state");
+            this.permittedCallsInHalfOpenState = calls;
+            return this;
+        }
+
+        public CircuitBreakerConfig build() {
+            if (minimumNumberOfCalls > slidingWindowSize) {
+                throw new IllegalStateException("minimum number of calls must not exceed sliding window size");
+            }
+            if (permittedCallsInHalfOpenState > slidingWindowSize) {
+                throw new IllegalStateException(
+                    "permitted calls in half open state must not exceed sliding window size");
+            }
+            return new CircuitBreakerConfig(this);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.pgmarc.space.resilience;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+import io.github.pgmarc.space.Operation;
+import io.github.pgmarc.space.RequestTag;
+import io.github.pgmarc.space.exceptions.CallNotPermittedException;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Guards each SPACE endpoint with its own {@link CircuitBreaker}. Connection
+ * failures and <code>5xx</code> responses count as failed calls.
+ * <p>
+ * OkHttp only propagates {@link IOException} from interceptors, so rejected
+ * calls fail with an {@link IOException} whose cause is a
+ * {@link CallNotPermittedException}. Endpoints unwrap it before it reaches
+ * the caller.
+ */
+public final class CircuitBreakerInterceptor implements Interceptor {
+
+    private final Map<Operation.Endpoint, CircuitBreaker> circuitBreakers;
+
+    public CircuitBreakerInterceptor(Map<Operation.Endpoint, CircuitBreaker> circuitBreakers) {
+        this.circuitBreakers = new EnumMap<>(circuitBreakers);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        RequestTag tag = RequestTag.of(request);
+        CircuitBreaker circuitBreaker = tag == null ? null : circuitBreakers.get(tag.getOperation().getEndpoint());
+        if (circuitBreaker == null) {
+            return chain.proceed(request);
+        }
+
+        if (!circuitBreaker.tryAcquirePermission()) {
+            CallNotPermittedException rejection = new CallNotPermittedException(circuitBreaker.getName());
+            throw new IOException(rejection.getMessage(), rejection);
+        }
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            if (chain.call().isCanceled()) {
+                circuitBreaker.releasePermission();
+            } else {
+                circuitBreaker.onError(System.nanoTime() - start);
+            }
+            throw e;
+        }
+        if (response.code() >= 500) {
+            circuitBreaker.onError(System.nanoTime() - start);
+        } else {
+            circuitBreaker.onSuccess(System.nanoTime() - start);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,7 @@
+package io.github.pgmarc.space.resilience;
+
+@FunctionalInterface
+public interface CircuitBreakerListener {
+
+    void onStateTransition(String circuitBreaker, CircuitBreaker.State from, CircuitBreaker.State to);
+}
@@ -0,0 +1,127 @@
+package io.github.pgmarc.space.resilience;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Hedging settings for feature evaluations. When an evaluation has not
+ * answered after the hedge delay, an identical request is sent and the first
+ * successful response wins. Defaults: 100 ms fixed delay and hedges limited
+ * to 5% of the evaluations with bursts of 5.
+ */
+public final class HedgingPolicy {
+
+    private final Duration delay;
+    private final double percentile;
+    private final int minSamples;
+    private final double budgetRatio;
+    private final int budgetMaxTokens;
+
+    private HedgingPolicy(Builder builder) {
+        this.delay = builder.delay;
+        this.percentile = builder.percentile;
+        this.minSamples = builder.minSamples;
+        this.budgetRatio = builder.budgetRatio;
+        this.budgetMaxTokens = builder.budgetMaxTokens;
+    }
+
+    public static HedgingPolicy defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Fixed hedge delay, also used while too few latencies have been
+     * observed to compute an adaptive delay.
+     */
+    public Duration getDelay() {
+        return delay;
+    }
+
+    public boolean isAdaptive() {
+        return percentile > 0;
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    public int getBudgetMaxTokens() {
+        return budgetMaxTokens;
+    }
+
+    @Override
+    public String toString() {
+        return "HedgingPolicy{" +
+            "delay=" + delay +
+            ", percentile=" + percentile +
+            ", minSamples=" + minSamples +
+            ", budgetRatio=" + budgetRatio +
+            ", budgetMaxTokens=" + budgetMaxTokens +
+            '}';
+    }
+
+    public static final class Builder {
+
+        private Duration delay = Duration.ofMillis(100);
+        private double percentile;
+        private int minSamples = 100;
+        private double budgetRatio = 0.05;
+        private int budgetMaxTokens = 5;
+
+        private Builder() {
+        }
+
+        public Builder delay(Duration delay) {
+            Objects.requireNonNull(delay, "delay must not be null");
+            if (delay.isNegative()) {
+                throw new IllegalArgumentException("delay must not be negative");
+            }
+            this.delay = delay;
+            return this;
+        }
+
+        /**
+         * Hedges after the given percentile of the recently observed
+         * evaluation latencies, e.g. <code>95</code>. The fixed delay is used
+         * until <code>minSamples</code> latencies have been observed.
+         */
+        public Builder adaptiveDelay(double percentile, int minSamples) {
+            if (percentile <= 0 || percentile >= 100) {
+                throw new IllegalArgumentException("percentile must be between 0 and 100 exclusive");
+            }
+            if (minSamples < 1) {
+                throw new IllegalArgumentException("min samples must be greater than 0");
+            }
+            this.percentile = percentile;
+            this.minSamples = minSamples;
+            return this;
+        }
+
+        /**
+         * Hedges are allowed as long as they stay under <code>ratio</code>
+         * of the evaluations, with bursts of up to <code>maxTokens</code>.
+         */
+        public Builder budget(double ratio, int maxTokens) {
+            TokenBudget.validate(ratio, maxTokens);
+            this.budgetRatio = ratio;
+            this.budgetMaxTokens = maxTokens;
+            return this;
+        }
+
+        public HedgingPolicy build() {
+            return new HedgingPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package io.github.pgmarc.space.resilience;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.github.pgmarc.space.RequestTag;
+import io.github.pgmarc.space.exceptions.SpaceApiException;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Application interceptor retrying read operations (see
+ * {@link io.github.pgmarc.space.Operation#isRead()}) on connection failures,
+ * <code>429</code> and <code>5xx</code> responses. Delays follow an
+ * exponential backoff with full jitter, <code>Retry-After</code> takes
+ * precedence on <code>429</code> and <code>503</code>. Retries are only sent
+ * while the {@link TokenBudget} allows it, so they cannot amplify an outage.
+ */
+public final class RetryInterceptor implements Interceptor {
+
+    private static final String RETRY_AFTER = "Retry-After";
+
+    private final RetryPolicy policy;
+    private final TokenBudget budget;
+
+    public RetryInterceptor(RetryPolicy policy) {
+        this.policy = policy;
+        this.budget = new TokenBudget(policy.getBudgetRatio(), policy.getBudgetMaxTokens());
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        RequestTag tag = RequestTag.of(request);
+        if (tag == null || !tag.getOperation().isRead()) {
+            return chain.proceed(request);
+        }
+
+        budget.onRequest();
+        for (int attempt = 1; ; attempt++) {
+            Response response;
+            try {
+                response = chain.proceed(request);
+            } catch (IOException e) {
+                if (!isRetryable(chain, e) || !canRetry(attempt)) {
+                    throw e;
+                }
+                sleep(backoff(attempt));
+                continue;
+            }
+
+            if (!isRetryable(response.code()) || attempt >= policy.getMaxAttempts()) {
+                return response;
+            }
+            Duration delay = retryAfter(response);
+            if (delay == null) {
+                delay = backoff(attempt);
+            } else if (delay.compareTo(policy.getMaxRetryAfter()) > 0) {
+                return response;
+            }
+            if (!budget.tryAcquire()) {
+                return response;
+            }
+            response.close();
+            sleep(delay);
+        }
+    }
+
+    TokenBudget getBudget() {
+        return budget;
+    }
+
+    private boolean canRetry(int attempt) {
+        return attempt < policy.getMaxAttempts() && budget.tryAcquire();
+    }
+
+    private static boolean isRetryable(Chain chain, IOException e) {
+        return !chain.call().isCanceled() && !(e.getCause() instanceof SpaceApiException)
+            && !Thread.currentThread().isInterrupted();
+    }
+
+    private static boolean isRetryable(int statusCode) {
+        return statusCode == 429 || statusCode == 500 || statusCode == 502 || statusCode == 503
+            || statusCode == 504;
+    }
+
+    /**
+     * Full jitter: a random delay between zero and the capped exponential
+     * delay of the attempt.
+     */
+    private Duration backoff(int attempt) {
+        long base = policy.getBaseDelay().toMillis();
+        long cap = policy.getMaxDelay().toMillis();
+        long exponential = attempt >= 31 ? cap : Math.min(cap, base << (attempt - 1));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(exponential + 1));
+    }
+
+    static Duration retryAfter(Response response) {
+        if (response.code() != 429 && response.code() != 503) {
+            return null;
+        }
+        String value = response.header(RETRY_AFTER);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            // Retry-After may also be an HTTP date
+        }
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            Duration delay = Duration.between(ZonedDateTime.now(date.getZone()), date);
+            return delay.isNegative() ? Duration.ZERO : delay;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static void sleep(Duration delay) throws InterruptedIOException {
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting to retry");
+        }
+    }
+}
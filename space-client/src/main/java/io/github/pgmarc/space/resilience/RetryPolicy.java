@@ -0,0 +1,144 @@
+package io.github.pgmarc.space.resilience;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Retry settings for read operations, see {@link RetryInterceptor}.
+ * Defaults are conservative: 3 attempts, exponential backoff starting at
+ * 100 ms capped at 2 s, <code>Retry-After</code> honored up to 10 s, and
+ * retries limited to 10% of the regular traffic with bursts of 10.
+ */
+public final class RetryPolicy {
+
+    private final int maxAttempts;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+    private final Duration maxRetryAfter;
+    private final double budgetRatio;
+    private final int budgetMaxTokens;
+
+    private RetryPolicy(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.baseDelay = builder.baseDelay;
+        this.maxDelay = builder.maxDelay;
+        this.maxRetryAfter = builder.maxRetryAfter;
+        this.budgetRatio = builder.budgetRatio;
+        this.budgetMaxTokens = builder.budgetMaxTokens;
+    }
+
+    public static RetryPolicy defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public Duration getBaseDelay() {
+        return baseDelay;
+    }
+
+    public Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    public Duration getMaxRetryAfter() {
+        return maxRetryAfter;
+    }
+
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    public int getBudgetMaxTokens() {
+        return budgetMaxTokens;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy{" +
+            "maxAttempts=" + maxAttempts +
+            ", baseDelay=" + baseDelay +
+            ", maxDelay=" + maxDelay +
+            ", maxRetryAfter=" + maxRetryAfter +
+            ", budgetRatio=" + budgetRatio +
+            ", budgetMaxTokens=" + budgetMaxTokens +
+            '}';
+    }
+
+    public static final class Builder {
+
+        private int maxAttempts = 3;
+        private Duration baseDelay = Duration.ofMillis(100);
+        private Duration maxDelay = Duration.ofSeconds(2);
+        private Duration maxRetryAfter = Duration.ofSeconds(10);
+        private double budgetRatio = 0.1;
+        private int budgetMaxTokens = 10;
+
+        private Builder() {
+        }
+
+        private static void validateDuration(Duration duration, String name) {
+            Objects.requireNonNull(duration, name + " must not be null");
+            if (duration.isNegative()) {
+                throw new IllegalArgumentException(name + " must not be negative");
+            }
+        }
+
+        /**
+         * Maximum number of attempts including the first one.
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("max attempts must be greater than 0");
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        public Builder baseDelay(Duration baseDelay) {
+            validateDuration(baseDelay, "base delay");
+            this.baseDelay = baseDelay;
+            return this;
+        }
+
+        public Builder maxDelay(Duration maxDelay) {
+            validateDuration(maxDelay, "max delay");
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        /**
+         * Responses asking to wait longer than <code>maxRetryAfter</code>
+         * are returned to the caller instead of being retried.
+         */
+        public Builder maxRetryAfter(Duration maxRetryAfter) {
+            validateDuration(maxRetryAfter, "max retry after");
+            this.maxRetryAfter = maxRetryAfter;
+            return this;
+        }
+
+        /**
+         * Retries are allowed as long as they stay under <code>ratio</code>
+         * of the regular requests, with bursts of up to <code>maxTokens</code>.
+         */
+        public Builder budget(double ratio, int maxTokens) {
+            TokenBudget.validate(ratio, maxTokens);
+            this.budgetRatio = ratio;
+            this.budgetMaxTokens = maxTokens;
+            return this;
+        }
+
+        public RetryPolicy build() {
+            if (baseDelay.compareTo(maxDelay) > 0) {
+                throw new IllegalStateException("base delay must not exceed max delay");
+            }
+            return new RetryPolicy(this);
+        }
+    }
+}
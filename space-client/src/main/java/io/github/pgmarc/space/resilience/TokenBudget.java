@@ -0,0 +1,57 @@
+package io.github.pgmarc.space.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket capping extra requests (retries, hedges) to a ratio of the
+ * regular traffic. Every regular request deposits <code>ratio</code> tokens
+ * up to <code>maxTokens</code>, every extra request withdraws a whole token.
+ * The bucket starts full so that a burst of <code>maxTokens</code> extra
+ * requests is always allowed.
+ */
+public final class TokenBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong tokens;
+
+    public TokenBudget(double ratio, int maxTokens) {
+        validate(ratio, maxTokens);
+        this.deposit = Math.round(ratio * SCALE);
+        this.capacity = maxTokens * SCALE;
+        this.tokens = new AtomicLong(capacity);
+    }
+
+    static void validate(double ratio, int maxTokens) {
+        if (ratio < 0 || ratio > 1) {
+            throw new IllegalArgumentException("budget ratio must be between 0 and 1");
+        }
+        if (maxTokens < 1) {
+            throw new IllegalArgumentException("budget max tokens must be greater than 0");
+        }
+    }
+
+    public void onRequest() {
+        if (deposit == 0) {
+            return;
+        }
+        tokens.accumulateAndGet(deposit, (current, amount) -> Math.min(capacity, current + amount));
+    }
+
+    public boolean tryAcquire() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    public double getAvailableTokens() {
+        return (double) tokens.get() / SCALE;
+    }
+}
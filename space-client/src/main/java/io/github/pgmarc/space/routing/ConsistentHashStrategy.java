@@ -0,0 +1,162 @@
+package io.github.pgmarc.space.routing;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.github.pgmarc.space.RequestTag;
+
+/**
+ * Maps every user to a node of a hash ring with <code>virtualNodes</code>
+ * points per node, so that all the calls of a user hit the same SPACE
+ * replica and its caches. Adding or removing one of N nodes only moves the
+ * users of about 1/N of the ring.
+ * <p>
+ * With a load factor, a node is skipped when its in-flight requests exceed
+ * <code>loadFactor</code> times the average and the next node clockwise is
+ * tried instead (consistent hashing with bounded loads).
+ */
+final class ConsistentHashStrategy implements LoadBalancingStrategy {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final int RING_SLOTS = 4;
+
+    private final int virtualNodes;
+    private final double loadFactor;
+    private final AtomicReferenceArray<Ring> rings = new AtomicReferenceArray<>(RING_SLOTS);
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    private final LongAdder ringBuilds = new LongAdder();
+
+    /**
+     * @param loadFactor <code>0</code> to disable bounded loads
+     */
+    ConsistentHashStrategy(int virtualNodes, double loadFactor) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtual nodes must be greater than 0");
+        }
+        if (loadFactor != 0 && loadFactor <= 1) {
+            throw new IllegalArgumentException("load factor must be greater than 1");
+        }
+        this.virtualNodes = virtualNodes;
+        this.loadFactor = loadFactor;
+    }
+
+    @Override
+    public NodeState select(List<NodeState> candidates, RequestTag tag) {
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        Ring current = ring(candidates);
+        int index = current.indexOf(hash(tag.getUserId()));
+        if (loadFactor == 0) {
+            return current.owners[index];
+        }
+        return boundedLoadOwner(current, index, candidates);
+    }
+
+    private NodeState boundedLoadOwner(Ring current, int index, List<NodeState> candidates) {
+        long inFlight = 0;
+        for (NodeState candidate : candidates) {
+            inFlight += candidate.getOutstandingRequests();
+        }
+        long capacity = (long) Math.ceil(loadFactor * (inFlight + 1) / candidates.size());
+        int points = current.owners.length;
+        for (int i = 0; i < points; i++) {
+            NodeState owner = current.owners[(index + i) % points];
+            if (owner.getOutstandingRequests() < capacity) {
+                return owner;
+            }
+        }
+        return current.owners[index];
+    }
+
+    /**
+     * Candidate lists are replaced, never mutated, when node health changes,
+     * and every node group passes its own list. A ring is kept for each of
+     * the last few lists seen, so that the read and write groups do not
+     * evict each other's ring.
+     */
+    private Ring ring(List<NodeState> candidates) {
+        for (int i = 0; i < RING_SLOTS; i++) {
+            Ring cached = rings.get(i);
+            if (cached != null && cached.candidates == candidates) {
+                return cached;
+            }
+        }
+        Ring built = new Ring(candidates, virtualNodes);
+        ringBuilds.increment();
+        rings.set(Math.floorMod(nextSlot.getAndIncrement(), RING_SLOTS), built);
+        return built;
+    }
+
+    long getRingBuilds() {
+        return ringBuilds.sum();
+    }
+
+    /**
+     * FNV-1a over the UTF-16 code units followed by the MurmurHash3
+     * finalizer, which spreads the similar keys of virtual nodes evenly.
+     */
+    static long hash(String key) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static final class Ring {
+
+        private final List<NodeState> candidates;
+        private final long[] points;
+        private final NodeState[] owners;
+
+        private Ring(List<NodeState> candidates, int virtualNodes) {
+            this.candidates = candidates;
+            int size = candidates.size() * virtualNodes;
+            long[] keyed = new long[size];
+            NodeState[] byKey = new NodeState[size];
+            int i = 0;
+            for (NodeState candidate : candidates) {
+                String prefix = candidate.getNode().toString() + '#';
+                for (int v = 0; v < virtualNodes; v++) {
+                    keyed[i] = hash(prefix + v);
+                    byKey[i] = candidate;
+                    i++;
+                }
+            }
+            Integer[] order = new Integer[size];
+            for (int j = 0; j < size; j++) {
+                order[j] = j;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(keyed[a], keyed[b]));
+            this.points = new long[size];
+            this.owners = new NodeState[size];
+            for (int j = 0; j < size; j++) {
+                points[j] = keyed[order[j]];
+                owners[j] = byKey[order[j]];
+            }
+        }
+
+        /**
+         * Index of the first point clockwise from <code>hash</code>.
+         */
+        private int indexOf(long hash) {
+            int index = Arrays.binarySearch(points, hash);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return index == points.length ? 0 : index;
+        }
+    }
+}
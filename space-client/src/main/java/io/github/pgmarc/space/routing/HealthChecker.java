@@ -0,0 +1,68 @@
+package io.github.pgmarc.space.routing;
+
+import java.io.IOException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Periodically sends a <code>HEAD</code> request to every node. A
+ * connection failure or a <code>5xx</code> response takes the node out of
+ * rotation, any other response puts it back.
+ */
+final class HealthChecker {
+
+    private final RoutingInterceptor routing;
+    private final OkHttpClient probeClient;
+    private final HttpUrl probeUrl;
+    private final long intervalMillis;
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    HealthChecker(RoutingInterceptor routing, OkHttpClient client, HttpUrl baseUrl, RoutingPolicy policy) {
+        this.routing = routing;
+        OkHttpClient.Builder probeClientBuilder = client.newBuilder();
+        probeClientBuilder.interceptors().clear();
+        this.probeClient = probeClientBuilder.build();
+        this.probeUrl = policy.getHealthCheckPath().isEmpty() ? baseUrl
+            : baseUrl.newBuilder().addPathSegments(policy.getHealthCheckPath()).build();
+        this.intervalMillis = policy.getHealthCheckInterval().toMillis();
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "space-client-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void start() {
+        scheduler.scheduleWithFixedDelay(this::probeAll, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void probeAll() {
+        for (NodeState node : routing.getNodeStates()) {
+            probe(node);
+        }
+    }
+
+    private void probe(NodeState node) {
+        HttpUrl url = probeUrl.newBuilder().host(node.getNode().getHost()).port(node.getNode().getPort()).build();
+        probeClient.newCall(new Request.Builder().url(url).head().build()).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                routing.updateHealth(node, false);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    routing.updateHealth(node, response.code() < 500);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.pgmarc.space.routing;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.pgmarc.space.RequestTag;
+
+/**
+ * Chooses the node a request is sent to. Implementations must be thread
+ * safe, they are called concurrently by every in-flight request.
+ */
+@FunctionalInterface
+public interface LoadBalancingStrategy {
+
+    /**
+     * @param candidates nodes in rotation, never empty
+     * @param tag operation and user of the request
+     */
+    NodeState select(List<NodeState> candidates, RequestTag tag);
+
+    /**
+     * Cycles through the candidates in order.
+     */
+    static LoadBalancingStrategy roundRobin() {
+        AtomicInteger next = new AtomicInteger();
+        return (candidates, tag) -> candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    /**
+     * Picks the candidate with the fewest in-flight requests. The scan
+     * starts at a random candidate so that ties are spread evenly.
+     */
+    static LoadBalancingStrategy leastOutstanding() {
+        return (candidates, tag) -> {
+            int size = candidates.size();
+            int start = size == 1 ? 0 : ThreadLocalRandom.current().nextInt(size);
+            NodeState best = candidates.get(start);
+            for (int i = 1; i < size && best.getOutstandingRequests() > 0; i++) {
+                NodeState candidate = candidates.get((start + i) % size);
+                if (candidate.getOutstandingRequests() < best.getOutstandingRequests()) {
+                    best = candidate;
+                }
+            }
+            return best;
+        };
+    }
+
+    /**
+     * Picks two distinct random candidates and keeps the one with fewer
+     * in-flight requests. Close to least outstanding requests without
+     * scanning every node nor herding onto the same one.
+     */
+    static LoadBalancingStrategy powerOfTwoChoices() {
+        return (candidates, tag) -> {
+            int size = candidates.size();
+            if (size == 1) {
+                return candidates.get(0);
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(size);
+            int second = random.nextInt(size - 1);
+            if (second >= first) {
+                second++;
+            }
+            NodeState a = candidates.get(first);
+            NodeState b = candidates.get(second);
+            return a.getOutstandingRequests() <= b.getOutstandingRequests() ? a : b;
+        };
+    }
+
+    /**
+     * Sends all the calls of a user to the same node using a consistent
+     * hash ring with <code>virtualNodes</code> points per node. Around 100
+     * to 200 virtual nodes keep the users evenly spread.
+     */
+    static LoadBalancingStrategy consistentHash(int virtualNodes) {
+        return new ConsistentHashStrategy(virtualNodes, 0);
+    }
+
+    /**
+     * Like {@link #consistentHash(int)}, but a node with more than
+     * <code>loadFactor</code> times the average in-flight requests is
+     * skipped for the next one on the ring, so hot users cannot overload a
+     * single node. Typical load factors are between 1.25 and 2.
+     */
+    static LoadBalancingStrategy consistentHash(int virtualNodes, double loadFactor) {
+        return new ConsistentHashStrategy(virtualNodes, loadFactor);
+    }
+}
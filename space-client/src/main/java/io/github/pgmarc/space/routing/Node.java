@@ -0,0 +1,53 @@
+package io.github.pgmarc.space.routing;
+
+import java.util.Objects;
+
+/**
+ * Address of a SPACE replica.
+ */
+public final class Node {
+
+    private final String host;
+    private final int port;
+
+    private Node(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    public static Node of(String host, int port) {
+        Objects.requireNonNull(host, "host must not be null");
+        if (host.isBlank()) {
+            throw new IllegalArgumentException("host must not be blank");
+        }
+        if (port < 1 || port > 65535) {
+            throw new IllegalArgumentException("port must be between 1 and 65535");
+        }
+        return new Node(host, port);
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        Node node = (Node) o;
+        return port == node.port && host.equals(node.host);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(host, port);
+    }
+
+    @Override
+    public String toString() {
+        return host + ":" + port;
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.pgmarc.space.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Nodes serving one kind of traffic. The healthy subset is recomputed when
+ * a node changes health instead of being filtered on every request. When
+ * every node is unhealthy all of them stay in rotation: failing open beats
+ * refusing every call on a probe false positive.
+ */
+final class NodeGroup {
+
+    private final List<NodeState> nodes;
+    private volatile List<NodeState> candidates;
+
+    NodeGroup(List<NodeState> nodes) {
+        this.nodes = List.copyOf(nodes);
+        this.candidates = this.nodes;
+    }
+
+    List<NodeState> candidates() {
+        return candidates;
+    }
+
+    /**
+     * Synchronized so that concurrent health changes cannot publish a list
+     * computed before the latest change.
+     */
+    synchronized void refresh() {
+        List<NodeState> healthy = new ArrayList<>(nodes.size());
+        for (NodeState node : nodes) {
+            if (node.isHealthy()) {
+                healthy.add(node);
+            }
+        }
+        candidates = healthy.isEmpty() ? nodes : List.copyOf(healthy);
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.pgmarc.space.routing;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runtime view of a {@link Node} kept by a client: whether it is in
+ * rotation and how many of its requests are in flight.
+ */
+public final class NodeState {
+
+    private final Node node;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private volatile boolean healthy = true;
+
+    NodeState(Node node) {
+        this.node = node;
+    }
+
+    public Node getNode() {
+        return node;
+    }
+
+    public int getOutstandingRequests() {
+        return outstanding.get();
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    void acquire() {
+        outstanding.incrementAndGet();
+    }
+
+    void release() {
+        outstanding.decrementAndGet();
+    }
+
+    /**
+     * Returns whether the health of the node changed.
+     */
+    boolean setHealthy(boolean healthy) {
+        if (this.healthy == healthy) {
+            return false;
+        }
+        this.healthy = healthy;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "NodeState{" +
+            "node=" + node +
+            ", outstanding=" + outstanding +
+            ", healthy=" + healthy +
+            '}';
+    }
+}
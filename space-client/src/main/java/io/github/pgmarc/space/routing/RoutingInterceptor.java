@@ -0,0 +1,106 @@
+package io.github.pgmarc.space.routing;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.pgmarc.space.RequestTag;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Rewrites the host and port of tagged SPACE requests to the node chosen
+ * by the {@link LoadBalancingStrategy}. A node that fails to connect is
+ * taken out of rotation until a health probe succeeds again. Requests
+ * without a {@link RequestTag} are sent unchanged.
+ */
+public final class RoutingInterceptor implements Interceptor {
+
+    private final RoutingPolicy policy;
+    private final Map<Node, NodeState> nodes = new LinkedHashMap<>();
+    private final NodeGroup readNodes;
+    private final NodeGroup writeNodes;
+    private HealthChecker healthChecker;
+
+    public RoutingInterceptor(RoutingPolicy policy) {
+        this.policy = policy;
+        for (Node node : policy.getNodes()) {
+            nodes.put(node, new NodeState(node));
+        }
+        this.readNodes = new NodeGroup(states(policy.getReadNodes()));
+        this.writeNodes = new NodeGroup(states(policy.getWriteNodes()));
+    }
+
+    private List<NodeState> states(List<Node> group) {
+        List<NodeState> states = new ArrayList<>(group.size());
+        for (Node node : group) {
+            states.add(nodes.get(node));
+        }
+        return states;
+    }
+
+    /**
+     * Starts probing every node in the background. <code>client</code> is
+     * the SPACE client's OkHttp client, probes share its connection pool
+     * but skip its interceptors.
+     */
+    public synchronized void startHealthChecks(OkHttpClient client, HttpUrl baseUrl) {
+        if (healthChecker == null) {
+            healthChecker = new HealthChecker(this, client, baseUrl, policy);
+            healthChecker.start();
+        }
+    }
+
+    public List<NodeState> getNodeStates() {
+        return List.copyOf(nodes.values());
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        RequestTag tag = RequestTag.of(request);
+        if (tag == null) {
+            return chain.proceed(request);
+        }
+
+        NodeGroup group = tag.getOperation().isRead() ? readNodes : writeNodes;
+        NodeState node = policy.getStrategy().select(group.candidates(), tag);
+        HttpUrl url = request.url().newBuilder()
+            .host(node.getNode().getHost())
+            .port(node.getNode().getPort())
+            .build();
+        node.acquire();
+        try {
+            return chain.proceed(request.newBuilder().url(url).build());
+        } catch (IOException e) {
+            if (isNodeFailure(chain, e)) {
+                updateHealth(node, false);
+            }
+            throw e;
+        } finally {
+            node.release();
+        }
+    }
+
+    /**
+     * Cancelled calls, such as the loser of a hedged evaluation, and
+     * timeouts, which a slow response also causes, say nothing about whether
+     * the node is up.
+     */
+    private static boolean isNodeFailure(Chain chain, IOException e) {
+        return !chain.call().isCanceled() && !(e instanceof InterruptedIOException);
+    }
+
+    void updateHealth(NodeState node, boolean healthy) {
+        if (node.setHealthy(healthy)) {
+            readNodes.refresh();
+            writeNodes.refresh();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.pgmarc.space.routing;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Client side load balancing across SPACE replicas. Read operations
+ * (<code>getContractByUserId</code>, <code>evaluate</code> and
+ * <code>generatePricingTokenForUser</code>) are sent to the read nodes,
+ * every other operation to the write nodes. Nodes are probed in the
+ * background every health check interval and taken out of rotation while
+ * they fail.
+ */
+public final class RoutingPolicy {
+
+    private final List<Node> readNodes;
+    private final List<Node> writeNodes;
+    private final LoadBalancingStrategy strategy;
+    private final Duration healthCheckInterval;
+    private final String healthCheckPath;
+
+    private RoutingPolicy(Builder builder) {
+        this.readNodes = List.copyOf(builder.readNodes);
+        this.writeNodes = List.copyOf(builder.writeNodes);
+        this.strategy = builder.strategy;
+        this.healthCheckInterval = builder.healthCheckInterval;
+        this.healthCheckPath = builder.healthCheckPath;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<Node> getReadNodes() {
+        return readNodes;
+    }
+
+    public List<Node> getWriteNodes() {
+        return writeNodes;
+    }
+
+    public LoadBalancingStrategy getStrategy() {
+        return strategy;
+    }
+
+    public Duration getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    public String getHealthCheckPath() {
+        return healthCheckPath;
+    }
+
+    /**
+     * Read and write nodes without duplicates, in the order they were added.
+     */
+    public List<Node> getNodes() {
+        Set<Node> nodes = new LinkedHashSet<>(readNodes);
+        nodes.addAll(writeNodes);
+        return List.copyOf(nodes);
+    }
+
+    @Override
+    public String toString() {
+        return "RoutingPolicy{" +
+            "readNodes=" + readNodes +
+            ", writeNodes=" + writeNodes +
+            ", healthCheckInterval=" + healthCheckInterval +
+            ", healthCheckPath='" + healthCheckPath + '\'' +
+            '}';
+    }
+
+    public static final class Builder {
+
+        private final Set<Node> readNodes = new LinkedHashSet<>();
+        private final Set<Node> writeNodes = new LinkedHashSet<>();
+        private LoadBalancingStrategy strategy = LoadBalancingStrategy.powerOfTwoChoices();
+        private Duration healthCheckInterval = Duration.ofSeconds(10);
+        private String healthCheckPath = "";
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a node serving both read and write operations.
+         */
+        public Builder addNode(String host, int port) {
+            Node node = Node.of(host, port);
+            readNodes.add(node);
+            writeNodes.add(node);
+            return this;
+        }
+
+        public Builder addReadNode(String host, int port) {
+            readNodes.add(Node.of(host, port));
+            return this;
+        }
+
+        public Builder addWriteNode(String host, int port) {
+            writeNodes.add(Node.of(host, port));
+            return this;
+        }
+
+        public Builder strategy(LoadBalancingStrategy strategy) {
+            this.strategy = Objects.requireNonNull(strategy, "strategy must not be null");
+            return this;
+        }
+
+        public Builder healthCheckInterval(Duration interval) {
+            Objects.requireNonNull(interval, "health check interval must not be null");
+            if (interval.isNegative() || interval.isZero()) {
+                throw new IllegalArgumentException("health check interval must be positive");
+            }
+            this.healthCheckInterval = interval;
+            return this;
+        }
+
+        /**
+         * Path, relative to the SPACE URL path prefix, probed with a
+         * <code>HEAD</code> request. Any response other than a
+         * <code>5xx</code> keeps the node in rotation.
+         */
+        public Builder healthCheckPath(String path) {
+            this.healthCheckPath = Objects.requireNonNull(path, "health check path must not be null");
+            return this;
+        }
+
+        public RoutingPolicy build() {
+            if (readNodes.isEmpty()) {
+                throw new IllegalStateException("at least one read node is required");
+            }
+            if (writeNodes.isEmpty()) {
+                throw new IllegalStateException("at least one write node is required");
+            }
+            return new RoutingPolicy(this);
+        }
+    }
+}
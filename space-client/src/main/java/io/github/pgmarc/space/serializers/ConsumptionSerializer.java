@@ -1,9 +1,13 @@
 package io.github.pgmarc.space.serializers;
 
 import io.github.pgmarc.space.features.UsageLimitConsumption;
+import io.github.pgmarc.space.json.JsonWriter;
 import org.json.JSONObject;
 
-public final class ConsumptionSerializer implements JsonSerializable<UsageLimitConsumption> {
+import java.io.IOException;
+
+public final class ConsumptionSerializer implements JsonSerializable<UsageLimitConsumption>,
+    JsonStreamSerializable<UsageLimitConsumption> {
 
     private static String formatUsageLimitConsumptionKey(String serviceName, String usageLimitName) {
         return serviceName + "-" + usageLimitName;
@@ -19,4 +23,14 @@ public final class ConsumptionSerializer implements JsonSerializable<UsageLimitC
 
         return jsonObject;
     }
+
+    @Override
+    public void writeJson(JsonWriter writer, UsageLimitConsumption usageLimitConsumption) throws IOException {
+        String prefix = usageLimitConsumption.getService() + "-";
+        writer.beginObject();
+        for (UsageLimitConsumption.Item<? extends  Number> item: usageLimitConsumption.getConsumption()) {
+            writer.name(prefix, item.getUsageLimit()).value(item.getQuantity());
+        }
+        writer.endObject();
+    }
 }
@@ -0,0 +1,14 @@
+package io.github.pgmarc.space.serializers;
+
+import java.io.IOException;
+
+import io.github.pgmarc.space.json.JsonWriter;
+
+/**
+ * Serializer writing its value to a {@link JsonWriter} positioned where that
+ * value goes.
+ */
+public interface JsonStreamSerializable<T> {
+
+    void writeJson(JsonWriter writer, T object) throws IOException;
+}
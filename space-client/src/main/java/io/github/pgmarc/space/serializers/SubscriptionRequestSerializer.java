@@ -1,5 +1,6 @@
 package io.github.pgmarc.space.serializers;
 
+import java.io.IOException;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 
@@ -10,8 +11,10 @@ import io.github.pgmarc.space.contracts.Service;
 import io.github.pgmarc.space.contracts.Subscription;
 import io.github.pgmarc.space.contracts.SubscriptionRequest;
 import io.github.pgmarc.space.contracts.UserContact;
+import io.github.pgmarc.space.json.JsonWriter;
 
-public class SubscriptionRequestSerializer implements JsonSerializable<SubscriptionRequest> {
+public class SubscriptionRequestSerializer implements JsonSerializable<SubscriptionRequest>,
+    JsonStreamSerializable<SubscriptionRequest> {
 
     @Override
     public JSONObject toJson(SubscriptionRequest object) {
@@ -79,4 +82,73 @@ public class SubscriptionRequestSerializer implements JsonSerializable<Subscript
         return Collections.unmodifiableMap(res);
     }
 
+    /**
+     * Writes the same document as {@link #toJson(SubscriptionRequest)}
+     * without building intermediate maps. Members may come in a different
+     * order.
+     */
+    @Override
+    public void writeJson(JsonWriter writer, SubscriptionRequest object) throws IOException {
+        writer.beginObject();
+        writer.name(Subscription.Keys.USER_CONTACT.toString());
+        writeUserContact(writer, object.getUserContact());
+        writer.name(Subscription.Keys.BILLING_PERIOD.toString()).beginObject()
+            .name("autoRenew").value(object.getRenewalPeriod() != null);
+        if (object.getRenewalPeriod() != null) {
+            writer.name("renewalDays").value(object.getRenewalPeriod().getDays());
+        }
+        writer.endObject();
+        writeServices(writer, object.getServices());
+        writer.endObject();
+    }
+
+    private static void writeUserContact(JsonWriter writer, UserContact userContact) throws IOException {
+        writer.beginObject()
+            .name(UserContact.Keys.USER_ID.toString()).value(userContact.getUserId())
+            .name(UserContact.Keys.USERNAME.toString()).value(userContact.getUsername());
+        writeOptional(writer, UserContact.Keys.FIRST_NAME, userContact.getFirstName());
+        writeOptional(writer, UserContact.Keys.LAST_NAME, userContact.getLastName());
+        writeOptional(writer, UserContact.Keys.EMAIL, userContact.getEmail());
+        writeOptional(writer, UserContact.Keys.PHONE, userContact.getPhone());
+        writer.endObject();
+    }
+
+    private static void writeOptional(JsonWriter writer, UserContact.Keys key, Optional<String> value)
+        throws IOException {
+        if (value.isPresent()) {
+            writer.name(key.toString()).value(value.get());
+        }
+    }
+
+    /**
+     * Writes the <code>contractedServices</code>,
+     * <code>subscriptionPlans</code> and <code>subscriptionAddOns</code>
+     * members of <code>services</code>.
+     */
+    static void writeServices(JsonWriter writer, Collection<Service> services) throws IOException {
+        writer.name(Subscription.Keys.CONTRACTED_SERVICES.toString()).beginObject();
+        for (Service service : services) {
+            writer.name(service.getName()).value(service.getVersion());
+        }
+        writer.endObject();
+
+        writer.name(Subscription.Keys.SUBSCRIPTION_PLANS.toString()).beginObject();
+        for (Service service : services) {
+            Optional<String> plan = service.getPlan();
+            if (plan.isPresent()) {
+                writer.name(service.getName()).value(plan.get());
+            }
+        }
+        writer.endObject();
+
+        writer.name(Subscription.Keys.SUBSCRIPTION_ADDONS.toString()).beginObject();
+        for (Service service : services) {
+            writer.name(service.getName()).beginObject();
+            for (AddOn addOn : service.getAddOns()) {
+                writer.name(addOn.getName()).value(addOn.getQuantity());
+            }
+            writer.endObject();
+        }
+        writer.endObject();
+    }
 }
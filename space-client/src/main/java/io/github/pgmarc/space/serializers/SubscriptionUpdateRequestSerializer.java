@@ -1,11 +1,15 @@
 package io.github.pgmarc.space.serializers;
 
+import java.io.IOException;
+
 import org.json.JSONObject;
 
 import io.github.pgmarc.space.contracts.Subscription;
 import io.github.pgmarc.space.contracts.SubscriptionUpdateRequest;
+import io.github.pgmarc.space.json.JsonWriter;
 
-public class SubscriptionUpdateRequestSerializer implements JsonSerializable<SubscriptionUpdateRequest> {
+public class SubscriptionUpdateRequestSerializer implements JsonSerializable<SubscriptionUpdateRequest>,
+    JsonStreamSerializable<SubscriptionUpdateRequest> {
 
     @Override
     public JSONObject toJson(SubscriptionUpdateRequest subscription) {
@@ -19,4 +23,10 @@ public class SubscriptionUpdateRequestSerializer implements JsonSerializable<Sub
                         SubscriptionRequestSerializer.subscriptionAddOns(subscription.getServices()));
     }
 
+    @Override
+    public void writeJson(JsonWriter writer, SubscriptionUpdateRequest subscription) throws IOException {
+        writer.beginObject();
+        SubscriptionRequestSerializer.writeServices(writer, subscription.getServices());
+        writer.endObject();
+    }
 }
@@ -0,0 +1,102 @@
+package io.github.pgmarc.space;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.features.FeatureEvaluationResult;
+
+class AdaptiveTtlTest {
+
+    private static final long POSITIVE_TTL = TimeUnit.SECONDS.toNanos(30);
+    private static final long NEGATIVE_TTL = TimeUnit.SECONDS.toNanos(5);
+    private static final long NOW = Instant.parse("2025-07-30T23:59:00Z").toEpochMilli();
+
+    private final AtomicLong nextReset = new AtomicLong(AdaptiveTtl.UNKNOWN);
+    private final AdaptiveTtl adaptiveTtl = new AdaptiveTtl(EvaluationCachePolicy.builder()
+        .positiveTtl(Duration.ofNanos(POSITIVE_TTL))
+        .negativeTtl(Duration.ofNanos(NEGATIVE_TTL))
+        .adaptiveTtl(true)
+        .build(), (userId, service, usageLimit) -> nextReset.get(), () -> NOW);
+
+    private static FeatureEvaluationResult pets(boolean available, long used) {
+        return FeatureEvaluationResult.builder()
+            .available(available)
+            .used("maxPets", used)
+            .limit("maxPets", 100)
+            .build();
+    }
+
+    private long timeToLive(FeatureEvaluationResult result, AdaptiveTtl.Observation observation) {
+        return adaptiveTtl.timeToLive("alice", "petclinic", result, observation);
+    }
+
+    private long timeToLive(FeatureEvaluationResult result) {
+        return timeToLive(result, AdaptiveTtl.Observation.of("pets", 0, result, null));
+    }
+
+    @Test
+    void givenNoUsageLimitsShouldUseFixedTtls() {
+        FeatureEvaluationResult available = FeatureEvaluationResult.builder().available(true).build();
+        FeatureEvaluationResult unavailable = FeatureEvaluationResult.builder().available(false).build();
+
+        assertThat(timeToLive(available)).isEqualTo(POSITIVE_TTL);
+        assertThat(timeToLive(unavailable)).isEqualTo(NEGATIVE_TTL);
+    }
+
+    @Test
+    void givenHeadroomShouldScalePositiveTtl() {
+        assertThat(timeToLive(pets(true, 0))).isEqualTo(POSITIVE_TTL);
+        assertThat(timeToLive(pets(true, 75))).isEqualTo(POSITIVE_TTL / 4);
+    }
+
+    @Test
+    void givenUserNearTheLimitShouldNotCache() {
+        assertThat(timeToLive(pets(true, 99))).isZero();
+        assertThat(timeToLive(pets(false, 100))).isEqualTo(NEGATIVE_TTL);
+    }
+
+    @Test
+    void givenObservedConsumptionShouldBoundTtlByTimeToExhaustion() {
+        AdaptiveTtl.Observation first = AdaptiveTtl.Observation.of("pets", 0, pets(true, 10), null);
+        long oneSecond = TimeUnit.SECONDS.toNanos(1);
+        AdaptiveTtl.Observation second = AdaptiveTtl.Observation.of("pets", oneSecond, pets(true, 20), first);
+
+        // 80 left at 10 per second lasts 8 seconds, half of it is cached
+        assertThat(timeToLive(pets(true, 20), second)).isEqualTo(TimeUnit.SECONDS.toNanos(4));
+
+        AdaptiveTtl.Observation idle = AdaptiveTtl.Observation.of("pets", 2 * oneSecond, pets(true, 20), second);
+        assertThat(timeToLive(pets(true, 20), idle)).isEqualTo(TimeUnit.SECONDS.toNanos(8));
+
+        AdaptiveTtl.Observation other = AdaptiveTtl.Observation.of("visits", 3 * oneSecond, pets(true, 20), idle);
+        assertThat(timeToLive(pets(true, 20), other)).isEqualTo(POSITIVE_TTL * 80 / 100);
+    }
+
+    @Test
+    void givenKnownResetShouldNotOutliveIt() {
+        nextReset.set(NOW + 10_000);
+        assertThat(timeToLive(pets(true, 0))).isEqualTo(TimeUnit.SECONDS.toNanos(10));
+        assertThat(timeToLive(pets(false, 100))).isEqualTo(NEGATIVE_TTL);
+
+        nextReset.set(NOW - 10_000);
+        assertThat(timeToLive(pets(true, 0))).isEqualTo(POSITIVE_TTL);
+    }
+
+    @Test
+    void givenSubscriptionShouldFindRenewableResets() throws IOException {
+        Subscription subscription = TestContracts.subscription();
+
+        assertThat(AdaptiveTtl.nextReset(subscription, "Petclinic", "maxVisits"))
+            .isEqualTo(Instant.parse("2025-07-31T00:00:00Z").toEpochMilli());
+        assertThat(AdaptiveTtl.nextReset(subscription, "petclinic", "maxPets")).isEqualTo(AdaptiveTtl.UNKNOWN);
+        assertThat(AdaptiveTtl.nextReset(subscription, "zoom", "maxVisits")).isEqualTo(AdaptiveTtl.UNKNOWN);
+        assertThat(AdaptiveTtl.nextReset(null, "petclinic", "maxVisits")).isEqualTo(AdaptiveTtl.UNKNOWN);
+    }
+}
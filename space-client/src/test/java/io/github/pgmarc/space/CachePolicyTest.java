@@ -0,0 +1,79 @@
+package io.github.pgmarc.space;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class CachePolicyTest {
+
+    @Test
+    void givenDefaultsShouldHoldSixtyFourMebibytesForOneMinute() {
+        CachePolicy policy = CachePolicy.defaults();
+
+        assertThat(policy.getMaximumWeight()).isEqualTo(64L << 20);
+        assertThat(policy.getExpireAfterWrite()).isEqualTo(Duration.ofMinutes(1));
+        assertThat(policy.getRefreshAfterWrite()).isEmpty();
+        assertThat(policy.getMaximumConcurrentRefreshes()).isEqualTo(16);
+    }
+
+    @Test
+    void givenSettingsShouldBuildPolicy() {
+        CachePolicy policy = CachePolicy.builder()
+            .maximumWeight(1024)
+            .expireAfterWrite(Duration.ofSeconds(5))
+            .build();
+
+        assertThat(policy.getMaximumWeight()).isEqualTo(1024);
+        assertThat(policy.getExpireAfterWrite()).isEqualTo(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void givenInvalidSettingsShouldThrow() {
+        CachePolicy.Builder builder = CachePolicy.builder();
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> builder.maximumWeight(0))
+            .withMessage("maximum weight must be greater than 0");
+        assertThatExceptionOfType(NullPointerException.class)
+            .isThrownBy(() -> builder.expireAfterWrite(null))
+            .withMessage("expire after write must not be null");
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> builder.expireAfterWrite(Duration.ZERO))
+            .withMessage("expire after write must be positive");
+    }
+
+    @Test
+    void givenRefreshSettingsShouldBuildPolicy() {
+        CachePolicy policy = CachePolicy.builder()
+            .expireAfterWrite(Duration.ofMinutes(5))
+            .refreshAfterWrite(Duration.ofMinutes(1))
+            .maximumConcurrentRefreshes(4)
+            .build();
+
+        assertThat(policy.getRefreshAfterWrite()).hasValue(Duration.ofMinutes(1));
+        assertThat(policy.getMaximumConcurrentRefreshes()).isEqualTo(4);
+    }
+
+    @Test
+    void givenInvalidRefreshSettingsShouldThrow() {
+        CachePolicy.Builder builder = CachePolicy.builder();
+
+        assertThatExceptionOfType(NullPointerException.class)
+            .isThrownBy(() -> builder.refreshAfterWrite(null))
+            .withMessage("refresh after write must not be null");
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> builder.refreshAfterWrite(Duration.ofSeconds(-1)))
+            .withMessage("refresh after write must be positive");
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> builder.maximumConcurrentRefreshes(0))
+            .withMessage("maximum concurrent refreshes must be greater than 0");
+
+        builder.refreshAfterWrite(Duration.ofMinutes(1));
+        assertThatExceptionOfType(IllegalStateException.class)
+            .isThrownBy(builder::build)
+            .withMessage("refresh after write must be shorter than expire after write");
+    }
+}
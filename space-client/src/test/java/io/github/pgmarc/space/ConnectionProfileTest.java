@@ -0,0 +1,117 @@
+package io.github.pgmarc.space;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.head;
+import static com.github.tomakehurst.wiremock.client.WireMock.headRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.time.Duration;
+
+import org.assertj.core.util.introspection.PropertyOrFieldSupport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+
+class ConnectionProfileTest {
+
+    @RegisterExtension
+    static WireMockExtension wm = WireMockExtension.newInstance()
+        .options(wireMockConfig().dynamicPort())
+        .build();
+
+    @Test
+    void givenProfileShouldConfigureHttpClient() {
+
+        ConnectionProfile profile = ConnectionProfile.builder()
+            .maxIdleConnections(20)
+            .keepAlive(Duration.ofMinutes(1))
+            .maxRequests(256)
+            .maxRequestsPerHost(128)
+            .connectTimeout(Duration.ofMillis(500))
+            .callTimeout(Duration.ofSeconds(2))
+            .build();
+
+        SpaceClient client = SpaceClient.builder("example.com", "prueba")
+            .withConnectionProfile(profile)
+            .build();
+
+        OkHttpClient httpClient = httpClient(client);
+        assertThat(httpClient.dispatcher().getMaxRequests()).isEqualTo(256);
+        assertThat(httpClient.dispatcher().getMaxRequestsPerHost()).isEqualTo(128);
+        assertThat(httpClient.connectTimeoutMillis()).isEqualTo(500);
+        assertThat(httpClient.callTimeoutMillis()).isEqualTo(2000);
+    }
+
+    @Test
+    void givenPreWarmedConnectionsShouldOpenThemOnBuild() throws InterruptedException {
+
+        wm.stubFor(head(urlPathEqualTo("/api/v1")).willReturn(ok()));
+
+        ConnectionProfile profile = ConnectionProfile.builder()
+            .maxIdleConnections(4)
+            .preWarmConnections(3)
+            .build();
+
+        SpaceClient client = SpaceClient.builder("localhost", "prueba")
+            .withPort(wm.getPort())
+            .withConnectionProfile(profile)
+            .build();
+
+        wm.verify(3, headRequestedFor(urlPathEqualTo("/api/v1")));
+        ConnectionPool pool = httpClient(client).connectionPool();
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (pool.idleConnectionCount() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(pool.idleConnectionCount()).isEqualTo(3);
+    }
+
+    @Test
+    void givenUnreachableSpaceShouldStillBuildClient() {
+
+        ConnectionProfile profile = ConnectionProfile.builder()
+            .connectTimeout(Duration.ofMillis(200))
+            .preWarmConnections(2)
+            .build();
+
+        SpaceClient client = SpaceClient.builder("localhost", "prueba")
+            .withPort(1)
+            .withConnectionProfile(profile)
+            .build();
+
+        assertThat(httpClient(client).connectionPool().connectionCount()).isZero();
+    }
+
+    @Test
+    void givenMorePreWarmedThanIdleConnectionsShouldThrow() {
+
+        ConnectionProfile.Builder builder = ConnectionProfile.builder()
+            .maxIdleConnections(2)
+            .preWarmConnections(3);
+
+        assertThatExceptionOfType(IllegalStateException.class)
+            .isThrownBy(builder::build)
+            .withMessage("pre-warmed connections (3) must not exceed max idle connections (2)");
+    }
+
+    @Test
+    void givenNonPositiveMaxRequestsShouldThrow() {
+
+        ConnectionProfile.Builder builder = ConnectionProfile.builder();
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> builder.maxRequestsPerHost(0))
+            .withMessage("max requests per host must be greater than 0");
+    }
+
+    private static OkHttpClient httpClient(SpaceClient client) {
+        return (OkHttpClient) PropertyOrFieldSupport.EXTRACTION.getValueOf("calls.client", client);
+    }
+}
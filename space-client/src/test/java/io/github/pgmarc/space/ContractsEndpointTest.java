@@ -3,6 +3,10 @@ package io.github.pgmarc.space;
 import java.io.IOException;
 import java.time.Duration;
 import java.time.Period;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -10,11 +14,13 @@ import org.junit.jupiter.api.extension.RegisterExtension;
 
 import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
 
+import io.github.pgmarc.space.codec.JsonCodec;
 import io.github.pgmarc.space.contracts.Subscription;
 import io.github.pgmarc.space.contracts.SubscriptionRequest;
 import io.github.pgmarc.space.contracts.SubscriptionUpdateRequest;
 import io.github.pgmarc.space.contracts.UserContact;
 import io.github.pgmarc.space.exceptions.SpaceApiException;
+import io.github.pgmarc.space.features.FeatureEvaluationResult;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 
@@ -28,6 +34,7 @@ class ContractsEndpointTest {
     private static final String TEST_API_KEY = "prueba";
     private static final OkHttpClient httpClient = new OkHttpClient.Builder().build();
     private static ContractsEndpoint endpoint;
+    private static HttpUrl url;
 
     @RegisterExtension
     static WireMockExtension wm = WireMockExtension.newInstance()
@@ -36,8 +43,9 @@ class ContractsEndpointTest {
 
     @BeforeAll
     static void setUp() {
-        HttpUrl url = new HttpUrl.Builder().scheme("http").host("localhost").port(wm.getPort()).build();
-        endpoint = new ContractsEndpoint(httpClient, url, TEST_API_KEY);
+        url = new HttpUrl.Builder().scheme("http").host("localhost").port(wm.getPort()).build();
+        endpoint = new ContractsEndpoint(new CallExecutor(httpClient), url, TEST_API_KEY, JsonCodec.defaults(), null, null,
+                null);
     }
 
     @Test
@@ -199,4 +207,246 @@ class ContractsEndpointTest {
 
     }
 
+    @Test
+    void givenAnUserIdShouldReturnASubscriptionAsynchronously() throws Exception {
+
+        String userId = "01c36d29-0d6a-4b41-83e9-8c6d9310c508";
+
+        wm.stubFor(get(urlPathTemplate("/contracts/{userId}"))
+                .withPathParam("userId", equalTo(userId))
+                .withHeader("x-api-key", equalTo(TEST_API_KEY))
+                .willReturn(
+                        ok()
+                                .withHeader("Content-Type", "application/json")
+                                .withBodyFile("getContractById-response.json")));
+
+        Subscription subscription = endpoint.getContractByUserIdAsync(userId, Runnable::run).get(5, TimeUnit.SECONDS);
+        assertThat(subscription.getUserId()).isEqualTo(userId);
+    }
+
+    @Test
+    void givenAnUserIdThatDoesNotExistShouldCompleteExceptionally() {
+
+        String userId = "non-existent";
+
+        wm.stubFor(get(urlPathTemplate("/contracts/{userId}"))
+                .withPathParam("userId", equalTo(userId))
+                .willReturn(
+                        aResponse()
+                                .withStatus(404)
+                                .withHeader("Content-Type", "application/json; charset=utf-8")
+                                .withBody("{\"error\":\"Contract with userId {{request.path.userId}} not found\"}")));
+
+        CompletableFuture<Subscription> future = endpoint.getContractByUserIdAsync(userId);
+
+        assertThatExceptionOfType(ExecutionException.class)
+                .isThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                .havingCause()
+                .isInstanceOf(SpaceApiException.class)
+                .withMessage("Contract with userId " + userId + " not found");
+    }
+
+    private static ContractsEndpoint cachedEndpoint() {
+        TinyLfuCache<String, Subscription> cache = new TinyLfuCache<>(CachePolicy.defaults(),
+                SubscriptionWeigher::weigh, SubscriptionWeigher.AVERAGE_WEIGHT);
+        return new ContractsEndpoint(new CallExecutor(httpClient), url, TEST_API_KEY, JsonCodec.defaults(), cache, null, null);
+    }
+
+    @Test
+    void givenContractCacheShouldOnlyRequestContractOnce() throws Exception {
+
+        String userId = "01c36d29-0d6a-4b41-83e9-8c6d9310c508";
+
+        wm.stubFor(get(urlPathTemplate("/contracts/{userId}"))
+                .withPathParam("userId", equalTo(userId))
+                .willReturn(
+                        ok()
+                                .withHeader("Content-Type", "application/json")
+                                .withBodyFile("getContractById-response.json")));
+
+        ContractsEndpoint cached = cachedEndpoint();
+        Subscription first = cached.getContractByUserId(userId);
+        Subscription second = cached.getContractByUserId(userId);
+        Subscription third = cached.getContractByUserIdAsync(userId, Runnable::run).get(5, TimeUnit.SECONDS);
+
+        assertThat(second).isSameAs(first);
+        assertThat(third).isSameAs(first);
+        wm.verify(1, getRequestedFor(urlPathEqualTo("/contracts/" + userId)));
+    }
+
+    @Test
+    void givenContractCacheShouldCacheUpdatedContract() throws IOException {
+
+        String userId = "01c36d29-0d6a-4b41-83e9-8c6d9310c508";
+
+        wm.stubFor(put(urlPathTemplate("/contracts/{userId}"))
+                .withPathParam("userId", equalTo(userId))
+                .willReturn(
+                        ok()
+                                .withHeader("Content-Type", "application/json")
+                                .withBodyFile("getContractById-response.json")));
+
+        SubscriptionUpdateRequest update = SubscriptionUpdateRequest.builder()
+                .startService("petclinic", "v1")
+                    .plan("GOLD")
+                .endService()
+                .build();
+        ContractsEndpoint cached = cachedEndpoint();
+        Subscription updated = cached.updateContractByUserId(userId, update);
+
+        assertThat(cached.getContractByUserId(userId)).isSameAs(updated);
+        wm.verify(0, getRequestedFor(urlPathEqualTo("/contracts/" + userId)));
+    }
+
+    @Test
+    void givenContractUpdatedWhileReadingShouldKeepUpdatedContract() throws Exception {
+
+        String userId = "01c36d29-0d6a-4b41-83e9-8c6d9310c508";
+
+        wm.stubFor(get(urlPathTemplate("/contracts/{userId}"))
+                .withPathParam("userId", equalTo(userId))
+                .willReturn(
+                        ok()
+                                .withHeader("Content-Type", "application/json")
+                                .withBodyFile("getContractById-response.json")
+                                .withFixedDelay(500)));
+        wm.stubFor(put(urlPathTemplate("/contracts/{userId}"))
+                .withPathParam("userId", equalTo(userId))
+                .willReturn(
+                        ok()
+                                .withHeader("Content-Type", "application/json")
+                                .withBodyFile("getContractById-response.json")));
+
+        ContractsEndpoint cached = cachedEndpoint();
+        CompletableFuture<Subscription> read = cached.getContractByUserIdAsync(userId);
+        Subscription updated = cached.updateContractByUserId(userId, SubscriptionUpdateRequest.builder()
+                .startService("petclinic", "v1")
+                    .plan("GOLD")
+                .endService()
+                .build());
+
+        assertThat(read.get(5, TimeUnit.SECONDS)).isNotSameAs(updated);
+        assertThat(cached.getContractByUserId(userId)).isSameAs(updated);
+        wm.verify(1, getRequestedFor(urlPathEqualTo("/contracts/" + userId)));
+    }
+
+    @Test
+    void givenInvalidatedContractShouldRequestItAgain() throws IOException {
+
+        String userId = "01c36d29-0d6a-4b41-83e9-8c6d9310c508";
+
+        wm.stubFor(get(urlPathTemplate("/contracts/{userId}"))
+                .withPathParam("userId", equalTo(userId))
+                .willReturn(
+                        ok()
+                                .withHeader("Content-Type", "application/json")
+                                .withBodyFile("getContractById-response.json")));
+
+        ContractsEndpoint cached = cachedEndpoint();
+        cached.getContractByUserId(userId);
+        cached.invalidateCachedContract(userId);
+        cached.getContractByUserId(userId);
+
+        wm.verify(2, getRequestedFor(urlPathEqualTo("/contracts/" + userId)));
+    }
+
+    @Test
+    void givenContractPastRefreshTimeShouldServeItAndReloadInBackground() throws Exception {
+
+        String userId = "01c36d29-0d6a-4b41-83e9-8c6d9310c508";
+
+        wm.stubFor(get(urlPathTemplate("/contracts/{userId}"))
+                .withPathParam("userId", equalTo(userId))
+                .willReturn(
+                        ok()
+                                .withHeader("Content-Type", "application/json")
+                                .withBodyFile("getContractById-response.json")));
+
+        CachePolicy policy = CachePolicy.builder()
+                .refreshAfterWrite(Duration.ofMillis(1))
+                .build();
+        TinyLfuCache<String, Subscription> cache = new TinyLfuCache<>(policy, SubscriptionWeigher::weigh,
+                SubscriptionWeigher.AVERAGE_WEIGHT);
+        ContractsEndpoint cached = new ContractsEndpoint(new CallExecutor(httpClient), url, TEST_API_KEY,
+                JsonCodec.defaults(), cache, null, null);
+
+        Subscription first = cached.getContractByUserId(userId);
+        Thread.sleep(5);
+
+        assertThat(cached.getContractByUserId(userId)).isSameAs(first);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cache.stats().getLoadSuccessCount() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        wm.verify(2, getRequestedFor(urlPathEqualTo("/contracts/" + userId)));
+        assertThat(cache.stats().getStaleHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void givenContractUpdateShouldInvalidateCachedEvaluationsOfUser() throws IOException {
+
+        String userId = "01c36d29-0d6a-4b41-83e9-8c6d9310c508";
+
+        wm.stubFor(put(urlPathTemplate("/contracts/{userId}"))
+                .withPathParam("userId", equalTo(userId))
+                .willReturn(
+                        ok()
+                                .withHeader("Content-Type", "application/json")
+                                .withBodyFile("getContractById-response.json")));
+
+        EvaluationCache evaluations = new EvaluationCache(EvaluationCachePolicy.defaults());
+        ContractsEndpoint contracts = new ContractsEndpoint(new CallExecutor(httpClient), url, TEST_API_KEY,
+                JsonCodec.defaults(), null, evaluations, null);
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlight.IoCall<FeatureEvaluationResult> loader = () -> {
+            loads.incrementAndGet();
+            return FeatureEvaluationResult.builder().available(true).build();
+        };
+
+        evaluations.get(userId, "petclinic", "petclinic-pets", loader);
+        evaluations.get(userId, "petclinic", "petclinic-pets", loader);
+        contracts.updateContractByUserId(userId, SubscriptionUpdateRequest.builder()
+                .startService("petclinic", "v1")
+                    .plan("GOLD")
+                .endService()
+                .build());
+        evaluations.get(userId, "petclinic", "petclinic-pets", loader);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void givenContractUpdateShouldInvalidateCachedPricingTokenOfUser() throws IOException {
+
+        String userId = "01c36d29-0d6a-4b41-83e9-8c6d9310c508";
+
+        wm.stubFor(put(urlPathTemplate("/contracts/{userId}"))
+                .withPathParam("userId", equalTo(userId))
+                .willReturn(
+                        ok()
+                                .withHeader("Content-Type", "application/json")
+                                .withBodyFile("getContractById-response.json")));
+
+        PricingTokenCache pricingTokens = new PricingTokenCache(PricingTokenPolicy.defaults());
+        ContractsEndpoint contracts = new ContractsEndpoint(new CallExecutor(httpClient), url, TEST_API_KEY,
+                JsonCodec.defaults(), null, null, pricingTokens);
+        AtomicInteger loads = new AtomicInteger();
+        String token = PricingTokenCacheTest.jwt(System.currentTimeMillis() / 1000 + 3600);
+        SingleFlight.IoCall<String> loader = () -> {
+            loads.incrementAndGet();
+            return token;
+        };
+
+        pricingTokens.get(userId, loader, CompletableFuture::new);
+        pricingTokens.get(userId, loader, CompletableFuture::new);
+        contracts.updateContractByUserId(userId, SubscriptionUpdateRequest.builder()
+                .startService("petclinic", "v1")
+                    .plan("GOLD")
+                .endService()
+                .build());
+        pricingTokens.get(userId, loader, CompletableFuture::new);
+
+        assertThat(loads).hasValue(2);
+    }
+
 }
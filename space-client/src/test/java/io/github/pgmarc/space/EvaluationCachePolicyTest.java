@@ -0,0 +1,51 @@
+package io.github.pgmarc.space;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class EvaluationCachePolicyTest {
+
+    @Test
+    void givenDefaultsShouldCacheNegativeResultsShorter() {
+        EvaluationCachePolicy policy = EvaluationCachePolicy.defaults();
+
+        assertThat(policy.getMaximumWeight()).isEqualTo(16L << 20);
+        assertThat(policy.getPositiveTtl()).isEqualTo(Duration.ofSeconds(30));
+        assertThat(policy.getNegativeTtl()).isEqualTo(Duration.ofSeconds(5));
+        assertThat(policy.isAdaptiveTtl()).isFalse();
+    }
+
+    @Test
+    void givenSettingsShouldBuildPolicy() {
+        EvaluationCachePolicy policy = EvaluationCachePolicy.builder()
+            .maximumWeight(1024)
+            .positiveTtl(Duration.ofMinutes(1))
+            .negativeTtl(Duration.ofSeconds(1))
+            .adaptiveTtl(true)
+            .build();
+
+        assertThat(policy.getMaximumWeight()).isEqualTo(1024);
+        assertThat(policy.getPositiveTtl()).isEqualTo(Duration.ofMinutes(1));
+        assertThat(policy.getNegativeTtl()).isEqualTo(Duration.ofSeconds(1));
+        assertThat(policy.isAdaptiveTtl()).isTrue();
+    }
+
+    @Test
+    void givenInvalidSettingsShouldThrow() {
+        EvaluationCachePolicy.Builder builder = EvaluationCachePolicy.builder();
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> builder.maximumWeight(-1))
+            .withMessage("maximum weight must be greater than 0");
+        assertThatExceptionOfType(NullPointerException.class)
+            .isThrownBy(() -> builder.positiveTtl(null))
+            .withMessage("positive ttl must not be null");
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> builder.negativeTtl(Duration.ZERO))
+            .withMessage("negative ttl must be positive");
+    }
+}
@@ -0,0 +1,170 @@
+package io.github.pgmarc.space;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.pgmarc.space.exceptions.FeatureEvaluationError;
+import io.github.pgmarc.space.exceptions.FeatureEvaluationException;
+import io.github.pgmarc.space.features.FeatureEvaluationResult;
+
+class EvaluationCacheTest {
+
+    private static final FeatureEvaluationResult AVAILABLE = FeatureEvaluationResult.builder()
+        .available(true)
+        .build();
+    private static final FeatureEvaluationResult UNAVAILABLE = FeatureEvaluationResult.builder()
+        .available(false)
+        .build();
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final EvaluationCache cache = new EvaluationCache(EvaluationCachePolicy.builder()
+        .positiveTtl(Duration.ofSeconds(30))
+        .negativeTtl(Duration.ofSeconds(5))
+        .build(), (userId, service, usageLimit) -> AdaptiveTtl.UNKNOWN, nanos::get, System::currentTimeMillis);
+
+    private SingleFlight.IoCall<FeatureEvaluationResult> loader(FeatureEvaluationResult result) {
+        return () -> {
+            loads.incrementAndGet();
+            return result;
+        };
+    }
+
+    private SingleFlight.IoCall<FeatureEvaluationResult> failing(String code) {
+        return () -> {
+            loads.incrementAndGet();
+            throw new FeatureEvaluationException(FeatureEvaluationError.of(code, "Feature pets not found"));
+        };
+    }
+
+    @Test
+    void givenAvailableResultShouldCacheItForPositiveTtl() throws IOException {
+        assertThat(cache.get("alice", "petclinic", "petclinic-pets", loader(AVAILABLE))).isSameAs(AVAILABLE);
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(29));
+        assertThat(cache.get("alice", "petclinic", "petclinic-pets", loader(AVAILABLE))).isSameAs(AVAILABLE);
+        assertThat(loads).hasValue(1);
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        cache.get("alice", "petclinic", "petclinic-pets", loader(AVAILABLE));
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void givenUnavailableResultShouldCacheItForNegativeTtl() throws IOException {
+        cache.get("alice", "petclinic", "petclinic-pets", loader(UNAVAILABLE));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        assertThat(cache.get("alice", "petclinic", "petclinic-pets", loader(UNAVAILABLE))).isSameAs(UNAVAILABLE);
+        assertThat(loads).hasValue(1);
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        cache.get("alice", "petclinic", "petclinic-pets", loader(UNAVAILABLE));
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void givenFlagNotFoundShouldCacheTheError() {
+        for (int i = 0; i < 2; i++) {
+            assertThatExceptionOfType(FeatureEvaluationException.class)
+                .isThrownBy(() -> cache.get("alice", "petclinic", "petclinic-pets", failing("FLAG_NOT_FOUND")))
+                .withMessage("Feature pets not found. Error code: FLAG_NOT_FOUND");
+        }
+        assertThat(loads).hasValue(1);
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertThatExceptionOfType(FeatureEvaluationException.class)
+            .isThrownBy(() -> cache.get("alice", "petclinic", "petclinic-pets", failing("FLAG_NOT_FOUND")));
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void givenOtherEvaluationErrorShouldNotCacheIt() {
+        for (int i = 0; i < 2; i++) {
+            assertThatExceptionOfType(FeatureEvaluationException.class)
+                .isThrownBy(() -> cache.get("alice", "petclinic", "petclinic-pets", failing("EVALUATION_ERROR")));
+        }
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void givenInvalidatedUserShouldReloadOnlyTheirEvaluations() throws IOException {
+        cache.get("alice", "petclinic", "petclinic-pets", loader(AVAILABLE));
+        cache.get("alice", "petclinic", "petclinic-visits", loader(AVAILABLE));
+        cache.get("bob", "petclinic", "petclinic-pets", loader(AVAILABLE));
+
+        cache.invalidate("alice");
+        cache.get("alice", "petclinic", "petclinic-pets", loader(AVAILABLE));
+        cache.get("alice", "petclinic", "petclinic-visits", loader(AVAILABLE));
+        cache.get("bob", "petclinic", "petclinic-pets", loader(AVAILABLE));
+
+        assertThat(loads).hasValue(5);
+    }
+
+    @Test
+    void givenInvalidationDuringLoadShouldNotServeLoadedResult() throws IOException {
+        cache.get("alice", "petclinic", "petclinic-pets", () -> {
+            loads.incrementAndGet();
+            cache.invalidate("alice");
+            return AVAILABLE;
+        });
+
+        cache.get("alice", "petclinic", "petclinic-pets", loader(AVAILABLE));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void givenAsyncLoaderShouldCacheResultAndError() throws Exception {
+        assertThat(cache.getAsync("alice", "petclinic", "petclinic-pets",
+            () -> CompletableFuture.completedFuture(AVAILABLE), Runnable::run).get()).isSameAs(AVAILABLE);
+        assertThat(cache.getAsync("alice", "petclinic", "petclinic-pets", CompletableFuture::new, Runnable::run).get())
+            .isSameAs(AVAILABLE);
+
+        CompletableFuture<FeatureEvaluationResult> notFound = CompletableFuture.failedFuture(
+            new FeatureEvaluationException(FeatureEvaluationError.of("FLAG_NOT_FOUND", "Feature pets not found")));
+        for (int i = 0; i < 2; i++) {
+            CompletableFuture<FeatureEvaluationResult> future = cache.getAsync("alice", "petclinic", "petclinic-ghost",
+                i == 0 ? () -> notFound : CompletableFuture::new, Runnable::run);
+            assertThatExceptionOfType(ExecutionException.class)
+                .isThrownBy(future::get)
+                .withCauseInstanceOf(FeatureEvaluationException.class);
+        }
+        assertThat(cache.stats().getLoadSuccessCount()).isEqualTo(2);
+    }
+
+    @Test
+    void givenAdaptiveTtlShouldNotCacheUsersNearTheirLimit() throws IOException {
+        EvaluationCache adaptive = new EvaluationCache(EvaluationCachePolicy.builder()
+            .positiveTtl(Duration.ofSeconds(30))
+            .adaptiveTtl(true)
+            .build(), (userId, service, usageLimit) -> AdaptiveTtl.UNKNOWN, nanos::get, System::currentTimeMillis);
+        FeatureEvaluationResult halfUsed = FeatureEvaluationResult.builder()
+            .available(true)
+            .used("maxPets", 50)
+            .limit("maxPets", 100)
+            .build();
+        FeatureEvaluationResult nearLimit = FeatureEvaluationResult.builder()
+            .available(true)
+            .used("maxPets", 100)
+            .limit("maxPets", 100)
+            .build();
+
+        adaptive.get("alice", "petclinic", "petclinic-pets", loader(halfUsed));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(14));
+        assertThat(adaptive.get("alice", "petclinic", "petclinic-pets", loader(halfUsed))).isSameAs(halfUsed);
+        assertThat(loads).hasValue(1);
+
+        adaptive.get("bob", "petclinic", "petclinic-pets", loader(nearLimit));
+        adaptive.get("bob", "petclinic", "petclinic-pets", loader(nearLimit));
+        assertThat(loads).hasValue(3);
+    }
+}
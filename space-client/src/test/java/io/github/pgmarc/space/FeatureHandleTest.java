@@ -0,0 +1,89 @@
+package io.github.pgmarc.space;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+
+import io.github.pgmarc.space.codec.JsonCodec;
+import io.github.pgmarc.space.features.FeatureEvaluationResult;
+import io.github.pgmarc.space.features.Revert;
+import io.github.pgmarc.space.features.UsageLimitConsumption;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+
+@WireMockTest
+class FeatureHandleTest {
+
+    private static final String USER_ID = "e8e053c5-fd2b-4e4c-85a0-f1a52f0da72e";
+    private static final String PATH = "/features/" + USER_ID + "/petclinic-featureA";
+
+    private static FeaturesEndpoint endpoint;
+
+    @BeforeAll
+    static void setup(WireMockRuntimeInfo wmRuntimeInfo) {
+        HttpUrl url = new HttpUrl.Builder().scheme("http").host("localhost").port(wmRuntimeInfo.getHttpPort()).build();
+        endpoint = new FeaturesEndpoint(new CallExecutor(new OkHttpClient()), url, "prueba", JsonCodec.defaults(), null,
+            null);
+    }
+
+    @Test
+    void givenServiceAndFeatureShouldPrecomputeFeatureId() {
+        FeatureHandle handle = endpoint.prepare("Petclinic", "featureA");
+
+        assertThat(handle.getService()).isEqualTo("Petclinic");
+        assertThat(handle.getFeature()).isEqualTo("featureA");
+        assertThat(handle.getFeatureId()).isEqualTo("petclinic-featureA");
+    }
+
+    @Test
+    void givenHandleShouldEvaluateForEveryUser() throws Exception {
+        stubFor(post(urlPathTemplate("/features/{userId}/petclinic-featureA"))
+            .withHeader("x-api-key", equalTo("prueba"))
+            .willReturn(okJson("{\"eval\": true, \"used\": null, \"limit\": null, \"error\": null}")));
+        FeatureHandle handle = endpoint.prepare("Petclinic", "featureA");
+
+        FeatureEvaluationResult first = handle.evaluate(USER_ID);
+        FeatureEvaluationResult second = handle.evaluateAsync("another-user").get(5, TimeUnit.SECONDS);
+
+        assertThat(first.isAvailable()).isTrue();
+        assertThat(second.isAvailable()).isTrue();
+        verify(postRequestedFor(urlPathEqualTo(PATH)));
+        verify(postRequestedFor(urlPathEqualTo("/features/another-user/petclinic-featureA")));
+    }
+
+    @Test
+    void givenSameConsumptionShouldSendSameBodyEveryTime() throws Exception {
+        stubFor(post(urlPathEqualTo(PATH))
+            .willReturn(ok().withHeader("Content-Type", "application/json")
+                .withBodyFile("optimistic-evaluation-response.json")));
+        FeatureHandle handle = endpoint.prepare("Petclinic", "featureA");
+        UsageLimitConsumption consumption = UsageLimitConsumption.builder("Petclinic")
+            .addInt("featureALimit", 100).build();
+
+        FeatureEvaluationResult result = handle.evaluateOptimistically(USER_ID, consumption);
+        handle.evaluateOptimisticallyAsync(USER_ID, consumption).get(5, TimeUnit.SECONDS);
+
+        assertThat(result.getConsumed("featureALimit")).hasValue(100);
+        assertThat(result.getLimit("featureALimit")).hasValue(500);
+        verify(2, postRequestedFor(urlPathEqualTo(PATH))
+            .withRequestBody(equalToJson("{\"petclinic-featureALimit\": 100}")));
+    }
+
+    @Test
+    void givenHandleShouldRevert() throws Exception {
+        stubFor(post(urlPathEqualTo(PATH))
+            .withQueryParam("revert", equalTo("true"))
+            .withQueryParam("latest", equalTo("false"))
+            .willReturn(noContent()));
+        FeatureHandle handle = endpoint.prepare("Petclinic", "featureA");
+
+        assertThat(handle.revert(USER_ID, Revert.OLDEST_VALUE)).isTrue();
+    }
+}
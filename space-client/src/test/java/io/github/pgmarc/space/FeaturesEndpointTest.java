@@ -2,18 +2,31 @@ package io.github.pgmarc.space;
 
 import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import io.github.pgmarc.space.codec.JsonCodec;
+import io.github.pgmarc.space.exceptions.FeatureEvaluationError;
+import io.github.pgmarc.space.exceptions.FeatureEvaluationException;
+import io.github.pgmarc.space.exceptions.SpaceApiException;
 import io.github.pgmarc.space.features.FeatureEvaluationResult;
 import io.github.pgmarc.space.features.Revert;
 import io.github.pgmarc.space.features.UsageLimitConsumption;
+import okhttp3.Dispatcher;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.fail;
 
 @WireMockTest
@@ -26,7 +39,7 @@ class FeaturesEndpointTest {
     @BeforeAll
     static void setup(WireMockRuntimeInfo wmRuntimeInfo) {
         HttpUrl url = new HttpUrl.Builder().scheme("http").host("localhost").port(wmRuntimeInfo.getHttpPort()).build();
-        endpoint = new FeaturesEndpoint(httpClient, url, TEST_API_KEY);
+        endpoint = new FeaturesEndpoint(new CallExecutor(httpClient), url, TEST_API_KEY, JsonCodec.defaults(), null, null);
     }
 
     @Test
@@ -154,4 +167,173 @@ class FeaturesEndpointTest {
             fail();
         }
     }
+
+    @Test
+    void givenSimpleFeatureIdShouldEvaluateAsynchronously(WireMockRuntimeInfo wmRuntimeInfo) throws Exception {
+
+        String userId = "e8e053c5-fd2b-4e4c-85a0-f1a52f0da72e";
+        String featureId = "petclinic-featureA";
+
+        stubFor(post(urlPathTemplate("/features/{userId}/{featureId}"))
+            .withHeader("x-api-key", equalTo("prueba"))
+            .withPathParam("userId", equalTo(userId))
+            .withPathParam("featureId", equalTo(featureId))
+            .willReturn(
+                ok()
+                    .withHeader("Content-Type", "application/json")
+                    .withBodyFile("boolean-feature-evaluation.json")));
+
+        List<String> decodingThreads = new CopyOnWriteArrayList<>();
+        HttpUrl url = new HttpUrl.Builder().scheme("http").host("localhost").port(wmRuntimeInfo.getHttpPort()).build();
+        FeaturesEndpoint recording = new FeaturesEndpoint(new CallExecutor(httpClient), url, TEST_API_KEY,
+            new ThreadRecordingJsonCodec(decodingThreads), null, null);
+        ExecutorService callbackExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "space-callback"));
+        try {
+            FeatureEvaluationResult res = recording.evaluateAsync(userId, "Petclinic", "featureA", callbackExecutor)
+                .get(5, TimeUnit.SECONDS);
+
+            assertThat(res.isAvailable()).isTrue();
+            assertThat(decodingThreads).containsExactly("space-callback");
+        } finally {
+            callbackExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void givenCancelledEvaluationShouldCancelCall() throws InterruptedException {
+
+        String userId = "4d3a0c35-29b9-4f2c-b0a4-1cc70e1f3a6b";
+
+        stubFor(post(urlPathTemplate("/features/{userId}/{featureId}"))
+            .withPathParam("userId", equalTo(userId))
+            .willReturn(
+                ok()
+                    .withFixedDelay(2000)
+                    .withHeader("Content-Type", "application/json")
+                    .withBodyFile("boolean-feature-evaluation.json")));
+
+        CompletableFuture<FeatureEvaluationResult> future = endpoint.evaluateAsync(userId, "Petclinic", "featureA");
+
+        assertThat(future.cancel(true)).isTrue();
+        assertThat(future).isCancelled();
+        Dispatcher dispatcher = httpClient.dispatcher();
+        for (int i = 0; i < 50 && dispatcher.runningCallsCount() + dispatcher.queuedCallsCount() > 0; i++) {
+            Thread.sleep(20);
+        }
+        assertThat(dispatcher.runningCallsCount() + dispatcher.queuedCallsCount()).isZero();
+    }
+
+    @Test
+    void givenPricingTokenRequestShouldCompleteAsynchronously() throws Exception {
+
+        String userId = "e8e053c5-fd2b-4e4c-85a0-f1a52f0da72e";
+
+        stubFor(post(urlPathTemplate("/features/{userId}/pricing-token"))
+            .withPathParam("userId", equalTo(userId))
+            .willReturn(
+                ok().withBodyFile("pricing-token-response.json")));
+
+        assertThat(endpoint.generatePricingTokenForUserAsync(userId).get(5, TimeUnit.SECONDS)).hasSize(879);
+    }
+
+    @Test
+    void givenAsyncErrorResponseShouldCompleteExceptionally() {
+
+        String userId = "a1b7e5d0-5d1c-4f5e-9b8d-0a6f0f3d9c21";
+
+        stubFor(post(urlPathTemplate("/features/{userId}/{featureId}"))
+            .withPathParam("userId", equalTo(userId))
+            .willReturn(
+                aResponse()
+                    .withStatus(404)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"error\":\"Contract not found\"}")));
+
+        CompletableFuture<Boolean> future = endpoint.revertAsync(userId, "Petclinic", "featureA", Revert.NEWEST_VALUE);
+
+        assertThatExceptionOfType(ExecutionException.class)
+            .isThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+            .withCauseInstanceOf(SpaceApiException.class);
+    }
+
+    @Test
+    void givenEvaluationCacheShouldEvaluateUntilOptimisticEvaluation(WireMockRuntimeInfo wmRuntimeInfo)
+        throws IOException {
+
+        String userId = "e8e053c5-fd2b-4e4c-85a0-f1a52f0da72e";
+        String featureId = "petclinic-featureA";
+
+        stubFor(post(urlPathTemplate("/features/{userId}/{featureId}"))
+            .withPathParam("userId", equalTo(userId))
+            .withPathParam("featureId", equalTo(featureId))
+            .willReturn(
+                ok()
+                    .withHeader("Content-Type", "application/json")
+                    .withBodyFile("optimistic-evaluation-response.json")));
+
+        HttpUrl url = new HttpUrl.Builder().scheme("http").host("localhost").port(wmRuntimeInfo.getHttpPort()).build();
+        FeaturesEndpoint cached = new FeaturesEndpoint(new CallExecutor(httpClient), url, TEST_API_KEY,
+            JsonCodec.defaults(), new EvaluationCache(EvaluationCachePolicy.defaults()), null);
+        FeatureHandle handle = cached.prepare("Petclinic", "featureA");
+
+        FeatureEvaluationResult first = cached.evaluate(userId, "Petclinic", "featureA");
+        assertThat(handle.evaluate(userId)).isSameAs(first);
+        verify(1, postRequestedFor(urlPathEqualTo("/features/" + userId + "/" + featureId)));
+
+        UsageLimitConsumption consumption = UsageLimitConsumption.builder("Petclinic")
+            .addInt("featureALimit", 1).build();
+        handle.evaluateOptimistically(userId, consumption);
+        assertThat(cached.evaluate(userId, "Petclinic", "featureA")).isNotSameAs(first);
+        verify(3, postRequestedFor(urlPathEqualTo("/features/" + userId + "/" + featureId)));
+    }
+
+    @Test
+    void givenPricingTokenCacheShouldServeCachedToken(WireMockRuntimeInfo wmRuntimeInfo) throws Exception {
+
+        String userId = "2a3f5b1e-9c0d-4e7a-8b6f-1d2c3e4f5a6b";
+        String token = PricingTokenCacheTest.jwt(System.currentTimeMillis() / 1000 + 3600);
+
+        stubFor(post(urlPathEqualTo("/features/" + userId + "/pricing-token"))
+            .willReturn(
+                ok()
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"pricingToken\":\"" + token + "\"}")));
+
+        HttpUrl url = new HttpUrl.Builder().scheme("http").host("localhost").port(wmRuntimeInfo.getHttpPort()).build();
+        FeaturesEndpoint cached = new FeaturesEndpoint(new CallExecutor(httpClient), url, TEST_API_KEY,
+            JsonCodec.defaults(), null, new PricingTokenCache(PricingTokenPolicy.defaults()));
+
+        assertThat(cached.generatePricingTokenForUser(userId)).isEqualTo(token);
+        assertThat(cached.generatePricingTokenForUserAsync(userId).get(5, TimeUnit.SECONDS)).isEqualTo(token);
+        verify(1, postRequestedFor(urlPathEqualTo("/features/" + userId + "/pricing-token")));
+
+        cached.invalidateCachedPricingToken(userId);
+        assertThat(cached.generatePricingTokenForUser(userId)).isEqualTo(token);
+        verify(2, postRequestedFor(urlPathEqualTo("/features/" + userId + "/pricing-token")));
+    }
+
+    @Test
+    void givenEvaluationCacheShouldCacheFeatureNotFound(WireMockRuntimeInfo wmRuntimeInfo) {
+
+        String userId = "e8e053c5-fd2b-4e4c-85a0-f1a52f0da72e";
+
+        stubFor(post(urlPathEqualTo("/features/" + userId + "/petclinic-ghost"))
+            .willReturn(
+                ok()
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"eval\":false,\"used\":null,\"limit\":null,"
+                        + "\"error\":{\"code\":\"FLAG_NOT_FOUND\",\"message\":\"Feature ghost not found\"}}")));
+
+        HttpUrl url = new HttpUrl.Builder().scheme("http").host("localhost").port(wmRuntimeInfo.getHttpPort()).build();
+        FeaturesEndpoint cached = new FeaturesEndpoint(new CallExecutor(httpClient), url, TEST_API_KEY,
+            JsonCodec.defaults(), new EvaluationCache(EvaluationCachePolicy.defaults()), null);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatExceptionOfType(FeatureEvaluationException.class)
+                .isThrownBy(() -> cached.evaluate(userId, "Petclinic", "ghost"))
+                .extracting(e -> e.getError().getCode())
+                .isEqualTo(FeatureEvaluationError.Code.FLAG_NOT_FOUND);
+        }
+        verify(1, postRequestedFor(urlPathEqualTo("/features/" + userId + "/petclinic-ghost")));
+    }
 }
@@ -0,0 +1,48 @@
+package io.github.pgmarc.space;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class FrequencySketchTest {
+
+    @Test
+    void givenUnseenKeyShouldReturnZero() {
+        assertThat(new FrequencySketch(64).frequency("alice")).isZero();
+    }
+
+    @Test
+    void givenIncrementsShouldEstimateFrequency() {
+        FrequencySketch sketch = new FrequencySketch(64);
+        for (int i = 0; i < 5; i++) {
+            sketch.increment("alice");
+        }
+        sketch.increment("bob");
+
+        assertThat(sketch.frequency("alice")).isEqualTo(5);
+        assertThat(sketch.frequency("bob")).isEqualTo(1);
+    }
+
+    @Test
+    void givenManyIncrementsShouldSaturateAtFifteen() {
+        FrequencySketch sketch = new FrequencySketch(64);
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("alice");
+        }
+
+        assertThat(sketch.frequency("alice")).isEqualTo(15);
+    }
+
+    @Test
+    void givenSampleSizeReachedShouldHalveCounters() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 8; i++) {
+            sketch.increment("alice");
+        }
+        for (int i = 0; sketch.frequency("alice") >= 8 && i < 10_000; i++) {
+            sketch.increment("key-" + i);
+        }
+
+        assertThat(sketch.frequency("alice")).isLessThan(8);
+    }
+}
@@ -0,0 +1,193 @@
+package io.github.pgmarc.space;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.util.introspection.PropertyOrFieldSupport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+
+import io.github.pgmarc.space.features.FeatureEvaluationResult;
+import io.github.pgmarc.space.features.UsageLimitConsumption;
+import io.github.pgmarc.space.resilience.HedgingPolicy;
+import okhttp3.OkHttpClient;
+
+class HedgingTest {
+
+    private static final String USER_ID = "e8e053c5-fd2b-4e4c-85a0-f1a52f0da72e";
+    private static final String PATH = "/api/v1/features/" + USER_ID + "/petclinic-featureA";
+
+    @RegisterExtension
+    static WireMockExtension wm = WireMockExtension.newInstance()
+        .options(wireMockConfig().dynamicPort())
+        .build();
+
+    private static SpaceClient client(HedgingPolicy policy) {
+        return SpaceClient.builder("localhost", "prueba")
+            .withPort(wm.getPort())
+            .withHedgingPolicy(policy)
+            .build();
+    }
+
+    private static HedgingPolicy fastHedge() {
+        return HedgingPolicy.builder().delay(Duration.ofMillis(50)).build();
+    }
+
+    private static void stubSlowThenFast(int slowMillis) {
+        wm.stubFor(post(urlPathEqualTo(PATH)).inScenario("hedge")
+            .whenScenarioStateIs(Scenario.STARTED)
+            .willSetStateTo("hedged")
+            .willReturn(ok().withHeader("Content-Type", "application/json")
+                .withBodyFile("boolean-feature-evaluation.json")
+                .withFixedDelay(slowMillis)));
+        wm.stubFor(post(urlPathEqualTo(PATH)).inScenario("hedge")
+            .whenScenarioStateIs("hedged")
+            .willReturn(ok().withHeader("Content-Type", "application/json")
+                .withBodyFile("boolean-feature-evaluation.json")));
+    }
+
+    private static int runningCalls(SpaceClient client) {
+        OkHttpClient httpClient = (OkHttpClient) PropertyOrFieldSupport.EXTRACTION.getValueOf("calls.client", client);
+        return httpClient.dispatcher().runningCallsCount();
+    }
+
+    @Test
+    void givenSlowResponseShouldAnswerWithHedgedRequest() throws Exception {
+        stubSlowThenFast(5000);
+        SpaceClient client = client(fastHedge());
+
+        long start = System.nanoTime();
+        FeatureEvaluationResult result = client.features().evaluate(USER_ID, "Petclinic", "featureA");
+
+        assertThat(result.isAvailable()).isTrue();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(client.getHedgedCalls()).isEqualTo(1);
+        wm.verify(2, postRequestedFor(urlPathEqualTo(PATH)));
+    }
+
+    @Test
+    void givenHedgedRequestWinsShouldCancelSlowerCall() throws Exception {
+        stubSlowThenFast(5000);
+        SpaceClient client = client(fastHedge());
+
+        FeatureEvaluationResult result = client.features().evaluateAsync(USER_ID, "Petclinic", "featureA")
+            .get(2, TimeUnit.SECONDS);
+
+        assertThat(result.isAvailable()).isTrue();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (runningCalls(client) > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(runningCalls(client)).isZero();
+    }
+
+    @Test
+    void givenHedgedRequestWinsShouldHandleResponseOnCallbackExecutor() throws Exception {
+        stubSlowThenFast(5000);
+        List<String> decodingThreads = new CopyOnWriteArrayList<>();
+        SpaceClient client = SpaceClient.builder("localhost", "prueba")
+            .withPort(wm.getPort())
+            .withHedgingPolicy(fastHedge())
+            .withJsonCodec(new ThreadRecordingJsonCodec(decodingThreads))
+            .build();
+        ExecutorService callbackExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "space-callback"));
+        try {
+            FeatureEvaluationResult result = client.features()
+                .evaluateAsync(USER_ID, "Petclinic", "featureA", callbackExecutor)
+                .get(2, TimeUnit.SECONDS);
+
+            assertThat(result.isAvailable()).isTrue();
+            assertThat(client.getHedgedCalls()).isEqualTo(1);
+            assertThat(decodingThreads).containsExactly("space-callback");
+        } finally {
+            callbackExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void givenBusyDispatcherShouldExecuteSynchronousEvaluationOnCaller() throws Exception {
+        String otherPath = "/api/v1/features/other/petclinic-featureA";
+        wm.stubFor(post(urlPathEqualTo(otherPath))
+            .willReturn(ok().withHeader("Content-Type", "application/json")
+                .withBodyFile("boolean-feature-evaluation.json")
+                .withFixedDelay(3000)));
+        wm.stubFor(post(urlPathEqualTo(PATH))
+            .willReturn(ok().withHeader("Content-Type", "application/json")
+                .withBodyFile("boolean-feature-evaluation.json")));
+        SpaceClient client = SpaceClient.builder("localhost", "prueba")
+            .withPort(wm.getPort())
+            .withHedgingPolicy(HedgingPolicy.builder().delay(Duration.ofSeconds(1)).build())
+            .withConnectionProfile(ConnectionProfile.builder().maxRequests(1).maxRequestsPerHost(1).build())
+            .build();
+
+        CompletableFuture<FeatureEvaluationResult> busy = client.features()
+            .evaluateAsync("other", "Petclinic", "featureA");
+        while (runningCalls(client) == 0) {
+            Thread.sleep(5);
+        }
+        long start = System.nanoTime();
+        FeatureEvaluationResult result = client.features().evaluate(USER_ID, "Petclinic", "featureA");
+
+        assertThat(result.isAvailable()).isTrue();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        wm.verify(1, postRequestedFor(urlPathEqualTo(PATH)));
+        busy.cancel(true);
+    }
+
+    @Test
+    void givenFastResponseShouldNotHedge() throws Exception {
+        stubSlowThenFast(0);
+        SpaceClient client = client(HedgingPolicy.builder().delay(Duration.ofSeconds(1)).build());
+
+        client.features().evaluate(USER_ID, "Petclinic", "featureA");
+
+        assertThat(client.getHedgedCalls()).isZero();
+        wm.verify(1, postRequestedFor(urlPathEqualTo(PATH)));
+    }
+
+    @Test
+    void givenOptimisticEvaluationShouldNeverHedge() throws Exception {
+        wm.stubFor(post(urlPathEqualTo(PATH))
+            .willReturn(ok().withHeader("Content-Type", "application/json")
+                .withBodyFile("optimistic-evaluation-response.json")
+                .withFixedDelay(300)));
+        SpaceClient client = client(fastHedge());
+        UsageLimitConsumption consumption = UsageLimitConsumption.builder("Petclinic")
+            .addInt("featureALimit", 1).build();
+
+        client.features().evaluateOptimistically(USER_ID, "Petclinic", "featureA", consumption);
+
+        assertThat(client.getHedgedCalls()).isZero();
+        wm.verify(1, postRequestedFor(urlPathEqualTo(PATH)));
+    }
+
+    @Test
+    void givenExhaustedBudgetShouldNotHedge() throws Exception {
+        wm.stubFor(post(urlPathEqualTo(PATH))
+            .willReturn(ok().withHeader("Content-Type", "application/json")
+                .withBodyFile("boolean-feature-evaluation.json")
+                .withFixedDelay(200)));
+        SpaceClient client = client(HedgingPolicy.builder()
+            .delay(Duration.ofMillis(20))
+            .budget(0, 1)
+            .build());
+
+        client.features().evaluate(USER_ID, "Petclinic", "featureA");
+        client.features().evaluate(USER_ID, "Petclinic", "featureA");
+
+        assertThat(client.getHedgedCalls()).isEqualTo(1);
+        wm.verify(3, postRequestedFor(urlPathEqualTo(PATH)));
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.pgmarc.space;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyWindowTest {
+
+    @Test
+    void givenNoSamplesShouldReturnNegativePercentile() {
+        assertThat(new LatencyWindow(16, 95).percentile()).isEqualTo(-1);
+    }
+
+    @Test
+    void givenSamplesShouldComputePercentile() {
+        LatencyWindow window = new LatencyWindow(100, 95);
+        for (int i = 100; i >= 1; i--) {
+            window.record(i);
+        }
+
+        assertThat(window.size()).isEqualTo(100);
+        assertThat(window.percentile()).isEqualTo(95);
+    }
+
+    @Test
+    void givenFullWindowShouldOnlyKeepMostRecentSamples() {
+        LatencyWindow window = new LatencyWindow(16, 50);
+        for (int i = 0; i < 16; i++) {
+            window.record(1000);
+        }
+        for (int i = 0; i < 16; i++) {
+            window.record(10);
+        }
+
+        assertThat(window.size()).isEqualTo(16);
+        assertThat(window.percentile()).isEqualTo(10);
+    }
+}
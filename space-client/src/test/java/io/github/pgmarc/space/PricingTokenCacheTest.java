@@ -0,0 +1,167 @@
+package io.github.pgmarc.space;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+class PricingTokenCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final PricingTokenCache cache = new PricingTokenCache(PricingTokenPolicy.builder()
+        .expiryMargin(Duration.ofSeconds(30))
+        .refreshAhead(Duration.ofMinutes(5))
+        .build(), nanos::get, () -> TimeUnit.NANOSECONDS.toMillis(nanos.get()));
+
+    static String jwt(String payload) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+            + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + ".c2lnbmF0dXJl";
+    }
+
+    static String jwt(long expSeconds) {
+        return jwt("{\"sub\":\"alice\",\"features\":{\"exp\":1},\"exp\":" + expSeconds + "}");
+    }
+
+    private SingleFlight.IoCall<String> loader(String token) {
+        return () -> {
+            loads.incrementAndGet();
+            return token;
+        };
+    }
+
+    private Supplier<CompletableFuture<String>> refresher(CompletableFuture<String> token) {
+        return () -> {
+            loads.incrementAndGet();
+            return token;
+        };
+    }
+
+    private void advanceSeconds(long seconds) {
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    @Test
+    void givenJwtShouldDecodeExpiration() {
+        assertThat(PricingTokenCache.expiresAtMillis(jwt(1756490318))).isEqualTo(1756490318000L);
+        assertThat(PricingTokenCache.expiresAtMillis(jwt("{\"sub\":\"alice\"}"))).isEqualTo(PricingTokenCache.UNKNOWN);
+        assertThat(PricingTokenCache.expiresAtMillis("opaque-token")).isEqualTo(PricingTokenCache.UNKNOWN);
+        assertThat(PricingTokenCache.expiresAtMillis("a.%%%.b")).isEqualTo(PricingTokenCache.UNKNOWN);
+        assertThat(PricingTokenCache.expiresAtMillis(jwt("[1]"))).isEqualTo(PricingTokenCache.UNKNOWN);
+    }
+
+    @Test
+    void givenTokenShouldServeItUntilExpiryMargin() throws IOException {
+        String token = jwt(3600);
+        Supplier<CompletableFuture<String>> failing = refresher(CompletableFuture.failedFuture(new IOException()));
+
+        assertThat(cache.get("alice", loader(token), failing)).isEqualTo(token);
+        advanceSeconds(3569);
+        assertThat(cache.get("alice", loader(token), failing)).isEqualTo(token);
+        assertThat(loads).hasValue(2);
+
+        advanceSeconds(1);
+        cache.get("alice", loader(jwt(7200)), failing);
+        assertThat(loads).hasValue(3);
+        assertThat(cache.stats().getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    void givenTokenDueForRefreshShouldRefreshItOnceInBackground() throws IOException {
+        String token = jwt(3600);
+        String refreshed = jwt(7200);
+        CompletableFuture<String> refresh = new CompletableFuture<>();
+        cache.get("alice", loader(token), refresher(refresh));
+
+        advanceSeconds(3269);
+        cache.get("alice", loader(token), refresher(refresh));
+        assertThat(loads).hasValue(1);
+
+        advanceSeconds(1);
+        assertThat(cache.get("alice", loader(token), refresher(refresh))).isEqualTo(token);
+        assertThat(cache.get("alice", loader(token), refresher(refresh))).isEqualTo(token);
+        assertThat(loads).hasValue(2);
+
+        refresh.complete(refreshed);
+        assertThat(cache.get("alice", loader(token), refresher(refresh))).isEqualTo(refreshed);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void givenShortLivedTokenShouldRefreshItHalfwayThrough() throws IOException {
+        String token = jwt(90);
+        cache.get("alice", loader(token), refresher(new CompletableFuture<>()));
+
+        advanceSeconds(29);
+        cache.get("alice", loader(token), refresher(new CompletableFuture<>()));
+        assertThat(loads).hasValue(1);
+
+        advanceSeconds(1);
+        cache.get("alice", loader(token), refresher(new CompletableFuture<>()));
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void givenConcurrentMissesShouldShareOneLoad() throws Exception {
+        String token = jwt(3600);
+        CompletableFuture<String> load = new CompletableFuture<>();
+
+        CompletableFuture<String> first = cache.getAsync("alice", refresher(load), Runnable::run);
+        CompletableFuture<String> second = cache.getAsync("alice", refresher(load), Runnable::run);
+        assertThat(loads).hasValue(1);
+
+        load.complete(token);
+        assertThat(first.get()).isEqualTo(token);
+        assertThat(second.get()).isEqualTo(token);
+        assertThat(cache.getAsync("alice", refresher(load), Runnable::run).get()).isEqualTo(token);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void givenInvalidatedUserShouldNotShareLoadsStartedBefore() throws Exception {
+        CompletableFuture<String> stale = new CompletableFuture<>();
+        CompletableFuture<String> fresh = new CompletableFuture<>();
+
+        CompletableFuture<String> first = cache.getAsync("alice", refresher(stale), Runnable::run);
+        cache.invalidate("alice");
+        CompletableFuture<String> second = cache.getAsync("alice", refresher(fresh), Runnable::run);
+        stale.complete(jwt(3600));
+        fresh.complete(jwt(7200));
+
+        assertThat(first.get()).isEqualTo(jwt(3600));
+        assertThat(second.get()).isEqualTo(jwt(7200));
+        assertThat(cache.get("alice", loader(jwt(1)), refresher(new CompletableFuture<>()))).isEqualTo(jwt(7200));
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void givenInvalidatedUserShouldReloadToken() throws IOException {
+        cache.get("alice", loader(jwt(3600)), refresher(new CompletableFuture<>()));
+        cache.get("bob", loader(jwt(3600)), refresher(new CompletableFuture<>()));
+
+        cache.invalidate("alice");
+        cache.get("alice", loader(jwt(3600)), refresher(new CompletableFuture<>()));
+        cache.get("bob", loader(jwt(3600)), refresher(new CompletableFuture<>()));
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void givenTokenWithoutExpirationShouldNotCacheIt() throws IOException {
+        for (int i = 0; i < 2; i++) {
+            assertThat(cache.get("alice", loader("opaque-token"), refresher(new CompletableFuture<>())))
+                .isEqualTo("opaque-token");
+        }
+        assertThat(loads).hasValue(2);
+    }
+}
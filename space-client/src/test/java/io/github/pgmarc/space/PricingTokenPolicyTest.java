@@ -0,0 +1,51 @@
+package io.github.pgmarc.space;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class PricingTokenPolicyTest {
+
+    @Test
+    void givenDefaultsShouldRefreshBeforeTheMargin() {
+        PricingTokenPolicy policy = PricingTokenPolicy.defaults();
+
+        assertThat(policy.getMaximumWeight()).isEqualTo(4L << 20);
+        assertThat(policy.getExpiryMargin()).isEqualTo(Duration.ofSeconds(30));
+        assertThat(policy.getRefreshAhead()).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    void givenSettingsShouldBuildPolicy() {
+        PricingTokenPolicy policy = PricingTokenPolicy.builder()
+            .maximumWeight(1024)
+            .expiryMargin(Duration.ZERO)
+            .refreshAhead(Duration.ofMinutes(1))
+            .build();
+
+        assertThat(policy.getMaximumWeight()).isEqualTo(1024);
+        assertThat(policy.getExpiryMargin()).isEqualTo(Duration.ZERO);
+        assertThat(policy.getRefreshAhead()).isEqualTo(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void givenInvalidSettingsShouldThrow() {
+        PricingTokenPolicy.Builder builder = PricingTokenPolicy.builder();
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> builder.maximumWeight(0))
+            .withMessage("maximum weight must be greater than 0");
+        assertThatExceptionOfType(NullPointerException.class)
+            .isThrownBy(() -> builder.expiryMargin(null))
+            .withMessage("expiry margin must not be null");
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> builder.expiryMargin(Duration.ofSeconds(-1)))
+            .withMessage("expiry margin must not be negative");
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> builder.refreshAhead(Duration.ZERO))
+            .withMessage("refresh ahead must be positive");
+    }
+}
@@ -0,0 +1,245 @@
+package io.github.pgmarc.space;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.util.introspection.PropertyOrFieldSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+
+import io.github.pgmarc.space.codec.JsonCodec;
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.features.UsageLimitConsumption;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+
+class SingleFlightTest {
+
+    private static final String TEST_API_KEY = "prueba";
+    private static final String USER_ID = "01c36d29-0d6a-4b41-83e9-8c6d9310c508";
+    private static final int CALLERS = 8;
+
+    @RegisterExtension
+    static WireMockExtension wm = WireMockExtension.newInstance()
+        .options(wireMockConfig().dynamicPort().globalTemplating(true))
+        .build();
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void givenConcurrentIdenticalCallsShouldShareResult() throws Exception {
+
+        SingleFlight singleFlight = new SingleFlight();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger invocations = new AtomicInteger();
+
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                invocations.incrementAndGet();
+                awaitQuietly(release);
+                return 42;
+            })));
+        }
+
+        while (singleFlight.getDeduplicatedCalls() < CALLERS - 1) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        for (Future<Integer> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+        }
+        assertThat(invocations).hasValue(1);
+        assertThat(singleFlight.getDeduplicatedCalls()).isEqualTo(CALLERS - 1);
+    }
+
+    @Test
+    void givenLeaderFailureShouldPropagateToFollowers() throws Exception {
+
+        SingleFlight singleFlight = new SingleFlight();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Integer> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            awaitQuietly(release);
+            throw new IOException("connection reset");
+        }));
+        while (!leaderStarted(singleFlight)) {
+            Thread.sleep(5);
+        }
+        Future<Integer> follower = executor.submit(() -> singleFlight.execute("key", () -> 1));
+        while (singleFlight.getDeduplicatedCalls() < 1) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        assertThatExceptionOfType(Exception.class).isThrownBy(() -> leader.get(5, TimeUnit.SECONDS))
+            .withRootCauseInstanceOf(IOException.class);
+        assertThatExceptionOfType(Exception.class).isThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+            .withRootCauseInstanceOf(IOException.class);
+    }
+
+    @Test
+    void givenCompletedCallShouldNotReuseResult() throws IOException {
+
+        SingleFlight singleFlight = new SingleFlight();
+
+        assertThat(singleFlight.execute("key", () -> 1)).isEqualTo(1);
+        assertThat(singleFlight.execute("key", () -> 2)).isEqualTo(2);
+        assertThat(singleFlight.getDeduplicatedCalls()).isZero();
+    }
+
+    @Test
+    void givenEveryCallerCancelledShouldCancelSharedCall() {
+
+        SingleFlight singleFlight = new SingleFlight();
+        CompletableFuture<Integer> call = new CompletableFuture<>();
+
+        CompletableFuture<Integer> leader = singleFlight.enqueue("key", () -> call, CallExecutor.DIRECT);
+        CompletableFuture<Integer> follower = singleFlight.enqueue("key", CompletableFuture::new, CallExecutor.DIRECT);
+
+        assertThat(leader.cancel(true)).isTrue();
+        assertThat(call).isNotCancelled();
+        assertThat(follower.cancel(true)).isTrue();
+        assertThat(call).isCancelled();
+        assertThat(leaderStarted(singleFlight)).isFalse();
+    }
+
+    @Test
+    void givenAbandonedCallShouldStartNewOne() throws Exception {
+
+        SingleFlight singleFlight = new SingleFlight();
+        CompletableFuture<Integer> abandoned = new CompletableFuture<>();
+
+        singleFlight.enqueue("key", () -> abandoned, CallExecutor.DIRECT).cancel(true);
+        CompletableFuture<Integer> res = singleFlight.enqueue("key", () -> CompletableFuture.completedFuture(2),
+            CallExecutor.DIRECT);
+
+        assertThat(abandoned).isCancelled();
+        assertThat(res.get(5, TimeUnit.SECONDS)).isEqualTo(2);
+        assertThat(singleFlight.getDeduplicatedCalls()).isZero();
+    }
+
+    @Test
+    void givenFollowerExecutorShouldCompleteFollowerOnIt() throws Exception {
+
+        SingleFlight singleFlight = new SingleFlight();
+        CompletableFuture<Integer> call = new CompletableFuture<>();
+        AtomicInteger leaderTasks = new AtomicInteger();
+        AtomicInteger followerTasks = new AtomicInteger();
+
+        CompletableFuture<Integer> leader = singleFlight.enqueue("key", () -> call,
+            task -> { leaderTasks.incrementAndGet(); task.run(); });
+        CompletableFuture<Integer> follower = singleFlight.enqueue("key", CompletableFuture::new,
+            task -> { followerTasks.incrementAndGet(); task.run(); });
+        call.complete(42);
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+        assertThat(followerTasks).hasValue(1);
+        assertThat(leaderTasks).hasValue(0);
+    }
+
+    @Test
+    void givenConcurrentContractReadsShouldSendSingleRequest() throws Exception {
+
+        wm.stubFor(get(urlPathTemplate("/contracts/{userId}"))
+            .withPathParam("userId", equalTo(USER_ID))
+            .willReturn(
+                ok()
+                    .withFixedDelay(500)
+                    .withHeader("Content-Type", "application/json")
+                    .withBodyFile("getContractById-response.json")));
+
+        HttpUrl url = new HttpUrl.Builder().scheme("http").host("localhost").port(wm.getPort()).build();
+        CallExecutor calls = new CallExecutor(new OkHttpClient(), new SingleFlight(), null);
+        ContractsEndpoint endpoint = new ContractsEndpoint(calls, url, TEST_API_KEY, JsonCodec.defaults(), null, null, null);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Subscription>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS - 1; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return endpoint.getContractByUserId(USER_ID);
+            }));
+        }
+        start.countDown();
+        CompletableFuture<Subscription> asyncResult = endpoint.getContractByUserIdAsync(USER_ID);
+
+        for (Future<Subscription> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS).getUserId()).isEqualTo(USER_ID);
+        }
+        assertThat(asyncResult.get(5, TimeUnit.SECONDS).getUserId()).isEqualTo(USER_ID);
+        wm.verify(1, getRequestedFor(urlPathEqualTo("/contracts/" + USER_ID)));
+        assertThat(calls.getDeduplicatedCalls()).isEqualTo(CALLERS - 1);
+    }
+
+    @Test
+    void givenConcurrentOptimisticEvaluationsShouldNotCoalesce() throws Exception {
+
+        wm.stubFor(post(urlPathTemplate("/features/{userId}/{featureId}"))
+            .willReturn(
+                ok()
+                    .withFixedDelay(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBodyFile("optimistic-evaluation-response.json")));
+
+        HttpUrl url = new HttpUrl.Builder().scheme("http").host("localhost").port(wm.getPort()).build();
+        CallExecutor calls = new CallExecutor(new OkHttpClient(), new SingleFlight(), null);
+        FeaturesEndpoint endpoint = new FeaturesEndpoint(calls, url, TEST_API_KEY, JsonCodec.defaults(), null, null);
+        UsageLimitConsumption consumption = UsageLimitConsumption.builder("Petclinic")
+            .addInt("featureALimit", 1).build();
+
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(executor.submit(
+                () -> endpoint.evaluateOptimistically(USER_ID, "Petclinic", "featureA", consumption)));
+        }
+        for (Future<?> result : results) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+
+        wm.verify(3, postRequestedFor(urlPathEqualTo("/features/" + USER_ID + "/petclinic-featureA")));
+        assertThat(calls.getDeduplicatedCalls()).isZero();
+    }
+
+    private static boolean leaderStarted(SingleFlight singleFlight) {
+        return !((Map<?, ?>) PropertyOrFieldSupport.EXTRACTION.getValueOf("inFlight", singleFlight)).isEmpty();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -8,6 +8,7 @@ import java.time.Duration;
 
 import org.junit.jupiter.api.Test;
 
+import io.github.pgmarc.space.codec.JsonCodec;
 import okhttp3.HttpUrl;
 
 class SpaceClientTest {
@@ -45,6 +46,15 @@ class SpaceClientTest {
 
     }
 
+    @Test
+    void givenVirtualThreadsShouldCreateClient() {
+
+        SpaceClient.Builder builder = SpaceClient.builder("example.com", "prueba")
+                .withVirtualThreads(true);
+
+        assertDoesNotThrow(builder::build);
+    }
+
     @Test
     void givenNullPathShouldCreateClient() {
 
@@ -93,4 +103,78 @@ class SpaceClientTest {
                 .withMessage("api key must not be blank");
     }
 
+    @Test
+    void givenJsonCodecShouldBeUsedByEndpoints() {
+
+        JsonCodec codec = JsonCodec.defaults();
+
+        SpaceClient client = SpaceClient.builder("example.com", "prueba").withJsonCodec(codec).build();
+
+        assertThat(client.contracts()).hasFieldOrPropertyWithValue("codec", codec);
+        assertThat(client.features()).hasFieldOrPropertyWithValue("codec", codec);
+    }
+
+    @Test
+    void givenNullJsonCodecShouldThrow() {
+
+        SpaceClient.Builder builder = SpaceClient.builder("example.com", "prueba");
+
+        assertThatExceptionOfType(NullPointerException.class)
+                .isThrownBy(() -> builder.withJsonCodec(null))
+                .withMessage("json codec must not be null");
+    }
+
+    @Test
+    void givenContractCacheShouldExposeItsStats() {
+
+        SpaceClient client = SpaceClient.builder("example.com", "prueba")
+                .withContractCache(CachePolicy.defaults())
+                .build();
+
+        client.contracts().invalidateCachedContract("alice");
+
+        assertThat(client.getContractCacheStats().getHitCount()).isZero();
+        assertThat(SpaceClient.builder("example.com", "prueba").build().getContractCacheStats())
+                .isSameAs(CacheStats.empty());
+    }
+
+    @Test
+    void givenNullContractCachePolicyShouldThrow() {
+
+        SpaceClient.Builder builder = SpaceClient.builder("example.com", "prueba");
+
+        assertThatExceptionOfType(NullPointerException.class)
+                .isThrownBy(() -> builder.withContractCache(null))
+                .withMessage("cache policy must not be null");
+    }
+
+    @Test
+    void givenEvaluationCacheShouldExposeItsStats() {
+
+        SpaceClient client = SpaceClient.builder("example.com", "prueba")
+                .withEvaluationCache(EvaluationCachePolicy.defaults())
+                .build();
+
+        client.features().invalidateCachedEvaluations("alice");
+
+        assertThat(client.getEvaluationCacheStats().getMissCount()).isZero();
+        assertThatExceptionOfType(NullPointerException.class)
+                .isThrownBy(() -> SpaceClient.builder("example.com", "prueba").withEvaluationCache(null))
+                .withMessage("evaluation cache policy must not be null");
+    }
+
+    @Test
+    void givenPricingTokenCacheShouldExposeItsStats() {
+
+        SpaceClient client = SpaceClient.builder("example.com", "prueba")
+                .withPricingTokenCache(PricingTokenPolicy.defaults())
+                .build();
+
+        client.features().invalidateCachedPricingToken("alice");
+
+        assertThat(client.getPricingTokenCacheStats().getMissCount()).isZero();
+        assertThatExceptionOfType(NullPointerException.class)
+                .isThrownBy(() -> SpaceClient.builder("example.com", "prueba").withPricingTokenCache(null))
+                .withMessage("pricing token policy must not be null");
+    }
 }
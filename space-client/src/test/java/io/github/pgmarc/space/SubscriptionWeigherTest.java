@@ -0,0 +1,32 @@
+package io.github.pgmarc.space;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.deserializers.SubscriptionDeserializer;
+
+class SubscriptionWeigherTest {
+
+    @Test
+    void givenSubscriptionsShouldEstimateRetainedBytes() throws IOException {
+
+        List<Subscription> subscriptions = TestContracts.subscriptions(1000, new SubscriptionDeserializer());
+        long estimated = 0;
+        for (Subscription subscription : subscriptions) {
+            estimated += SubscriptionWeigher.weigh(subscription);
+        }
+
+        long retained = GraphLayout.parseInstance(subscriptions.toArray()).totalSize();
+
+        assertThat(estimated)
+            .as("estimated bytes per subscription %d, retained %d", estimated / subscriptions.size(),
+                retained / subscriptions.size())
+            .isBetween(retained / 2, retained * 2);
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.pgmarc.space;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.deserializers.SubscriptionDeserializer;
+import io.github.pgmarc.space.json.JsonReader;
+import okio.Buffer;
+import okio.ByteString;
+import okio.Okio;
+
+/**
+ * The <code>getContractById-response.json</code> fixture, for tests that
+ * need subscriptions as SPACE sends them.
+ */
+public final class TestContracts {
+
+    private static final String FIXTURE = "/__files/getContractById-response.json";
+    private static final String USER_ID_TEMPLATE = "{{request.path.userId}}";
+
+    private TestContracts() {
+    }
+
+    public static ByteString json() throws IOException {
+        try (InputStream in = TestContracts.class.getResourceAsStream(FIXTURE)) {
+            return Okio.buffer(Okio.source(in)).readByteString();
+        }
+    }
+
+    public static Subscription subscription() throws IOException {
+        return new SubscriptionDeserializer().readJson(JsonReader.of(new Buffer().write(json())));
+    }
+
+    /**
+     * <code>count</code> subscriptions of users <code>user-0</code>,
+     * <code>user-1</code>... decoded from their own copy of the fixture.
+     */
+    public static List<Subscription> subscriptions(int count, SubscriptionDeserializer deserializer)
+            throws IOException {
+        String json = json().utf8();
+        List<Subscription> subscriptions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String contract = json.replace(USER_ID_TEMPLATE, "user-" + i);
+            subscriptions.add(deserializer.readJson(JsonReader.of(new Buffer().writeUtf8(contract))));
+        }
+        return subscriptions;
+    }
+}
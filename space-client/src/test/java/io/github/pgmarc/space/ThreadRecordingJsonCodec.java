@@ -0,0 +1,54 @@
+package io.github.pgmarc.space;
+
+import java.io.IOException;
+import java.util.List;
+
+import io.github.pgmarc.space.codec.JsonCodec;
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.contracts.SubscriptionRequest;
+import io.github.pgmarc.space.contracts.SubscriptionUpdateRequest;
+import io.github.pgmarc.space.features.FeatureEvaluationResult;
+import io.github.pgmarc.space.features.UsageLimitConsumption;
+import okio.BufferedSink;
+import okio.BufferedSource;
+
+/**
+ * The default codec, recording the name of every thread that decodes an
+ * evaluation.
+ */
+final class ThreadRecordingJsonCodec implements JsonCodec {
+
+    private final JsonCodec codec = JsonCodec.defaults();
+    private final List<String> decodingThreads;
+
+    ThreadRecordingJsonCodec(List<String> decodingThreads) {
+        this.decodingThreads = decodingThreads;
+    }
+
+    @Override
+    public Subscription readSubscription(BufferedSource source) throws IOException {
+        return codec.readSubscription(source);
+    }
+
+    @Override
+    public FeatureEvaluationResult readEvaluation(BufferedSource source, String service) throws IOException {
+        decodingThreads.add(Thread.currentThread().getName());
+        return codec.readEvaluation(source, service);
+    }
+
+    @Override
+    public void writeSubscriptionRequest(BufferedSink sink, SubscriptionRequest request) throws IOException {
+        codec.writeSubscriptionRequest(sink, request);
+    }
+
+    @Override
+    public void writeSubscriptionUpdateRequest(BufferedSink sink, SubscriptionUpdateRequest request)
+            throws IOException {
+        codec.writeSubscriptionUpdateRequest(sink, request);
+    }
+
+    @Override
+    public void writeConsumption(BufferedSink sink, UsageLimitConsumption consumption) throws IOException {
+        codec.writeConsumption(sink, consumption);
+    }
+}
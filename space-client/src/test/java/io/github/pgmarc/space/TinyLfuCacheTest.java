@@ -0,0 +1,315 @@
+package io.github.pgmarc.space;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+class TinyLfuCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private TinyLfuCache<String, String> cache(long maximumWeight) {
+        CachePolicy policy = CachePolicy.builder()
+            .maximumWeight(maximumWeight)
+            .expireAfterWrite(Duration.ofSeconds(10))
+            .build();
+        return new TinyLfuCache<>(policy, String::length, 1, nanos::get);
+    }
+
+    private TinyLfuCache<String, String> refreshingCache(int maximumConcurrentRefreshes) {
+        CachePolicy policy = CachePolicy.builder()
+            .expireAfterWrite(Duration.ofSeconds(10))
+            .refreshAfterWrite(Duration.ofSeconds(5))
+            .maximumConcurrentRefreshes(maximumConcurrentRefreshes)
+            .build();
+        return new TinyLfuCache<>(policy, String::length, 1, nanos::get);
+    }
+
+    @Test
+    void givenPutShouldReturnValueAndCountHitsAndMisses() {
+        TinyLfuCache<String, String> cache = cache(1024);
+
+        assertThat(cache.getIfPresent("alice")).isNull();
+        cache.put("alice", "pro");
+
+        assertThat(cache.getIfPresent("alice")).isEqualTo("pro");
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.weightedSize()).isEqualTo(3);
+        CacheStats stats = cache.stats();
+        assertThat(stats.getHitCount()).isEqualTo(1);
+        assertThat(stats.getMissCount()).isEqualTo(1);
+        assertThat(stats.getHitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void givenExpiredEntryShouldBeDropped() {
+        TinyLfuCache<String, String> cache = cache(1024);
+        cache.put("alice", "pro");
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(10) - 1);
+        assertThat(cache.getIfPresent("alice")).isEqualTo("pro");
+        nanos.incrementAndGet();
+
+        assertThat(cache.getIfPresent("alice")).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.weightedSize()).isZero();
+        assertThat(cache.stats().getEvictionCount()).isZero();
+    }
+
+    @Test
+    void givenEntryTtlShouldOverridePolicyExpiration() {
+        TinyLfuCache<String, String> cache = cache(1024);
+        cache.put("alice", "pro", TimeUnit.SECONDS.toNanos(1));
+        cache.put("bob", "basic", Long.MAX_VALUE);
+
+        nanos.addAndGet(TimeUnit.DAYS.toNanos(1));
+
+        assertThat(cache.getIfPresent("alice")).isNull();
+        assertThat(cache.getIfPresent("bob")).isEqualTo("basic");
+    }
+
+    @Test
+    void givenMoreEntriesThanFitShouldEvictDownToMaximumWeight() {
+        TinyLfuCache<String, String> cache = cache(100);
+        for (int i = 0; i < 1000; i++) {
+            cache.put("key-" + i, "v");
+        }
+
+        assertThat(cache.weightedSize()).isLessThanOrEqualTo(100);
+        assertThat(cache.size()).isEqualTo((int) cache.weightedSize());
+        assertThat(cache.stats().getEvictionCount()).isEqualTo(1000 - cache.size());
+    }
+
+    @Test
+    void givenScanOfOneOffKeysShouldKeepFrequentlyUsedEntry() {
+        TinyLfuCache<String, String> cache = cache(100);
+        cache.put("hot", "v");
+        for (int i = 0; i < 10; i++) {
+            cache.getIfPresent("hot");
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put("cold-" + i, "v");
+        }
+
+        assertThat(cache.getIfPresent("hot")).isEqualTo("v");
+    }
+
+    @Test
+    void givenValueHeavierThanCacheShouldNotKeepIt() {
+        TinyLfuCache<String, String> cache = cache(4);
+        cache.put("alice", "pro");
+        cache.put("alice", "enterprise");
+
+        assertThat(cache.getIfPresent("alice")).isNull();
+        assertThat(cache.weightedSize()).isZero();
+    }
+
+    @Test
+    void givenLoaderShouldLoadOnceAndRecordLoad() throws IOException {
+        TinyLfuCache<String, String> cache = cache(1024);
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlight.IoCall<String> loader = () -> {
+            loads.incrementAndGet();
+            nanos.addAndGet(500);
+            return "pro";
+        };
+
+        assertThat(cache.get("alice", loader)).isEqualTo("pro");
+        assertThat(cache.get("alice", loader)).isEqualTo("pro");
+
+        assertThat(loads).hasValue(1);
+        CacheStats stats = cache.stats();
+        assertThat(stats.getLoadSuccessCount()).isEqualTo(1);
+        assertThat(stats.getTotalLoadTimeNanos()).isEqualTo(500);
+        assertThat(stats.getAverageLoadPenaltyNanos()).isEqualTo(500);
+    }
+
+    @Test
+    void givenFailingLoaderShouldNotCacheAndRecordFailure() {
+        TinyLfuCache<String, String> cache = cache(1024);
+
+        assertThatExceptionOfType(IOException.class)
+            .isThrownBy(() -> cache.get("alice", () -> {
+                throw new IOException("unreachable");
+            }));
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.stats().getLoadFailureCount()).isEqualTo(1);
+    }
+
+    @Test
+    void givenAsyncLoaderShouldCacheCompletedValue() throws Exception {
+        TinyLfuCache<String, String> cache = cache(1024);
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        CompletableFuture<String> first = cache.getAsync("alice", () -> pending, Runnable::run);
+        assertThat(cache.size()).isZero();
+        pending.complete("pro");
+
+        assertThat(first.get()).isEqualTo("pro");
+        assertThat(cache.getAsync("alice", CompletableFuture::new, Runnable::run).get()).isEqualTo("pro");
+        assertThat(cache.stats().getLoadSuccessCount()).isEqualTo(1);
+    }
+
+    @Test
+    void givenInvalidatedKeysShouldBeRemoved() {
+        TinyLfuCache<String, String> cache = cache(1024);
+        cache.put("alice", "pro");
+        cache.put("bob", "basic");
+
+        cache.invalidate("alice");
+        assertThat(cache.getIfPresent("alice")).isNull();
+        assertThat(cache.weightedSize()).isEqualTo(5);
+
+        cache.invalidateAll();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.weightedSize()).isZero();
+    }
+
+    @Test
+    void givenEntryPastRefreshTimeShouldServeStaleValueWhileRefreshing() throws IOException {
+        TinyLfuCache<String, String> cache = refreshingCache(16);
+        cache.put("alice", "basic");
+        CompletableFuture<String> reload = new CompletableFuture<>();
+        AtomicInteger refreshes = new AtomicInteger();
+        Supplier<CompletableFuture<String>> refresher = () -> {
+            refreshes.incrementAndGet();
+            return reload;
+        };
+
+        assertThat(cache.getIfPresent("alice", refresher)).isEqualTo("basic");
+        assertThat(refreshes).hasValue(0);
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertThat(cache.get("alice", () -> "loaded", refresher)).isEqualTo("basic");
+        assertThat(cache.getIfPresent("alice", refresher)).isEqualTo("basic");
+        assertThat(refreshes).hasValue(1);
+
+        reload.complete("pro");
+        assertThat(cache.getIfPresent("alice", refresher)).isEqualTo("pro");
+        CacheStats stats = cache.stats();
+        assertThat(stats.getStaleHitCount()).isEqualTo(2);
+        assertThat(stats.getRefreshCount()).isEqualTo(1);
+        assertThat(stats.getLoadSuccessCount()).isEqualTo(1);
+    }
+
+    @Test
+    void givenRefreshCompletingRightAwayShouldServeValueLookedUp() {
+        TinyLfuCache<String, String> cache = refreshingCache(16);
+        cache.put("alice", "basic");
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(5));
+
+        assertThat(cache.getIfPresent("alice", () -> CompletableFuture.completedFuture("pro"))).isEqualTo("basic");
+        assertThat(cache.getIfPresent("alice")).isEqualTo("pro");
+    }
+
+    @Test
+    void givenEntryPastExpirationShouldNotServeStaleValue() throws IOException {
+        TinyLfuCache<String, String> cache = refreshingCache(16);
+        cache.put("alice", "basic");
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        assertThat(cache.get("alice", () -> "pro", CompletableFuture::new)).isEqualTo("pro");
+        assertThat(cache.stats().getStaleHitCount()).isZero();
+        assertThat(cache.stats().getRefreshCount()).isZero();
+    }
+
+    @Test
+    void givenWriteDuringRefreshShouldKeepWrittenValue() {
+        TinyLfuCache<String, String> cache = refreshingCache(16);
+        cache.put("alice", "basic");
+        CompletableFuture<String> reload = new CompletableFuture<>();
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        cache.getIfPresent("alice", () -> reload);
+        cache.put("alice", "enterprise");
+        reload.complete("pro");
+
+        assertThat(cache.getIfPresent("alice")).isEqualTo("enterprise");
+    }
+
+    @Test
+    void givenWriteDuringLoadShouldKeepWrittenValue() throws IOException {
+        TinyLfuCache<String, String> cache = cache(1024);
+
+        String loaded = cache.get("alice", () -> {
+            cache.put("alice", "enterprise");
+            return "basic";
+        });
+
+        assertThat(loaded).isEqualTo("basic");
+        assertThat(cache.getIfPresent("alice")).isEqualTo("enterprise");
+    }
+
+    @Test
+    void givenInvalidationDuringAsyncLoadShouldNotCacheLoadedValue() throws Exception {
+        TinyLfuCache<String, String> cache = cache(1024);
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        CompletableFuture<String> load = cache.getAsync("alice", () -> pending, Runnable::run);
+        cache.invalidate("alice");
+        pending.complete("basic");
+
+        assertThat(load.get()).isEqualTo("basic");
+        assertThat(cache.getIfPresent("alice")).isNull();
+        assertThat(cache.get("alice", () -> "pro")).isEqualTo("pro");
+        assertThat(cache.getIfPresent("alice")).isEqualTo("pro");
+    }
+
+    @Test
+    void givenRefreshLimitReachedShouldServeStaleValueWithoutRefreshing() {
+        TinyLfuCache<String, String> cache = refreshingCache(1);
+        cache.put("alice", "basic");
+        cache.put("bob", "basic");
+        AtomicInteger refreshes = new AtomicInteger();
+        CompletableFuture<String> reload = new CompletableFuture<>();
+        Supplier<CompletableFuture<String>> refresher = () -> {
+            refreshes.incrementAndGet();
+            return reload;
+        };
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        cache.getIfPresent("alice", refresher);
+        assertThat(cache.getIfPresent("bob", refresher)).isEqualTo("basic");
+        assertThat(refreshes).hasValue(1);
+
+        reload.complete("pro");
+        cache.getIfPresent("bob", refresher);
+        assertThat(refreshes).hasValue(2);
+    }
+
+    @Test
+    void givenSlowLoadsShouldRefreshSomeEntriesEarly() throws IOException {
+        TinyLfuCache<String, String> cache = refreshingCache(1000);
+        for (int i = 0; i < 100; i++) {
+            cache.get("key-" + i, () -> {
+                nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+                return "v";
+            });
+        }
+        AtomicInteger refreshes = new AtomicInteger();
+
+        for (int i = 0; i < 100; i++) {
+            nanos.set(TimeUnit.SECONDS.toNanos(i + 1 + 4));
+            cache.getIfPresent("key-" + i, () -> {
+                refreshes.incrementAndGet();
+                return new CompletableFuture<>();
+            });
+        }
+
+        assertThat(cache.stats().getStaleHitCount()).isZero();
+        assertThat(refreshes.get()).isBetween(1, 99);
+    }
+}
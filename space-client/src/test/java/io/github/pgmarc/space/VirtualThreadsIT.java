@@ -0,0 +1,54 @@
+package io.github.pgmarc.space;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+
+/**
+ * Runs against the multi-release jar on Java 21 or later, see the
+ * <code>java21</code> profile.
+ */
+@WireMockTest
+class VirtualThreadsIT {
+
+    @Test
+    void givenJava21ShouldLoadVirtualThreadsVersion() {
+        assertThat(VirtualThreads.isSupported()).isTrue();
+    }
+
+    @Test
+    void givenVirtualThreadsShouldRunCallsOnThem(WireMockRuntimeInfo wmRuntimeInfo) throws Exception {
+
+        String userId = "e8e053c5-fd2b-4e4c-85a0-f1a52f0da72e";
+        stubFor(post(urlPathEqualTo("/api/v1/features/" + userId + "/petclinic-featureA"))
+            .willReturn(
+                ok()
+                    .withHeader("Content-Type", "application/json")
+                    .withBodyFile("boolean-feature-evaluation.json")));
+
+        SpaceClient client = SpaceClient.builder("localhost", "prueba")
+            .withPort(wmRuntimeInfo.getHttpPort())
+            .withVirtualThreads(true)
+            .build();
+        AtomicReference<Thread> callbackThread = new AtomicReference<>();
+        Executor recording = task -> {
+            callbackThread.set(Thread.currentThread());
+            task.run();
+        };
+
+        client.features().evaluateAsync(userId, "Petclinic", "featureA", recording).get(5, TimeUnit.SECONDS);
+
+        assertThat(Thread.class.getMethod("isVirtual").invoke(callbackThread.get())).isEqualTo(true);
+    }
+}
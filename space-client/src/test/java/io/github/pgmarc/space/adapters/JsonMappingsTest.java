@@ -0,0 +1,114 @@
+package io.github.pgmarc.space.adapters;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+
+import io.github.pgmarc.space.TestContracts;
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.contracts.UsageLevel;
+import io.github.pgmarc.space.deserializers.FeatureEvaluationDeserializer;
+import io.github.pgmarc.space.deserializers.SubscriptionDeserializer;
+import io.github.pgmarc.space.exceptions.SpaceApiException;
+import io.github.pgmarc.space.features.FeatureEvaluationResult;
+import io.github.pgmarc.space.json.JsonParseException;
+import io.github.pgmarc.space.json.JsonReader;
+import io.github.pgmarc.space.json.JsonWriter;
+import okio.Buffer;
+import org.junit.jupiter.api.Test;
+
+class JsonMappingsTest {
+
+    private static JsonReader reader(String json) {
+        return JsonReader.of(new Buffer().writeUtf8(json));
+    }
+
+    private static String contract() throws IOException {
+        return TestContracts.json().utf8();
+    }
+
+    @Test
+    void givenContractShouldReadAsHandWrittenDeserializer() throws IOException {
+
+        String json = contract();
+
+        Subscription expected = new SubscriptionDeserializer().readJson(reader(json));
+        Subscription actual = new SubscriptionJsonAdapter().readJson(reader(json));
+
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+    }
+
+    @Test
+    void givenSubscriptionShouldReadWhatItWrites() throws IOException {
+
+        SubscriptionJsonAdapter adapter = new SubscriptionJsonAdapter();
+        Subscription expected = adapter.readJson(reader(contract()));
+
+        Buffer buffer = new Buffer();
+        adapter.writeJson(JsonWriter.of(buffer), expected);
+        Subscription actual = adapter.readJson(JsonReader.of(buffer));
+
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+    }
+
+    @Test
+    void givenUsageLevelShouldReadResetTimestamp() throws IOException {
+
+        String json = "{\"consumed\":5.5,\"resetTimeStamp\":\"2025-07-31T00:00:00Z\",\"unknown\":[1,2]}";
+
+        UsageLevel actual = new UsageLevelJsonAdapter().readJson(reader(json), "maxVisits");
+
+        assertThat(actual).isEqualTo(UsageLevel.of("maxVisits", 5.5, ZonedDateTime.parse("2025-07-31T00:00:00Z")));
+    }
+
+    @Test
+    void givenMissingRequiredMemberShouldThrow() {
+
+        String json = "{\"resetTimeStamp\":null}";
+
+        assertThatExceptionOfType(JsonParseException.class)
+            .isThrownBy(() -> new UsageLevelJsonAdapter().readJson(reader(json), "maxVisits"))
+            .withMessage("missing member consumed");
+    }
+
+    @Test
+    void givenEvaluationShouldReadAsHandWrittenDeserializer() throws IOException {
+
+        String json = "{\"eval\":true,\"used\":{\"petclinic-maxPets\":2,\"petclinic-maxVisits\":1.5},"
+            + "\"limit\":{\"petclinic-maxPets\":6,\"petclinic-maxVisits\":9.5},\"error\":null}";
+
+        FeatureEvaluationResult expected = new FeatureEvaluationDeserializer("Petclinic").readJson(reader(json));
+        FeatureEvaluationResult actual = new FeatureEvaluationResultJsonAdapter("Petclinic").readJson(reader(json));
+
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+    }
+
+    @Test
+    void givenEvaluationShouldReadWhatItWrites() throws IOException {
+
+        FeatureEvaluationResultJsonAdapter adapter = new FeatureEvaluationResultJsonAdapter("Petclinic");
+        FeatureEvaluationResult expected = FeatureEvaluationResult.builder()
+            .available(true)
+            .used("maxPets", 2)
+            .limit("maxPets", 6)
+            .build();
+
+        Buffer buffer = new Buffer();
+        adapter.writeJson(JsonWriter.of(buffer), expected);
+
+        assertThat(buffer.snapshot().utf8())
+            .isEqualTo("{\"eval\":true,\"used\":{\"petclinic-maxPets\":2},\"limit\":{\"petclinic-maxPets\":6}}");
+        assertThat(adapter.readJson(JsonReader.of(buffer))).usingRecursiveComparison().isEqualTo(expected);
+    }
+
+    @Test
+    void givenEvaluationErrorShouldThrow() {
+
+        String json = "{\"eval\":false,\"used\":null,\"limit\":null,"
+            + "\"error\":{\"code\":\"FLAG_NOT_FOUND\",\"message\":\"Feature pets not found\"}}";
+
+        assertThatExceptionOfType(SpaceApiException.class)
+            .isThrownBy(() -> new FeatureEvaluationResultJsonAdapter("Petclinic").readJson(reader(json)));
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.pgmarc.space.codec;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+
+import io.github.pgmarc.space.SpaceClient;
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.exceptions.SpaceApiException;
+import io.github.pgmarc.space.features.FeatureEvaluationResult;
+
+@WireMockTest
+class GeneratedJsonCodecTest {
+
+    private static final String USER_ID = "01c36d29-0d6a-4b41-83e9-8c6d9310c508";
+    private static final String EVALUATION_PATH = "/api/v1/features/" + USER_ID + "/petclinic-featureA";
+
+    private SpaceClient generated;
+    private SpaceClient defaults;
+
+    @BeforeEach
+    void setUp(WireMockRuntimeInfo wmRuntimeInfo) {
+        generated = SpaceClient.builder("localhost", "prueba")
+            .withPort(wmRuntimeInfo.getHttpPort())
+            .withJsonCodec(JsonCodec.generated())
+            .build();
+        defaults = SpaceClient.builder("localhost", "prueba")
+            .withPort(wmRuntimeInfo.getHttpPort())
+            .build();
+    }
+
+    @Test
+    void givenContractShouldReadItAsDefaultCodec() throws IOException {
+        stubFor(get(urlPathEqualTo("/api/v1/contracts/" + USER_ID))
+            .willReturn(ok()
+                .withHeader("Content-Type", "application/json")
+                .withBodyFile("getContractById-response.json")));
+
+        Subscription subscription = generated.contracts().getContractByUserId(USER_ID);
+
+        assertThat(subscription.getServices()).hasSize(2);
+        assertThat(subscription).usingRecursiveComparison()
+            .isEqualTo(defaults.contracts().getContractByUserId(USER_ID));
+    }
+
+    @Test
+    void givenEvaluationShouldReadItAsDefaultCodec() throws IOException {
+        stubFor(post(urlPathEqualTo(EVALUATION_PATH))
+            .willReturn(ok()
+                .withHeader("Content-Type", "application/json")
+                .withBodyFile("optimistic-evaluation-response.json")));
+
+        FeatureEvaluationResult result = generated.features().evaluate(USER_ID, "Petclinic", "featureA");
+
+        assertThat(result.getConsumed("featureALimit")).hasValue(100);
+        assertThat(result).usingRecursiveComparison()
+            .isEqualTo(defaults.features().evaluate(USER_ID, "Petclinic", "featureA"));
+    }
+
+    @Test
+    void givenEvaluationErrorShouldThrow() {
+        stubFor(post(urlPathEqualTo(EVALUATION_PATH))
+            .willReturn(ok()
+                .withHeader("Content-Type", "application/json")
+                .withBody("{\"eval\": false, \"used\": null, \"limit\": null,"
+                    + "\"error\": {\"code\": \"FLAG_NOT_FOUND\", \"message\": \"Feature featureA not found\"}}")));
+
+        assertThatExceptionOfType(SpaceApiException.class)
+            .isThrownBy(() -> generated.features().evaluate(USER_ID, "Petclinic", "featureA"))
+            .withMessageContaining("Feature featureA not found");
+    }
+}
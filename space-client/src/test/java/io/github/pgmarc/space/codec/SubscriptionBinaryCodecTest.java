@@ -0,0 +1,144 @@
+package io.github.pgmarc.space.codec;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+import io.github.pgmarc.space.TestContracts;
+import io.github.pgmarc.space.contracts.Service;
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.contracts.Subscription.Snapshot;
+import io.github.pgmarc.space.contracts.UsageLevel;
+import io.github.pgmarc.space.contracts.UserContact;
+import io.github.pgmarc.space.deserializers.HistoryMode;
+import io.github.pgmarc.space.deserializers.SubscriptionDeserializer;
+import io.github.pgmarc.space.json.JsonReader;
+import okio.Buffer;
+import okio.ByteString;
+import org.junit.jupiter.api.Test;
+
+class SubscriptionBinaryCodecTest {
+
+    @Test
+    void givenSubscriptionFromJsonShouldDecodeWhatIsEncoded() throws IOException {
+
+        ByteString json = TestContracts.json();
+        Subscription expected = new SubscriptionDeserializer().readJson(JsonReader.of(new Buffer().write(json)));
+
+        ByteString bytes = SubscriptionBinaryCodec.encode(expected);
+        Subscription actual = SubscriptionBinaryCodec.decode(bytes);
+
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+        assertThat(bytes.size()).isLessThan(json.size());
+    }
+
+    @Test
+    void givenEveryOptionalMemberShouldDecodeWhatIsEncoded() throws IOException {
+
+        UserContact contact = UserContact.builder("01c36d29-0d6a-4b41-83e9-8c6d9310c508", "johndoe")
+            .firstName("John")
+            .lastName("Doe")
+            .email("john.doe@my-domain.com")
+            .phone("+34 666 666 666")
+            .build();
+        Service zoom = Service.builder("zoom", "2025").plan("ENTERPRISE").addOn("extraSeats", 300).build();
+        Service petclinic = Service.builder("petclinic", "2024").addOn("petsAdoptionCentre", 1).build();
+        Snapshot snapshot = Snapshot.of(ZonedDateTime.parse("1969-12-31T23:59:59.5Z"),
+            ZonedDateTime.parse("2024-12-31T00:00:00Z"), Map.of("zoom", zoom));
+        Subscription expected = Subscription.builder(contact, ZonedDateTime.parse("2025-01-01T00:00:00.123456789Z"),
+                ZonedDateTime.parse("2025-12-31T00:00:00Z"), List.of(zoom, petclinic))
+            .renewInMonths(13)
+            .addUsageLevels(Map.of("petclinic", Map.of(
+                "maxPets", UsageLevel.of("maxPets", 2),
+                "maxVisits", UsageLevel.of("maxVisits", 5.25, ZonedDateTime.parse("2025-07-31T00:00:00Z")),
+                "maxHours", UsageLevel.of("maxHours", 1e300))))
+            .addSnapshots(List.of(snapshot))
+            .build();
+
+        Subscription actual = SubscriptionBinaryCodec.decode(SubscriptionBinaryCodec.encode(expected));
+
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+    }
+
+    @Test
+    void givenRecordsInARowShouldReadOneAtATime() throws IOException {
+
+        Subscription subscription = TestContracts.subscription();
+        Buffer buffer = new Buffer();
+        SubscriptionBinaryCodec.write(buffer, subscription);
+        SubscriptionBinaryCodec.write(buffer, subscription);
+
+        SubscriptionBinaryCodec.read(buffer);
+        SubscriptionBinaryCodec.read(buffer);
+
+        assertThat(buffer.exhausted()).isTrue();
+    }
+
+    @Test
+    void givenUnknownVersionShouldThrow() {
+
+        ByteString bytes = new Buffer().writeUtf8("SB").writeByte(2).readByteString();
+
+        assertThatExceptionOfType(BinaryFormatException.class)
+            .isThrownBy(() -> SubscriptionBinaryCodec.decode(bytes))
+            .withMessage("unsupported binary subscription version 2");
+    }
+
+    @Test
+    void givenJsonShouldThrow() {
+
+        assertThatExceptionOfType(BinaryFormatException.class)
+            .isThrownBy(() -> SubscriptionBinaryCodec.decode(TestContracts.json()))
+            .withMessage("not a binary subscription");
+    }
+
+    @Test
+    void givenTruncatedRecordShouldThrow() throws IOException {
+
+        Subscription subscription = TestContracts.subscription();
+        ByteString bytes = SubscriptionBinaryCodec.encode(subscription);
+
+        assertThatExceptionOfType(EOFException.class)
+            .isThrownBy(() -> SubscriptionBinaryCodec.decode(bytes.substring(0, bytes.size() - 1)));
+    }
+
+    @Test
+    void givenNegativeVarintShouldThrow() {
+
+        ByteString negative = ByteString.decodeHex("ffffffffffffffffff01");
+        ByteString count = new Buffer().writeUtf8("SB").writeByte(1).write(negative).readByteString();
+        ByteString length = new Buffer().writeUtf8("SB").writeByte(1).writeByte(1).write(negative).readByteString();
+
+        assertThatExceptionOfType(BinaryFormatException.class)
+            .isThrownBy(() -> SubscriptionBinaryCodec.decode(count))
+            .withMessage("count -1 is out of range");
+        assertThatExceptionOfType(BinaryFormatException.class)
+            .isThrownBy(() -> SubscriptionBinaryCodec.decode(length))
+            .withMessage("string of -1 bytes");
+    }
+
+    @Test
+    void givenLazyOrSkippedHistoryShouldKeepTheRest() throws IOException {
+
+        Service zoom = Service.builder("zoom", "2025").plan("ENTERPRISE").build();
+        Snapshot snapshot = Snapshot.of(ZonedDateTime.parse("2024-01-01T00:00:00Z"),
+            ZonedDateTime.parse("2024-12-31T00:00:00Z"), Map.of("zoom", zoom));
+        Subscription expected = Subscription.builder(UserContact.builder("1", "johndoe").build(),
+                ZonedDateTime.parse("2025-01-01T00:00:00Z"), ZonedDateTime.parse("2025-12-31T00:00:00Z"), zoom)
+            .addUsageLevels(Map.of("zoom", Map.of("maxSeats", UsageLevel.of("maxSeats", 3))))
+            .addSnapshots(List.of(snapshot, snapshot))
+            .build();
+        ByteString bytes = SubscriptionBinaryCodec.encode(expected);
+
+        Subscription lazy = SubscriptionBinaryCodec.decode(bytes, HistoryMode.LAZY);
+        Subscription skipped = SubscriptionBinaryCodec.decode(bytes, HistoryMode.SKIP);
+
+        assertThat(lazy.getHistory()).containsExactly(snapshot, snapshot);
+        assertThat(skipped.getHistory()).isEmpty();
+        assertThat(skipped.getUsageLevels()).isEqualTo(expected.getUsageLevels());
+    }
+}
@@ -2,10 +2,18 @@ package io.github.pgmarc.space.contracts;
 
 import static org.assertj.core.api.Assertions.*;
 
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.junit.jupiter.api.Test;
 
 class ServiceTest {
 
+    private static final int CALLS = 100_000;
+
+    private static Object sink;
+    private static long total;
 
     private final Service.Builder baseBuilder = Service.builder("test", "alfa");
 
@@ -59,4 +67,56 @@ class ServiceTest {
                 .isThrownBy(() -> baseBuilder.addOn("zeroQuantity", 0))
                 .withMessage("zeroQuantity quantity must be greater than 0");
     }
+
+    @Test
+    void givenServiceShouldIterateAddOnsByIndex() {
+
+        Service service = Service.builder("zoom", "2025")
+                .addOn("extraSeats", 2).addOn("hugeMeetings", 1).build();
+
+        Set<AddOn> iterated = new HashSet<>();
+        for (int i = 0; i < service.getAddOnCount(); i++) {
+            iterated.add(service.getAddOnAt(i));
+        }
+
+        assertThat(iterated).isEqualTo(service.getAddOns());
+        assertThat(service.getAddOns()).isSameAs(service.getAddOns());
+        assertThat(service.getAddOnQuantity("extraSeats", 0)).isEqualTo(2);
+        assertThat(service.getAddOnQuantity("recordings", -1)).isEqualTo(-1);
+        assertThat(service.hasAddOn("hugeMeetings")).isTrue();
+    }
+
+    @Test
+    void givenReadAccessorsShouldNotAllocate() {
+
+        Service service = Service.builder("zoom", "2025").plan("ENTERPRISE")
+                .addOn("extraSeats", 2).addOn("hugeMeetings", 1).build();
+
+        assertThat(allocatedBytes(() -> sink = service.getAddOns())).isLessThan(CALLS);
+        assertThat(allocatedBytes(() -> total += service.getAddOnQuantity("extraSeats", 0))).isLessThan(CALLS);
+        assertThat(allocatedBytes(() -> {
+            for (int i = 0; i < service.getAddOnCount(); i++) {
+                total += service.getAddOnAt(i).getQuantity();
+            }
+        })).isLessThan(CALLS);
+        assertThat(allocatedBytes(() -> sink = service.getAddOn("extraSeats"))).isGreaterThanOrEqualTo(CALLS);
+    }
+
+    /**
+     * Bytes the current thread allocates calling <code>call</code>
+     * {@value #CALLS} times, once it has been warmed up.
+     */
+    static long allocatedBytes(Runnable call) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        for (int i = 0; i < CALLS; i++) {
+            call.run();
+        }
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < CALLS; i++) {
+            call.run();
+        }
+        return threads.getThreadAllocatedBytes(thread) - before;
+    }
 }
@@ -9,11 +9,23 @@ import org.junit.jupiter.params.provider.ValueSource;
 import java.time.LocalDateTime;
 import java.time.Period;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 class SubscriptionTest {
 
+    private static final int CALLS = 100_000;
+
+    private static Object sink;
+    private static double total;
+    private static boolean active;
+
     private static final UserContact TEST_CONTACT = UserContact.builder("123456789", "alex").build();
     private static final ZonedDateTime START = ZonedDateTime.parse("2025-08-15T00:00:00Z");
     private static final ZonedDateTime END = START.plusDays(30);
@@ -177,6 +189,38 @@ class SubscriptionTest {
     }
 
 
+    @Test
+    void givenEpochMillisOrInstantShouldAgreeWithLocalDateTime() {
+
+        Subscription subscription = Subscription.builder(TEST_CONTACT, START, END, TEST_SERVICE).build();
+        long start = START.toInstant().toEpochMilli();
+        long end = END.toInstant().toEpochMilli();
+
+        assertThat(subscription.getStartEpochMillis()).isEqualTo(start);
+        assertThat(subscription.isActive(start)).isTrue();
+        assertThat(subscription.isActive(end)).isTrue();
+        assertThat(subscription.isActive(start - 1)).isFalse();
+        assertThat(subscription.isActive(end + 1)).isFalse();
+        assertThat(subscription.isExpired(end + 1)).isTrue();
+        assertThat(subscription.isExpired(end)).isFalse();
+        assertThat(subscription.isActive(END.toInstant())).isTrue();
+        assertThat(subscription.isActive(END.toInstant().plusNanos(1))).isFalse();
+        assertThat(subscription.isActive(END.toLocalDateTime().plusNanos(1))).isFalse();
+        assertThat(subscription.isExpired(END.toInstant().plusNanos(1))).isTrue();
+    }
+
+    @Test
+    void givenOffsetDatesShouldKeepTheirInstant() {
+
+        ZonedDateTime start = ZonedDateTime.parse("2025-01-01T02:00:00+02:00");
+        ZonedDateTime end = ZonedDateTime.parse("2025-02-01T00:00:00Z");
+        Subscription subscription = Subscription.builder(TEST_CONTACT, start, end, TEST_SERVICE).build();
+
+        assertThat(subscription.getStartDate()).isEqualTo(LocalDateTime.parse("2025-01-01T00:00:00"));
+        assertThat(subscription.isActive(LocalDateTime.parse("2025-01-01T00:00:00"))).isTrue();
+        assertThat(subscription.isActive(LocalDateTime.parse("2024-12-31T23:59:59.999999999"))).isFalse();
+    }
+
     @Test
     void givenNegativePeriodShouldThrow() {
 
@@ -233,4 +277,100 @@ class SubscriptionTest {
             .isThrownBy(builder::build)
             .withMessage("end date must not be null");
     }
+
+    @Test
+    void givenLazySnapshotsShouldDecodeThemOnceAfterEagerOnes() throws Exception {
+
+        Subscription.Snapshot eager = Subscription.Snapshot.of(START.minusYears(2), START.minusYears(1),
+            Map.of("petclinic", TEST_SERVICE));
+        Subscription.Snapshot lazy = Subscription.Snapshot.of(START.minusYears(1), START,
+            Map.of("petclinic", TEST_SERVICE));
+        AtomicInteger decodings = new AtomicInteger();
+        Subscription subscription = Subscription.builder(TEST_CONTACT, START, END, TEST_SERVICE)
+            .addSnapshots(List.of(eager))
+            .lazySnapshots(() -> {
+                decodings.incrementAndGet();
+                return List.of(lazy);
+            })
+            .build();
+
+        assertThat(decodings).hasValue(0);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Subscription.Snapshot>>> histories = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                histories.add(executor.submit(subscription::getHistory));
+            }
+            for (Future<List<Subscription.Snapshot>> history : histories) {
+                assertThat(history.get()).containsExactly(eager, lazy);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(decodings).hasValue(1);
+    }
+
+    @Test
+    void givenFailingLazySnapshotsShouldRetry() {
+
+        AtomicInteger decodings = new AtomicInteger();
+        Subscription subscription = Subscription.builder(TEST_CONTACT, START, END, TEST_SERVICE)
+            .lazySnapshots(() -> {
+                if (decodings.incrementAndGet() == 1) {
+                    throw new IllegalStateException("corrupted history");
+                }
+                return List.of();
+            })
+            .build();
+
+        assertThatIllegalStateException().isThrownBy(subscription::getHistory);
+        assertThat(subscription.getHistory()).isEmpty();
+        assertThat(decodings).hasValue(2);
+    }
+
+    @Test
+    void givenSubscriptionShouldIterateServicesByIndex() {
+
+        Service zoom = Service.builder("zoom", "2025").plan("ENTERPRISE").build();
+        Subscription subscription = Subscription.builder(TEST_CONTACT, START, END, List.of(TEST_SERVICE, zoom))
+            .build();
+
+        List<Service> iterated = new ArrayList<>();
+        for (int i = 0; i < subscription.getServiceCount(); i++) {
+            iterated.add(subscription.getServiceAt(i));
+        }
+
+        assertThat(iterated).containsExactlyElementsOf(subscription.getServices());
+        assertThat(subscription.getServices()).isSameAs(subscription.getServices());
+    }
+
+    @Test
+    void givenReadAccessorsShouldNotAllocate() {
+
+        Subscription subscription = Subscription.builder(TEST_CONTACT, START, END, TEST_SERVICE)
+            .addUsageLevels(Map.of("petclinic", Map.of("maxPets", UsageLevel.of("maxPets", 2))))
+            .build();
+        long now = START.plusDays(1).toInstant().toEpochMilli();
+
+        assertThat(ServiceTest.allocatedBytes(() -> sink = subscription.getServices())).isLessThan(CALLS);
+        assertThat(ServiceTest.allocatedBytes(() -> sink = subscription.getServicesMap())).isLessThan(CALLS);
+        assertThat(ServiceTest.allocatedBytes(() -> sink = subscription.getUsageLevels())).isLessThan(CALLS);
+        assertThat(ServiceTest.allocatedBytes(() -> sink = subscription.getHistory())).isLessThan(CALLS);
+        assertThat(ServiceTest.allocatedBytes(() -> sink = subscription.getServiceAt(0))).isLessThan(CALLS);
+        assertThat(ServiceTest.allocatedBytes(() -> total += subscription.getConsumption("petclinic", "maxPets", 0)))
+            .isLessThan(CALLS);
+        assertThat(ServiceTest.allocatedBytes(() -> active = subscription.isActive(now))).isLessThan(CALLS);
+    }
+
+    @Test
+    void givenMissingUsageLevelShouldReturnDefaultConsumption() {
+
+        Subscription subscription = Subscription.builder(TEST_CONTACT, START, END, TEST_SERVICE)
+            .addUsageLevels(Map.of("petclinic", Map.of("maxPets", UsageLevel.of("maxPets", 2))))
+            .build();
+
+        assertThat(subscription.getConsumption("petclinic", "maxPets", -1)).isEqualTo(2);
+        assertThat(subscription.getConsumption("petclinic", "maxVisits", -1)).isEqualTo(-1);
+        assertThat(subscription.getConsumption("zoom", "maxSeats", -1)).isEqualTo(-1);
+    }
 }
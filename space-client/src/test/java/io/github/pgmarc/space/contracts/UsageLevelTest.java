@@ -24,6 +24,25 @@ class UsageLevelTest {
                 () -> assertThat(usageLevel.isRenewableUsageLimit()).isFalse());
     }
 
+    @Test
+    void givenResetTimestampInEpochMillisShouldBeRenewable() {
+
+        ZonedDateTime reset = ZonedDateTime.parse("2025-07-31T00:00:00Z");
+        UsageLevel usageLevel = UsageLevel.of("maxVisits", 5, reset.toInstant().toEpochMilli());
+
+        assertThat(usageLevel).isEqualTo(UsageLevel.of("maxVisits", 5, reset));
+        assertThat(usageLevel.getResetTimestamp()).hasValue(reset.toLocalDateTime());
+        assertThat(usageLevel.getResetEpochMillis()).isEqualTo(reset.toInstant().toEpochMilli());
+    }
+
+    @Test
+    void givenNonRenewableUsageLimitShouldNotHaveResetEpochMillis() {
+
+        assertThatExceptionOfType(IllegalStateException.class)
+            .isThrownBy(() -> UsageLevel.of("maxPets", 2).getResetEpochMillis())
+            .withMessage("maxPets is not a renewable usage limit");
+    }
+
     @Test
     void givenNullUsageLimitNameShouldThrow() {
 
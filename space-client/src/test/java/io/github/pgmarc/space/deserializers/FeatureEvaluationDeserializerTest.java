@@ -1,7 +1,11 @@
 package io.github.pgmarc.space.deserializers;
 
+import io.github.pgmarc.space.exceptions.FeatureEvaluationError;
+import io.github.pgmarc.space.exceptions.FeatureEvaluationException;
 import io.github.pgmarc.space.exceptions.SpaceApiException;
 import io.github.pgmarc.space.features.FeatureEvaluationResult;
+import io.github.pgmarc.space.json.JsonReader;
+import okio.Buffer;
 import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
 
@@ -86,5 +90,40 @@ class FeatureEvaluationDeserializerTest {
         assertThatExceptionOfType(SpaceApiException.class)
             .isThrownBy(() -> deserializer.fromJson(jsonObject))
             .withMessage("Feature pets not found in \"pricingContext\". Error code: FLAG_NOT_FOUND");
+        assertThatExceptionOfType(FeatureEvaluationException.class)
+            .isThrownBy(() -> deserializer.readJson(JsonReader.of(new Buffer().writeUtf8(jsonObject.toString()))))
+            .extracting(e -> e.getError().getCode())
+            .isEqualTo(FeatureEvaluationError.Code.FLAG_NOT_FOUND);
+    }
+
+    @Test
+    void givenSameJsonStreamingShouldMatchTreeDeserialization() throws Exception {
+
+        String service = "Zoom";
+        JSONObject jsonObject = new JSONObject()
+            .put("eval", true)
+            .put("used", Map.of("zoom-storage", 50, "zoom-apiCalls", 1.5))
+            .put("limit", Map.of("zoom-storage", 500, "zoom-apiCalls", 1000))
+            .put("error", JSONObject.NULL)
+            .put("unknown", Map.of("nested", new int[] {1, 2}));
+
+        FeatureEvaluationDeserializer deserializer = new FeatureEvaluationDeserializer(service.length());
+        String json = jsonObject.toString();
+        FeatureEvaluationResult expected = deserializer.fromJson(new JSONObject(json));
+        FeatureEvaluationResult actual = deserializer.readJson(JsonReader.of(new Buffer().writeUtf8(json)));
+
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+    }
+
+    @Test
+    void givenFeatureEvaluationErrorStreamingShouldThrow() {
+
+        String json = "{\"eval\": false, \"used\": null, \"limit\": null, "
+            + "\"error\": {\"code\": \"FLAG_NOT_FOUND\", \"message\": \"Feature pets not found\"}}";
+
+        FeatureEvaluationDeserializer deserializer = new FeatureEvaluationDeserializer("Petclinic".length());
+        assertThatExceptionOfType(SpaceApiException.class)
+            .isThrownBy(() -> deserializer.readJson(JsonReader.of(new Buffer().writeUtf8(json))))
+            .withMessage("Feature pets not found. Error code: FLAG_NOT_FOUND");
     }
 }
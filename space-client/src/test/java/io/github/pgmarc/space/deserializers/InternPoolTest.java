@@ -0,0 +1,126 @@
+package io.github.pgmarc.space.deserializers;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.pgmarc.space.TestContracts;
+import io.github.pgmarc.space.contracts.AddOn;
+import io.github.pgmarc.space.contracts.Service;
+import io.github.pgmarc.space.contracts.Subscription;
+import io.github.pgmarc.space.contracts.UsageLevel;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+class InternPoolTest {
+
+    private static final int SUBSCRIPTIONS = 1000;
+
+    @Test
+    void givenEqualStringsShouldReturnTheFirstOne() {
+
+        InternPool pool = new InternPool(16);
+        String first = new String("petclinic");
+        String second = new String("petclinic");
+
+        assertThat(pool.intern(first)).isSameAs(first);
+        assertThat(pool.intern(second)).isSameAs(first);
+    }
+
+    @Test
+    void givenCollidingStringsShouldKeepTheLastOne() {
+
+        InternPool pool = new InternPool(1);
+        String zoom = new String("zoom");
+
+        pool.intern(zoom);
+        pool.intern("petclinic");
+
+        assertThat(pool.intern(new String("zoom"))).isNotSameAs(zoom).isEqualTo("zoom");
+    }
+
+    @Test
+    void givenNullOrLongStringShouldReturnItAsIs() {
+
+        InternPool pool = new InternPool(16);
+        String longName = "x".repeat(65);
+
+        assertThat(pool.intern(null)).isNull();
+        pool.intern(longName);
+        assertThat(pool.intern(new String(longName))).isNotSameAs(longName);
+    }
+
+    @Test
+    void givenInvalidCapacityShouldThrow() {
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> new InternPool(0))
+            .withMessage("capacity must be between 1 and 2^30");
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> new InternPool((1 << 30) + 1));
+    }
+
+    @Test
+    void givenManySubscriptionsShouldShareTheirNames() throws IOException {
+
+        List<Subscription> interned = TestContracts.subscriptions(SUBSCRIPTIONS,
+            new SubscriptionDeserializer(HistoryMode.SKIP));
+        List<Subscription> duplicated = new ArrayList<>(SUBSCRIPTIONS);
+        for (Subscription subscription : interned) {
+            duplicated.add(copyNames(subscription));
+        }
+
+        long before = retainedPerSubscription(duplicated);
+        long after = retainedPerSubscription(interned);
+
+        assertThat(plan(interned.get(SUBSCRIPTIONS - 1))).isSameAs(plan(interned.get(0)));
+        assertThat(plan(duplicated.get(SUBSCRIPTIONS - 1))).isNotSameAs(plan(duplicated.get(0)));
+        assertThat(after)
+            .as("retained bytes per subscription, %d without interning and %d with it", before, after)
+            .isLessThan(before * 9 / 10);
+    }
+
+    /**
+     * The same subscription with its own copy of every service, plan, add-on
+     * and usage limit name, as decoding without interning would build it.
+     */
+    private static Subscription copyNames(Subscription subscription) {
+        List<Service> services = new ArrayList<>();
+        for (Service service : subscription.getServices()) {
+            Service.Builder builder = Service.builder(new String(service.getName()), new String(service.getVersion()))
+                .plan(new String(service.getPlan().orElseThrow()));
+            for (AddOn addOn : service.getAddOns()) {
+                builder.addOn(new String(addOn.getName()), addOn.getQuantity());
+            }
+            services.add(builder.build());
+        }
+        Map<String, Map<String, UsageLevel>> usageLevels = new HashMap<>();
+        for (Map.Entry<String, Map<String, UsageLevel>> service : subscription.getUsageLevels().entrySet()) {
+            Map<String, UsageLevel> levels = new HashMap<>();
+            for (UsageLevel level : service.getValue().values()) {
+                String name = new String(level.getName());
+                levels.put(name, level.isRenewableUsageLimit()
+                    ? UsageLevel.of(name, level.getConsumption(), level.getResetEpochMillis())
+                    : UsageLevel.of(name, level.getConsumption()));
+            }
+            usageLevels.put(new String(service.getKey()), levels);
+        }
+        Subscription.Builder builder = Subscription.builder(subscription.getUserContact(),
+                subscription.getStartEpochMillis(), subscription.getEndEpochMillis(), services)
+            .addUsageLevels(usageLevels);
+        subscription.getRenewalPeriod().ifPresent(builder::renewIn);
+        return builder.build();
+    }
+
+    private static long retainedPerSubscription(List<Subscription> subscriptions) {
+        return GraphLayout.parseInstance(subscriptions.toArray()).totalSize() / subscriptions.size();
+    }
+
+    private static String plan(Subscription subscription) {
+        return subscription.getService("zoom").orElseThrow().getPlan().orElseThrow();
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.pgmarc.space.deserializers;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class Iso8601Test {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "2025-07-31T00:00:00Z",
+        "1970-01-01T00:00:00Z",
+        "1969-12-31T23:59:59.999Z",
+        "2024-02-29T12:34:56.7Z",
+        "2025-12-31T23:59:59.123456789Z",
+        "2025-07-31T00:00:00+02:00",
+        "2025-07-31T00:00:00.250-05:30",
+        "0001-01-01T00:00:00Z",
+        "9999-12-31T23:59:59Z",
+        "2025-07-31T00:00Z",
+        "2025-07-31T00:00:00.Z",
+        "2025-07-31T00:00:00Z[UTC]",
+        "2025-07-31T00:00:00+01:00[Europe/Madrid]"
+    })
+    void givenDateTimeShouldParseLikeZonedDateTime(String text) {
+
+        assertThat(Iso8601.toEpochMillis(text)).isEqualTo(ZonedDateTime.parse(text).toInstant().toEpochMilli());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "2025-02-29T00:00:00Z",
+        "2025-13-01T00:00:00Z",
+        "2025-07-31T24:00:00Z",
+        "2025-07-31T00:00:60Z",
+        "2025-07-31T00:00:00",
+        "2025-07-31 00:00:00Z",
+        "not a date"
+    })
+    void givenInvalidDateTimeShouldThrow(String text) {
+
+        assertThatExceptionOfType(DateTimeParseException.class).isThrownBy(() -> Iso8601.toEpochMillis(text));
+    }
+}
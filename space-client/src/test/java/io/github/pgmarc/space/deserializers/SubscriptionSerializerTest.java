@@ -2,11 +2,17 @@ package io.github.pgmarc.space.deserializers;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Map;
 
+import io.github.pgmarc.space.TestContracts;
 import io.github.pgmarc.space.contracts.UsageLevel;
+import io.github.pgmarc.space.json.JsonParseException;
+import io.github.pgmarc.space.json.JsonReader;
+import okio.Buffer;
 import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
 
@@ -91,4 +97,70 @@ class SubscriptionSerializerTest {
 
     }
 
+    @Test
+    void givenSameJsonStreamingShouldMatchTreeDeserialization() throws IOException {
+
+        String json = TestContracts.json().utf8();
+
+        Subscription expected = serializer.fromJson(new JSONObject(json));
+        Subscription actual = serializer.readJson(JsonReader.of(new Buffer().writeUtf8(json)));
+
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+    }
+
+    private static final String SNAPSHOT = "{\"startDate\":\"2024-01-01T00:00:00Z\","
+        + "\"endDate\":\"2024-12-31T00:00:00Z\","
+        + "\"contractedServices\":{\"zoom\":\"2024\",\"petclinic\":\"2024\"},"
+        + "\"subscriptionPlans\":{\"zoom\":\"PRO\",\"petclinic\":\"GOLD\"},"
+        + "\"subscriptionAddOns\":{\"zoom\":{\"extraSeats\":2},\"petclinic\":{\"petsAdoptionCentre\":1}}}";
+
+    private static String subscriptionWithHistory(String history) {
+        return "{\"userContact\":{\"userId\":\"01c36d29-0d6a-4b41-83e9-8c6d9310c508\",\"username\":\"johndoe\"},"
+            + "\"billingPeriod\":{\"startDate\":\"2025-01-01T00:00:00Z\",\"endDate\":\"2025-12-31T00:00:00Z\"},"
+            + "\"history\":" + history + ","
+            + "\"usageLevels\":{\"petclinic\":{\"maxPets\":{\"consumed\":2}}},"
+            + "\"contractedServices\":{\"petclinic\":\"2025\"},"
+            + "\"subscriptionPlans\":{\"petclinic\":\"GOLD\"},"
+            + "\"subscriptionAddOns\":{\"petclinic\":{}}}";
+    }
+
+    @Test
+    void givenLazyHistoryShouldDecodeSameSnapshots() throws IOException {
+
+        String json = subscriptionWithHistory("[" + SNAPSHOT + "," + SNAPSHOT.replace("2024-12-31", "2024-06-30") + "]");
+        Subscription eager = serializer.readJson(JsonReader.of(new Buffer().writeUtf8(json)));
+
+        SubscriptionDeserializer lazy = new SubscriptionDeserializer(HistoryMode.LAZY);
+
+        assertThat(lazy.readJson(JsonReader.of(new Buffer().writeUtf8(json))).getHistory())
+            .hasSize(2)
+            .isEqualTo(eager.getHistory());
+        assertThat(lazy.fromJson(new JSONObject(json)).getHistory()).isEqualTo(eager.getHistory());
+    }
+
+    @Test
+    void givenSkippedHistoryShouldBeEmpty() throws IOException {
+
+        String json = subscriptionWithHistory("[" + SNAPSHOT + "]");
+        SubscriptionDeserializer skip = new SubscriptionDeserializer(HistoryMode.SKIP);
+
+        Subscription actual = skip.readJson(JsonReader.of(new Buffer().writeUtf8(json)));
+
+        assertThat(actual.getHistory()).isEmpty();
+        assertThat(actual.getUsageLevels()).isNotEmpty();
+        assertThat(skip.fromJson(new JSONObject(json)).getHistory()).isEmpty();
+    }
+
+    @Test
+    void givenMalformedLazyHistoryShouldThrowOnAccess() throws IOException {
+
+        String json = subscriptionWithHistory("[{\"startDate\":\"2024-01-01T00:00:00Z\"}]");
+        SubscriptionDeserializer lazy = new SubscriptionDeserializer(HistoryMode.LAZY);
+
+        Subscription actual = lazy.readJson(JsonReader.of(new Buffer().writeUtf8(json)));
+
+        assertThatExceptionOfType(UncheckedIOException.class)
+            .isThrownBy(actual::getHistory)
+            .withCauseInstanceOf(JsonParseException.class);
+    }
 }
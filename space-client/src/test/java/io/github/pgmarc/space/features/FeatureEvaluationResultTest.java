@@ -0,0 +1,76 @@
+package io.github.pgmarc.space.features;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class FeatureEvaluationResultTest {
+
+    @Test
+    void givenUsedAndLimitsInAnyOrderShouldMatchThemByUsageLimit() {
+
+        FeatureEvaluationResult result = FeatureEvaluationResult.builder()
+            .available(true)
+            .used("maxPets", 2)
+            .used("maxVisits", 5.5)
+            .limit("maxVisits", 100)
+            .limit("maxPets", 10)
+            .build();
+
+        FeatureEvaluationResult.Usage pets = result.getUsage("maxPets");
+        assertThat(result.isAvailable()).isTrue();
+        assertThat(pets.isIntegral()).isTrue();
+        assertThat(pets.getUsedAsLong()).isEqualTo(2);
+        assertThat(pets.getLimitAsLong()).isEqualTo(10);
+        assertThat(pets.getUsed()).isEqualTo(2);
+        FeatureEvaluationResult.Usage visits = result.getUsage("maxVisits");
+        assertThat(visits.isIntegral()).isFalse();
+        assertThat(visits.getUsedAsDouble()).isEqualTo(5.5);
+        assertThat(visits.getLimit()).isEqualTo(100.0);
+    }
+
+    @Test
+    void givenUsedWithoutLimitShouldHaveNoLimit() {
+
+        FeatureEvaluationResult result = FeatureEvaluationResult.builder()
+            .used("maxPets", 3_000_000_000L)
+            .build();
+
+        FeatureEvaluationResult.Usage usage = result.getUsage("maxPets");
+        assertThat(usage.hasLimit()).isFalse();
+        assertThat(usage.getLimitAsLong()).isEqualTo(Long.MAX_VALUE);
+        assertThat(usage.getLimitAsDouble()).isEqualTo(Double.POSITIVE_INFINITY);
+        assertThat(usage.getUsed()).isEqualTo(3_000_000_000L);
+        assertThat(result.getLimit("maxPets")).isEmpty();
+    }
+
+    @Test
+    void givenLimitWithoutUsedShouldBeLeftOut() {
+
+        FeatureEvaluationResult result = FeatureEvaluationResult.builder()
+            .limit("maxPets", 10)
+            .build();
+
+        assertThat(result.getQuotas()).isEmpty();
+        assertThat(result.getConsumed("maxPets")).isEmpty();
+    }
+
+    @Test
+    void givenBoxedNumbersShouldEqualPrimitiveUsage() {
+
+        assertThat(FeatureEvaluationResult.Usage.of(Integer.valueOf(2), Long.valueOf(10)))
+            .isEqualTo(FeatureEvaluationResult.Usage.of(2L, 10L));
+        assertThat(FeatureEvaluationResult.Usage.of(Double.valueOf(2.5), null))
+            .isEqualTo(FeatureEvaluationResult.Usage.of(2.5, Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    void givenNullUsageLimitShouldThrow() {
+
+        FeatureEvaluationResult.Builder builder = FeatureEvaluationResult.builder();
+
+        assertThatExceptionOfType(NullPointerException.class)
+            .isThrownBy(() -> builder.used(null, 1))
+            .withMessage("usage limit must not be null");
+    }
+}
@@ -0,0 +1,224 @@
+package io.github.pgmarc.space.json;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import okio.Buffer;
+import okio.ByteString;
+
+class JsonReaderTest {
+
+    private static JsonReader reader(String json) {
+        return JsonReader.of(new Buffer().writeUtf8(json));
+    }
+
+    @Test
+    void givenObjectShouldReadTokensInOrder() throws IOException {
+
+        JsonReader reader = reader("{\"a\": \"x\", \"b\": [true, false, null], \"c\": 1}");
+
+        assertThat(reader.peek()).isEqualTo(JsonToken.BEGIN_OBJECT);
+        reader.beginObject();
+        assertThat(reader.nextName()).isEqualTo("a");
+        assertThat(reader.nextString()).isEqualTo("x");
+        assertThat(reader.nextName()).isEqualTo("b");
+        reader.beginArray();
+        assertThat(reader.nextBoolean()).isTrue();
+        assertThat(reader.nextBoolean()).isFalse();
+        assertThat(reader.peek()).isEqualTo(JsonToken.NULL);
+        reader.nextNull();
+        assertThat(reader.hasNext()).isFalse();
+        reader.endArray();
+        assertThat(reader.nextName()).isEqualTo("c");
+        assertThat(reader.nextInt()).isEqualTo(1);
+        reader.endObject();
+        assertThat(reader.peek()).isEqualTo(JsonToken.END_DOCUMENT);
+    }
+
+    @Test
+    void givenEscapedStringShouldUnescape() throws IOException {
+
+        JsonReader reader = reader("[\"a\\\"b\\\\c\\/d\\n\\t\\u00e9\\ud83d\\ude00\", \"ñandú\"]");
+
+        reader.beginArray();
+        assertThat(reader.nextString()).isEqualTo("a\"b\\c/d\n\té😀");
+        assertThat(reader.nextString()).isEqualTo("ñandú");
+        reader.endArray();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "-1", "2147483648", "123456789012345678901", "1.5", "-2.50", "1e3", "-0", "0.0"})
+    void givenNumberShouldMatchOrgJsonRepresentation(String number) throws IOException {
+
+        JsonReader reader = reader("{\"n\":" + number + "}");
+        reader.beginObject();
+        reader.nextName();
+        Object expected = new JSONObject("{\"n\":" + number + "}").get("n");
+
+        Number actual = reader.nextNumber();
+        assertThat(actual).isInstanceOf(expected.getClass());
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void givenNumbersShouldConvert() throws IOException {
+
+        JsonReader reader = reader("[10, 2.5, 3.0, \"7\"]");
+
+        reader.beginArray();
+        assertThat(reader.nextDouble()).isEqualTo(10.0);
+        assertThat(reader.nextDouble()).isEqualTo(2.5);
+        assertThat(reader.nextLong()).isEqualTo(3L);
+        assertThat(reader.nextString()).isEqualTo("7");
+        reader.endArray();
+    }
+
+    @Test
+    void givenLargeIntegerShouldReturnBigInteger() throws IOException {
+
+        JsonReader reader = reader("[9223372036854775807, 9223372036854775808]");
+
+        reader.beginArray();
+        assertThat(reader.nextNumber()).isEqualTo(Long.MAX_VALUE);
+        assertThat(reader.nextNumber()).isEqualTo(new BigInteger("9223372036854775808"));
+        reader.endArray();
+    }
+
+    @Test
+    void givenKnownNamesShouldSelectWithoutDecoding() throws IOException {
+
+        JsonReader.Options options = JsonReader.Options.of("eval", "used");
+        JsonReader reader = reader("{\"used\": 1, \"unknown\": {\"x\": [1, {}]}, \"eval\": true}");
+
+        reader.beginObject();
+        assertThat(reader.selectName(options)).isEqualTo(1);
+        assertThat(reader.nextInt()).isEqualTo(1);
+        assertThat(reader.selectName(options)).isEqualTo(-1);
+        assertThat(reader.nextName()).isEqualTo("unknown");
+        reader.skipValue();
+        assertThat(reader.selectName(options)).isZero();
+        assertThat(reader.nextBoolean()).isTrue();
+        reader.endObject();
+    }
+
+    @Test
+    void givenNamePrefixShouldNotSelect() throws IOException {
+
+        JsonReader.Options options = JsonReader.Options.of("use");
+        JsonReader reader = reader("{\"used\": 1}");
+
+        reader.beginObject();
+        assertThat(reader.selectName(options)).isEqualTo(-1);
+        reader.skipName();
+        assertThat(reader.nextNumber()).isEqualTo(1);
+        reader.endObject();
+    }
+
+    @Test
+    void givenNullShouldReturnNullString() throws IOException {
+
+        JsonReader reader = reader("[null, \"a\"]");
+
+        reader.beginArray();
+        assertThat(reader.nextStringOrNull()).isNull();
+        assertThat(reader.skipNull()).isFalse();
+        assertThat(reader.nextStringOrNull()).isEqualTo("a");
+        reader.endArray();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"{\"a\" 1}", "{\"a\": tru}", "[1,]", "[\"unterminated", "{\"a\": 01}", "[1 2]", ""})
+    void givenMalformedJsonShouldThrow(String json) {
+
+        JsonReader reader = reader(json);
+
+        assertThatExceptionOfType(JsonParseException.class).isThrownBy(() -> {
+            reader.skipValue();
+            reader.peek();
+        });
+    }
+
+    @Test
+    void givenUnexpectedTokenShouldThrow() {
+
+        JsonReader reader = reader("[1]");
+
+        assertThatExceptionOfType(JsonParseException.class)
+            .isThrownBy(reader::beginObject)
+            .withMessageContaining("BEGIN_OBJECT");
+    }
+
+    @Test
+    void givenDecimalShouldNotReadAsLong() throws IOException {
+
+        JsonReader reader = reader("[1.5]");
+        reader.beginArray();
+
+        assertThatExceptionOfType(JsonParseException.class).isThrownBy(reader::nextLong);
+    }
+
+    @Test
+    void givenPrefixedNameShouldSkipPrefix() throws IOException {
+
+        JsonReader reader = reader("{\"petclinic-maxPets\": 1, \"zoom-maxSeats\": 2}");
+        ByteString prefix = ByteString.encodeUtf8("petclinic-");
+        reader.beginObject();
+
+        assertThat(reader.nextName(prefix)).isEqualTo("maxPets");
+        assertThat(reader.nextLong()).isEqualTo(1);
+        assertThat(reader.nextName(prefix)).isEqualTo("zoom-maxSeats");
+    }
+
+    @Test
+    void givenNumbersShouldPeekWhetherIntegral() throws IOException {
+
+        JsonReader reader = reader("[1, 30000000000000000000, 1.5, 1e3, -2]");
+        reader.beginArray();
+
+        assertThat(reader.peekIntegral()).isTrue();
+        reader.skipValue();
+        assertThat(reader.peekIntegral()).isTrue();
+        reader.skipValue();
+        assertThat(reader.peekIntegral()).isFalse();
+        assertThat(reader.nextDouble()).isEqualTo(1.5);
+        assertThat(reader.peekIntegral()).isFalse();
+        reader.skipValue();
+        assertThat(reader.peekIntegral()).isTrue();
+        assertThat(reader.nextLong()).isEqualTo(-2);
+    }
+
+    @Test
+    void givenValuesShouldReturnThemAsWritten() throws IOException {
+
+        JsonReader reader = reader("{\"a\": [{\"b\": \"}]\\\"\"}, [ ], 1.50, 7, null], \"c\": \"x\\\"y\", \"d\": true}");
+        reader.beginObject();
+
+        assertThat(reader.nextName()).isEqualTo("a");
+        assertThat(reader.nextValue().utf8()).isEqualTo("[{\"b\": \"}]\\\"\"}, [ ], 1.50, 7, null]");
+        assertThat(reader.nextName()).isEqualTo("c");
+        assertThat(reader.nextValue().utf8()).isEqualTo("\"x\\\"y\"");
+        assertThat(reader.nextName()).isEqualTo("d");
+        assertThat(reader.nextValue().utf8()).isEqualTo("true");
+        reader.endObject();
+        assertThat(reader.peek()).isEqualTo(JsonToken.END_DOCUMENT);
+    }
+
+    @Test
+    void givenUnterminatedValueShouldThrow() throws IOException {
+
+        JsonReader reader = reader("{\"a\": [{\"b\": 1}");
+        reader.beginObject();
+        reader.nextName();
+
+        assertThatExceptionOfType(JsonParseException.class)
+            .isThrownBy(reader::nextValue)
+            .withMessage("unterminated object or array");
+    }
+}
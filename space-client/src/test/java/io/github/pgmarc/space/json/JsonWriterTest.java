@@ -0,0 +1,81 @@
+package io.github.pgmarc.space.json;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import okio.Buffer;
+
+class JsonWriterTest {
+
+    @Test
+    void givenNestedValuesShouldWriteCompactJson() throws IOException {
+
+        Buffer sink = new Buffer();
+        JsonWriter.of(sink).beginObject()
+            .name("a").value("x")
+            .name("b").beginArray().value(true).value(false).nullValue().endArray()
+            .name("c").beginObject().endObject()
+            .name("petclinic-", "maxPets").value(1)
+            .endObject();
+
+        assertThat(sink.readUtf8())
+            .isEqualTo("{\"a\":\"x\",\"b\":[true,false,null],\"c\":{},\"petclinic-maxPets\":1}");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"plain", "quo\"te", "back\\slash", "</script>", "a/b", "tab\tnew\nline\r",
+        "\b\f\u0001\u001f", "\u0085     ℀", "ñandú 日本 😀"})
+    void givenStringShouldEscapeLikeOrgJson(String value) throws IOException {
+
+        Buffer sink = new Buffer();
+        JsonWriter.of(sink).value(value);
+
+        assertThat(sink.readUtf8()).isEqualTo(JSONObject.quote(value));
+    }
+
+    @Test
+    void givenNameSplitByPrefixShouldEscapeLikeWholeName() throws IOException {
+
+        Buffer sink = new Buffer();
+        JsonWriter.of(sink).beginObject().name("<", "/b").value(1).endObject();
+
+        assertThat(sink.readUtf8()).isEqualTo("{" + JSONObject.quote("</b") + ":1}");
+    }
+
+    @Test
+    void givenNumbersShouldFormatLikeOrgJson() throws IOException {
+
+        Number[] numbers = {1, 3_000_000_000L, 2.0, 1.5, 0.1f, Float.MAX_VALUE, (double) Float.MAX_VALUE + 1,
+            1e-7, new BigDecimal("1.50")};
+
+        for (Number number : numbers) {
+            Buffer sink = new Buffer();
+            JsonWriter.of(sink).value(number);
+            assertThat(sink.readUtf8()).isEqualTo(JSONObject.numberToString(number));
+        }
+    }
+
+    @Test
+    void givenNonFiniteNumberShouldThrow() {
+
+        JsonWriter writer = JsonWriter.of(new Buffer());
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> writer.value(Double.NaN));
+    }
+
+    @Test
+    void givenValueWithoutNameInsideObjectShouldThrow() throws IOException {
+
+        JsonWriter writer = JsonWriter.of(new Buffer()).beginObject();
+
+        assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> writer.value(1));
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.pgmarc.space.resilience;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+
+import io.github.pgmarc.space.Operation;
+import io.github.pgmarc.space.SpaceClient;
+import io.github.pgmarc.space.exceptions.CallNotPermittedException;
+import io.github.pgmarc.space.exceptions.SpaceApiException;
+
+class CircuitBreakerInterceptorTest {
+
+    private static final String USER_ID = "01c36d29-0d6a-4b41-83e9-8c6d9310c508";
+
+    @RegisterExtension
+    static WireMockExtension wm = WireMockExtension.newInstance()
+        .options(wireMockConfig().dynamicPort().globalTemplating(true))
+        .build();
+
+    private final List<String> transitions = new CopyOnWriteArrayList<>();
+    private SpaceClient client;
+
+    @BeforeEach
+    void setup() {
+        CircuitBreakerConfig config = CircuitBreakerConfig.builder()
+            .slidingWindowSize(2)
+            .minimumNumberOfCalls(2)
+            .permittedCallsInHalfOpenState(1)
+            .waitDurationInOpenState(Duration.ofMinutes(1))
+            .build();
+        client = SpaceClient.builder("localhost", "prueba")
+            .withPort(wm.getPort())
+            .withCircuitBreaker(Operation.Endpoint.FEATURES, config)
+            .withCircuitBreakerListener((name, from, to) -> transitions.add(name + ":" + to))
+            .build();
+        wm.stubFor(post(urlPathMatching("/api/v1/features/.*"))
+            .willReturn(serverError().withHeader("Content-Type", "application/json")
+                .withBody("{\"error\": \"Internal server error\"}")));
+        wm.stubFor(get(urlPathEqualTo("/api/v1/contracts/" + USER_ID))
+            .willReturn(serverError().withHeader("Content-Type", "application/json")
+                .withBody("{\"error\": \"Internal server error\"}")));
+    }
+
+    private void openFeaturesCircuit() {
+        for (int i = 0; i < 2; i++) {
+            assertThatExceptionOfType(SpaceApiException.class)
+                .isThrownBy(() -> client.features().evaluate(USER_ID, "Petclinic", "featureA"))
+                .isNotInstanceOf(CallNotPermittedException.class);
+        }
+    }
+
+    @Test
+    void givenOpenCircuitShouldFailFastWithoutContactingSpace() {
+        openFeaturesCircuit();
+
+        assertThatExceptionOfType(CallNotPermittedException.class)
+            .isThrownBy(() -> client.features().evaluate(USER_ID, "Petclinic", "featureA"))
+            .satisfies(e -> assertThat(e.getCircuitBreaker()).isEqualTo("features"));
+        assertThatExceptionOfType(CallNotPermittedException.class)
+            .isThrownBy(() -> client.features().generatePricingTokenForUser(USER_ID));
+
+        wm.verify(2, postRequestedFor(urlPathMatching("/api/v1/features/.*")));
+        assertThat(transitions).containsExactly("features:OPEN");
+    }
+
+    @Test
+    void givenOpenCircuitShouldFailAsyncCallsWithCallNotPermitted() {
+        openFeaturesCircuit();
+
+        assertThatExceptionOfType(ExecutionException.class)
+            .isThrownBy(() -> client.features().evaluateAsync(USER_ID, "Petclinic", "featureA")
+                .get(5, TimeUnit.SECONDS))
+            .withCauseInstanceOf(CallNotPermittedException.class);
+    }
+
+    @Test
+    void givenOpenFeaturesCircuitShouldKeepContractsReachable() {
+        openFeaturesCircuit();
+
+        for (int i = 0; i < 3; i++) {
+            assertThatExceptionOfType(SpaceApiException.class)
+                .isThrownBy(() -> client.contracts().getContractByUserId(USER_ID))
+                .isNotInstanceOf(CallNotPermittedException.class)
+                .satisfies(e -> assertThat(e.getCode()).isEqualTo(500));
+        }
+    }
+}
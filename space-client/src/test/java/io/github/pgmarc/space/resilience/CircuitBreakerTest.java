@@ -0,0 +1,169 @@
+package io.github.pgmarc.space.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.pgmarc.space.resilience.CircuitBreaker.State;
+
+class CircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<String> transitions = new ArrayList<>();
+
+    private CircuitBreaker circuitBreaker(CircuitBreakerConfig config) {
+        return new CircuitBreaker("features", config,
+            List.of((name, from, to) -> transitions.add(name + ":" + from + "->" + to)), clock::get);
+    }
+
+    private static CircuitBreakerConfig.Builder smallWindow() {
+        return CircuitBreakerConfig.builder()
+            .failureRateThreshold(50)
+            .slidingWindowSize(4)
+            .minimumNumberOfCalls(4)
+            .waitDurationInOpenState(Duration.ofSeconds(10))
+            .permittedCallsInHalfOpenState(2);
+    }
+
+    private static void record(CircuitBreaker circuitBreaker, boolean success, long duration) {
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        if (success) {
+            circuitBreaker.onSuccess(duration);
+        } else {
+            circuitBreaker.onError(duration);
+        }
+    }
+
+    @Test
+    void givenFailuresBelowMinimumNumberOfCallsShouldStayClosed() {
+        CircuitBreaker circuitBreaker = circuitBreaker(smallWindow().build());
+
+        for (int i = 0; i < 3; i++) {
+            record(circuitBreaker, false, FAST);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(transitions).isEmpty();
+    }
+
+    @Test
+    void givenFailureRateAboveThresholdShouldOpenAndRejectCalls() {
+        CircuitBreaker circuitBreaker = circuitBreaker(smallWindow().build());
+
+        record(circuitBreaker, true, FAST);
+        record(circuitBreaker, true, FAST);
+        record(circuitBreaker, false, FAST);
+        record(circuitBreaker, false, FAST);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+        assertThat(transitions).containsExactly("features:CLOSED->OPEN");
+    }
+
+    @Test
+    void givenSlidingWindowShouldForgetOldestOutcomes() {
+        CircuitBreaker circuitBreaker = circuitBreaker(smallWindow().build());
+
+        record(circuitBreaker, false, FAST);
+        for (int i = 0; i < 6; i++) {
+            record(circuitBreaker, true, FAST);
+        }
+        record(circuitBreaker, false, FAST);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void givenSlowCallRateAboveThresholdShouldOpen() {
+        CircuitBreaker circuitBreaker = circuitBreaker(smallWindow()
+            .slowCallRateThreshold(75, Duration.ofSeconds(1)).build());
+
+        record(circuitBreaker, true, SLOW);
+        record(circuitBreaker, true, SLOW);
+        record(circuitBreaker, true, FAST);
+        record(circuitBreaker, true, SLOW);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void givenWaitDurationElapsedShouldPermitLimitedProbes() {
+        CircuitBreaker circuitBreaker = circuitBreaker(smallWindow().build());
+        for (int i = 0; i < 4; i++) {
+            record(circuitBreaker, false, FAST);
+        }
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(9));
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+
+        circuitBreaker.releasePermission();
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    void givenSuccessfulProbesShouldClose() {
+        CircuitBreaker circuitBreaker = circuitBreaker(smallWindow().build());
+        for (int i = 0; i < 4; i++) {
+            record(circuitBreaker, false, FAST);
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        record(circuitBreaker, true, FAST);
+        record(circuitBreaker, true, FAST);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(transitions).containsExactly("features:CLOSED->OPEN", "features:OPEN->HALF_OPEN",
+            "features:HALF_OPEN->CLOSED");
+    }
+
+    @Test
+    void givenFailedProbesShouldOpenAgain() {
+        CircuitBreaker circuitBreaker = circuitBreaker(smallWindow().build());
+        for (int i = 0; i < 4; i++) {
+            record(circuitBreaker, false, FAST);
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        record(circuitBreaker, true, FAST);
+        record(circuitBreaker, false, FAST);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+        assertThat(transitions).endsWith("features:HALF_OPEN->OPEN");
+    }
+
+    @Test
+    void givenMinimumNumberOfCallsGreaterThanWindowShouldThrow() {
+        CircuitBreakerConfig.Builder builder = CircuitBreakerConfig.builder()
+            .slidingWindowSize(10)
+            .minimumNumberOfCalls(11);
+
+        assertThatExceptionOfType(IllegalStateException.class).isThrownBy(builder::build);
+    }
+
+    @Test
+    void givenThresholdOutOfRangeShouldThrow() {
+        CircuitBreakerConfig.Builder builder = CircuitBreakerConfig.builder();
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> builder.failureRateThreshold(0));
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> builder.failureRateThreshold(101));
+    }
+}
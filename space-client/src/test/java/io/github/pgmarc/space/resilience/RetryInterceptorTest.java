@@ -0,0 +1,204 @@
+package io.github.pgmarc.space.resilience;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+
+import io.github.pgmarc.space.Operation;
+import io.github.pgmarc.space.RequestTag;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+class RetryInterceptorTest {
+
+    private static final String USER_ID = "01c36d29-0d6a-4b41-83e9-8c6d9310c508";
+    private static final String PATH = "/contracts/" + USER_ID;
+
+    @RegisterExtension
+    static WireMockExtension wm = WireMockExtension.newInstance()
+        .options(wireMockConfig().dynamicPort())
+        .build();
+
+    private static RetryPolicy fastPolicy() {
+        return RetryPolicy.builder()
+            .maxAttempts(3)
+            .baseDelay(Duration.ofMillis(1))
+            .maxDelay(Duration.ofMillis(5))
+            .build();
+    }
+
+    private static OkHttpClient client(RetryInterceptor interceptor) {
+        return new OkHttpClient.Builder().addInterceptor(interceptor).build();
+    }
+
+    private static Request request(Operation operation) {
+        Request.Builder builder = new Request.Builder().url(wm.url(PATH))
+            .tag(RequestTag.class, RequestTag.of(operation, USER_ID));
+        if (operation == Operation.UPDATE_CONTRACT) {
+            builder.put(RequestBody.create(new byte[0]));
+        }
+        return builder.build();
+    }
+
+    private static void stubFailuresThenOk(int failures, int status) {
+        String state = Scenario.STARTED;
+        for (int i = 0; i < failures; i++) {
+            String next = "attempt-" + (i + 2);
+            wm.stubFor(any(urlPathEqualTo(PATH)).inScenario("retry").whenScenarioStateIs(state)
+                .willReturn(aResponse().withStatus(status)).willSetStateTo(next));
+            state = next;
+        }
+        wm.stubFor(any(urlPathEqualTo(PATH)).inScenario("retry").whenScenarioStateIs(state)
+            .willReturn(ok()));
+    }
+
+    @Test
+    void givenTransientServerErrorShouldRetryReads() throws IOException {
+
+        stubFailuresThenOk(2, 503);
+
+        try (Response response = client(new RetryInterceptor(fastPolicy())).newCall(request(Operation.GET_CONTRACT))
+            .execute()) {
+            assertThat(response.code()).isEqualTo(200);
+        }
+        wm.verify(3, anyRequestedFor(urlPathEqualTo(PATH)));
+    }
+
+    @Test
+    void givenPersistentServerErrorShouldStopAfterMaxAttempts() throws IOException {
+
+        wm.stubFor(any(urlPathEqualTo(PATH)).willReturn(serverError()));
+
+        try (Response response = client(new RetryInterceptor(fastPolicy())).newCall(request(Operation.GET_CONTRACT))
+            .execute()) {
+            assertThat(response.code()).isEqualTo(500);
+        }
+        wm.verify(3, anyRequestedFor(urlPathEqualTo(PATH)));
+    }
+
+    @Test
+    void givenConnectionResetShouldRetryReads() throws IOException {
+
+        wm.stubFor(any(urlPathEqualTo(PATH)).inScenario("reset").whenScenarioStateIs(Scenario.STARTED)
+            .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)).willSetStateTo("recovered"));
+        wm.stubFor(any(urlPathEqualTo(PATH)).inScenario("reset").whenScenarioStateIs("recovered")
+            .willReturn(ok()));
+
+        OkHttpClient client = new OkHttpClient.Builder().retryOnConnectionFailure(false)
+            .addInterceptor(new RetryInterceptor(fastPolicy())).build();
+        try (Response response = client.newCall(request(Operation.GET_CONTRACT)).execute()) {
+            assertThat(response.code()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void givenWriteOperationShouldNotRetry() throws IOException {
+
+        stubFailuresThenOk(1, 503);
+
+        try (Response response = client(new RetryInterceptor(fastPolicy())).newCall(request(Operation.UPDATE_CONTRACT))
+            .execute()) {
+            assertThat(response.code()).isEqualTo(503);
+        }
+        wm.verify(1, anyRequestedFor(urlPathEqualTo(PATH)));
+    }
+
+    @Test
+    void givenClientErrorShouldNotRetry() throws IOException {
+
+        wm.stubFor(any(urlPathEqualTo(PATH)).willReturn(notFound()));
+
+        try (Response response = client(new RetryInterceptor(fastPolicy())).newCall(request(Operation.GET_CONTRACT))
+            .execute()) {
+            assertThat(response.code()).isEqualTo(404);
+        }
+        wm.verify(1, anyRequestedFor(urlPathEqualTo(PATH)));
+    }
+
+    @Test
+    void givenRetryAfterShouldWaitBeforeRetrying() throws IOException {
+
+        wm.stubFor(any(urlPathEqualTo(PATH)).inScenario("throttled").whenScenarioStateIs(Scenario.STARTED)
+            .willReturn(aResponse().withStatus(429).withHeader("Retry-After", "1")).willSetStateTo("allowed"));
+        wm.stubFor(any(urlPathEqualTo(PATH)).inScenario("throttled").whenScenarioStateIs("allowed")
+            .willReturn(ok()));
+
+        long start = System.nanoTime();
+        try (Response response = client(new RetryInterceptor(fastPolicy())).newCall(request(Operation.GET_CONTRACT))
+            .execute()) {
+            assertThat(response.code()).isEqualTo(200);
+        }
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void givenRetryAfterLongerThanMaxShouldReturnResponse() throws IOException {
+
+        wm.stubFor(any(urlPathEqualTo(PATH))
+            .willReturn(aResponse().withStatus(503).withHeader("Retry-After", "120")));
+
+        try (Response response = client(new RetryInterceptor(fastPolicy())).newCall(request(Operation.GET_CONTRACT))
+            .execute()) {
+            assertThat(response.code()).isEqualTo(503);
+        }
+        wm.verify(1, anyRequestedFor(urlPathEqualTo(PATH)));
+    }
+
+    @Test
+    void givenExhaustedBudgetShouldNotRetry() throws IOException {
+
+        wm.stubFor(any(urlPathEqualTo(PATH)).willReturn(serverError()));
+
+        RetryPolicy policy = RetryPolicy.builder()
+            .maxAttempts(5)
+            .baseDelay(Duration.ofMillis(1))
+            .maxDelay(Duration.ofMillis(1))
+            .budget(0, 2)
+            .build();
+        OkHttpClient client = client(new RetryInterceptor(policy));
+
+        for (int i = 0; i < 3; i++) {
+            client.newCall(request(Operation.GET_CONTRACT)).execute().close();
+        }
+        wm.verify(3 + 2, anyRequestedFor(urlPathEqualTo(PATH)));
+    }
+
+    @Test
+    void givenRegularTrafficShouldRefillBudget() {
+
+        TokenBudget budget = new TokenBudget(0.5, 1);
+
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isFalse();
+        budget.onRequest();
+        assertThat(budget.tryAcquire()).isFalse();
+        budget.onRequest();
+        assertThat(budget.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void givenInvalidPolicyShouldThrow() {
+
+        RetryPolicy.Builder builder = RetryPolicy.builder();
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> builder.budget(1.5, 10))
+            .withMessage("budget ratio must be between 0 and 1");
+        assertThatExceptionOfType(IllegalStateException.class)
+            .isThrownBy(() -> builder.baseDelay(Duration.ofSeconds(5)).maxDelay(Duration.ofSeconds(1)).build())
+            .withMessage("base delay must not exceed max delay");
+    }
+}
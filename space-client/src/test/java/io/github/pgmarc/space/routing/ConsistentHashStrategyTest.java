@@ -0,0 +1,159 @@
+package io.github.pgmarc.space.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.pgmarc.space.Operation;
+import io.github.pgmarc.space.RequestTag;
+
+class ConsistentHashStrategyTest {
+
+    private static final int USERS = 20_000;
+
+    private static List<NodeState> nodes(int count) {
+        List<NodeState> nodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            nodes.add(new NodeState(Node.of("space-" + i, 5403)));
+        }
+        return List.copyOf(nodes);
+    }
+
+    private static List<RequestTag> users() {
+        List<RequestTag> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(RequestTag.of(Operation.EVALUATE, UUID.nameUUIDFromBytes(("user-" + i).getBytes()).toString()));
+        }
+        return users;
+    }
+
+    private static Map<RequestTag, Node> assign(LoadBalancingStrategy strategy, List<NodeState> nodes,
+        List<RequestTag> users) {
+        Map<RequestTag, Node> assignment = new HashMap<>();
+        for (RequestTag user : users) {
+            assignment.put(user, strategy.select(nodes, user).getNode());
+        }
+        return assignment;
+    }
+
+    @Test
+    void givenSameUserShouldAlwaysPickSameNode() {
+        List<NodeState> nodes = nodes(5);
+        LoadBalancingStrategy strategy = LoadBalancingStrategy.consistentHash(160);
+        RequestTag user = RequestTag.of(Operation.GET_CONTRACT, "01c36d29-0d6a-4b41-83e9-8c6d9310c508");
+
+        NodeState node = strategy.select(nodes, user);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(strategy.select(nodes, RequestTag.of(Operation.EVALUATE, user.getUserId()))).isSameAs(node);
+        }
+    }
+
+    @Test
+    void givenAlternatingGroupsShouldBuildEachRingOnce() {
+        List<NodeState> readNodes = nodes(5);
+        List<NodeState> writeNodes = List.copyOf(new ArrayList<>(readNodes));
+        ConsistentHashStrategy strategy = new ConsistentHashStrategy(160, 0);
+        RequestTag user = RequestTag.of(Operation.EVALUATE, "01c36d29-0d6a-4b41-83e9-8c6d9310c508");
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(strategy.select(readNodes, user)).isSameAs(strategy.select(writeNodes, user));
+        }
+
+        assertThat(strategy.getRingBuilds()).isEqualTo(2);
+    }
+
+    @Test
+    void givenManyUsersShouldSpreadThemEvenly() {
+        List<NodeState> nodes = nodes(10);
+        Map<Node, Integer> load = new HashMap<>();
+        for (Node node : assign(LoadBalancingStrategy.consistentHash(160), nodes, users()).values()) {
+            load.merge(node, 1, Integer::sum);
+        }
+
+        double mean = (double) USERS / nodes.size();
+        assertThat(load).hasSize(10);
+        assertThat(load.values()).allSatisfy(users -> assertThat(users / mean).isBetween(0.7, 1.3));
+    }
+
+    @Test
+    void givenRemovedNodeShouldOnlyMoveItsUsers() {
+        List<NodeState> nodes = nodes(10);
+        List<RequestTag> users = users();
+        LoadBalancingStrategy strategy = LoadBalancingStrategy.consistentHash(160);
+        Map<RequestTag, Node> before = assign(strategy, nodes, users);
+        Node removed = nodes.get(3).getNode();
+        List<NodeState> remaining = new ArrayList<>(nodes);
+        remaining.remove(3);
+
+        Map<RequestTag, Node> after = assign(strategy, List.copyOf(remaining), users);
+
+        int moved = 0;
+        for (RequestTag user : users) {
+            if (!before.get(user).equals(after.get(user))) {
+                assertThat(before.get(user)).isEqualTo(removed);
+                moved++;
+            }
+        }
+        assertThat((double) moved / USERS).isBetween(0.05, 0.15);
+    }
+
+    @Test
+    void givenAddedNodeShouldOnlyMoveUsersToIt() {
+        List<NodeState> nodes = nodes(10);
+        List<RequestTag> users = users();
+        LoadBalancingStrategy strategy = LoadBalancingStrategy.consistentHash(160);
+        Map<RequestTag, Node> before = assign(strategy, nodes.subList(0, 9), users);
+
+        Map<RequestTag, Node> after = assign(strategy, nodes, users);
+
+        for (RequestTag user : users) {
+            if (!before.get(user).equals(after.get(user))) {
+                assertThat(after.get(user)).isEqualTo(nodes.get(9).getNode());
+            }
+        }
+    }
+
+    @Test
+    void givenOverloadedNodeBoundedLoadShouldPickNextNode() {
+        List<NodeState> nodes = nodes(4);
+        RequestTag hotUser = RequestTag.of(Operation.EVALUATE, "hot-user");
+        NodeState home = LoadBalancingStrategy.consistentHash(160).select(nodes, hotUser);
+        LoadBalancingStrategy bounded = LoadBalancingStrategy.consistentHash(160, 1.25);
+
+        assertThat(bounded.select(nodes, hotUser)).isSameAs(home);
+        for (int i = 0; i < 10; i++) {
+            home.acquire();
+        }
+
+        assertThat(bounded.select(nodes, hotUser)).isNotSameAs(home);
+    }
+
+    @Test
+    void givenBoundedLoadShouldKeepEveryNodeUnderCapacity() {
+        List<NodeState> nodes = nodes(4);
+        LoadBalancingStrategy bounded = LoadBalancingStrategy.consistentHash(160, 1.25);
+        RequestTag hotUser = RequestTag.of(Operation.EVALUATE, "hot-user");
+
+        for (int i = 0; i < 100; i++) {
+            bounded.select(nodes, hotUser).acquire();
+        }
+
+        assertThat(nodes).allSatisfy(node -> assertThat(node.getOutstandingRequests()).isLessThanOrEqualTo(32));
+    }
+
+    @Test
+    void givenInvalidSettingsShouldThrow() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> LoadBalancingStrategy.consistentHash(0));
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> LoadBalancingStrategy.consistentHash(160, 1));
+    }
+}
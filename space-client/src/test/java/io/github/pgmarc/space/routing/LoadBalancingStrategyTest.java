@@ -0,0 +1,81 @@
+package io.github.pgmarc.space.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.pgmarc.space.Operation;
+import io.github.pgmarc.space.RequestTag;
+
+class LoadBalancingStrategyTest {
+
+    private static final RequestTag TAG = RequestTag.of(Operation.EVALUATE, "user");
+
+    private static List<NodeState> nodes(int... outstanding) {
+        NodeState[] states = new NodeState[outstanding.length];
+        for (int i = 0; i < outstanding.length; i++) {
+            states[i] = new NodeState(Node.of("node" + i, 5403));
+            for (int j = 0; j < outstanding[i]; j++) {
+                states[i].acquire();
+            }
+        }
+        return List.of(states);
+    }
+
+    @Test
+    void givenRoundRobinShouldCycleThroughNodes() {
+        List<NodeState> nodes = nodes(0, 0, 0);
+        LoadBalancingStrategy strategy = LoadBalancingStrategy.roundRobin();
+
+        assertThat(strategy.select(nodes, TAG)).isSameAs(nodes.get(0));
+        assertThat(strategy.select(nodes, TAG)).isSameAs(nodes.get(1));
+        assertThat(strategy.select(nodes, TAG)).isSameAs(nodes.get(2));
+        assertThat(strategy.select(nodes, TAG)).isSameAs(nodes.get(0));
+    }
+
+    @Test
+    void givenLeastOutstandingShouldPickLeastLoadedNode() {
+        List<NodeState> nodes = nodes(4, 1, 3, 2);
+        LoadBalancingStrategy strategy = LoadBalancingStrategy.leastOutstanding();
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(strategy.select(nodes, TAG)).isSameAs(nodes.get(1));
+        }
+    }
+
+    @Test
+    void givenPowerOfTwoChoicesShouldNeverPickMostLoadedNode() {
+        List<NodeState> nodes = nodes(0, 5, 9);
+        LoadBalancingStrategy strategy = LoadBalancingStrategy.powerOfTwoChoices();
+
+        for (int i = 0; i < 200; i++) {
+            assertThat(strategy.select(nodes, TAG)).isNotSameAs(nodes.get(2));
+        }
+    }
+
+    @Test
+    void givenEvenlyLoadedNodesPowerOfTwoChoicesShouldSpreadRequests() {
+        List<NodeState> nodes = nodes(0, 0, 0, 0);
+        LoadBalancingStrategy strategy = LoadBalancingStrategy.powerOfTwoChoices();
+        Map<NodeState, Integer> picks = new HashMap<>();
+
+        for (int i = 0; i < 4000; i++) {
+            picks.merge(strategy.select(nodes, TAG), 1, Integer::sum);
+        }
+
+        assertThat(picks).hasSize(4);
+        assertThat(picks.values()).allSatisfy(count -> assertThat(count).isBetween(700, 1300));
+    }
+
+    @Test
+    void givenSingleNodeShouldAlwaysPickIt() {
+        List<NodeState> nodes = nodes(3);
+
+        assertThat(LoadBalancingStrategy.powerOfTwoChoices().select(nodes, TAG)).isSameAs(nodes.get(0));
+        assertThat(LoadBalancingStrategy.leastOutstanding().select(nodes, TAG)).isSameAs(nodes.get(0));
+    }
+}
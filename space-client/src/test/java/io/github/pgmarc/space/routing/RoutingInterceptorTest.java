@@ -0,0 +1,259 @@
+package io.github.pgmarc.space.routing;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.assertj.core.util.introspection.PropertyOrFieldSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+
+import io.github.pgmarc.space.ConnectionProfile;
+import io.github.pgmarc.space.SpaceClient;
+import io.github.pgmarc.space.features.Revert;
+import okhttp3.OkHttpClient;
+
+class RoutingInterceptorTest {
+
+    private static final String USER_ID = "e8e053c5-fd2b-4e4c-85a0-f1a52f0da72e";
+    private static final String EVALUATION_PATH = "/api/v1/features/" + USER_ID + "/petclinic-featureA";
+
+    @RegisterExtension
+    static WireMockExtension first = WireMockExtension.newInstance()
+        .options(wireMockConfig().dynamicPort())
+        .build();
+
+    @RegisterExtension
+    static WireMockExtension second = WireMockExtension.newInstance()
+        .options(wireMockConfig().dynamicPort())
+        .build();
+
+    @BeforeEach
+    void setup() {
+        for (WireMockExtension node : new WireMockExtension[] {first, second}) {
+            node.stubFor(post(urlPathEqualTo(EVALUATION_PATH)).willReturn(ok()
+                .withHeader("Content-Type", "application/json")
+                .withBodyFile("boolean-feature-evaluation.json")));
+            node.stubFor(post(urlPathEqualTo(EVALUATION_PATH)).withQueryParam("revert", equalTo("true"))
+                .willReturn(noContent()));
+            node.stubFor(head(anyUrl()).willReturn(ok()));
+        }
+    }
+
+    private static int unusedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static RoutingInterceptor routing(SpaceClient client) {
+        OkHttpClient httpClient = (OkHttpClient) PropertyOrFieldSupport.EXTRACTION.getValueOf("calls.client", client);
+        return httpClient.interceptors().stream()
+            .filter(RoutingInterceptor.class::isInstance)
+            .map(RoutingInterceptor.class::cast)
+            .findFirst()
+            .orElseThrow();
+    }
+
+    @Test
+    void givenSeveralNodesShouldSpreadCallsAcrossThem() throws IOException {
+        RoutingPolicy policy = RoutingPolicy.builder()
+            .addNode("localhost", first.getPort())
+            .addNode("localhost", second.getPort())
+            .strategy(LoadBalancingStrategy.roundRobin())
+            .build();
+        SpaceClient client = SpaceClient.builder("localhost", "prueba").withRouting(policy).build();
+
+        for (int i = 0; i < 4; i++) {
+            client.features().evaluate(USER_ID, "Petclinic", "featureA");
+        }
+
+        first.verify(2, postRequestedFor(urlPathEqualTo(EVALUATION_PATH)));
+        second.verify(2, postRequestedFor(urlPathEqualTo(EVALUATION_PATH)));
+    }
+
+    @Test
+    void givenReadAndWriteNodesShouldRouteByOperation() throws IOException {
+        RoutingPolicy policy = RoutingPolicy.builder()
+            .addReadNode("localhost", first.getPort())
+            .addWriteNode("localhost", second.getPort())
+            .build();
+        SpaceClient client = SpaceClient.builder("localhost", "prueba").withRouting(policy).build();
+
+        client.features().evaluate(USER_ID, "Petclinic", "featureA");
+        client.features().revert(USER_ID, "Petclinic", "featureA", Revert.NEWEST_VALUE);
+
+        first.verify(1, postRequestedFor(urlPathEqualTo(EVALUATION_PATH)).withoutQueryParam("revert"));
+        first.verify(0, postRequestedFor(urlPathEqualTo(EVALUATION_PATH)).withQueryParam("revert", equalTo("true")));
+        second.verify(1, postRequestedFor(urlPathEqualTo(EVALUATION_PATH)).withQueryParam("revert", equalTo("true")));
+        second.verify(0, postRequestedFor(urlPathEqualTo(EVALUATION_PATH)).withoutQueryParam("revert"));
+    }
+
+    @Test
+    void givenUnreachableNodeShouldTakeItOutOfRotation() throws IOException {
+        RoutingPolicy policy = RoutingPolicy.builder()
+            .addNode("localhost", unusedPort())
+            .addNode("localhost", first.getPort())
+            .strategy(LoadBalancingStrategy.roundRobin())
+            .healthCheckInterval(Duration.ofHours(1))
+            .build();
+        SpaceClient client = SpaceClient.builder("localhost", "prueba").withRouting(policy).build();
+
+        assertThatExceptionOfType(IOException.class)
+            .isThrownBy(() -> client.features().evaluate(USER_ID, "Petclinic", "featureA"));
+        for (int i = 0; i < 3; i++) {
+            client.features().evaluate(USER_ID, "Petclinic", "featureA");
+        }
+
+        first.verify(3, postRequestedFor(urlPathEqualTo(EVALUATION_PATH)));
+    }
+
+    @Test
+    void givenFailingHealthProbeShouldTakeNodeOutOfRotation() throws Exception {
+        second.stubFor(head(anyUrl()).willReturn(serviceUnavailable()));
+        RoutingPolicy policy = RoutingPolicy.builder()
+            .addNode("localhost", first.getPort())
+            .addNode("localhost", second.getPort())
+            .strategy(LoadBalancingStrategy.roundRobin())
+            .healthCheckInterval(Duration.ofMillis(20))
+            .build();
+        SpaceClient client = SpaceClient.builder("localhost", "prueba").withRouting(policy).build();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (second.findAll(headRequestedFor(anyUrl())).isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+        for (int i = 0; i < 4; i++) {
+            client.features().evaluate(USER_ID, "Petclinic", "featureA");
+        }
+
+        first.verify(4, postRequestedFor(urlPathEqualTo(EVALUATION_PATH)));
+        second.verify(0, postRequestedFor(urlPathEqualTo(EVALUATION_PATH)));
+    }
+
+    @Test
+    void givenConcurrentHealthFlipsShouldEndWithEveryRecoveredNodeInRotation() throws Exception {
+        AtomicReference<List<NodeState>> lastCandidates = new AtomicReference<>();
+        RoutingPolicy policy = RoutingPolicy.builder()
+            .addNode("localhost", first.getPort())
+            .addNode("127.0.0.1", first.getPort())
+            .addNode("localhost", second.getPort())
+            .addNode("127.0.0.1", second.getPort())
+            .strategy((candidates, tag) -> {
+                lastCandidates.set(candidates);
+                return candidates.get(0);
+            })
+            .healthCheckInterval(Duration.ofHours(1))
+            .build();
+        SpaceClient client = SpaceClient.builder("localhost", "prueba").withRouting(policy).build();
+        RoutingInterceptor routing = routing(client);
+        List<NodeState> nodes = routing.getNodeStates();
+        ExecutorService flippers = Executors.newFixedThreadPool(nodes.size());
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<?>> flips = new ArrayList<>();
+            for (NodeState node : nodes) {
+                flips.add(flippers.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 10_000; i++) {
+                        routing.updateHealth(node, false);
+                        routing.updateHealth(node, true);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> flip : flips) {
+                flip.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            flippers.shutdownNow();
+        }
+        client.features().evaluate(USER_ID, "Petclinic", "featureA");
+
+        assertThat(lastCandidates.get()).containsExactlyInAnyOrderElementsOf(nodes);
+    }
+
+    @Test
+    void givenTimedOutCallShouldKeepNodeInRotation() throws IOException {
+        first.stubFor(post(urlPathEqualTo(EVALUATION_PATH)).willReturn(ok()
+            .withHeader("Content-Type", "application/json")
+            .withBodyFile("boolean-feature-evaluation.json")
+            .withFixedDelay(500)));
+        RoutingPolicy policy = RoutingPolicy.builder()
+            .addNode("localhost", first.getPort())
+            .healthCheckInterval(Duration.ofHours(1))
+            .build();
+        SpaceClient client = SpaceClient.builder("localhost", "prueba")
+            .withRouting(policy)
+            .withReadTimeout(Duration.ofMillis(100))
+            .build();
+
+        assertThatExceptionOfType(SocketTimeoutException.class)
+            .isThrownBy(() -> client.features().evaluate(USER_ID, "Petclinic", "featureA"));
+
+        assertThat(routing(client).getNodeStates()).allMatch(NodeState::isHealthy);
+    }
+
+    @Test
+    void givenPreWarmedConnectionsShouldOpenThemToEveryNode() {
+        RoutingPolicy policy = RoutingPolicy.builder()
+            .addNode("localhost", first.getPort())
+            .addNode("localhost", second.getPort())
+            .healthCheckPath("health")
+            .build();
+        ConnectionProfile profile = ConnectionProfile.builder()
+            .maxIdleConnections(4)
+            .preWarmConnections(2)
+            .build();
+
+        SpaceClient.builder("localhost", "prueba")
+            .withRouting(policy)
+            .withConnectionProfile(profile)
+            .build();
+
+        first.verify(2, headRequestedFor(urlPathEqualTo("/api/v1")));
+        second.verify(2, headRequestedFor(urlPathEqualTo("/api/v1")));
+    }
+
+    @Test
+    void givenMorePreWarmedConnectionsThanIdleOnesAcrossNodesShouldThrow() {
+        RoutingPolicy policy = RoutingPolicy.builder()
+            .addNode("localhost", first.getPort())
+            .addNode("localhost", second.getPort())
+            .build();
+        SpaceClient.Builder builder = SpaceClient.builder("localhost", "prueba")
+            .withRouting(policy)
+            .withConnectionProfile(ConnectionProfile.builder().maxIdleConnections(4).preWarmConnections(3).build());
+
+        assertThatExceptionOfType(IllegalStateException.class)
+            .isThrownBy(builder::build)
+            .withMessage("pre-warmed connections to 2 nodes (6) must not exceed max idle connections (4)");
+    }
+
+    @Test
+    void givenNoWriteNodeShouldThrow() {
+        RoutingPolicy.Builder builder = RoutingPolicy.builder().addReadNode("localhost", 5403);
+
+        assertThatExceptionOfType(IllegalStateException.class).isThrownBy(builder::build);
+    }
+}
@@ -3,9 +3,13 @@ package io.github.pgmarc.space.serializers;
 import io.github.pgmarc.space.contracts.Subscription;
 import io.github.pgmarc.space.contracts.SubscriptionRequest;
 import io.github.pgmarc.space.contracts.UserContact;
+import io.github.pgmarc.space.json.JsonWriter;
+import okio.Buffer;
 import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class SubscriptionRequestSerializerTest {
@@ -63,4 +67,29 @@ class SubscriptionRequestSerializerTest {
         assertThat(subscriptionAddOns.getJSONObject(petclinic).keySet()).contains(petsAdoptionCentre);
     }
 
+    @Test
+    void givenSubscriptionRequestStreamingShouldMatchTreeSerialization() throws IOException {
+
+        UserContact userContact = UserContact
+            .builder("01c36d29-0d6a-4b41-83e9-8c6d9310c508", "johndoe")
+            .lastName("Doe \"Jr\"")
+            .email("john.doe@my-domain.com")
+            .build();
+        SubscriptionRequest subReq = SubscriptionRequest.builder(userContact)
+            .startService("zoom", "2025")
+                .addOn("extraSeats", 2)
+            .endService()
+            .startService("petclinic", "2024")
+                .plan("GOLD")
+            .endService()
+            .build();
+
+        SubscriptionRequestSerializer serializer = new SubscriptionRequestSerializer();
+        Buffer sink = new Buffer();
+        serializer.writeJson(JsonWriter.of(sink), subReq);
+
+        JSONObject actual = new JSONObject(sink.readUtf8());
+        assertThat(actual.similar(serializer.toJson(subReq))).isTrue();
+        assertThat(actual.getJSONObject("userContact").has("phone")).isFalse();
+    }
 }
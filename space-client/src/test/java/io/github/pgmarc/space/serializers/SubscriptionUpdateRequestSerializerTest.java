@@ -0,0 +1,37 @@
+package io.github.pgmarc.space.serializers;
+
+import io.github.pgmarc.space.contracts.SubscriptionUpdateRequest;
+import io.github.pgmarc.space.json.JsonWriter;
+import okio.Buffer;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubscriptionUpdateRequestSerializerTest {
+
+    private final SubscriptionUpdateRequestSerializer serializer = new SubscriptionUpdateRequestSerializer();
+
+    @Test
+    void givenSubscriptionUpdateRequestStreamingShouldMatchTreeSerialization() throws IOException {
+
+        SubscriptionUpdateRequest request = SubscriptionUpdateRequest.builder()
+            .startService("petclinic", "2024")
+                .plan("PLATINUM")
+                .addOn("petLover", 1)
+            .endService()
+            .startService("zoom", "2025")
+                .addOn("extraSeats", 2)
+            .endService()
+            .build();
+
+        Buffer sink = new Buffer();
+        serializer.writeJson(JsonWriter.of(sink), request);
+
+        JSONObject actual = new JSONObject(sink.readUtf8());
+        assertThat(actual.similar(serializer.toJson(request))).isTrue();
+        assertThat(actual.getJSONObject("subscriptionPlans").has("zoom")).isFalse();
+    }
+}
@@ -1,9 +1,13 @@
 package io.github.pgmarc.space.serializers;
 
 import io.github.pgmarc.space.features.UsageLimitConsumption;
+import io.github.pgmarc.space.json.JsonWriter;
+import okio.Buffer;
 import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+
 import static org.assertj.core.api.Assertions.*;
 
 class UsageLimitConsumptionSerializerTest {
@@ -41,4 +45,32 @@ class UsageLimitConsumptionSerializerTest {
         assertThat(consumptionPayload.getDouble(doubleUsageLimit)).isEqualTo(consumedSeconds);
     }
 
+    @Test
+    void givenConsumptionStreamingShouldMatchTreeSerialization() throws IOException {
+
+        UsageLimitConsumption usageLimitConsumption = UsageLimitConsumption.builder("Petclinic")
+            .addInt("maxPets", 1)
+            .addLong("fooLimit", (long) Integer.MAX_VALUE + 1)
+            .addDouble("maxSeconds", 2.0)
+            .addFloat("barLimit", 0.1f)
+            .build();
+
+        Buffer sink = new Buffer();
+        serializer.writeJson(JsonWriter.of(sink), usageLimitConsumption);
+
+        assertThat(new JSONObject(sink.readUtf8()).similar(serializer.toJson(usageLimitConsumption))).isTrue();
+    }
+
+    @Test
+    void givenSingleConsumptionStreamingShouldWriteSameBytes() throws IOException {
+
+        UsageLimitConsumption usageLimitConsumption = UsageLimitConsumption.builder("Petclinic")
+            .addDouble("maxSeconds", 1.50)
+            .build();
+
+        Buffer sink = new Buffer();
+        serializer.writeJson(JsonWriter.of(sink), usageLimitConsumption);
+
+        assertThat(sink.readUtf8()).isEqualTo(serializer.toJson(usageLimitConsumption).toString());
+    }
 }